@@ -0,0 +1,83 @@
+/*
+ * AISMessages
+ * - a java-based library for decoding of AIS messages from digital VHF radio traffic related
+ * to maritime navigation and safety in compliance with ITU 1371.
+ *
+ * (C) Copyright 2011- by S-Consult ApS, DK31327490, http://s-consult.dk, Denmark.
+ *
+ * Released under the Creative Commons Attribution-NonCommercial-ShareAlike 3.0 Unported License.
+ * For details of this license see the nearby LICENCE-full file, visit http://creativecommons.org/licenses/by-nc-sa/3.0/
+ * or send a letter to Creative Commons, 171 Second Street, Suite 300, San Francisco, California, 94105, USA.
+ *
+ * NOT FOR COMMERCIAL USE!
+ * Contact sales@s-consult.dk to obtain a commercially licensed version of this software.
+ *
+ */
+
+package dk.tbsalling.aismessages.benchmarks;
+
+import dk.tbsalling.aismessages.ais.messages.AISMessage;
+import dk.tbsalling.aismessages.nmea.DecodeResult;
+import dk.tbsalling.aismessages.nmea.DecodeStatus;
+import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creation of AIS messages of each type from pre-parsed NMEA messages. Fields are decoded lazily, so this
+ * measures the payload and type dispatch; see GetterBenchmark for the cost of the fields.
+ *
+ * @author tbsalling
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AISMessageCreateBenchmark {
+
+    @Param({
+        "PositionReportClassAScheduled",
+        "PositionReportClassAAssignedSchedule",
+        "PositionReportClassAResponseToInterrogation",
+        "BaseStationReport",
+        "ShipAndVoyageRelatedData",
+        "BinaryBroadcastMessage",
+        "Interrogation",
+        "StandardClassBCSPositionReport",
+        "DataLinkManagement",
+        "ClassBCSStaticDataReport"
+    })
+    public String messageType;
+
+    private NMEAMessage[] nmeaMessages;
+    private final DecodeResult result = new DecodeResult();
+
+    @Setup
+    public void setUp() {
+        nmeaMessages = Corpus.parse(Corpus.BY_TYPE.get(messageType));
+    }
+
+    @Benchmark
+    public AISMessage create() throws Exception {
+        return AISMessage.create(nmeaMessages);
+    }
+
+    @Benchmark
+    public DecodeStatus tryCreate() {
+        return AISMessage.tryCreate(result, nmeaMessages);
+    }
+
+}
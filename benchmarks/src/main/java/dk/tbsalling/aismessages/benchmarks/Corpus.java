@@ -0,0 +1,144 @@
+/*
+ * AISMessages
+ * - a java-based library for decoding of AIS messages from digital VHF radio traffic related
+ * to maritime navigation and safety in compliance with ITU 1371.
+ *
+ * (C) Copyright 2011- by S-Consult ApS, DK31327490, http://s-consult.dk, Denmark.
+ *
+ * Released under the Creative Commons Attribution-NonCommercial-ShareAlike 3.0 Unported License.
+ * For details of this license see the nearby LICENCE-full file, visit http://creativecommons.org/licenses/by-nc-sa/3.0/
+ * or send a letter to Creative Commons, 171 Second Street, Suite 300, San Francisco, California, 94105, USA.
+ *
+ * NOT FOR COMMERCIAL USE!
+ * Contact sales@s-consult.dk to obtain a commercially licensed version of this software.
+ *
+ */
+
+package dk.tbsalling.aismessages.benchmarks;
+
+import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Sentences used by the benchmarks: one message of each of the common message types, and a mixed
+ * traffic corpus drawn from them in proportions resembling a terrestrial AIS feed.
+ *
+ * @author tbsalling
+ */
+public final class Corpus {
+
+    /** The sentences of one message of each type, by the name of the AISMessageType. */
+    public static final Map<String, String[]> BY_TYPE;
+
+    /** Relative frequency of each message type in the mixed traffic corpus; in percent. */
+    private static final Map<String, Integer> WEIGHTS;
+
+    static {
+        Map<String, String[]> byType = new LinkedHashMap<>();
+        byType.put("PositionReportClassAScheduled", new String[] { "!AIVDM,1,1,,B,15MqdBP000G@qoLEi69PVGaN0D0=,0*3A" });
+        byType.put("PositionReportClassAAssignedSchedule", new String[] { "!AIVDM,1,1,,A,24RjBV0028o:pnNEBeU<pJF>0PT@,0*3E" });
+        byType.put("PositionReportClassAResponseToInterrogation", new String[] { "!AIVDM,1,1,,A,34RjBV0028o:pnNEBeU<pJF>0PT@,0*3F" });
+        byType.put("BaseStationReport", new String[] { "!AIVDM,1,1,,B,4h3Ovk1udp6I9o>jPHEdjdW000S:,0*0C" });
+        byType.put("ShipAndVoyageRelatedData", new String[] {
+                "!AIVDM,2,1,3,A,55MuUD02;EFUL@CO;W@lU=<U=<U10V1HuT4LE:1DC@T>B4kC0DliSp=t,0*14",
+                "!AIVDM,2,2,3,A,888888888888880,2*27" });
+        byType.put("BinaryBroadcastMessage", new String[] { "!AIVDM,1,1,,B,85MwpKiKf:MPiQa:ofV@v2mQTfB26oEtbEVqh4j1QDQPHjhpkNJ3,0*11" });
+        byType.put("Interrogation", new String[] { "!AIVDM,1,1,,A,?h3Ovk1GOPph000,2*53" });
+        byType.put("StandardClassBCSPositionReport", new String[] { "!AIVDM,1,1,,A,B5NJ;PP005l4ot5Isbl03wsUkP06,0*76" });
+        byType.put("DataLinkManagement", new String[] { "!AIVDM,1,1,,A,Dh3Ovk1UAN>4,0*0A" });
+        byType.put("ClassBCSStaticDataReport", new String[] { "!AIVDM,1,1,,A,H5NLOjTUG5CD=1BG46mqhj0P7130,0*78" });
+        BY_TYPE = Collections.unmodifiableMap(byType);
+
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        weights.put("PositionReportClassAScheduled", 35);
+        weights.put("PositionReportClassAAssignedSchedule", 3);
+        weights.put("PositionReportClassAResponseToInterrogation", 15);
+        weights.put("BaseStationReport", 5);
+        weights.put("ShipAndVoyageRelatedData", 8);
+        weights.put("BinaryBroadcastMessage", 4);
+        weights.put("Interrogation", 2);
+        weights.put("StandardClassBCSPositionReport", 20);
+        weights.put("DataLinkManagement", 2);
+        weights.put("ClassBCSStaticDataReport", 6);
+        WEIGHTS = Collections.unmodifiableMap(weights);
+    }
+
+    private Corpus() {
+    }
+
+    /**
+     * Draw a mixed traffic corpus. Multi-sentence messages are given sequence numbers 0 to 9 in turn,
+     * with their checksums recomputed, so that consecutive messages can be told apart.
+     *
+     * @param messages The number of messages to draw.
+     * @param seed The seed of the random draw; the same seed gives the same corpus.
+     * @return The sentences of the messages, in order.
+     */
+    public static List<String> mixedTraffic(int messages, long seed) {
+        final List<String> types = new ArrayList<>();
+        for (Map.Entry<String, Integer> weight : WEIGHTS.entrySet()) {
+            for (int i = 0; i < weight.getValue(); i++) {
+                types.add(weight.getKey());
+            }
+        }
+        final Random random = new Random(seed);
+        final List<String> sentences = new ArrayList<>();
+        int sequenceNumber = 0;
+        for (int i = 0; i < messages; i++) {
+            final String[] message = BY_TYPE.get(types.get(random.nextInt(types.size())));
+            if (message.length == 1) {
+                sentences.add(message[0]);
+            } else {
+                for (String sentence : message) {
+                    sentences.add(withSequenceNumber(sentence, sequenceNumber));
+                }
+                sequenceNumber = (sequenceNumber + 1) % 10;
+            }
+        }
+        return sentences;
+    }
+
+    /** Parse sentences, which must be valid. */
+    public static NMEAMessage[] parse(List<String> sentences) {
+        final NMEAMessage[] nmeaMessages = new NMEAMessage[sentences.size()];
+        for (int i = 0; i < nmeaMessages.length; i++) {
+            nmeaMessages[i] = parse(sentences.get(i));
+        }
+        return nmeaMessages;
+    }
+
+    /** Parse the sentences of a message, which must be valid. */
+    public static NMEAMessage[] parse(String... sentences) {
+        final NMEAMessage[] nmeaMessages = new NMEAMessage[sentences.length];
+        for (int i = 0; i < nmeaMessages.length; i++) {
+            nmeaMessages[i] = parse(sentences[i]);
+        }
+        return nmeaMessages;
+    }
+
+    private static NMEAMessage parse(String sentence) {
+        try {
+            return NMEAMessage.fromString(sentence);
+        } catch (Exception e) {
+            throw new IllegalStateException("Invalid sentence in corpus: " + sentence, e);
+        }
+    }
+
+    private static String withSequenceNumber(String sentence, int sequenceNumber) {
+        final String[] fields = sentence.substring(0, sentence.indexOf('*')).split(",", -1);
+        fields[3] = Integer.toString(sequenceNumber);
+        final String body = String.join(",", fields);
+        int checksum = 0;
+        for (int i = 1; i < body.length(); i++) {
+            checksum ^= body.charAt(i);
+        }
+        return String.format("%s*%02X", body, checksum);
+    }
+
+}
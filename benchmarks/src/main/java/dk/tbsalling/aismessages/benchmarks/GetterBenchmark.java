@@ -0,0 +1,140 @@
+/*
+ * AISMessages
+ * - a java-based library for decoding of AIS messages from digital VHF radio traffic related
+ * to maritime navigation and safety in compliance with ITU 1371.
+ *
+ * (C) Copyright 2011- by S-Consult ApS, DK31327490, http://s-consult.dk, Denmark.
+ *
+ * Released under the Creative Commons Attribution-NonCommercial-ShareAlike 3.0 Unported License.
+ * For details of this license see the nearby LICENCE-full file, visit http://creativecommons.org/licenses/by-nc-sa/3.0/
+ * or send a letter to Creative Commons, 171 Second Street, Suite 300, San Francisco, California, 94105, USA.
+ *
+ * NOT FOR COMMERCIAL USE!
+ * Contact sales@s-consult.dk to obtain a commercially licensed version of this software.
+ *
+ */
+
+package dk.tbsalling.aismessages.benchmarks;
+
+import dk.tbsalling.aismessages.ais.messages.AISMessage;
+import dk.tbsalling.aismessages.ais.messages.PositionReport;
+import dk.tbsalling.aismessages.ais.messages.ShipAndVoyageData;
+import dk.tbsalling.aismessages.ais.messages.types.MMSI;
+import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cost of field access. Cold benchmarks create a message and read one field of it, and are to be
+ * compared with the create-only baselines; cached benchmarks read a field of a message which has already
+ * been read once.
+ *
+ * @author tbsalling
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GetterBenchmark {
+
+    private NMEAMessage[] positionReportSentences;
+    private NMEAMessage[] shipAndVoyageDataSentences;
+    private PositionReport positionReport;
+    private ShipAndVoyageData shipAndVoyageData;
+
+    @Setup
+    public void setUp() throws Exception {
+        positionReportSentences = Corpus.parse(Corpus.BY_TYPE.get("PositionReportClassAScheduled"));
+        shipAndVoyageDataSentences = Corpus.parse(Corpus.BY_TYPE.get("ShipAndVoyageRelatedData"));
+        positionReport = (PositionReport) AISMessage.create(positionReportSentences);
+        shipAndVoyageData = (ShipAndVoyageData) AISMessage.create(shipAndVoyageDataSentences);
+        positionReport.getLatitude();
+        positionReport.getSpeedOverGround();
+        positionReport.getSourceMmsi();
+        shipAndVoyageData.getShipName();
+        shipAndVoyageData.getDestination();
+    }
+
+    @Benchmark
+    public AISMessage coldCreatePositionReport() throws Exception {
+        return AISMessage.create(positionReportSentences);
+    }
+
+    @Benchmark
+    public Float coldLatitude() throws Exception {
+        return ((PositionReport) AISMessage.create(positionReportSentences)).getLatitude();
+    }
+
+    @Benchmark
+    public Float coldSpeedOverGround() throws Exception {
+        return ((PositionReport) AISMessage.create(positionReportSentences)).getSpeedOverGround();
+    }
+
+    @Benchmark
+    public MMSI coldSourceMmsi() throws Exception {
+        return AISMessage.create(positionReportSentences).getSourceMmsi();
+    }
+
+    @Benchmark
+    public long coldSourceMmsiAsLong() throws Exception {
+        return AISMessage.create(positionReportSentences).getSourceMmsiAsLong();
+    }
+
+    @Benchmark
+    public AISMessage coldCreateShipAndVoyageData() throws Exception {
+        return AISMessage.create(shipAndVoyageDataSentences);
+    }
+
+    @Benchmark
+    public String coldShipName() throws Exception {
+        return ((ShipAndVoyageData) AISMessage.create(shipAndVoyageDataSentences)).getShipName();
+    }
+
+    @Benchmark
+    public String coldDestination() throws Exception {
+        return ((ShipAndVoyageData) AISMessage.create(shipAndVoyageDataSentences)).getDestination();
+    }
+
+    @Benchmark
+    public Float cachedLatitude() {
+        return positionReport.getLatitude();
+    }
+
+    @Benchmark
+    public Float cachedSpeedOverGround() {
+        return positionReport.getSpeedOverGround();
+    }
+
+    @Benchmark
+    public MMSI cachedSourceMmsi() {
+        return positionReport.getSourceMmsi();
+    }
+
+    @Benchmark
+    public long cachedSourceMmsiAsLong() {
+        return positionReport.getSourceMmsiAsLong();
+    }
+
+    @Benchmark
+    public String cachedShipName() {
+        return shipAndVoyageData.getShipName();
+    }
+
+    @Benchmark
+    public String cachedDestination() {
+        return shipAndVoyageData.getDestination();
+    }
+
+}
@@ -0,0 +1,109 @@
+/*
+ * AISMessages
+ * - a java-based library for decoding of AIS messages from digital VHF radio traffic related
+ * to maritime navigation and safety in compliance with ITU 1371.
+ *
+ * (C) Copyright 2011- by S-Consult ApS, DK31327490, http://s-consult.dk, Denmark.
+ *
+ * Released under the Creative Commons Attribution-NonCommercial-ShareAlike 3.0 Unported License.
+ * For details of this license see the nearby LICENCE-full file, visit http://creativecommons.org/licenses/by-nc-sa/3.0/
+ * or send a letter to Creative Commons, 171 Second Street, Suite 300, San Francisco, California, 94105, USA.
+ *
+ * NOT FOR COMMERCIAL USE!
+ * Contact sales@s-consult.dk to obtain a commercially licensed version of this software.
+ *
+ */
+
+package dk.tbsalling.aismessages.benchmarks;
+
+import dk.tbsalling.aismessages.ais.messages.AISMessage;
+import dk.tbsalling.aismessages.nmea.DecodeResult;
+import dk.tbsalling.aismessages.nmea.DecodeStatus;
+import dk.tbsalling.aismessages.nmea.NMEAMessageDecoder;
+import dk.tbsalling.aismessages.nmea.NMEAMessageHandler;
+import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding of pre-parsed NMEA messages by NMEAMessageHandler: single sentence messages, messages which
+ * must be reassembled from two fragments, and a mixed traffic corpus. The mixed traffic corpus is also
+ * decoded from strings by NMEAMessageDecoder, which includes parsing.
+ *
+ * Each operation passes on one sentence; the received messages are returned, so that they are not
+ * optimised away.
+ *
+ * @author tbsalling
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NMEAMessageHandlerBenchmark {
+
+    private NMEAMessageHandler handler;
+    private NMEAMessageDecoder decoder;
+    private final DecodeResult result = new DecodeResult();
+    private AISMessage received;
+
+    private NMEAMessage positionReport;
+    private NMEAMessage[] shipAndVoyageData;
+    private NMEAMessage[] mixedTraffic;
+    private String[] mixedTrafficSentences;
+    private int next;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        handler = new NMEAMessageHandler("BENCHMARK", m -> received = m);
+        decoder = new NMEAMessageDecoder("BENCHMARK");
+        positionReport = Corpus.parse(Corpus.BY_TYPE.get("PositionReportClassAScheduled"))[0];
+        shipAndVoyageData = Corpus.parse(Corpus.BY_TYPE.get("ShipAndVoyageRelatedData"));
+        final List<String> sentences = Corpus.mixedTraffic(1000, 42L);
+        mixedTraffic = Corpus.parse(sentences);
+        mixedTrafficSentences = sentences.toArray(new String[0]);
+    }
+
+    @Benchmark
+    public AISMessage singleFragment() {
+        handler.accept(positionReport);
+        return received;
+    }
+
+    /** Both fragments of a message per operation. */
+    @Benchmark
+    public AISMessage multiFragment() {
+        handler.accept(shipAndVoyageData[0]);
+        handler.accept(shipAndVoyageData[1]);
+        return received;
+    }
+
+    @Benchmark
+    public AISMessage mixedTraffic() {
+        final NMEAMessage nmeaMessage = mixedTraffic[next];
+        next = next + 1 == mixedTraffic.length ? 0 : next + 1;
+        handler.accept(nmeaMessage);
+        return received;
+    }
+
+    @Benchmark
+    public DecodeStatus decoderMixedTraffic() {
+        final String sentence = mixedTrafficSentences[next];
+        next = next + 1 == mixedTrafficSentences.length ? 0 : next + 1;
+        return decoder.decode(sentence, result);
+    }
+
+}
@@ -0,0 +1,72 @@
+/*
+ * AISMessages
+ * - a java-based library for decoding of AIS messages from digital VHF radio traffic related
+ * to maritime navigation and safety in compliance with ITU 1371.
+ *
+ * (C) Copyright 2011- by S-Consult ApS, DK31327490, http://s-consult.dk, Denmark.
+ *
+ * Released under the Creative Commons Attribution-NonCommercial-ShareAlike 3.0 Unported License.
+ * For details of this license see the nearby LICENCE-full file, visit http://creativecommons.org/licenses/by-nc-sa/3.0/
+ * or send a letter to Creative Commons, 171 Second Street, Suite 300, San Francisco, California, 94105, USA.
+ *
+ * NOT FOR COMMERCIAL USE!
+ * Contact sales@s-consult.dk to obtain a commercially licensed version of this software.
+ *
+ */
+
+package dk.tbsalling.aismessages.benchmarks;
+
+import dk.tbsalling.aismessages.ais.messages.AISMessage;
+import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * toString() of AIS messages, which decodes and formats every field. Cold benchmarks include the creation
+ * of the message; cached benchmarks format a message whose fields have all been decoded before.
+ *
+ * @author tbsalling
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ToStringBenchmark {
+
+    @Param({ "PositionReportClassAScheduled", "ShipAndVoyageRelatedData", "StandardClassBCSPositionReport" })
+    public String messageType;
+
+    private NMEAMessage[] nmeaMessages;
+    private AISMessage aisMessage;
+
+    @Setup
+    public void setUp() throws Exception {
+        nmeaMessages = Corpus.parse(Corpus.BY_TYPE.get(messageType));
+        aisMessage = AISMessage.create(nmeaMessages);
+        aisMessage.toString();
+    }
+
+    @Benchmark
+    public String cold() throws Exception {
+        return AISMessage.create(nmeaMessages).toString();
+    }
+
+    @Benchmark
+    public String cached() {
+        return aisMessage.toString();
+    }
+
+}
@@ -0,0 +1,234 @@
+/*
+ * AISMessages
+ * - a java-based library for decoding of AIS messages from digital VHF radio traffic related
+ * to maritime navigation and safety in compliance with ITU 1371.
+ *
+ * (C) Copyright 2011- by S-Consult ApS, DK31327490, http://s-consult.dk, Denmark.
+ *
+ * Released under the Creative Commons Attribution-NonCommercial-ShareAlike 3.0 Unported License.
+ * For details of this license see the nearby LICENCE-full file, visit http://creativecommons.org/licenses/by-nc-sa/3.0/
+ * or send a letter to Creative Commons, 171 Second Street, Suite 300, San Francisco, California, 94105, USA.
+ *
+ * NOT FOR COMMERCIAL USE!
+ * Contact sales@s-consult.dk to obtain a commercially licensed version of this software.
+ *
+ */
+
+package dk.tbsalling.aismessages.ais;
+
+import dk.tbsalling.aismessages.nmea.DecodeStatus;
+import dk.tbsalling.aismessages.nmea.exceptions.InvalidMessage;
+
+import java.util.Arrays;
+
+/**
+ * A BitBuffer holds the de-armoured payload of an AIS message packed into 64-bit words,
+ * most significant bit first. Bit 0 of the payload is the most significant bit of the first word.
+ *
+ * Reading bits beyond the length of the payload yields zeros, so that truncated messages can
+ * still be decoded as far as they go.
+ *
+ * @author tbsalling
+ */
+public final class BitBuffer {
+
+    /** Six-bit value of each armoured ASCII character; -1 for characters which are not allowed in a payload. */
+    private static final byte[] ARMOUR = new byte[128];
+    static {
+        Arrays.fill(ARMOUR, (byte) -1);
+        for (int c = '0'; c <= 'W'; c++) {
+            ARMOUR[c] = (byte) (c - '0');
+        }
+        for (int c = '`'; c <= 'w'; c++) {
+            ARMOUR[c] = (byte) (c - '0' - 8);
+        }
+    }
+
+    private final long[] words;
+    private final int length;
+
+    private BitBuffer(long[] words, int length) {
+        this.words = words;
+        this.length = length;
+    }
+
+    /**
+     * Unpack the six-bit armoured payload of one or more NMEA sentences into a BitBuffer.
+     *
+     * @param fillBits Number of fill bits at the end of the last payload.
+     * @param armouredPayloads The armoured payloads in order of appearance.
+     * @return A BitBuffer holding the payload bits.
+     * @throws InvalidMessage if a payload holds a character which is not allowed.
+     */
+    public static BitBuffer fromArmouredPayload(int fillBits, CharSequence... armouredPayloads) {
+        final BitBuffer bitBuffer = tryFromArmouredPayload(fillBits, armouredPayloads);
+        if (bitBuffer == null) {
+            throw illegalCharacter(armouredPayloads);
+        }
+        return bitBuffer;
+    }
+
+    /**
+     * Unpack the six-bit armoured payload of one or more NMEA sentences into a BitBuffer, without
+     * throwing an exception for illegal characters.
+     *
+     * @param fillBits Number of fill bits at the end of the last payload.
+     * @param armouredPayloads The armoured payloads in order of appearance.
+     * @return A BitBuffer holding the payload bits; or null if a payload holds a character which is not allowed.
+     */
+    public static BitBuffer tryFromArmouredPayload(int fillBits, CharSequence... armouredPayloads) {
+        int numberOfChars = 0;
+        for (CharSequence armouredPayload : armouredPayloads) {
+            if (armouredPayload != null) {
+                numberOfChars += armouredPayload.length();
+            }
+        }
+
+        final int numberOfBits = numberOfChars * 6;
+        final long[] words = new long[(numberOfBits + 63) >>> 6];
+
+        int bitIndex = 0;
+        for (CharSequence armouredPayload : armouredPayloads) {
+            if (armouredPayload == null) {
+                continue;
+            }
+            final int n = armouredPayload.length();
+            for (int i = 0; i < n; i++) {
+                final char c = armouredPayload.charAt(i);
+                final int sixBits = deArmour(c);
+                if (sixBits < 0) {
+                    return null;
+                }
+                put(words, bitIndex, sixBits);
+                bitIndex += 6;
+            }
+        }
+
+        final int length = Math.max(0, numberOfBits - Math.max(0, fillBits));
+        clearFrom(words, length);
+        return new BitBuffer(words, length);
+    }
+
+    private static InvalidMessage illegalCharacter(CharSequence... armouredPayloads) {
+        for (CharSequence armouredPayload : armouredPayloads) {
+            for (int i = 0; armouredPayload != null && i < armouredPayload.length(); i++) {
+                final char c = armouredPayload.charAt(i);
+                if (deArmour(c) < 0) {
+                    return new InvalidMessage(DecodeStatus.ILLEGAL_CHARACTER, "Illegal character '" + c + "' at position " + i + " of armoured payload " + armouredPayload);
+                }
+            }
+        }
+        return new InvalidMessage(DecodeStatus.ILLEGAL_CHARACTER, "Illegal character in armoured payload");
+    }
+
+    /** @return The number of bits in this buffer. */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Read an unsigned integer value.
+     *
+     * @param offset Index of the first (most significant) bit.
+     * @param length Number of bits to read; at most 32.
+     * @return The unsigned value of the bits.
+     */
+    public int getUnsigned(int offset, int length) {
+        return (int) getUnsignedLong(offset, length);
+    }
+
+    /**
+     * Read an unsigned long value.
+     *
+     * @param offset Index of the first (most significant) bit.
+     * @param length Number of bits to read; at most 64.
+     * @return The unsigned value of the bits.
+     */
+    public long getUnsignedLong(int offset, int length) {
+        if (offset < 0 || length < 0 || length > 64) {
+            throw new IndexOutOfBoundsException("offset: " + offset + ", length: " + length);
+        }
+        if (length == 0) {
+            return 0L;
+        }
+
+        final int wordIndex = offset >>> 6;
+        final int bitIndex = offset & 63;
+        final int available = 64 - bitIndex;
+
+        long value = word(wordIndex) << bitIndex;
+        if (length > available) {
+            value |= word(wordIndex + 1) >>> available;
+        }
+        return value >>> (64 - length);
+    }
+
+    /**
+     * Render the bits as a string of 0's and 1's. Intended for debugging and for fields
+     * which are exposed as raw bit strings.
+     *
+     * @param beginIndex Index of the first bit, inclusive.
+     * @param endIndex Index of the last bit, exclusive. May exceed the length of the buffer.
+     * @return A string of endIndex - beginIndex 0's and 1's.
+     */
+    public String toBitString(int beginIndex, int endIndex) {
+        if (beginIndex < 0 || endIndex < beginIndex) {
+            throw new IndexOutOfBoundsException("beginIndex: " + beginIndex + ", endIndex: " + endIndex);
+        }
+        char[] chars = new char[endIndex - beginIndex];
+        for (int i = beginIndex; i < endIndex; i++) {
+            chars[i - beginIndex] = ((word(i >>> 6) << (i & 63)) < 0) ? '1' : '0';
+        }
+        return new String(chars);
+    }
+
+    /** @return The complete buffer rendered as a string of 0's and 1's. */
+    public String toBitString() {
+        return toBitString(0, length);
+    }
+
+    @Override
+    public String toString() {
+        return "BitBuffer{" +
+                "length=" + length +
+                ", bits=" + toBitString() +
+                '}';
+    }
+
+    private long word(int wordIndex) {
+        return wordIndex < words.length ? words[wordIndex] : 0L;
+    }
+
+    private static void put(long[] words, int bitIndex, int sixBits) {
+        final int wordIndex = bitIndex >>> 6;
+        final int shift = 58 - (bitIndex & 63);
+        if (shift >= 0) {
+            words[wordIndex] |= ((long) sixBits) << shift;
+        } else {
+            words[wordIndex] |= ((long) sixBits) >>> -shift;
+            words[wordIndex + 1] |= ((long) sixBits) << (64 + shift);
+        }
+    }
+
+    private static void clearFrom(long[] words, int bitIndex) {
+        int wordIndex = bitIndex >>> 6;
+        if (wordIndex < words.length && (bitIndex & 63) != 0) {
+            words[wordIndex] &= -1L << (64 - (bitIndex & 63));
+            wordIndex++;
+        }
+        for (int i = wordIndex; i < words.length; i++) {
+            words[i] = 0L;
+        }
+    }
+
+    /**
+     * Convert an armoured payload character to its six-bit value.
+     *
+     * @param c An armoured character in the range '0'..'W' or '`'..'w'.
+     * @return The six-bit value of c, or -1 if c is not a legal payload character.
+     */
+    public static int deArmour(char c) {
+        return c < 128 ? ARMOUR[c] : -1;
+    }
+
+}
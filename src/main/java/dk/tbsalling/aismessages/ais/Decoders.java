@@ -16,27 +16,175 @@
 
 package dk.tbsalling.aismessages.ais;
 
-import java.util.Map;
-import java.util.TreeMap;
+import java.io.IOException;
 import java.util.function.Function;
 
 public class Decoders {
 
+    /**
+     * Decode an unsigned integer directly from payload bits.
+     *
+     * @param bits The payload.
+     * @param offset Index of the first bit.
+     * @param length Number of bits; at most 32.
+     * @return The decoded value.
+     */
+    public static int decodeUnsignedInt(BitBuffer bits, int offset, int length) {
+        return bits.getUnsigned(offset, length);
+    }
+
+    /**
+     * Decode an unsigned long directly from payload bits.
+     *
+     * @param bits The payload.
+     * @param offset Index of the first bit.
+     * @param length Number of bits; at most 64.
+     * @return The decoded value.
+     */
+    public static long decodeUnsignedLong(BitBuffer bits, int offset, int length) {
+        return bits.getUnsignedLong(offset, length);
+    }
+
+    /**
+     * Decode a signed integer directly from payload bits, with the same result as INTEGER_DECODER:
+     * negative values are the negated inverted value bits, i.e. one more than in two's complement.
+     *
+     * @param bits The payload.
+     * @param offset Index of the first bit (the sign bit).
+     * @param length Number of bits; at most 32.
+     * @return The decoded value.
+     */
+    public static int decodeSignedInt(BitBuffer bits, int offset, int length) {
+        if (length == 0) {
+            return 0;
+        }
+        final int shift = 32 - length;
+        final int twosComplement = (bits.getUnsigned(offset, length) << shift) >> shift;
+        return twosComplement < 0 ? twosComplement + 1 : twosComplement;
+    }
+
+    /**
+     * Decode a single bit as a boolean.
+     *
+     * @param bits The payload.
+     * @param offset Index of the bit.
+     * @return true if the bit is set.
+     */
+    public static boolean decodeBoolean(BitBuffer bits, int offset) {
+        return bits.getUnsigned(offset, 1) != 0;
+    }
+
+    /**
+     * Decode an unsigned fixed-point value, e.g. speed over ground in 1/10 knots.
+     *
+     * @param bits The payload.
+     * @param offset Index of the first bit.
+     * @param length Number of bits; at most 32.
+     * @param divisor The number of units per whole.
+     * @return The decoded value divided by divisor.
+     */
+    public static float decodeUnsignedFixedPoint(BitBuffer bits, int offset, int length, float divisor) {
+        return bits.getUnsigned(offset, length) / divisor;
+    }
+
+    /**
+     * Decode a signed fixed-point value, e.g. longitude in 1/10000 minutes; see decodeSignedInt.
+     *
+     * @param bits The payload.
+     * @param offset Index of the first bit (the sign bit).
+     * @param length Number of bits; at most 32.
+     * @param divisor The number of units per whole.
+     * @return The decoded value divided by divisor.
+     */
+    public static float decodeSignedFixedPoint(BitBuffer bits, int offset, int length, float divisor) {
+        return decodeSignedInt(bits, offset, length) / divisor;
+    }
+
+    /**
+     * Decode six-bit text directly from payload bits into a caller supplied, reusable buffer.
+     * '@' padding is turned into spaces, and leading and trailing spaces are trimmed.
+     *
+     * @param bits The payload.
+     * @param offset Index of the first bit of the text.
+     * @param numberOfChars Number of six-bit characters in the text field.
+     * @param target Buffer to receive the text; must hold at least numberOfChars characters.
+     * @return The number of characters written to target.
+     */
+    public static int decodeText(BitBuffer bits, int offset, int numberOfChars, char[] target) {
+        final int begin = textBegin(bits, offset, numberOfChars);
+        final int end = textEnd(bits, offset, begin, numberOfChars);
+        for (int i = begin; i < end; i++) {
+            target[i - begin] = toChar(bits.getUnsigned(offset + 6 * i, 6));
+        }
+        return end - begin;
+    }
+
+    /**
+     * Decode six-bit text directly from payload bits into a String.
+     *
+     * @see #decodeText(BitBuffer, int, int, char[])
+     */
+    public static String decodeText(BitBuffer bits, int offset, int numberOfChars) {
+        final char[] chars = new char[numberOfChars];
+        final int length = decodeText(bits, offset, numberOfChars, chars);
+        return new String(chars, 0, length);
+    }
+
+    /**
+     * Decode six-bit text directly from payload bits and append it to out, without creating
+     * any intermediate String.
+     *
+     * @see #decodeText(BitBuffer, int, int, char[])
+     */
+    public static void appendText(BitBuffer bits, int offset, int numberOfChars, Appendable out) throws IOException {
+        final int begin = textBegin(bits, offset, numberOfChars);
+        final int end = textEnd(bits, offset, begin, numberOfChars);
+        for (int i = begin; i < end; i++) {
+            out.append(toChar(bits.getUnsigned(offset + 6 * i, 6)));
+        }
+    }
+
+    /** @return Index of the first character of the text which is not trimmed away. */
+    private static int textBegin(BitBuffer bits, int offset, int numberOfChars) {
+        int begin = 0;
+        if (STRIP_ALPHA_SIGNS) {
+            while (begin < numberOfChars && toChar(bits.getUnsigned(offset + 6 * begin, 6)) == ' ') {
+                begin++;
+            }
+        }
+        return begin;
+    }
+
+    /** @return Index after the last character of the text which is not trimmed away. */
+    private static int textEnd(BitBuffer bits, int offset, int begin, int numberOfChars) {
+        int end = numberOfChars;
+        if (STRIP_ALPHA_SIGNS) {
+            while (end > begin && toChar(bits.getUnsigned(offset + 6 * (end - 1), 6)) == ' ') {
+                end--;
+            }
+        }
+        return end;
+    }
+
+    /** @return The ASCII character of a six-bit value, with '@' turned into space if alpha signs are stripped. */
+    private static char toChar(int sixBits) {
+        return STRIP_ALPHA_SIGNS && sixBits == 0 ? ' ' : SIX_BIT_ASCII[sixBits];
+    }
+
+    /**
+     * Decode a signed integer. Negative values are decoded from the inverted value bits, as
+     * earlier versions of this decoder did; decodeSignedInt decodes payload bits the same way.
+     */
     public static final Function<String, Integer> INTEGER_DECODER = new Function<String, Integer>() {
         @Override
         public Integer apply(String bitString) {
-            Integer value;
-            String signBit = bitString.substring(0, 1);
-            String valueBits = bitString.substring(1);
-            if ("0".equals(signBit))
-                value = UNSIGNED_INTEGER_DECODER.apply(valueBits);
-            else {
-                valueBits = valueBits.replaceAll("0", "x");
-                valueBits = valueBits.replaceAll("1", "0");
-                valueBits = valueBits.replaceAll("x", "1");
-                value = UNSIGNED_INTEGER_DECODER.apply("-" + valueBits);
-            }
-            return value;
+            final int numberOfValueBits = bitString.length() - 1;
+            final long valueMask = (1L << numberOfValueBits) - 1;
+            final long valueBits = Long.parseLong(bitString.substring(1), 2);
+            if (bitString.charAt(0) == '0')
+                return (int) valueBits;
+            else
+                return (int) -(valueMask & ~valueBits);
         }
     };
 
@@ -70,93 +218,29 @@ public class Decoders {
     public static final Function<String, String> STRING_DECODER = new Function<String, String>() {
         @Override
         public String apply(String bitString) {
-            StringBuffer stringBuffer = new StringBuffer();
-            String remainingBits = bitString;
-            while (remainingBits.length() >= 6) {
-                String b = remainingBits.substring(0, 6);
-                remainingBits = remainingBits.substring(6);
-                Integer i = UNSIGNED_INTEGER_DECODER.apply(b);
-                String c = SIX_BIT_ASCII.get(i);
-                stringBuffer.append(c);
+            final int numberOfChars = bitString.length() / 6;
+            final char[] chars = new char[numberOfChars];
+            for (int i = 0; i < numberOfChars; i++) {
+                int sixBits = 0;
+                for (int j = i * 6; j < i * 6 + 6; j++) {
+                    sixBits = (sixBits << 1) | (bitString.charAt(j) == '1' ? 1 : 0);
+                }
+                chars[i] = toChar(sixBits);
             }
-            String string = stringBuffer.toString();
+            int begin = 0, end = numberOfChars;
             if (STRIP_ALPHA_SIGNS) {
-                string = string.replaceAll("@", " ").trim();
+                while (begin < end && chars[begin] == ' ') begin++;
+                while (end > begin && chars[end - 1] == ' ') end--;
             }
-            return string;
+            return new String(chars, begin, end - begin);
         }
     };
 
     public static final Function<String, String> BIT_DECODER = bitString -> bitString;
 
-	private final static Map<Integer, String> SIX_BIT_ASCII = new TreeMap<Integer, String>();
-	static {
-		SIX_BIT_ASCII.put(0, "@"); // 0
-		SIX_BIT_ASCII.put(1, "A"); // 1
-		SIX_BIT_ASCII.put(2, "B"); // 2
-		SIX_BIT_ASCII.put(3, "C"); // 3
-		SIX_BIT_ASCII.put(4, "D"); // 4
-		SIX_BIT_ASCII.put(5, "E"); // 5
-		SIX_BIT_ASCII.put(6, "F"); // 6
-		SIX_BIT_ASCII.put(7, "G"); // 7
-		SIX_BIT_ASCII.put(8, "H"); // 8
-		SIX_BIT_ASCII.put(9, "I"); // 9
-		SIX_BIT_ASCII.put(10, "J"); // 10
-		SIX_BIT_ASCII.put(11, "K"); // 11
-		SIX_BIT_ASCII.put(12, "L"); // 12
-		SIX_BIT_ASCII.put(13, "M"); // 13
-		SIX_BIT_ASCII.put(14, "N"); // 14
-		SIX_BIT_ASCII.put(15, "O"); // 15
-		SIX_BIT_ASCII.put(16, "P"); // 16
-		SIX_BIT_ASCII.put(17, "Q"); // 17
-		SIX_BIT_ASCII.put(18, "R"); // 18
-		SIX_BIT_ASCII.put(19, "S"); // 19
-		SIX_BIT_ASCII.put(20, "T"); // 20
-		SIX_BIT_ASCII.put(21, "U"); // 21
-		SIX_BIT_ASCII.put(22, "V"); // 22
-		SIX_BIT_ASCII.put(23, "W"); // 23
-		SIX_BIT_ASCII.put(24, "X"); // 24
-		SIX_BIT_ASCII.put(25, "Y"); // 25
-		SIX_BIT_ASCII.put(26, "Z"); // 26
-		SIX_BIT_ASCII.put(27, "["); // 27
-		SIX_BIT_ASCII.put(28, "\\"); // 28
-		SIX_BIT_ASCII.put(29, "]"); // 29
-		SIX_BIT_ASCII.put(30, "^"); // 30
-		SIX_BIT_ASCII.put(31, "_"); // 31
-		SIX_BIT_ASCII.put(32, " "); // 32
-		SIX_BIT_ASCII.put(33, "!"); // 33
-		SIX_BIT_ASCII.put(34, "\""); // 34
-		SIX_BIT_ASCII.put(35, "#"); // 35
-		SIX_BIT_ASCII.put(36, "$"); // 36
-		SIX_BIT_ASCII.put(37, "%"); // 37
-		SIX_BIT_ASCII.put(38, "&"); // 38
-		SIX_BIT_ASCII.put(39, "'"); // 39
-		SIX_BIT_ASCII.put(40, "("); // 40
-		SIX_BIT_ASCII.put(41, ")"); // 41
-		SIX_BIT_ASCII.put(42, "*"); // 42
-		SIX_BIT_ASCII.put(43, "+"); // 43
-		SIX_BIT_ASCII.put(44, ","); // 44
-		SIX_BIT_ASCII.put(45, "-"); // 45
-		SIX_BIT_ASCII.put(46, "."); // 46
-		SIX_BIT_ASCII.put(47, "/"); // 47
-		SIX_BIT_ASCII.put(48, "0"); // 48
-		SIX_BIT_ASCII.put(49, "1"); // 49
-		SIX_BIT_ASCII.put(50, "2"); // 50
-		SIX_BIT_ASCII.put(51, "3"); // 51
-		SIX_BIT_ASCII.put(52, "4"); // 52
-		SIX_BIT_ASCII.put(53, "5"); // 53
-		SIX_BIT_ASCII.put(54, "6"); // 54
-		SIX_BIT_ASCII.put(55, "7"); // 55
-		SIX_BIT_ASCII.put(56, "8"); // 56
-		SIX_BIT_ASCII.put(57, "9"); // 57
-		SIX_BIT_ASCII.put(58, ":"); // 58
-		SIX_BIT_ASCII.put(59, ";"); // 59
-		SIX_BIT_ASCII.put(60, "<"); // 60
-		SIX_BIT_ASCII.put(61, "="); // 61
-		SIX_BIT_ASCII.put(62, ">"); // 62
-		SIX_BIT_ASCII.put(63, "?"); // 63
-	}
-
-    private static final Boolean STRIP_ALPHA_SIGNS = true;
+    /** ASCII character of each six-bit value. */
+    private final static char[] SIX_BIT_ASCII = "@ABCDEFGHIJKLMNOPQRSTUVWXYZ[\\]^_ !\"#$%&'()*+,-./0123456789:;<=>?".toCharArray();
+
+    private static final boolean STRIP_ALPHA_SIGNS = true;
 
 }
@@ -16,10 +16,12 @@
 
 package dk.tbsalling.aismessages.ais.exceptions;
 
+/** Thrown for an invalid AIS message. Does not capture a stack trace. */
 @SuppressWarnings("serial")
 public class InvalidAISMessage extends RuntimeException {
 
 	public InvalidAISMessage() {
+		super(null, null, false, false);
 	}
 
 }
@@ -16,10 +16,25 @@
 
 package dk.tbsalling.aismessages.ais.exceptions;
 
+import dk.tbsalling.aismessages.nmea.DecodeStatus;
+
+/** Thrown when no AISMessage can be created for a message type. Does not capture a stack trace. */
 @SuppressWarnings("serial")
 public class UnsupportedMessageType extends RuntimeException {
 
 	public UnsupportedMessageType(Integer messageType) {
+		super("Unsupported message type: " + messageType, null, false, false);
+		this.messageType = messageType;
+	}
+
+	public final Integer getMessageType() {
+		return messageType;
 	}
 
+	public final DecodeStatus getStatus() {
+		return DecodeStatus.UNSUPPORTED_TYPE;
+	}
+
+	private final Integer messageType;
+
 }
@@ -16,24 +16,22 @@
 
 package dk.tbsalling.aismessages.ais.messages;
 
+import dk.tbsalling.aismessages.ais.BitBuffer;
 import dk.tbsalling.aismessages.ais.exceptions.UnsupportedMessageType;
 import dk.tbsalling.aismessages.ais.messages.types.AISMessageType;
 import dk.tbsalling.aismessages.ais.messages.types.MMSI;
+import dk.tbsalling.aismessages.jfr.MessageCreateEvent;
+import dk.tbsalling.aismessages.jfr.PayloadDecodeEvent;
+import dk.tbsalling.aismessages.nmea.DecodeResult;
+import dk.tbsalling.aismessages.nmea.DecodeStatus;
 import dk.tbsalling.aismessages.nmea.exceptions.InvalidMessage;
 import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
 
 import java.io.Serializable;
-import java.lang.ref.WeakReference;
 import java.util.Arrays;
-import java.util.Map;
-import java.util.TreeMap;
-import java.util.function.BiFunction;
-import java.util.function.Consumer;
-import java.util.function.Supplier;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.logging.Logger;
 
-import static dk.tbsalling.aismessages.ais.Decoders.UNSIGNED_INTEGER_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.UNSIGNED_LONG_DECODER;
 import static java.util.Objects.requireNonNull;
 
 /**
@@ -57,18 +55,61 @@ public abstract class AISMessage implements Serializable {
         System.err.print("\n" + "AISMessages v" + VERSION + " // Copyright (c) 2011- by S-Consult ApS, Denmark, CVR DK31327490. http://s-consult.dk.\n" + "\n" + "This work is licensed under the Creative Commons Attribution-NonCommercial-ShareAlike 3.0 Unported License. To view a copy of\n" + "this license, visit http://creativecommons.org/licenses/by-nc-sa/3.0/ or send a letter to Creative Commons, 171 Second Street,\n" + "Suite 300, San Francisco, California, 94105, USA.\n" + "\n" + "NOT FOR COMMERCIAL USE!\n" + "Contact sales@s-consult.dk to obtain commercially licensed software.\n" + "\n");
     }
 
+    /** Factories indexed by message type, i.e. by the six-bit value of the first payload character. */
+    private static final AtomicReferenceArray<AISMessageFactory> FACTORIES = new AtomicReferenceArray<>(64);
+
+    static {
+        register(AISMessageType.PositionReportClassAScheduled, PositionReportClassAScheduled::new);
+        register(AISMessageType.PositionReportClassAAssignedSchedule, PositionReportClassAAssignedSchedule::new);
+        register(AISMessageType.PositionReportClassAResponseToInterrogation, PositionReportClassAResponseToInterrogation::new);
+        register(AISMessageType.BaseStationReport, BaseStationReport::new);
+        register(AISMessageType.ShipAndVoyageRelatedData, ShipAndVoyageData::new);
+        register(AISMessageType.AddressedBinaryMessage, AddressedBinaryMessage::new);
+        register(AISMessageType.BinaryAcknowledge, BinaryAcknowledge::new);
+        register(AISMessageType.BinaryBroadcastMessage, BinaryBroadcastMessage::new);
+        register(AISMessageType.StandardSARAircraftPositionReport, StandardSARAircraftPositionReport::new);
+        register(AISMessageType.UTCAndDateInquiry, UTCAndDateInquiry::new);
+        register(AISMessageType.UTCAndDateResponse, UTCAndDateResponse::new);
+        register(AISMessageType.AddressedSafetyRelatedMessage, AddressedSafetyRelatedMessage::new);
+        register(AISMessageType.SafetyRelatedAcknowledge, SafetyRelatedAcknowledge::new);
+        register(AISMessageType.SafetyRelatedBroadcastMessage, SafetyRelatedBroadcastMessage::new);
+        register(AISMessageType.Interrogation, Interrogation::new);
+        register(AISMessageType.AssignedModeCommand, AssignedModeCommand::new);
+        register(AISMessageType.GNSSBinaryBroadcastMessage, GNSSBinaryBroadcastMessage::new);
+        register(AISMessageType.StandardClassBCSPositionReport, StandardClassBCSPositionReport::new);
+        register(AISMessageType.ExtendedClassBEquipmentPositionReport, ExtendedClassBEquipmentPositionReport::new);
+        register(AISMessageType.DataLinkManagement, DataLinkManagement::new);
+        register(AISMessageType.AidToNavigationReport, AidToNavigationReport::new);
+        register(AISMessageType.ChannelManagement, ChannelManagement::new);
+        register(AISMessageType.GroupAssignmentCommand, GroupAssignmentCommand::new);
+        register(AISMessageType.ClassBCSStaticDataReport, ClassBCSStaticDataReport::new);
+        register(AISMessageType.BinaryMessageSingleSlot, BinaryMessageSingleSlot::new);
+        register(AISMessageType.BinaryMessageMultipleSlot, BinaryMessageMultipleSlot::new);
+        register(AISMessageType.LongRangeBroadcastMessage, LongRangeBroadcastMessage::new);
+    }
+
     /** The NMEA messages which represent this AIS message */
     private NMEAMessage[] nmeaMessages;
 
     private Metadata metadata;
 
-    /** Payload expanded to string of 0's and 1's. Use weak reference to allow GC anytime. */
-    private transient WeakReference<String> bitString = new WeakReference<>(null);
+    /** Payload de-armoured and packed into a bit buffer. */
+    private transient BitBuffer payload;
 
-    /** Length of bitString */
-    private transient int numberOfBits = -1;
+    /**
+     * Bit mask of the fields which have been decoded into their backing fields. Bit 0 and 1 are used by this
+     * class; subclasses number their fields from FIRST_FIELD. Volatile so that a thread which sees a field's
+     * bit set also sees the value stored before it; a bit lost to a racing update merely causes a re-decode.
+     */
+    private transient volatile long decodedFields;
+
+    private static final int REPEAT_INDICATOR = 0;
+    private static final int SOURCE_MMSI = 1;
 
-    private transient Integer repeatIndicator;
+    /** Index of the first bit in the mask of decoded fields which is available to subclasses. */
+    protected static final int FIRST_FIELD = 2;
+
+    private transient int repeatIndicator;
     private transient MMSI sourceMmsi;
 
     protected AISMessage() {
@@ -82,68 +123,44 @@ public abstract class AISMessage implements Serializable {
         if (getMessageType() != nmeaMessageType) {
             throw new UnsupportedMessageType(nmeaMessageType.getCode());
         }
-        if (!isValid()) {
-             throw new Exception("Invalid AIS message");
+        final DecodeStatus status = validate();
+        if (status != DecodeStatus.OK) {
+            throw new InvalidMessage(status, status.getDescription());
         }
         checkAISMessage();
     }
 
-    protected AISMessage(NMEAMessage[] nmeaMessages, String bitString) throws Exception {
+    /**
+     * Hold NMEA messages without decoding or validating their payload; only checkAISMessage is called.
+     *
+     * @param nmeaMessages The NMEA messages which represent this AIS message.
+     * @param payload The payload already unpacked from the NMEA messages; or null to unpack it on first use.
+     */
+    protected AISMessage(NMEAMessage[] nmeaMessages, BitBuffer payload) {
         requireNonNull(nmeaMessages);
         check(nmeaMessages);
         this.nmeaMessages = nmeaMessages;
-        this.bitString = new WeakReference<>(bitString);
-        AISMessageType nmeaMessageType = decodeMessageType();
-        if (getMessageType() != nmeaMessageType) {
-            throw new UnsupportedMessageType(nmeaMessageType.getCode());
-        }
-        if (!isValid()) {
-            //throw new InvalidMessage("Invalid AIS message");
-       }
+        this.payload = payload;
         checkAISMessage();
     }
 
     /**
-     * Decode a value and cache it for faster future calls. Use weak references for the caching to
-     * allow the garbage collector to free up memory. The value can just be decoded again.
+     * Test whether a field has already been decoded and cached by this message.
      *
-     * @param refGetter A getter which gets the weak reference to be used as cache
-     * @param refSetter A setter to set the weak reference caching the decoded value.
-     * @param decoder A supplier which can extract the decoded value from a bit string.
-     * @param <T> The return type.
-     * @return The decoded (and now cached) value.
+     * @param field Index of the field in the mask of decoded fields.
+     * @return true if the field has been decoded and its backing field holds the value.
      */
-    protected <T> T getDecodedValueByWeakReference(Supplier<WeakReference<T>> refGetter, Consumer<WeakReference<T>> refSetter, Supplier<Boolean> condition, Supplier<T> decoder) {
-        T decodedValue = null;
-        if (condition.get()) {
-            WeakReference<T> ref = refGetter.get();
-            if (ref != null) {
-                decodedValue = ref.get();
-            }
-            if (decodedValue == null) {
-                decodedValue = decoder.get();
-                refSetter.accept(new WeakReference<>(decodedValue));
-            }
-        }
-        return decodedValue;
+    protected final boolean isDecoded(int field) {
+        return (decodedFields & (1L << field)) != 0;
     }
 
     /**
-     * Decode a value and cache it for faster future calls.
+     * Mark a field as decoded. Must be called after the value has been stored in its backing field.
      *
-     * @param getter A getter which gets previously decoded values of this property.
-     * @param setter A setter which stores or caches the decoded value
-     * @param decoder A supplier which can extract the decoded value from a bit string.
-     * @param <T> The return type.
-     * @return The decoded value.
+     * @param field Index of the field in the mask of decoded fields.
      */
-    protected <T> T getDecodedValue(Supplier<T> getter, Consumer<T> setter, Supplier<Boolean> condition, Supplier<T> decoder) {
-        T decodedValue = getter.get();
-        if (condition.get() && decodedValue == null) {
-            decodedValue = decoder.get();
-            setter.accept(decodedValue);
-        }
-        return decodedValue;
+    protected final void setDecoded(int field) {
+        decodedFields |= 1L << field;
     }
 
     private static void check(NMEAMessage[] nmeaMessages) {
@@ -169,19 +186,33 @@ public abstract class AISMessage implements Serializable {
 	}
 
 	private AISMessageType decodeMessageType() {
-        return AISMessageType.fromInteger(Integer.parseInt(getBits(0, 6), 2));
+        return AISMessageType.fromInteger(getPayload().getUnsigned(0, 6));
 	}
 
     @SuppressWarnings("unused")
 	public final Integer getRepeatIndicator() {
-        return getDecodedValue(() -> repeatIndicator, value -> repeatIndicator = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(6, 8)));
+        if (!isDecoded(REPEAT_INDICATOR)) {
+            repeatIndicator = getPayload().getUnsigned(6, 2);
+            setDecoded(REPEAT_INDICATOR);
+        }
+        return repeatIndicator;
 	}
 
     @SuppressWarnings("unused")
 	public final MMSI getSourceMmsi() {
-        return getDecodedValue(() -> sourceMmsi, value -> sourceMmsi = value, () -> Boolean.TRUE, () -> MMSI.valueOf(UNSIGNED_LONG_DECODER.apply(getBits(8, 38))));
+        if (!isDecoded(SOURCE_MMSI)) {
+            sourceMmsi = MMSI.valueOf(getPayload().getUnsignedLong(8, 30));
+            setDecoded(SOURCE_MMSI);
+        }
+        return sourceMmsi;
 	}
 
+    /** @return The source MMSI; read from the payload without boxing or caching. */
+    @SuppressWarnings("unused")
+    public final long getSourceMmsiAsLong() {
+        return getPayload().getUnsignedLong(8, 30);
+    }
+
     @Override
     public String toString() {
         return "AISMessage{" +
@@ -192,407 +223,198 @@ public abstract class AISMessage implements Serializable {
                 '}';
     }
 
-    protected String getBitString() {
-        String b = bitString.get();
-        if (b == null) {
-            b = decodePayloadToBitString(nmeaMessages);
-            bitString = new WeakReference<>(b);
+    /** @return The payload bits of this message; unpacked on first use. */
+    protected BitBuffer getPayload() {
+        BitBuffer p = payload;
+        if (p == null) {
+            final PayloadDecodeEvent event = new PayloadDecodeEvent();
+            event.begin();
+            p = decodePayload(nmeaMessages);
+            payload = p;
+            final Metadata m = metadata;
+            event.record(m == null ? null : m.getSource(), p.length(), nmeaMessages);
         }
-        return b;
+        return p;
     }
-    
-    protected String getBitStringWithLenCheck(Integer endIndex) {
-        String b = getBitString();
-		if (b.length()-endIndex < 0){
-	        StringBuffer c = new StringBuffer(b);
-			for (int i = b.length()-endIndex; i < 0; i++) {
-				c  = c.append("0");
-			}
-			//System.out.println("158:" nmeaMessages[0].getRawMessage());
-			b = c.toString();
-			
-		}
-        return b;
+
+    /** @return The payload rendered as a string of 0's and 1's; built on demand and intended for debugging only. */
+    protected String getBitString() {
+        return getPayload().toBitString();
     }
 
+    /**
+     * Render a range of the payload as a string of 0's and 1's. Bits beyond the end
+     * of the payload are rendered as 0's.
+     */
     protected String getBits(Integer beginIndex, Integer endIndex) {
-    	
-        //return getBitString().substring(beginIndex, endIndex);
-    	return getBitStringWithLenCheck(endIndex).substring(beginIndex, endIndex);
+        return getPayload().toBitString(beginIndex, endIndex);
     }
 
-    protected int getNumberOfBits() {	
-        if (numberOfBits < 0) {
-            numberOfBits = getBitString().length();
-        }
-        return numberOfBits;
+    protected int getNumberOfBits() {
+        return getPayload().length();
     }
 
-    protected static String decodePayloadToBitString(NMEAMessage... nmeaMessages) {
-        StringBuilder sixBitEncodedPayload = new StringBuilder();
-        int fillBits = -1;
+    protected static BitBuffer decodePayload(NMEAMessage... nmeaMessages) {
+        CharSequence[] armouredPayloads = new CharSequence[nmeaMessages.length];
+        int fillBits = 0;
         for (int i = 0; i < nmeaMessages.length; i++) {
             NMEAMessage m = nmeaMessages[i];
-            sixBitEncodedPayload.append(m.getEncodedPayload());
+            armouredPayloads[i] = m.getEncodedPayloadView();
             if (i == nmeaMessages.length - 1) {
-                fillBits = m.getFillBits();
+                Integer f = m.getFillBits();
+                fillBits = f == null ? 0 : f;
             }
         }
 
-        // The AIS message payload stored as a string of 0's and 1's
-        return toBitString(sixBitEncodedPayload.toString(), fillBits);
+        return BitBuffer.fromArmouredPayload(fillBits, armouredPayloads);
+    }
+
+    /** @return The payload of the NMEA messages; or null if a payload holds an illegal character. */
+    private static BitBuffer tryDecodePayload(NMEAMessage... nmeaMessages) {
+        CharSequence[] armouredPayloads = new CharSequence[nmeaMessages.length];
+        for (int i = 0; i < nmeaMessages.length; i++) {
+            armouredPayloads[i] = nmeaMessages[i].getEncodedPayloadView();
+        }
+        final Integer fillBits = nmeaMessages[nmeaMessages.length - 1].getFillBits();
+        return BitBuffer.tryFromArmouredPayload(fillBits == null ? 0 : fillBits, armouredPayloads);
     }
 
+    /**
+     * Create an AISMessage from one or more NMEA sentences. The message type is read from the first
+     * payload character and used to look up the registered factory, before the payload is de-armoured.
+     * A payload of the wrong length for its message type is decoded as far as it goes, and isValid() of
+     * the message returns false; only type 5 messages of the wrong length are rejected.
+     *
+     * @param nmeaMessages The NMEA sentences carrying the message.
+     * @return The AISMessage.
+     * @throws UnsupportedMessageType if no factory is registered for the message type, or the factory
+     *                                creates a message of another type.
+     * @throws InvalidMessage if the payload length is not valid for a type 5 message.
+     */
     public static AISMessage create(NMEAMessage... nmeaMessages) throws Exception  {
-        BiFunction<NMEAMessage[], String, AISMessage> aisMessageConstructor;
-
-        String bitString = decodePayloadToBitString(nmeaMessages);
-        //System.out.println("Message type: " + bitString);
-        //System.out.println("Message type2: " + Integer.parseInt(bitString.substring(0, 6), 2));
-        AISMessageType messageType = AISMessageType.fromInteger(Integer.parseInt(bitString.substring(0, 6), 2));
-        if (messageType != null) {
-            switch (messageType) {
-            case ShipAndVoyageRelatedData:
-            	return new ShipAndVoyageData(nmeaMessages, bitString);
-                
-            case PositionReportClassAScheduled:
-                return new PositionReportClassAScheduled(nmeaMessages, bitString);
-                
-            case PositionReportClassAAssignedSchedule:
-                return new PositionReportClassAAssignedSchedule(nmeaMessages, bitString);
-                
-            case PositionReportClassAResponseToInterrogation:
-                return new PositionReportClassAResponseToInterrogation(nmeaMessages, bitString);
-                
-            case BaseStationReport:
-                return new BaseStationReport(nmeaMessages, bitString);
-                
-            case AddressedBinaryMessage:
-                return new AddressedBinaryMessage(nmeaMessages, bitString);
-                
-            case BinaryAcknowledge:
-                return new BinaryAcknowledge(nmeaMessages, bitString);
-                
-            case BinaryBroadcastMessage:
-                return new BinaryBroadcastMessage(nmeaMessages, bitString);
-                
-            case StandardSARAircraftPositionReport:
-                return new StandardSARAircraftPositionReport(nmeaMessages, bitString);
-                
-            case UTCAndDateInquiry:
-                return new UTCAndDateInquiry(nmeaMessages, bitString);
-                
-            case UTCAndDateResponse:
-                return new UTCAndDateResponse(nmeaMessages, bitString);
-                
-            case AddressedSafetyRelatedMessage:
-                return new AddressedSafetyRelatedMessage(nmeaMessages, bitString);
-                
-            case SafetyRelatedAcknowledge:
-                return new SafetyRelatedAcknowledge(nmeaMessages, bitString);
-                
-            case SafetyRelatedBroadcastMessage:
-                return new SafetyRelatedBroadcastMessage(nmeaMessages, bitString);
-                
-            case Interrogation:
-                return new Interrogation(nmeaMessages, bitString);
-                
-            case AssignedModeCommand:
-                return new AssignedModeCommand(nmeaMessages, bitString);
-                
-            case GNSSBinaryBroadcastMessage:
-                return new GNSSBinaryBroadcastMessage(nmeaMessages, bitString);
-                
-            case StandardClassBCSPositionReport:
-                return new StandardClassBCSPositionReport(nmeaMessages, bitString);
-                
-            case ExtendedClassBEquipmentPositionReport:
-                return new ExtendedClassBEquipmentPositionReport(nmeaMessages, bitString);
-                
-            case DataLinkManagement:
-                return new DataLinkManagement(nmeaMessages, bitString);
-                
-            case AidToNavigationReport:
-                return new AidToNavigationReport(nmeaMessages, bitString);
-                
-            case ChannelManagement:
-                return new ChannelManagement(nmeaMessages, bitString);
-                
-            case GroupAssignmentCommand:
-                return new GroupAssignmentCommand(nmeaMessages, bitString);
-                
-            case ClassBCSStaticDataReport:
-                return new ClassBCSStaticDataReport(nmeaMessages, bitString);
-                
-            case BinaryMessageSingleSlot:
-                return new BinaryMessageSingleSlot(nmeaMessages, bitString);
-                
-            case BinaryMessageMultipleSlot:
-                return new BinaryMessageMultipleSlot(nmeaMessages, bitString);
-                
-            case LongRangeBroadcastMessage:
-                return new LongRangeBroadcastMessage(nmeaMessages, bitString);
-                
-                default:
-                    throw new UnsupportedMessageType(messageType.getCode());
+        final MessageCreateEvent event = new MessageCreateEvent();
+        event.begin();
+        DecodeStatus status = DecodeStatus.INVALID_MESSAGE;
+        try {
+            final int messageType = peekMessageType(nmeaMessages);
+            final AISMessageFactory factory = messageType < 0 ? null : FACTORIES.get(messageType);
+            if (factory == null) {
+                status = DecodeStatus.UNSUPPORTED_TYPE;
+                throw new UnsupportedMessageType(messageType);
+            }
+            final BitBuffer payload = decodePayload(nmeaMessages);
+            final AISMessage aisMessage;
+            try {
+                aisMessage = factory.create(nmeaMessages, payload);
+            } catch (InvalidMessage e) {
+                status = e.getStatus();
+                throw e;
+            }
+            if (aisMessage.getMessageType().getCode() != messageType) {
+                status = DecodeStatus.UNSUPPORTED_TYPE;
+                throw new UnsupportedMessageType(messageType);
             }
-        } else {
-            throw new UnsupportedMessageType(-1);
+            status = DecodeStatus.OK;
+            return aisMessage;
+        } finally {
+            event.record(null, status, nmeaMessages);
         }
-        //return aisMessageConstructor.apply(nmeaMessages, bitString);
     }
 
-    public boolean isValid() {
-        final String bitString = getBitString();
-
-        if (bitString.length() < 6) {
-            LOG.warning("Message is too short: " + bitString.length() + " bits.");
-            return Boolean.FALSE;
+    /**
+     * Create an AISMessage from one or more NMEA sentences without throwing exceptions for invalid input.
+     * Messages are accepted exactly as by create, so truncated payloads are decoded as far as they go.
+     *
+     * @param result The result to record the AISMessage, or null, and the status in.
+     * @param nmeaMessages The NMEA sentences carrying the message.
+     * @return OK, UNSUPPORTED_TYPE, ILLEGAL_CHARACTER, WRONG_LENGTH or INVALID_MESSAGE.
+     */
+    public static DecodeStatus tryCreate(DecodeResult result, NMEAMessage... nmeaMessages) {
+        final int messageType = nmeaMessages.length == 0 ? -1 : peekMessageType(nmeaMessages);
+        final AISMessageFactory factory = messageType < 0 || messageType >= FACTORIES.length() ? null : FACTORIES.get(messageType);
+        if (factory == null) {
+            return result.setAisMessage(DecodeStatus.UNSUPPORTED_TYPE, null);
         }
-
-        int messageType = Integer.parseInt(bitString.substring(0, 6), 2);
-        if (messageType < 1 || messageType > 26) {
-            LOG.warning("Unsupported message type: " + messageType);
-            return Boolean.FALSE;
+        final BitBuffer payload = tryDecodePayload(nmeaMessages);
+        if (payload == null) {
+            return result.setAisMessage(DecodeStatus.ILLEGAL_CHARACTER, null);
         }
-
-        int actualMessageLength = bitString.length();
-        switch (messageType) {
-            case 1:
-                if (actualMessageLength != 168) {
-                    LOG.warning("Message type 1: Illegal message length: " + bitString.length() + " bits.");
-                    LOG.warning(nmeaMessages[0].toString());
-                    return Boolean.FALSE;
-                }
-                break;
-            case 2:
-                if (actualMessageLength != 168) {
-                    LOG.warning("Message type 2: Illegal message length: " + bitString.length() + " bits.");
-                    return Boolean.FALSE;
-                }
-                break;
-            case 3:
-                if (actualMessageLength != 168) {
-                    LOG.warning("Message type 3: Illegal message length: " + bitString.length() + " bits.");
-                    return Boolean.FALSE;
-                }
-                break;
-            case 4:
-                if (actualMessageLength != 168) return Boolean.FALSE;
-                break;
-            case 5:
-                if (actualMessageLength != 424 && actualMessageLength != 422) {
-                    LOG.warning("Message type 5: Illegal message length: " + bitString.length() + " bits.");
-                    return Boolean.FALSE;
-                }
-                break;
-            case 6:
-                if (actualMessageLength > 1008) {
-                    LOG.warning("Message type 6: Illegal message length: " + bitString.length() + " bits.");
-                    return Boolean.FALSE;
-                }
-                break;
-            case 7:
-                if (actualMessageLength != 72 && actualMessageLength != 104 && actualMessageLength != 136 && actualMessageLength != 168) {
-                    LOG.warning("Message type 7: Illegal message length: " + bitString.length() + " bits.");
-                    return Boolean.FALSE;
-                }
-                break;
-            case 8:
-                if (actualMessageLength > 1008) {
-                    LOG.warning("Message type 8: Illegal message length: " + bitString.length() + " bits.");
-                    return Boolean.FALSE;
-                }
-                break;
-            case 9:
-                if (actualMessageLength != 168) {
-                    LOG.warning("Message type 9: Illegal message length: " + bitString.length() + " bits.");
-                    return Boolean.FALSE;
-                }
-                break;
-            case 10:
-                if (actualMessageLength != 72) {
-                    LOG.warning("Message type 10: Illegal message length: " + bitString.length() + " bits.");
-                    return Boolean.FALSE;
-                }
-                break;
-            case 11:
-            	if (actualMessageLength != 168) return Boolean.FALSE;
-                break;
-            case 12:
-                if (actualMessageLength > 1008) {
-                    LOG.warning("Message type 12: Illegal message length: " + bitString.length() + " bits.");
-                    return Boolean.FALSE;
-                }
-                break;
-            case 13:
-                if (actualMessageLength != 72 && actualMessageLength != 104 && actualMessageLength != 136 && actualMessageLength != 168) {
-                    LOG.warning("Message type 13: Illegal message length: " + bitString.length() + " bits.");
-                    return Boolean.FALSE;
-                }
-                break;
-            case 14:
-                if (actualMessageLength > 1008) {
-                    LOG.warning("Message type 14: Illegal message length: " + bitString.length() + " bits.");
-                    return Boolean.FALSE;
-                }
-                break;
-            case 15:
-                if (actualMessageLength != 88 && actualMessageLength != 110 && actualMessageLength != 112 && actualMessageLength != 160) return Boolean.FALSE;
-                break;
-            case 16:
-                if (actualMessageLength != 96 && actualMessageLength != 144) {
-                    LOG.warning("Message type 16: Illegal message length: " + bitString.length() + " bits.");
-                    return Boolean.FALSE;
-                }
-                break;
-            case 17:
-                if (actualMessageLength < 80 || actualMessageLength > 816) {
-                    LOG.warning("Message type 17: Illegal message length: " + bitString.length() + " bits.");
-                    return Boolean.FALSE;
-                }
-                break;
-            case 18:
-                if (actualMessageLength != 168) {
-                    LOG.warning("Message type 18: Illegal message length: " + bitString.length() + " bits.");
-                    return Boolean.FALSE;
-                }
-                break;
-            case 19:
-                if (actualMessageLength != 312) {
-                    LOG.warning("Message type 19: Illegal message length: " + bitString.length() + " bits.");
-                    return Boolean.FALSE;
-                }
-                break;
-            case 20:
-                if (actualMessageLength < 72 || actualMessageLength > 160) {
-                    LOG.warning("Message type 20: Illegal message length: " + bitString.length() + " bits.");
-                    return Boolean.FALSE;
-                }
-                break;
-            case 21:
-                if (actualMessageLength < 30  || actualMessageLength > 360) {
-                    LOG.warning("Message type 21: Illegal message length: " + bitString.length() + " bits.");
-                    return Boolean.FALSE;
-                }
-                break;
-            case 22:
-                if (actualMessageLength != 168) {
-                    LOG.warning("Message type 22: Illegal message length: " + bitString.length() + " bits.");
-                    return Boolean.FALSE;
-                }
-                break;
-            case 23:
-                if (actualMessageLength != 160) {
-                    LOG.warning("Message type 23: Illegal message length: " + bitString.length() + " bits.");
-                    return Boolean.FALSE;
-                }
-                break;
-            case 24:
-                if (actualMessageLength != 160 && actualMessageLength != 168  && actualMessageLength != 158) {
-                    LOG.warning("Message type 24: Illegal message length: " + bitString.length() + " bits.");
-                    return Boolean.FALSE;
-                }
-                break;
-            case 25:
-                if (actualMessageLength > 168) {
-                    LOG.warning("Message type 25: Illegal message length: " + bitString.length() + " bits.");
-                    return Boolean.FALSE;
-                }
-                break;
-            case 26:
-            	// ??
-                break;
-            case 27:
-                if (actualMessageLength != 96 && actualMessageLength != 168) {
-                    LOG.warning("Message type 27: Illegal message length: " + bitString.length() + " bits.");
-                    return Boolean.FALSE;
-                }
-                break;
-            default:
-                return Boolean.FALSE;
+        try {
+            final AISMessage aisMessage = factory.create(nmeaMessages, payload);
+            if (aisMessage.getMessageType().getCode() != messageType) {
+                return result.setAisMessage(DecodeStatus.UNSUPPORTED_TYPE, null);
+            }
+            return result.setAisMessage(DecodeStatus.OK, aisMessage);
+        } catch (InvalidMessage e) {
+            return result.setAisMessage(e.getStatus(), null);
+        } catch (UnsupportedMessageType e) {
+            return result.setAisMessage(DecodeStatus.UNSUPPORTED_TYPE, null);
+        } catch (Exception e) {
+            LOG.fine("Factory for message type " + messageType + " failed: " + e);
+            return result.setAisMessage(DecodeStatus.INVALID_MESSAGE, null);
         }
+    }
+
+    /**
+     * Register the factory which creates AISMessages of the given type. Replaces any factory previously
+     * registered for that type - including the built-in one.
+     *
+     * @param messageType The message type.
+     * @param factory The factory; or null to stop decoding messages of this type.
+     * @return The factory previously registered for the message type, or null if there was none.
+     */
+    public static AISMessageFactory register(AISMessageType messageType, AISMessageFactory factory) {
+        return FACTORIES.getAndSet(factoryIndex(messageType), factory);
+    }
 
-        return Boolean.TRUE;
+    /**
+     * @param messageType The message type.
+     * @return The factory currently registered for the message type, or null if there is none.
+     */
+    public static AISMessageFactory getFactory(AISMessageType messageType) {
+        return FACTORIES.get(factoryIndex(messageType));
     }
 
-    /** Decode an encoded six-bit string into a binary string of 0's and 1's */
-    private static String toBitString(String encodedString, Integer paddingBits) {
-        StringBuilder bitString = new StringBuilder();
-        int n = encodedString.length();
-        for (int i=0; i<n; i++) {
-            String c = encodedString.substring(i, i+1);
-            bitString.append(charToSixBit.get(c));
+    private static int factoryIndex(AISMessageType messageType) {
+        final int code = requireNonNull(messageType).getCode();
+        if (code < 0 || code >= FACTORIES.length()) {
+            throw new IllegalArgumentException("No factory can be registered for message type " + messageType);
         }
-        return bitString.substring(0, bitString.length() - paddingBits);
+        return code;
     }
 
-    private final static Map<String, String> charToSixBit = new TreeMap<>();
-    static {
-        charToSixBit.put("0", "000000"); // 0
-        charToSixBit.put("1", "000001"); // 1
-        charToSixBit.put("2", "000010"); // 2
-        charToSixBit.put("3", "000011"); // 3
-        charToSixBit.put("4", "000100"); // 4
-        charToSixBit.put("5", "000101"); // 5
-        charToSixBit.put("6", "000110"); // 6
-        charToSixBit.put("7", "000111"); // 7
-        charToSixBit.put("8", "001000"); // 8
-        charToSixBit.put("9", "001001"); // 9
-        charToSixBit.put(":", "001010"); // 10
-        charToSixBit.put(";", "001011"); // 11
-        charToSixBit.put("<", "001100"); // 12
-        charToSixBit.put("=", "001101"); // 13
-        charToSixBit.put(">", "001110"); // 14
-        charToSixBit.put("?", "001111"); // 15
-        charToSixBit.put("@", "010000"); // 16
-        charToSixBit.put("A", "010001"); // 17
-        charToSixBit.put("B", "010010"); // 18
-        charToSixBit.put("C", "010011"); // 19
-        charToSixBit.put("D", "010100"); // 20
-        charToSixBit.put("E", "010101"); // 21
-        charToSixBit.put("F", "010110"); // 22
-        charToSixBit.put("G", "010111"); // 23
-        charToSixBit.put("H", "011000"); // 24
-        charToSixBit.put("I", "011001"); // 25
-        charToSixBit.put("J", "011010"); // 26
-        charToSixBit.put("K", "011011"); // 27
-        charToSixBit.put("L", "011100"); // 28
-        charToSixBit.put("M", "011101"); // 29
-        charToSixBit.put("N", "011110"); // 30
-        charToSixBit.put("O", "011111"); // 31
-        charToSixBit.put("P", "100000"); // 32
-        charToSixBit.put("Q", "100001"); // 33
-        charToSixBit.put("R", "100010"); // 34
-        charToSixBit.put("S", "100011"); // 35
-        charToSixBit.put("T", "100100"); // 36
-        charToSixBit.put("U", "100101"); // 37
-        charToSixBit.put("V", "100110"); // 38
-        charToSixBit.put("W", "100111"); // 39
-        charToSixBit.put("`", "101000"); // 40
-        charToSixBit.put("a", "101001"); // 41
-        charToSixBit.put("b", "101010"); // 42
-        charToSixBit.put("c", "101011"); // 43
-        charToSixBit.put("d", "101100"); // 44
-        charToSixBit.put("e", "101101"); // 45
-        charToSixBit.put("f", "101110"); // 46
-        charToSixBit.put("g", "101111"); // 47
-        charToSixBit.put("h", "110000"); // 48
-        charToSixBit.put("i", "110001"); // 49
-        charToSixBit.put("j", "110010"); // 50
-        charToSixBit.put("k", "110011"); // 51
-        charToSixBit.put("l", "110100"); // 52
-        charToSixBit.put("m", "110101"); // 53
-        charToSixBit.put("n", "110110"); // 54
-        charToSixBit.put("o", "110111"); // 55
-        charToSixBit.put("p", "111000"); // 56
-        charToSixBit.put("q", "111001"); // 57
-        charToSixBit.put("r", "111010"); // 58
-        charToSixBit.put("s", "111011"); // 59
-        charToSixBit.put("t", "111100"); // 60
-        charToSixBit.put("u", "111101"); // 61
-        charToSixBit.put("v", "111110"); // 62
-        charToSixBit.put("w", "111111"); // 63
+    /** @return The message type held in the first armoured payload character, or -1 if there is none. */
+    private static int peekMessageType(NMEAMessage[] nmeaMessages) {
+        final CharSequence armouredPayload = nmeaMessages.length == 0 ? null : nmeaMessages[0].getEncodedPayloadView();
+        return armouredPayload == null ? -1 : BitBuffer.deArmour(armouredPayload.charAt(0));
+    }
+
+    /** @return true if the length of the payload is valid for the message type. */
+    public boolean isValid() {
+        return validate() == DecodeStatus.OK;
+    }
+
+    private DecodeStatus validate() {
+        final BitBuffer payload = getPayload();
+
+        if (payload.length() < 6) {
+            LOG.fine("Message is too short: " + payload.length() + " bits.");
+            return DecodeStatus.WRONG_LENGTH;
+        }
+
+        AISMessageType messageType = AISMessageType.fromInteger(payload.getUnsigned(0, 6));
+        if (messageType == null) {
+            LOG.fine("Unsupported message type: " + payload.getUnsigned(0, 6));
+            return DecodeStatus.UNSUPPORTED_TYPE;
+        }
+
+        int actualMessageLength = payload.length();
+        if (!messageType.isValidLength(actualMessageLength)) {
+            LOG.fine("Message type " + messageType.getCode() + ": Illegal message length: " + actualMessageLength + " bits.");
+            return DecodeStatus.WRONG_LENGTH;
+        }
+
+        return DecodeStatus.OK;
     }
 
 }
@@ -0,0 +1,44 @@
+/*
+ * AISMessages
+ * - a java-based library for decoding of AIS messages from digital VHF radio traffic related
+ * to maritime navigation and safety in compliance with ITU 1371.
+ *
+ * (C) Copyright 2011- by S-Consult ApS, DK31327490, http://s-consult.dk, Denmark.
+ *
+ * Released under the Creative Commons Attribution-NonCommercial-ShareAlike 3.0 Unported License.
+ * For details of this license see the nearby LICENCE-full file, visit http://creativecommons.org/licenses/by-nc-sa/3.0/
+ * or send a letter to Creative Commons, 171 Second Street, Suite 300, San Francisco, California, 94105, USA.
+ *
+ * NOT FOR COMMERCIAL USE!
+ * Contact sales@s-consult.dk to obtain a commercially licensed version of this software.
+ *
+ */
+
+package dk.tbsalling.aismessages.ais.messages;
+
+import dk.tbsalling.aismessages.ais.BitBuffer;
+import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
+
+/**
+ * An AISMessageFactory constructs the AISMessage of one message type from its NMEA sentences and
+ * their already de-armoured payload.
+ *
+ * Factories are registered per message type with AISMessage.register, which allows the built-in
+ * message classes to be replaced by custom ones.
+ *
+ * @author tbsalling
+ */
+@FunctionalInterface
+public interface AISMessageFactory {
+
+    /**
+     * Create an AISMessage.
+     *
+     * @param nmeaMessages The NMEA sentences carrying the message.
+     * @param payload The de-armoured payload of the NMEA sentences.
+     * @return The AISMessage.
+     * @throws Exception if the message cannot be created.
+     */
+    AISMessage create(NMEAMessage[] nmeaMessages, BitBuffer payload) throws Exception;
+
+}
@@ -16,6 +16,7 @@
 
 package dk.tbsalling.aismessages.ais.messages;
 
+import dk.tbsalling.aismessages.ais.BitBuffer;
 import dk.tbsalling.aismessages.ais.messages.types.AISMessageType;
 import dk.tbsalling.aismessages.ais.messages.types.MMSI;
 import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
@@ -23,9 +24,7 @@ import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
 import java.lang.ref.WeakReference;
 
 import static dk.tbsalling.aismessages.ais.Decoders.BIT_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.BOOLEAN_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.UNSIGNED_INTEGER_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.UNSIGNED_LONG_DECODER;
+import static dk.tbsalling.aismessages.ais.Decoders.decodeBoolean;
 
 /**
  * an addressed point-to-point message with unspecified binary payload. The St.
@@ -43,8 +42,8 @@ public class AddressedBinaryMessage extends AISMessage {
         super(nmeaMessages);
     }
 
-    protected AddressedBinaryMessage(NMEAMessage[] nmeaMessages, String bitString) throws Exception {
-        super(nmeaMessages, bitString);
+    protected AddressedBinaryMessage(NMEAMessage[] nmeaMessages, BitBuffer payload) throws Exception {
+        super(nmeaMessages, payload);
     }
 
     protected void checkAISMessage() {
@@ -56,37 +55,66 @@ public class AddressedBinaryMessage extends AISMessage {
 
     @SuppressWarnings("unused")
     public Integer getSequenceNumber() {
-        return getDecodedValue(() -> sequenceNumber, ref -> sequenceNumber = ref, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(38, 40)));
+        if (!isDecoded(SEQUENCE_NUMBER)) {
+            sequenceNumber = getPayload().getUnsigned(38, 2);
+            setDecoded(SEQUENCE_NUMBER);
+        }
+        return sequenceNumber;
 	}
 
     @SuppressWarnings("unused")
 	public MMSI getDestinationMmsi() {
-        return getDecodedValue(() -> destinationMmsi, ref -> destinationMmsi = ref, () -> Boolean.TRUE, () -> MMSI.valueOf(UNSIGNED_LONG_DECODER.apply(getBits(40, 70))));
+        if (!isDecoded(DESTINATION_MMSI)) {
+            destinationMmsi = MMSI.valueOf(getPayload().getUnsignedLong(40, 30));
+            setDecoded(DESTINATION_MMSI);
+        }
+        return destinationMmsi;
 	}
 
     @SuppressWarnings("unused")
 	public Boolean getRetransmit() {
-        return getDecodedValue(() -> retransmit, ref -> retransmit = ref, () -> Boolean.TRUE, () -> BOOLEAN_DECODER.apply(getBits(70, 71)));
+        if (!isDecoded(RETRANSMIT)) {
+            retransmit = decodeBoolean(getPayload(), 70);
+            setDecoded(RETRANSMIT);
+        }
+        return retransmit;
 	}
 
     @SuppressWarnings("unused")
 	public int getSpare() {
-        return getDecodedValue(() -> spare, ref -> spare = ref, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(71, 72)));
+        if (!isDecoded(SPARE)) {
+            spare = getPayload().getUnsigned(71, 1);
+            setDecoded(SPARE);
+        }
+        return spare;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getDesignatedAreaCode() {
-        return getDecodedValue(() -> designatedAreaCode, ref -> designatedAreaCode = ref, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(72, 82)));
+        if (!isDecoded(DESIGNATED_AREA_CODE)) {
+            designatedAreaCode = getPayload().getUnsigned(72, 10);
+            setDecoded(DESIGNATED_AREA_CODE);
+        }
+        return designatedAreaCode;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getFunctionalId() {
-        return getDecodedValue(() -> functionalId, ref -> functionalId = ref, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(82, 88)));
+        if (!isDecoded(FUNCTIONAL_ID)) {
+            functionalId = getPayload().getUnsigned(82, 6);
+            setDecoded(FUNCTIONAL_ID);
+        }
+        return functionalId;
 	}
 
     @SuppressWarnings("unused")
 	public String getBinaryData() {
-        return getDecodedValueByWeakReference(() -> binaryData, ref -> binaryData = ref, () -> Boolean.TRUE, () -> BIT_DECODER.apply(getBits(88, getNumberOfBits())));
+        String decodedValue = binaryData == null ? null : binaryData.get();
+        if (decodedValue == null) {
+            decodedValue = BIT_DECODER.apply(getBits(88, getNumberOfBits()));
+            binaryData = new WeakReference<>(decodedValue);
+        }
+        return decodedValue;
 	}
 
     @Override
@@ -103,11 +131,18 @@ public class AddressedBinaryMessage extends AISMessage {
                 "} " + super.toString();
     }
 
-    private transient Integer sequenceNumber;
+    private static final int SEQUENCE_NUMBER = FIRST_FIELD;
+    private static final int DESTINATION_MMSI = FIRST_FIELD + 1;
+    private static final int RETRANSMIT = FIRST_FIELD + 2;
+    private static final int SPARE = FIRST_FIELD + 3;
+    private static final int DESIGNATED_AREA_CODE = FIRST_FIELD + 4;
+    private static final int FUNCTIONAL_ID = FIRST_FIELD + 5;
+
+    private transient int sequenceNumber;
     private transient MMSI destinationMmsi;
-    private transient Boolean retransmit;
-    private transient Integer spare;
-    private transient Integer designatedAreaCode;
-    private transient Integer functionalId;
+    private transient boolean retransmit;
+    private transient int spare;
+    private transient int designatedAreaCode;
+    private transient int functionalId;
     private transient WeakReference<String> binaryData;
 }
@@ -16,13 +16,12 @@
 
 package dk.tbsalling.aismessages.ais.messages;
 
+import dk.tbsalling.aismessages.ais.BitBuffer;
 import dk.tbsalling.aismessages.ais.messages.types.AISMessageType;
 import dk.tbsalling.aismessages.ais.messages.types.MMSI;
 import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
-import static dk.tbsalling.aismessages.ais.Decoders.BOOLEAN_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.STRING_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.UNSIGNED_INTEGER_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.UNSIGNED_LONG_DECODER;
+import static dk.tbsalling.aismessages.ais.Decoders.decodeBoolean;
+import static dk.tbsalling.aismessages.ais.Decoders.decodeText;
 
 @SuppressWarnings("serial")
 public class AddressedSafetyRelatedMessage extends AISMessage {
@@ -31,8 +30,8 @@ public class AddressedSafetyRelatedMessage extends AISMessage {
         super(nmeaMessages);
     }
 
-    protected AddressedSafetyRelatedMessage(NMEAMessage[] nmeaMessages, String bitString) throws Exception {
-        super(nmeaMessages, bitString);
+    protected AddressedSafetyRelatedMessage(NMEAMessage[] nmeaMessages, BitBuffer payload) throws Exception {
+        super(nmeaMessages, payload);
     }
 
     protected void checkAISMessage() {
@@ -44,30 +43,47 @@ public class AddressedSafetyRelatedMessage extends AISMessage {
 
     @SuppressWarnings("unused")
 	public Integer getSequenceNumber() {
-        return getDecodedValue(() -> sequenceNumber, value -> sequenceNumber=value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(38, 40)));
+        if (!isDecoded(SEQUENCE_NUMBER)) {
+            sequenceNumber = getPayload().getUnsigned(38, 2);
+            setDecoded(SEQUENCE_NUMBER);
+        }
+        return sequenceNumber;
 	}
 
     @SuppressWarnings("unused")
 	public MMSI getDestinationMmsi() {
-        return getDecodedValue(() -> destinationMmsi, value -> destinationMmsi = value, () -> Boolean.TRUE, () -> MMSI.valueOf(UNSIGNED_LONG_DECODER.apply(getBits(40, 70))));
+        if (!isDecoded(DESTINATION_MMSI)) {
+            destinationMmsi = MMSI.valueOf(getPayload().getUnsignedLong(40, 30));
+            setDecoded(DESTINATION_MMSI);
+        }
+        return destinationMmsi;
 	}
 
     @SuppressWarnings("unused")
 	public Boolean getRetransmit() {
-        return getDecodedValue(() -> retransmit, value -> retransmit = value, () -> Boolean.TRUE, () -> BOOLEAN_DECODER.apply(getBits(70, 71)));
+        if (!isDecoded(RETRANSMIT)) {
+            retransmit = decodeBoolean(getPayload(), 70);
+            setDecoded(RETRANSMIT);
+        }
+        return retransmit;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getSpare() {
-        return getDecodedValue(() -> spare, value -> spare = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(71, 72)));
+        if (!isDecoded(SPARE)) {
+            spare = getPayload().getUnsigned(71, 1);
+            setDecoded(SPARE);
+        }
+        return spare;
 	}
 
     @SuppressWarnings("unused")
 	public String getText() {
-        return getDecodedValue(() -> text, value -> text = value, () -> Boolean.TRUE, () -> {
-            int extraBitsOfChars = ((getNumberOfBits() - 72)/6)*6;
-            return STRING_DECODER.apply(getBits(72, 72 + extraBitsOfChars));
-        });
+        if (!isDecoded(TEXT)) {
+            text = decodeText(getPayload(), 72, Math.max(0, getNumberOfBits() - 72) / 6);
+            setDecoded(TEXT);
+        }
+        return text;
 	}
 
     @Override
@@ -82,9 +98,15 @@ public class AddressedSafetyRelatedMessage extends AISMessage {
                 "} " + super.toString();
     }
 
-    private transient Integer sequenceNumber;
+    private static final int SEQUENCE_NUMBER = FIRST_FIELD;
+    private static final int DESTINATION_MMSI = FIRST_FIELD + 1;
+    private static final int RETRANSMIT = FIRST_FIELD + 2;
+    private static final int SPARE = FIRST_FIELD + 3;
+    private static final int TEXT = FIRST_FIELD + 4;
+
+    private transient int sequenceNumber;
     private transient MMSI destinationMmsi;
-    private transient Boolean retransmit;
-    private transient Integer spare;
+    private transient boolean retransmit;
+    private transient int spare;
     private transient String text;
 }
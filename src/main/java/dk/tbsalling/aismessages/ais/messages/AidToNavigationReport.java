@@ -16,15 +16,19 @@
 
 package dk.tbsalling.aismessages.ais.messages;
 
+import dk.tbsalling.aismessages.ais.BitBuffer;
 import dk.tbsalling.aismessages.ais.messages.types.AISMessageType;
 import dk.tbsalling.aismessages.ais.messages.types.AidType;
 import dk.tbsalling.aismessages.ais.messages.types.PositionFixingDevice;
 import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
+
+import java.io.IOException;
+
 import static dk.tbsalling.aismessages.ais.Decoders.BIT_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.BOOLEAN_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.FLOAT_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.STRING_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.UNSIGNED_INTEGER_DECODER;
+import static dk.tbsalling.aismessages.ais.Decoders.decodeBoolean;
+import static dk.tbsalling.aismessages.ais.Decoders.decodeSignedFixedPoint;
+import static dk.tbsalling.aismessages.ais.Decoders.appendText;
+import static dk.tbsalling.aismessages.ais.Decoders.decodeText;
 
 /**
  * Identification and location message to be emitted by aids to navigation such as buoys and lighthouses.
@@ -38,8 +42,8 @@ public class AidToNavigationReport extends AISMessage {
         super(nmeaMessages);
     }
 
-    protected AidToNavigationReport(NMEAMessage[] nmeaMessages, String bitString) throws Exception {
-        super(nmeaMessages, bitString);
+    protected AidToNavigationReport(NMEAMessage[] nmeaMessages, BitBuffer payload) throws Exception {
+        super(nmeaMessages, payload);
     }
 
     protected void checkAISMessage() {
@@ -51,108 +55,185 @@ public class AidToNavigationReport extends AISMessage {
 
     @SuppressWarnings("unused")
     public AidType getAidType() {
-        return getDecodedValue(() -> aidType, value -> aidType = value, () -> Boolean.TRUE, () -> AidType.fromInteger(UNSIGNED_INTEGER_DECODER.apply(getBits(38, 43))));
+        if (!isDecoded(AID_TYPE)) {
+            aidType = AidType.fromInteger(getPayload().getUnsigned(38, 5));
+            setDecoded(AID_TYPE);
+        }
+        return aidType;
     }
 
     @SuppressWarnings("unused")
     public String getName() {
-        return getDecodedValue(() -> name, value -> name = value, () -> Boolean.TRUE, () -> STRING_DECODER.apply(getBits(43, 163)));
+        if (!isDecoded(NAME)) {
+            name = decodeText(getPayload(), 43, 20);
+            setDecoded(NAME);
+        }
+        return name;
+    }
+
+    /** Append the name to out without creating a String. */
+    @SuppressWarnings("unused")
+    public void appendName(Appendable out) throws IOException {
+        appendText(getPayload(), 43, 20, out);
     }
 
     @SuppressWarnings("unused")
     public Boolean getPositionAccurate() {
-        return getDecodedValue(() -> positionAccurate, value -> positionAccurate = value, () -> Boolean.TRUE, () -> BOOLEAN_DECODER.apply(getBits(163, 164)));
+        if (!isDecoded(POSITION_ACCURATE)) {
+            positionAccurate = decodeBoolean(getPayload(), 163);
+            setDecoded(POSITION_ACCURATE);
+        }
+        return positionAccurate;
     }
 
     @SuppressWarnings("unused")
     public Float getLatitude() {
-        return getDecodedValue(() -> latitude, value -> latitude = value, () -> Boolean.TRUE, () -> FLOAT_DECODER.apply(getBits(192, 219))/600000f);
+        if (!isDecoded(LATITUDE)) {
+            latitude = decodeSignedFixedPoint(getPayload(), 192, 27, 600000f);
+            setDecoded(LATITUDE);
+        }
+        return latitude;
     }
 
     @SuppressWarnings("unused")
     public Float getLongitude() {
-        return getDecodedValue(() -> longitude, value -> longitude = value, () -> Boolean.TRUE, () -> FLOAT_DECODER.apply(getBits(164, 192))/600000f);
+        if (!isDecoded(LONGITUDE)) {
+            longitude = decodeSignedFixedPoint(getPayload(), 164, 28, 600000f);
+            setDecoded(LONGITUDE);
+        }
+        return longitude;
     }
 
     @SuppressWarnings("unused")
     public Integer getToBow() {
-        return getDecodedValue(() -> toBow, value -> toBow = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(219, 228)));
+        if (!isDecoded(TO_BOW)) {
+            toBow = getPayload().getUnsigned(219, 9);
+            setDecoded(TO_BOW);
+        }
+        return toBow;
     }
 
     @SuppressWarnings("unused")
     public Integer getToStern() {
-        return getDecodedValue(() -> toStern, value -> toStern = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(228, 237)));
+        if (!isDecoded(TO_STERN)) {
+            toStern = getPayload().getUnsigned(228, 9);
+            setDecoded(TO_STERN);
+        }
+        return toStern;
     }
 
     @SuppressWarnings("unused")
     public Integer getToStarboard() {
-        return getDecodedValue(() -> toStarboard, value -> toStarboard = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(243, 249)));
+        if (!isDecoded(TO_STARBOARD)) {
+            toStarboard = getPayload().getUnsigned(243, 6);
+            setDecoded(TO_STARBOARD);
+        }
+        return toStarboard;
     }
 
     @SuppressWarnings("unused")
     public Integer getToPort() {
-        return getDecodedValue(() -> toPort, value -> toPort = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(237, 243)));
+        if (!isDecoded(TO_PORT)) {
+            toPort = getPayload().getUnsigned(237, 6);
+            setDecoded(TO_PORT);
+        }
+        return toPort;
     }
 
     @SuppressWarnings("unused")
     public PositionFixingDevice getPositionFixingDevice() {
-        return getDecodedValue(() -> positionFixingDevice, value -> positionFixingDevice = value, () -> Boolean.TRUE, () -> PositionFixingDevice.fromInteger(UNSIGNED_INTEGER_DECODER.apply(getBits(249, 253))));
+        if (!isDecoded(POSITION_FIXING_DEVICE)) {
+            positionFixingDevice = PositionFixingDevice.fromInteger(getPayload().getUnsigned(249, 4));
+            setDecoded(POSITION_FIXING_DEVICE);
+        }
+        return positionFixingDevice;
     }
 
     @SuppressWarnings("unused")
     public Integer getSecond() {
-        return getDecodedValue(() -> second, value -> second = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(253, 259)));
+        if (!isDecoded(SECOND)) {
+            second = getPayload().getUnsigned(253, 6);
+            setDecoded(SECOND);
+        }
+        return second;
     }
 
     @SuppressWarnings("unused")
     public Boolean getOffPosition() {
-        return getDecodedValue(() -> offPosition, value -> offPosition = value, () -> Boolean.TRUE, () -> BOOLEAN_DECODER.apply(getBits(259, 260)));
+        if (!isDecoded(OFF_POSITION)) {
+            offPosition = decodeBoolean(getPayload(), 259);
+            setDecoded(OFF_POSITION);
+        }
+        return offPosition;
     }
 
     @SuppressWarnings("unused")
     public String getRegionalUse() {
-        return getDecodedValue(() -> regionalUse, value -> regionalUse = value, () -> Boolean.TRUE, () -> BIT_DECODER.apply(getBits(260, 268)));
+        if (!isDecoded(REGIONAL_USE)) {
+            regionalUse = BIT_DECODER.apply(getBits(260, 268));
+            setDecoded(REGIONAL_USE);
+        }
+        return regionalUse;
     }
 
     @SuppressWarnings("unused")
     public Boolean getRaimFlag() {
-        return getDecodedValue(() -> raimFlag, value -> raimFlag = value, () -> Boolean.TRUE, () -> BOOLEAN_DECODER.apply(getBits(268, 269)));
+        if (!isDecoded(RAIM_FLAG)) {
+            raimFlag = decodeBoolean(getPayload(), 268);
+            setDecoded(RAIM_FLAG);
+        }
+        return raimFlag;
     }
 
     @SuppressWarnings("unused")
     public Boolean getVirtualAid() {
-        return getDecodedValue(() -> virtualAid, value -> virtualAid = value, () -> Boolean.TRUE, () -> BOOLEAN_DECODER.apply(getBits(269, 270)));
+        if (!isDecoded(VIRTUAL_AID)) {
+            virtualAid = decodeBoolean(getPayload(), 269);
+            setDecoded(VIRTUAL_AID);
+        }
+        return virtualAid;
     }
 
     @SuppressWarnings("unused")
     public Boolean getAssignedMode() {
-        return getDecodedValue(() -> assignedMode, value -> assignedMode = value, () -> Boolean.TRUE, () -> BOOLEAN_DECODER.apply(getBits(270, 271)));
+        if (!isDecoded(ASSIGNED_MODE)) {
+            assignedMode = decodeBoolean(getPayload(), 270);
+            setDecoded(ASSIGNED_MODE);
+        }
+        return assignedMode;
     }
 
     @SuppressWarnings("unused")
     public int getSpare1() {
-        return getDecodedValue(() -> spare1, value -> spare1 = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(271, 272)));
+        if (!isDecoded(SPARE1)) {
+            spare1 = getPayload().getUnsigned(271, 1);
+            setDecoded(SPARE1);
+        }
+        return spare1;
     }
 
     @SuppressWarnings("unused")
     public String getNameExtension() {
-        getDecodedValue(() -> nameExtension, value -> nameExtension = value, () -> getNumberOfBits() > 272, () -> {
-            int extraBits = getNumberOfBits() - 272;
-            int extraChars = extraBits/6;
-            int extraBitsOfChars = extraChars*6;
-            return STRING_DECODER.apply(getBits(272, 272 + extraBitsOfChars));
-        });
+        if (getNumberOfBits() <= 272) {
+            return null;
+        }
+        if (!isDecoded(NAME_EXTENSION)) {
+            int extraChars = (getNumberOfBits() - 272)/6;
+            nameExtension = decodeText(getPayload(), 272, extraChars);
+            setDecoded(NAME_EXTENSION);
+        }
         return nameExtension;
     }
 
     @SuppressWarnings("unused")
     public int getSpare2() {
-        getDecodedValue(() -> spare2, value -> spare2 = value, () -> getNumberOfBits() >= 272, () -> {
+        if (getNumberOfBits() >= 272 && !isDecoded(SPARE2)) {
             int extraBits = getNumberOfBits() - 272;
             int extraChars = extraBits/6;
             int extraBitsOfChars = extraChars*6;
-            return (extraBits == extraBitsOfChars) ? 0 : UNSIGNED_INTEGER_DECODER.apply(getBits(272 + extraBitsOfChars, getNumberOfBits()));
-        });
+            spare2 = (extraBits == extraBitsOfChars) ? 0 : getPayload().getUnsigned(272 + extraBitsOfChars, extraBits - extraBitsOfChars);
+            setDecoded(SPARE2);
+        }
         return spare2;
     }
 
@@ -182,23 +263,43 @@ public class AidToNavigationReport extends AISMessage {
                 "} " + super.toString();
     }
 
+    private static final int AID_TYPE = FIRST_FIELD;
+    private static final int NAME = FIRST_FIELD + 1;
+    private static final int POSITION_ACCURATE = FIRST_FIELD + 2;
+    private static final int LATITUDE = FIRST_FIELD + 3;
+    private static final int LONGITUDE = FIRST_FIELD + 4;
+    private static final int TO_BOW = FIRST_FIELD + 5;
+    private static final int TO_STERN = FIRST_FIELD + 6;
+    private static final int TO_PORT = FIRST_FIELD + 7;
+    private static final int TO_STARBOARD = FIRST_FIELD + 8;
+    private static final int POSITION_FIXING_DEVICE = FIRST_FIELD + 9;
+    private static final int SECOND = FIRST_FIELD + 10;
+    private static final int OFF_POSITION = FIRST_FIELD + 11;
+    private static final int REGIONAL_USE = FIRST_FIELD + 12;
+    private static final int RAIM_FLAG = FIRST_FIELD + 13;
+    private static final int VIRTUAL_AID = FIRST_FIELD + 14;
+    private static final int ASSIGNED_MODE = FIRST_FIELD + 15;
+    private static final int SPARE1 = FIRST_FIELD + 16;
+    private static final int NAME_EXTENSION = FIRST_FIELD + 17;
+    private static final int SPARE2 = FIRST_FIELD + 18;
+
     private transient AidType aidType;
     private transient String name;
-    private transient Boolean positionAccurate;
-    private transient Float latitude;
-    private transient Float longitude;
-    private transient Integer toBow;
-    private transient Integer toStern;
-    private transient Integer toPort;
-    private transient Integer toStarboard;
+    private transient boolean positionAccurate;
+    private transient float latitude;
+    private transient float longitude;
+    private transient int toBow;
+    private transient int toStern;
+    private transient int toPort;
+    private transient int toStarboard;
     private transient PositionFixingDevice positionFixingDevice;
-    private transient Integer second;
-    private transient Boolean offPosition;
+    private transient int second;
+    private transient boolean offPosition;
     private transient String regionalUse;
-    private transient Boolean raimFlag;
-    private transient Boolean virtualAid;
-    private transient Boolean assignedMode;
-    private transient Integer spare1;
+    private transient boolean raimFlag;
+    private transient boolean virtualAid;
+    private transient boolean assignedMode;
+    private transient int spare1;
     private transient String nameExtension;
-    private transient Integer spare2;
+    private transient int spare2;
 }
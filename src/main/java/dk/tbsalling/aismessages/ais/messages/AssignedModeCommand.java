@@ -16,11 +16,10 @@
 
 package dk.tbsalling.aismessages.ais.messages;
 
+import dk.tbsalling.aismessages.ais.BitBuffer;
 import dk.tbsalling.aismessages.ais.messages.types.AISMessageType;
 import dk.tbsalling.aismessages.ais.messages.types.MMSI;
 import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
-import static dk.tbsalling.aismessages.ais.Decoders.UNSIGNED_INTEGER_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.UNSIGNED_LONG_DECODER;
 
 /**
  * used by a base station with control authority to configure the scheduling of
@@ -32,19 +31,26 @@ import static dk.tbsalling.aismessages.ais.Decoders.UNSIGNED_LONG_DECODER;
  */
 public class AssignedModeCommand extends AISMessage {
 
+    private static final int DESTINATION_MMSI_A = FIRST_FIELD;
+    private static final int OFFSET_A = FIRST_FIELD + 1;
+    private static final int INCREMENT_A = FIRST_FIELD + 2;
+    private static final int DESTINATION_MMSI_B = FIRST_FIELD + 3;
+    private static final int OFFSET_B = FIRST_FIELD + 4;
+    private static final int INCREMENT_B = FIRST_FIELD + 5;
+
     private transient MMSI destinationMmsiA;
-    private transient Integer offsetA;
-    private transient Integer incrementA;
+    private transient int offsetA;
+    private transient int incrementA;
     private transient MMSI destinationMmsiB;
-    private transient Integer offsetB;
-    private transient Integer incrementB;
+    private transient int offsetB;
+    private transient int incrementB;
 
     public AssignedModeCommand(NMEAMessage[] nmeaMessages) throws Exception {
         super(nmeaMessages);
     }
 
-    protected AssignedModeCommand(NMEAMessage[] nmeaMessages, String bitString) throws Exception {
-        super(nmeaMessages, bitString);
+    protected AssignedModeCommand(NMEAMessage[] nmeaMessages, BitBuffer payload) throws Exception {
+        super(nmeaMessages, payload);
     }
 
     protected void checkAISMessage() {
@@ -56,32 +62,65 @@ public class AssignedModeCommand extends AISMessage {
 
     @SuppressWarnings("unused")
     public MMSI getDestinationMmsiA() {
-        return getDecodedValue(() -> destinationMmsiA, value -> destinationMmsiA = value, () -> Boolean.TRUE, () -> MMSI.valueOf(UNSIGNED_LONG_DECODER.apply(getBits(40, 70))));
+        if (!isDecoded(DESTINATION_MMSI_A)) {
+            destinationMmsiA = MMSI.valueOf(getPayload().getUnsignedLong(40, 30));
+            setDecoded(DESTINATION_MMSI_A);
+        }
+        return destinationMmsiA;
     }
 
     @SuppressWarnings("unused")
     public Integer getOffsetA() {
-        return getDecodedValue(() -> offsetA, value -> offsetA = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(70, 82)));
+        if (!isDecoded(OFFSET_A)) {
+            offsetA = getPayload().getUnsigned(70, 12);
+            setDecoded(OFFSET_A);
+        }
+        return offsetA;
     }
 
     @SuppressWarnings("unused")
     public Integer getIncrementA() {
-        return getDecodedValue(() -> incrementA, value -> incrementA = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(82, 92)));
+        if (!isDecoded(INCREMENT_A)) {
+            incrementA = getPayload().getUnsigned(82, 10);
+            setDecoded(INCREMENT_A);
+        }
+        return incrementA;
     }
 
     @SuppressWarnings("unused")
     public MMSI getDestinationMmsiB() {
-        return getDecodedValue(() -> destinationMmsiB, value -> destinationMmsiB = value, () -> getNumberOfBits() >= 144, () -> MMSI.valueOf(UNSIGNED_LONG_DECODER.apply(getBits(92, 122))));
+        if (getNumberOfBits() < 144) {
+            return null;
+        }
+        if (!isDecoded(DESTINATION_MMSI_B)) {
+            destinationMmsiB = MMSI.valueOf(getPayload().getUnsignedLong(92, 30));
+            setDecoded(DESTINATION_MMSI_B);
+        }
+        return destinationMmsiB;
     }
 
     @SuppressWarnings("unused")
     public Integer getOffsetB() {
-        return getDecodedValue(() -> offsetB, value -> offsetB = value, () -> getNumberOfBits() >= 144, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(122, 134)));
+        if (getNumberOfBits() < 144) {
+            return null;
+        }
+        if (!isDecoded(OFFSET_B)) {
+            offsetB = getPayload().getUnsigned(122, 12);
+            setDecoded(OFFSET_B);
+        }
+        return offsetB;
     }
 
     @SuppressWarnings("unused")
     public Integer getIncrementB() {
-        return getDecodedValue(() -> incrementB, value -> incrementB = value, () -> getNumberOfBits() >= 144, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(134, 144)));
+        if (getNumberOfBits() < 144) {
+            return null;
+        }
+        if (!isDecoded(INCREMENT_B)) {
+            incrementB = getPayload().getUnsigned(134, 10);
+            setDecoded(INCREMENT_B);
+        }
+        return incrementB;
     }
 
     @Override
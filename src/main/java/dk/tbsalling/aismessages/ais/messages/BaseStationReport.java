@@ -16,12 +16,12 @@
 
 package dk.tbsalling.aismessages.ais.messages;
 
+import dk.tbsalling.aismessages.ais.BitBuffer;
 import dk.tbsalling.aismessages.ais.messages.types.AISMessageType;
 import dk.tbsalling.aismessages.ais.messages.types.PositionFixingDevice;
 import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
-import static dk.tbsalling.aismessages.ais.Decoders.BOOLEAN_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.FLOAT_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.UNSIGNED_INTEGER_DECODER;
+import static dk.tbsalling.aismessages.ais.Decoders.decodeBoolean;
+import static dk.tbsalling.aismessages.ais.Decoders.decodeSignedFixedPoint;
 
 /**
  * This message is to be used by fixed-location base stations to periodically report a position and time reference.
@@ -35,8 +35,8 @@ public class BaseStationReport extends AISMessage {
         super(nmeaMessages);
     }
 
-    protected BaseStationReport(NMEAMessage[] nmeaMessages, String bitString) throws Exception {
-        super(nmeaMessages, bitString);
+    protected BaseStationReport(NMEAMessage[] nmeaMessages, BitBuffer payload) throws Exception {
+        super(nmeaMessages, payload);
     }
 
     protected void checkAISMessage() {
@@ -48,57 +48,101 @@ public class BaseStationReport extends AISMessage {
 
     @SuppressWarnings("unused")
 	public Integer getYear() {
-        return getDecodedValue(() -> year, value -> year = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(38, 52)));
+        if (!isDecoded(YEAR)) {
+            year = getPayload().getUnsigned(38, 14);
+            setDecoded(YEAR);
+        }
+        return year;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getMonth() {
-        return getDecodedValue(() -> month, value -> month = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(52, 56)));
+        if (!isDecoded(MONTH)) {
+            month = getPayload().getUnsigned(52, 4);
+            setDecoded(MONTH);
+        }
+        return month;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getDay() {
-        return getDecodedValue(() -> day, value -> day = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(56, 61)));
+        if (!isDecoded(DAY)) {
+            day = getPayload().getUnsigned(56, 5);
+            setDecoded(DAY);
+        }
+        return day;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getHour() {
-        return getDecodedValue(() -> hour, value -> hour = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(61, 66)));
+        if (!isDecoded(HOUR)) {
+            hour = getPayload().getUnsigned(61, 5);
+            setDecoded(HOUR);
+        }
+        return hour;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getMinute() {
-        return getDecodedValue(() -> minute, value -> minute = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(66, 72)));
+        if (!isDecoded(MINUTE)) {
+            minute = getPayload().getUnsigned(66, 6);
+            setDecoded(MINUTE);
+        }
+        return minute;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getSecond() {
-        return getDecodedValue(() -> second, value -> second = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(72, 78)));
+        if (!isDecoded(SECOND)) {
+            second = getPayload().getUnsigned(72, 6);
+            setDecoded(SECOND);
+        }
+        return second;
 	}
 
     @SuppressWarnings("unused")
 	public Boolean getPositionAccurate() {
-        return getDecodedValue(() -> positionAccurate, value -> positionAccurate = value, () -> Boolean.TRUE, () -> BOOLEAN_DECODER.apply(getBits(78, 79)));
+        if (!isDecoded(POSITION_ACCURATE)) {
+            positionAccurate = decodeBoolean(getPayload(), 78);
+            setDecoded(POSITION_ACCURATE);
+        }
+        return positionAccurate;
 	}
 
     @SuppressWarnings("unused")
 	public Float getLatitude() {
-        return getDecodedValue(() -> latitude, value -> latitude = value, () -> Boolean.TRUE, () -> FLOAT_DECODER.apply(getBits(107, 134)) / 600000f);
+        if (!isDecoded(LATITUDE)) {
+            latitude = decodeSignedFixedPoint(getPayload(), 107, 27, 600000f);
+            setDecoded(LATITUDE);
+        }
+        return latitude;
 	}
 
     @SuppressWarnings("unused")
 	public Float getLongitude() {
-        return getDecodedValue(() -> longitude, value -> longitude = value, () -> Boolean.TRUE, () -> FLOAT_DECODER.apply(getBits(79, 107)) / 600000f);
+        if (!isDecoded(LONGITUDE)) {
+            longitude = decodeSignedFixedPoint(getPayload(), 79, 28, 600000f);
+            setDecoded(LONGITUDE);
+        }
+        return longitude;
 	}
 
     @SuppressWarnings("unused")
 	public PositionFixingDevice getPositionFixingDevice() {
-        return getDecodedValue(() -> positionFixingDevice, value -> positionFixingDevice = value, () -> Boolean.TRUE, () -> PositionFixingDevice.fromInteger(UNSIGNED_INTEGER_DECODER.apply(getBits(134, 138))));
+        if (!isDecoded(POSITION_FIXING_DEVICE)) {
+            positionFixingDevice = PositionFixingDevice.fromInteger(getPayload().getUnsigned(134, 4));
+            setDecoded(POSITION_FIXING_DEVICE);
+        }
+        return positionFixingDevice;
 	}
 
     @SuppressWarnings("unused")
 	public Boolean getRaimFlag() {
-        return getDecodedValue(() -> raimFlag, value -> raimFlag = value, () -> Boolean.TRUE, () -> BOOLEAN_DECODER.apply(getBits(148, 149)));
+        if (!isDecoded(RAIM_FLAG)) {
+            raimFlag = decodeBoolean(getPayload(), 148);
+            setDecoded(RAIM_FLAG);
+        }
+        return raimFlag;
 	}
 
     @Override
@@ -119,15 +163,27 @@ public class BaseStationReport extends AISMessage {
                 "} " + super.toString();
     }
 
-    private transient Integer year;
-    private transient Integer month;
-    private transient Integer day;
-    private transient Integer hour;
-    private transient Integer minute;
-    private transient Integer second;
-    private transient Boolean positionAccurate;
-    private transient Float latitude;
-    private transient Float longitude;
+    private static final int YEAR = FIRST_FIELD;
+    private static final int MONTH = FIRST_FIELD + 1;
+    private static final int DAY = FIRST_FIELD + 2;
+    private static final int HOUR = FIRST_FIELD + 3;
+    private static final int MINUTE = FIRST_FIELD + 4;
+    private static final int SECOND = FIRST_FIELD + 5;
+    private static final int POSITION_ACCURATE = FIRST_FIELD + 6;
+    private static final int LATITUDE = FIRST_FIELD + 7;
+    private static final int LONGITUDE = FIRST_FIELD + 8;
+    private static final int POSITION_FIXING_DEVICE = FIRST_FIELD + 9;
+    private static final int RAIM_FLAG = FIRST_FIELD + 10;
+
+    private transient int year;
+    private transient int month;
+    private transient int day;
+    private transient int hour;
+    private transient int minute;
+    private transient int second;
+    private transient boolean positionAccurate;
+    private transient float latitude;
+    private transient float longitude;
     private transient PositionFixingDevice positionFixingDevice;
-    private transient Boolean raimFlag;
+    private transient boolean raimFlag;
 }
@@ -16,10 +16,10 @@
 
 package dk.tbsalling.aismessages.ais.messages;
 
+import dk.tbsalling.aismessages.ais.BitBuffer;
 import dk.tbsalling.aismessages.ais.messages.types.AISMessageType;
 import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
 import static dk.tbsalling.aismessages.ais.Decoders.BIT_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.UNSIGNED_INTEGER_DECODER;
 
 /**
  * broadcast message with unspecified binary payload. The St. Lawrence Seaway
@@ -37,8 +37,8 @@ public class BinaryBroadcastMessage extends AISMessage {
         super(nmeaMessages);
     }
 
-    protected BinaryBroadcastMessage(NMEAMessage[] nmeaMessages, String bitString) throws Exception {
-        super(nmeaMessages, bitString);
+    protected BinaryBroadcastMessage(NMEAMessage[] nmeaMessages, BitBuffer payload) throws Exception {
+        super(nmeaMessages, payload);
     }
 
     protected void checkAISMessage() {
@@ -50,17 +50,29 @@ public class BinaryBroadcastMessage extends AISMessage {
 
     @SuppressWarnings("unused")
 	public Integer getDesignatedAreaCode() {
-        return getDecodedValue(() -> designatedAreaCode, value -> designatedAreaCode = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(38, 52)));
+        if (!isDecoded(DESIGNATED_AREA_CODE)) {
+            designatedAreaCode = getPayload().getUnsigned(38, 14);
+            setDecoded(DESIGNATED_AREA_CODE);
+        }
+        return designatedAreaCode;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getFunctionalId() {
-        return getDecodedValue(() -> functionalId, value -> functionalId = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(52, 56)));
+        if (!isDecoded(FUNCTIONAL_ID)) {
+            functionalId = getPayload().getUnsigned(52, 4);
+            setDecoded(FUNCTIONAL_ID);
+        }
+        return functionalId;
 	}
 
     @SuppressWarnings("unused")
 	public String getBinaryData() {
-        return getDecodedValue(() -> binaryData, value -> binaryData = value, () -> Boolean.TRUE, () -> BIT_DECODER.apply(getBits(52, 56)));
+        if (!isDecoded(BINARY_DATA)) {
+            binaryData = BIT_DECODER.apply(getBits(52, 56));
+            setDecoded(BINARY_DATA);
+        }
+        return binaryData;
 	}
 
     @Override
@@ -73,7 +85,11 @@ public class BinaryBroadcastMessage extends AISMessage {
                 "} " + super.toString();
     }
 
-    private transient Integer designatedAreaCode;
-	private transient Integer functionalId;
+    private static final int DESIGNATED_AREA_CODE = FIRST_FIELD;
+    private static final int FUNCTIONAL_ID = FIRST_FIELD + 1;
+    private static final int BINARY_DATA = FIRST_FIELD + 2;
+
+    private transient int designatedAreaCode;
+	private transient int functionalId;
 	private transient String binaryData;
 }
@@ -16,13 +16,12 @@
 
 package dk.tbsalling.aismessages.ais.messages;
 
+import dk.tbsalling.aismessages.ais.BitBuffer;
 import dk.tbsalling.aismessages.ais.messages.types.AISMessageType;
 import dk.tbsalling.aismessages.ais.messages.types.MMSI;
 import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
 import static dk.tbsalling.aismessages.ais.Decoders.BIT_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.BOOLEAN_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.UNSIGNED_INTEGER_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.UNSIGNED_LONG_DECODER;
+import static dk.tbsalling.aismessages.ais.Decoders.decodeBoolean;
 
 @SuppressWarnings("serial")
 public class BinaryMessageMultipleSlot extends AISMessage {
@@ -31,8 +30,8 @@ public class BinaryMessageMultipleSlot extends AISMessage {
         super(nmeaMessages);
     }
 
-    protected BinaryMessageMultipleSlot(NMEAMessage[] nmeaMessages, String bitString) throws Exception {
-        super(nmeaMessages, bitString);
+    protected BinaryMessageMultipleSlot(NMEAMessage[] nmeaMessages, BitBuffer payload) throws Exception {
+        super(nmeaMessages, payload);
     }
 
     protected void checkAISMessage() {
@@ -44,27 +43,47 @@ public class BinaryMessageMultipleSlot extends AISMessage {
 
     @SuppressWarnings("unused")
     public Boolean getAddressed() {
-        return getDecodedValue(() -> addressed, value -> addressed = value, () -> Boolean.TRUE, () -> BOOLEAN_DECODER.apply(getBits(38, 39)));
+        if (!isDecoded(ADDRESSED)) {
+            addressed = decodeBoolean(getPayload(), 38);
+            setDecoded(ADDRESSED);
+        }
+        return addressed;
     }
 
     @SuppressWarnings("unused")
     public Boolean getStructured() {
-        return getDecodedValue(() -> structured, value -> structured = value, () -> Boolean.TRUE, () -> BOOLEAN_DECODER.apply(getBits(39, 40)));
+        if (!isDecoded(STRUCTURED)) {
+            structured = decodeBoolean(getPayload(), 39);
+            setDecoded(STRUCTURED);
+        }
+        return structured;
     }
 
     @SuppressWarnings("unused")
     public MMSI getDestinationMmsi() {
-        return getDecodedValue(() -> destinationMmsi, value -> destinationMmsi = value, () -> Boolean.TRUE, () -> MMSI.valueOf(UNSIGNED_LONG_DECODER.apply(getBits(40, 70))));
+        if (!isDecoded(DESTINATION_MMSI)) {
+            destinationMmsi = MMSI.valueOf(getPayload().getUnsignedLong(40, 30));
+            setDecoded(DESTINATION_MMSI);
+        }
+        return destinationMmsi;
     }
 
     @SuppressWarnings("unused")
     public Integer getApplicationId() {
-        return getDecodedValue(() -> applicationId, value -> applicationId = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(70, 86)));
+        if (!isDecoded(APPLICATION_ID)) {
+            applicationId = getPayload().getUnsigned(70, 16);
+            setDecoded(APPLICATION_ID);
+        }
+        return applicationId;
     }
 
     @SuppressWarnings("unused")
     public String getData() {
-        return getDecodedValue(() -> data, value -> data = value, () -> Boolean.TRUE, () -> BIT_DECODER.apply(getBits(86, 86 + 1004 + 1)));
+        if (!isDecoded(DATA)) {
+            data = BIT_DECODER.apply(getBits(86, 86 + 1004 + 1));
+            setDecoded(DATA);
+        }
+        return data;
     }
 
     @SuppressWarnings("unused")
@@ -85,10 +104,16 @@ public class BinaryMessageMultipleSlot extends AISMessage {
                 "} " + super.toString();
     }
 
-    private transient Boolean addressed;
-    private transient Boolean structured;
+    private static final int ADDRESSED = FIRST_FIELD;
+    private static final int STRUCTURED = FIRST_FIELD + 1;
+    private static final int DESTINATION_MMSI = FIRST_FIELD + 2;
+    private static final int APPLICATION_ID = FIRST_FIELD + 3;
+    private static final int DATA = FIRST_FIELD + 4;
+
+    private transient boolean addressed;
+    private transient boolean structured;
     private transient MMSI destinationMmsi;
-    private transient Integer applicationId;
+    private transient int applicationId;
     private transient String data;
     // private transient String radioStatus;
 }
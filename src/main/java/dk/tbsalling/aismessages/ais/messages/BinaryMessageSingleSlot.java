@@ -16,12 +16,12 @@
 
 package dk.tbsalling.aismessages.ais.messages;
 
+import dk.tbsalling.aismessages.ais.BitBuffer;
 import dk.tbsalling.aismessages.ais.messages.types.AISMessageType;
 import dk.tbsalling.aismessages.ais.messages.types.MMSI;
 import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
 import static dk.tbsalling.aismessages.ais.Decoders.BIT_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.BOOLEAN_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.UNSIGNED_LONG_DECODER;
+import static dk.tbsalling.aismessages.ais.Decoders.decodeBoolean;
 
 @SuppressWarnings("serial")
 public class BinaryMessageSingleSlot extends AISMessage {
@@ -30,8 +30,8 @@ public class BinaryMessageSingleSlot extends AISMessage {
         super(nmeaMessages);
     }
 
-    protected BinaryMessageSingleSlot(NMEAMessage[] nmeaMessages, String bitString) throws Exception {
-        super(nmeaMessages, bitString);
+    protected BinaryMessageSingleSlot(NMEAMessage[] nmeaMessages, BitBuffer payload) throws Exception {
+        super(nmeaMessages, payload);
     }
 
     protected void checkAISMessage() {
@@ -43,22 +43,38 @@ public class BinaryMessageSingleSlot extends AISMessage {
 
     @SuppressWarnings("unused")
 	public Boolean getDestinationIndicator() {
-        return getDecodedValue(() -> destinationIndicator, value -> destinationIndicator = value, () -> Boolean.TRUE, () -> BOOLEAN_DECODER.apply(getBits(38, 39)));
+        if (!isDecoded(DESTINATION_INDICATOR)) {
+            destinationIndicator = decodeBoolean(getPayload(), 38);
+            setDecoded(DESTINATION_INDICATOR);
+        }
+        return destinationIndicator;
 	}
 
     @SuppressWarnings("unused")
 	public Boolean getBinaryDataFlag() {
-        return getDecodedValue(() -> binaryDataFlag, value -> binaryDataFlag = value, () -> Boolean.TRUE, () -> BOOLEAN_DECODER.apply(getBits(39, 40)));
+        if (!isDecoded(BINARY_DATA_FLAG)) {
+            binaryDataFlag = decodeBoolean(getPayload(), 39);
+            setDecoded(BINARY_DATA_FLAG);
+        }
+        return binaryDataFlag;
 	}
 
     @SuppressWarnings("unused")
 	public MMSI getDestinationMMSI() {
-        return getDecodedValue(() -> destinationMMSI, value -> destinationMMSI = value, () -> Boolean.TRUE, () -> MMSI.valueOf(UNSIGNED_LONG_DECODER.apply(getBits(40, 70))));
+        if (!isDecoded(DESTINATION_MMSI)) {
+            destinationMMSI = MMSI.valueOf(getPayload().getUnsignedLong(40, 30));
+            setDecoded(DESTINATION_MMSI);
+        }
+        return destinationMMSI;
 	}
 
     @SuppressWarnings("unused")
 	public String getBinaryData() {
-        return getDecodedValue(() -> binaryData, value -> binaryData = value, () -> Boolean.TRUE, () -> BIT_DECODER.apply(getBits(40, 168)));
+        if (!isDecoded(BINARY_DATA)) {
+            binaryData = BIT_DECODER.apply(getBits(40, 168));
+            setDecoded(BINARY_DATA);
+        }
+        return binaryData;
 	}
 
     @Override
@@ -72,8 +88,13 @@ public class BinaryMessageSingleSlot extends AISMessage {
                 "} " + super.toString();
     }
 
-    private transient Boolean destinationIndicator;
-    private transient Boolean binaryDataFlag;
+    private static final int DESTINATION_INDICATOR = FIRST_FIELD;
+    private static final int BINARY_DATA_FLAG = FIRST_FIELD + 1;
+    private static final int DESTINATION_MMSI = FIRST_FIELD + 2;
+    private static final int BINARY_DATA = FIRST_FIELD + 3;
+
+    private transient boolean destinationIndicator;
+    private transient boolean binaryDataFlag;
     private transient MMSI destinationMMSI;
     private transient String binaryData;
 }
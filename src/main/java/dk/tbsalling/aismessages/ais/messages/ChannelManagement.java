@@ -16,14 +16,13 @@
 
 package dk.tbsalling.aismessages.ais.messages;
 
+import dk.tbsalling.aismessages.ais.BitBuffer;
 import dk.tbsalling.aismessages.ais.messages.types.AISMessageType;
 import dk.tbsalling.aismessages.ais.messages.types.MMSI;
 import dk.tbsalling.aismessages.ais.messages.types.TxRxMode;
 import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
-import static dk.tbsalling.aismessages.ais.Decoders.BOOLEAN_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.FLOAT_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.UNSIGNED_INTEGER_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.UNSIGNED_LONG_DECODER;
+import static dk.tbsalling.aismessages.ais.Decoders.decodeBoolean;
+import static dk.tbsalling.aismessages.ais.Decoders.decodeSignedFixedPoint;
 
 @SuppressWarnings("serial")
 public class ChannelManagement extends AISMessage {
@@ -32,8 +31,8 @@ public class ChannelManagement extends AISMessage {
         super(nmeaMessages);
     }
 
-    protected ChannelManagement(NMEAMessage[] nmeaMessages, String bitString) throws Exception {
-        super(nmeaMessages, bitString);
+    protected ChannelManagement(NMEAMessage[] nmeaMessages, BitBuffer payload) throws Exception {
+        super(nmeaMessages, payload);
     }
 
     protected void checkAISMessage() {
@@ -45,72 +44,146 @@ public class ChannelManagement extends AISMessage {
 
     @SuppressWarnings("unused")
 	public Integer getChannelA() {
-        return getDecodedValue(() -> channelA, value -> channelA = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(40, 52)));
+        if (!isDecoded(CHANNEL_A)) {
+            channelA = getPayload().getUnsigned(40, 12);
+            setDecoded(CHANNEL_A);
+        }
+        return channelA;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getChannelB() {
-        return getDecodedValue(() -> channelB, value -> channelB = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(52, 64)));
+        if (!isDecoded(CHANNEL_B)) {
+            channelB = getPayload().getUnsigned(52, 12);
+            setDecoded(CHANNEL_B);
+        }
+        return channelB;
 	}
 
     @SuppressWarnings("unused")
 	public TxRxMode getTransmitReceiveMode() {
-        return getDecodedValue(() -> transmitReceiveMode, value -> transmitReceiveMode = value, () -> Boolean.TRUE, () -> TxRxMode.fromInteger(UNSIGNED_INTEGER_DECODER.apply(getBits(64, 68))));
+        if (!isDecoded(TRANSMIT_RECEIVE_MODE)) {
+            transmitReceiveMode = TxRxMode.fromInteger(getPayload().getUnsigned(64, 4));
+            setDecoded(TRANSMIT_RECEIVE_MODE);
+        }
+        return transmitReceiveMode;
 	}
 
     @SuppressWarnings("unused")
 	public Boolean getPower() {
-        return getDecodedValue(() -> power, value -> power = value, () -> Boolean.TRUE, () -> BOOLEAN_DECODER.apply(getBits(68, 69)));
+        if (!isDecoded(POWER)) {
+            power = decodeBoolean(getPayload(), 68);
+            setDecoded(POWER);
+        }
+        return power;
 	}
 
     @SuppressWarnings("unused")
 	public Float getNorthEastLongitude() {
-        return getDecodedValue(() -> northEastLongitude, value -> northEastLongitude = value, () -> !getAddressed(), () -> FLOAT_DECODER.apply(getBits(69, 87)) / 10f);
+        if (getAddressed()) {
+            return null;
+        }
+        if (!isDecoded(NORTH_EAST_LONGITUDE)) {
+            northEastLongitude = decodeSignedFixedPoint(getPayload(), 69, 18, 10f);
+            setDecoded(NORTH_EAST_LONGITUDE);
+        }
+        return northEastLongitude;
 	}
 
     @SuppressWarnings("unused")
 	public Float getNorthEastLatitude() {
-        return getDecodedValue(() -> northEastLatitude, value -> northEastLatitude = value, () -> !getAddressed(), () -> FLOAT_DECODER.apply(getBits(87, 104)) / 10f);
+        if (getAddressed()) {
+            return null;
+        }
+        if (!isDecoded(NORTH_EAST_LATITUDE)) {
+            northEastLatitude = decodeSignedFixedPoint(getPayload(), 87, 17, 10f);
+            setDecoded(NORTH_EAST_LATITUDE);
+        }
+        return northEastLatitude;
 	}
 
     @SuppressWarnings("unused")
 	public Float getSouthWestLongitude() {
-        return getDecodedValue(() -> southWestLongitude, value -> southWestLongitude = value, () -> !getAddressed(), () -> FLOAT_DECODER.apply(getBits(104, 122)) / 10f);
+        if (getAddressed()) {
+            return null;
+        }
+        if (!isDecoded(SOUTH_WEST_LONGITUDE)) {
+            southWestLongitude = decodeSignedFixedPoint(getPayload(), 104, 18, 10f);
+            setDecoded(SOUTH_WEST_LONGITUDE);
+        }
+        return southWestLongitude;
 	}
 
     @SuppressWarnings("unused")
 	public Float getSouthWestLatitude() {
-        return getDecodedValue(() -> southWestLatitude, value -> southWestLatitude = value, () -> !getAddressed(), () -> FLOAT_DECODER.apply(getBits(122, 138)) / 10f);
+        if (getAddressed()) {
+            return null;
+        }
+        if (!isDecoded(SOUTH_WEST_LATITUDE)) {
+            southWestLatitude = decodeSignedFixedPoint(getPayload(), 122, 16, 10f);
+            setDecoded(SOUTH_WEST_LATITUDE);
+        }
+        return southWestLatitude;
 	}
 
     @SuppressWarnings("unused")
 	public MMSI getDestinationMmsi1() {
-        return getDecodedValue(() -> destinationMmsi1, value -> destinationMmsi1 = value, () -> getAddressed(), () -> MMSI.valueOf(UNSIGNED_LONG_DECODER.apply(getBits(69, 99))));
+        if (!getAddressed()) {
+            return null;
+        }
+        if (!isDecoded(DESTINATION_MMSI1)) {
+            destinationMmsi1 = MMSI.valueOf(getPayload().getUnsignedLong(69, 30));
+            setDecoded(DESTINATION_MMSI1);
+        }
+        return destinationMmsi1;
 	}
 
     @SuppressWarnings("unused")
 	public MMSI getDestinationMmsi2() {
-        return getDecodedValue(() -> destinationMmsi2, value -> destinationMmsi2 = value, () -> getAddressed(), () -> MMSI.valueOf(UNSIGNED_LONG_DECODER.apply(getBits(104, 134))));
+        if (!getAddressed()) {
+            return null;
+        }
+        if (!isDecoded(DESTINATION_MMSI2)) {
+            destinationMmsi2 = MMSI.valueOf(getPayload().getUnsignedLong(104, 30));
+            setDecoded(DESTINATION_MMSI2);
+        }
+        return destinationMmsi2;
 	}
 
     @SuppressWarnings("unused")
 	public Boolean getAddressed() {
-        return getDecodedValue(() -> addressed, value -> addressed = value, () -> Boolean.TRUE, () -> BOOLEAN_DECODER.apply(getBits(139, 140)));
+        if (!isDecoded(ADDRESSED)) {
+            addressed = decodeBoolean(getPayload(), 139);
+            setDecoded(ADDRESSED);
+        }
+        return addressed;
 	}
 
     @SuppressWarnings("unused")
 	public Boolean getBandA() {
-        return getDecodedValue(() -> bandA, value -> bandA = value, () -> Boolean.TRUE, () -> BOOLEAN_DECODER.apply(getBits(140, 141)));
+        if (!isDecoded(BAND_A)) {
+            bandA = decodeBoolean(getPayload(), 140);
+            setDecoded(BAND_A);
+        }
+        return bandA;
 	}
 
     @SuppressWarnings("unused")
 	public Boolean getBandB() {
-        return getDecodedValue(() -> bandB, value -> bandB = value, () -> Boolean.TRUE, () -> BOOLEAN_DECODER.apply(getBits(141, 142)));
+        if (!isDecoded(BAND_B)) {
+            bandB = decodeBoolean(getPayload(), 141);
+            setDecoded(BAND_B);
+        }
+        return bandB;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getZoneSize() {
-        return getDecodedValue(() -> zoneSize, value -> zoneSize = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(142, 145)));
+        if (!isDecoded(ZONE_SIZE)) {
+            zoneSize = getPayload().getUnsigned(142, 3);
+            setDecoded(ZONE_SIZE);
+        }
+        return zoneSize;
 	}
 
     @Override
@@ -134,18 +207,33 @@ public class ChannelManagement extends AISMessage {
                 "} " + super.toString();
     }
 
-    private transient Integer channelA;
-    private transient Integer channelB;
+    private static final int CHANNEL_A = FIRST_FIELD;
+    private static final int CHANNEL_B = FIRST_FIELD + 1;
+    private static final int TRANSMIT_RECEIVE_MODE = FIRST_FIELD + 2;
+    private static final int POWER = FIRST_FIELD + 3;
+    private static final int NORTH_EAST_LONGITUDE = FIRST_FIELD + 4;
+    private static final int NORTH_EAST_LATITUDE = FIRST_FIELD + 5;
+    private static final int SOUTH_WEST_LONGITUDE = FIRST_FIELD + 6;
+    private static final int SOUTH_WEST_LATITUDE = FIRST_FIELD + 7;
+    private static final int DESTINATION_MMSI1 = FIRST_FIELD + 8;
+    private static final int DESTINATION_MMSI2 = FIRST_FIELD + 9;
+    private static final int ADDRESSED = FIRST_FIELD + 10;
+    private static final int BAND_A = FIRST_FIELD + 11;
+    private static final int BAND_B = FIRST_FIELD + 12;
+    private static final int ZONE_SIZE = FIRST_FIELD + 13;
+
+    private transient int channelA;
+    private transient int channelB;
     private transient TxRxMode transmitReceiveMode;
-    private transient Boolean power;
-    private transient Float northEastLongitude;
-    private transient Float northEastLatitude;
-    private transient Float southWestLongitude;
-    private transient Float southWestLatitude;
+    private transient boolean power;
+    private transient float northEastLongitude;
+    private transient float northEastLatitude;
+    private transient float southWestLongitude;
+    private transient float southWestLatitude;
     private transient MMSI destinationMmsi1;
     private transient MMSI destinationMmsi2;
-    private transient Boolean addressed;
-    private transient Boolean bandA;
-    private transient Boolean bandB;
-    private transient Integer zoneSize;
+    private transient boolean addressed;
+    private transient boolean bandA;
+    private transient boolean bandB;
+    private transient int zoneSize;
 }
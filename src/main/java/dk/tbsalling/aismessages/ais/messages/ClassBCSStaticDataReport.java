@@ -16,13 +16,16 @@
 
 package dk.tbsalling.aismessages.ais.messages;
 
+import dk.tbsalling.aismessages.ais.BitBuffer;
 import dk.tbsalling.aismessages.ais.messages.types.AISMessageType;
 import dk.tbsalling.aismessages.ais.messages.types.MMSI;
 import dk.tbsalling.aismessages.ais.messages.types.ShipType;
 import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
-import static dk.tbsalling.aismessages.ais.Decoders.STRING_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.UNSIGNED_INTEGER_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.UNSIGNED_LONG_DECODER;
+
+import java.io.IOException;
+
+import static dk.tbsalling.aismessages.ais.Decoders.appendText;
+import static dk.tbsalling.aismessages.ais.Decoders.decodeText;
 
 @SuppressWarnings("serial")
 public class ClassBCSStaticDataReport extends AISMessage {
@@ -31,8 +34,8 @@ public class ClassBCSStaticDataReport extends AISMessage {
         super(nmeaMessages);
     }
 
-    protected ClassBCSStaticDataReport(NMEAMessage[] nmeaMessages, String bitString) throws Exception {
-        super(nmeaMessages, bitString);
+    protected ClassBCSStaticDataReport(NMEAMessage[] nmeaMessages, BitBuffer payload) throws Exception {
+        super(nmeaMessages, payload);
     }
 
     protected void checkAISMessage() {
@@ -44,52 +47,135 @@ public class ClassBCSStaticDataReport extends AISMessage {
 
     @SuppressWarnings("unused")
 	public Integer getPartNumber() {
-        return getDecodedValue(() -> partNumber, value -> partNumber = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(38, 40)));
+        if (!isDecoded(PART_NUMBER)) {
+            partNumber = getPayload().getUnsigned(38, 2);
+            setDecoded(PART_NUMBER);
+        }
+        return partNumber;
 	}
 
     @SuppressWarnings("unused")
 	public String getShipName() {
-        return getDecodedValue(() -> shipName, value -> shipName = value, () -> getPartNumber() == 0, () -> STRING_DECODER.apply(getBits(40, 160)));
+        if (getPartNumber() != 0) {
+            return null;
+        }
+        if (!isDecoded(SHIP_NAME)) {
+            shipName = decodeText(getPayload(), 40, 20);
+            setDecoded(SHIP_NAME);
+        }
+        return shipName;
+	}
+
+    /** Append the ship name (part A only) to out without creating a String. */
+    @SuppressWarnings("unused")
+	public void appendShipName(Appendable out) throws IOException {
+        if (getPartNumber() == 0) {
+            appendText(getPayload(), 40, 20, out);
+        }
 	}
 
     @SuppressWarnings("unused")
 	public ShipType getShipType() {
-        return getDecodedValue(() -> shipType, value -> shipType = value, () -> getPartNumber() == 1, () -> ShipType.fromInteger(UNSIGNED_INTEGER_DECODER.apply(getBits(40, 48))));
+        if (getPartNumber() != 1) {
+            return null;
+        }
+        if (!isDecoded(SHIP_TYPE)) {
+            shipType = ShipType.fromInteger(getPayload().getUnsigned(40, 8));
+            setDecoded(SHIP_TYPE);
+        }
+        return shipType;
 	}
 
     @SuppressWarnings("unused")
 	public String getVendorId() {
-        return getDecodedValue(() -> vendorId, value -> vendorId = value, () -> getPartNumber() == 1, () -> STRING_DECODER.apply(getBits(48, 90)));
+        if (getPartNumber() != 1) {
+            return null;
+        }
+        if (!isDecoded(VENDOR_ID)) {
+            vendorId = decodeText(getPayload(), 48, 7);
+            setDecoded(VENDOR_ID);
+        }
+        return vendorId;
 	}
 
     @SuppressWarnings("unused")
 	public String getCallsign() {
-        return getDecodedValue(() -> callsign, value -> callsign = value, () -> getPartNumber() == 1, () -> STRING_DECODER.apply(getBits(90, 132)));
+        if (getPartNumber() != 1) {
+            return null;
+        }
+        if (!isDecoded(CALLSIGN)) {
+            callsign = decodeText(getPayload(), 90, 7);
+            setDecoded(CALLSIGN);
+        }
+        return callsign;
+	}
+
+    /** Append the callsign (part B only) to out without creating a String. */
+    @SuppressWarnings("unused")
+	public void appendCallsign(Appendable out) throws IOException {
+        if (getPartNumber() == 1) {
+            appendText(getPayload(), 90, 7, out);
+        }
 	}
 
     @SuppressWarnings("unused")
 	public Integer getToBow() {
-        return getDecodedValue(() -> toBow, value -> toBow = value, () -> getPartNumber() == 1, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(132, 141)));
+        if (getPartNumber() != 1) {
+            return null;
+        }
+        if (!isDecoded(TO_BOW)) {
+            toBow = getPayload().getUnsigned(132, 9);
+            setDecoded(TO_BOW);
+        }
+        return toBow;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getToStern() {
-        return getDecodedValue(() -> toStern, value -> toStern = value, () -> getPartNumber() == 1, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(141, 150)));
+        if (getPartNumber() != 1) {
+            return null;
+        }
+        if (!isDecoded(TO_STERN)) {
+            toStern = getPayload().getUnsigned(141, 9);
+            setDecoded(TO_STERN);
+        }
+        return toStern;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getToStarboard() {
-        return getDecodedValue(() -> toStarboard, value -> toStarboard = value, () -> getPartNumber() == 1, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(156, 162)));
+        if (getPartNumber() != 1) {
+            return null;
+        }
+        if (!isDecoded(TO_STARBOARD)) {
+            toStarboard = getPayload().getUnsigned(156, 6);
+            setDecoded(TO_STARBOARD);
+        }
+        return toStarboard;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getToPort() {
-        return getDecodedValue(() -> toPort, value -> toPort = value, () -> getPartNumber() == 1, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(150, 156)));
+        if (getPartNumber() != 1) {
+            return null;
+        }
+        if (!isDecoded(TO_PORT)) {
+            toPort = getPayload().getUnsigned(150, 6);
+            setDecoded(TO_PORT);
+        }
+        return toPort;
 	}
 
     @SuppressWarnings("unused")
 	public MMSI getMothershipMmsi() {
-        return getDecodedValue(() -> mothershipMmsi, value -> mothershipMmsi = value, () -> getPartNumber() == 1, () -> MMSI.valueOf(UNSIGNED_LONG_DECODER.apply(getBits(132, 162))));
+        if (getPartNumber() != 1) {
+            return null;
+        }
+        if (!isDecoded(MOTHERSHIP_MMSI)) {
+            mothershipMmsi = MMSI.valueOf(getPayload().getUnsignedLong(132, 30));
+            setDecoded(MOTHERSHIP_MMSI);
+        }
+        return mothershipMmsi;
 	}
 
     @Override
@@ -109,14 +195,25 @@ public class ClassBCSStaticDataReport extends AISMessage {
                 "} " + super.toString();
     }
 
-    private transient Integer partNumber;
+    private static final int PART_NUMBER = FIRST_FIELD;
+    private static final int SHIP_NAME = FIRST_FIELD + 1;
+    private static final int SHIP_TYPE = FIRST_FIELD + 2;
+    private static final int VENDOR_ID = FIRST_FIELD + 3;
+    private static final int CALLSIGN = FIRST_FIELD + 4;
+    private static final int TO_BOW = FIRST_FIELD + 5;
+    private static final int TO_STERN = FIRST_FIELD + 6;
+    private static final int TO_STARBOARD = FIRST_FIELD + 7;
+    private static final int TO_PORT = FIRST_FIELD + 8;
+    private static final int MOTHERSHIP_MMSI = FIRST_FIELD + 9;
+
+    private transient int partNumber;
     private transient String shipName;
     private transient ShipType shipType;
     private transient String vendorId;
     private transient String callsign;
-    private transient Integer toBow;
-    private transient Integer toStern;
-    private transient Integer toStarboard;
-    private transient Integer toPort;
+    private transient int toBow;
+    private transient int toStern;
+    private transient int toStarboard;
+    private transient int toPort;
     private transient MMSI mothershipMmsi;
 }
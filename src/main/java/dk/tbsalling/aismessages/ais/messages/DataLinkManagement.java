@@ -16,12 +16,12 @@
 
 package dk.tbsalling.aismessages.ais.messages;
 
+import dk.tbsalling.aismessages.ais.BitBuffer;
 import dk.tbsalling.aismessages.ais.messages.types.AISMessageType;
 import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
 
 import java.util.logging.Logger;
 
-import static dk.tbsalling.aismessages.ais.Decoders.UNSIGNED_INTEGER_DECODER;
 
 
 /**
@@ -42,8 +42,8 @@ public class DataLinkManagement extends AISMessage {
         super(nmeaMessages);
     }
 
-    protected DataLinkManagement(NMEAMessage[] nmeaMessages, String bitString) throws Exception {
-        super(nmeaMessages, bitString);
+    protected DataLinkManagement(NMEAMessage[] nmeaMessages, BitBuffer payload) throws Exception {
+        super(nmeaMessages, payload);
     }
 
     protected void checkAISMessage() {
@@ -55,82 +55,182 @@ public class DataLinkManagement extends AISMessage {
 
     @SuppressWarnings("unused")
 	public Integer getOffsetNumber1() {
-        return getDecodedValue(() -> offsetNumber1, value -> offsetNumber1 = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(40, 52)));
+        if (!isDecoded(OFFSET_NUMBER1)) {
+            offsetNumber1 = getPayload().getUnsigned(40, 12);
+            setDecoded(OFFSET_NUMBER1);
+        }
+        return offsetNumber1;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getReservedSlots1() {
-        return getDecodedValue(() -> reservedSlots1, value -> reservedSlots1 = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(52, 56)));
+        if (!isDecoded(RESERVED_SLOTS1)) {
+            reservedSlots1 = getPayload().getUnsigned(52, 4);
+            setDecoded(RESERVED_SLOTS1);
+        }
+        return reservedSlots1;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getTimeout1() {
-        return getDecodedValue(() -> timeout1, value -> timeout1 = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(56, 59)));
+        if (!isDecoded(TIMEOUT1)) {
+            timeout1 = getPayload().getUnsigned(56, 3);
+            setDecoded(TIMEOUT1);
+        }
+        return timeout1;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getIncrement1() {
-        return getDecodedValue(() -> increment1, value -> increment1 = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(59, 70)));
+        if (!isDecoded(INCREMENT1)) {
+            increment1 = getPayload().getUnsigned(59, 11);
+            setDecoded(INCREMENT1);
+        }
+        return increment1;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getOffsetNumber2() {
-        return getDecodedValue(() -> offsetNumber2, value -> offsetNumber2 = value, () -> getNumberOfBits() >= 100, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(70, 82)));
+        if (getNumberOfBits() < 100) {
+            return null;
+        }
+        if (!isDecoded(OFFSET_NUMBER2)) {
+            offsetNumber2 = getPayload().getUnsigned(70, 12);
+            setDecoded(OFFSET_NUMBER2);
+        }
+        return offsetNumber2;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getReservedSlots2() {
-        return getDecodedValue(() -> reservedSlots2, value -> reservedSlots2 = value, () -> getNumberOfBits() >= 100, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(82, 86)));
+        if (getNumberOfBits() < 100) {
+            return null;
+        }
+        if (!isDecoded(RESERVED_SLOTS2)) {
+            reservedSlots2 = getPayload().getUnsigned(82, 4);
+            setDecoded(RESERVED_SLOTS2);
+        }
+        return reservedSlots2;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getTimeout2() {
-        return getDecodedValue(() -> timeout2, value -> timeout2 = value, () -> getNumberOfBits() >= 100, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(86, 89)));
+        if (getNumberOfBits() < 100) {
+            return null;
+        }
+        if (!isDecoded(TIMEOUT2)) {
+            timeout2 = getPayload().getUnsigned(86, 3);
+            setDecoded(TIMEOUT2);
+        }
+        return timeout2;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getIncrement2() {
-        return getDecodedValue(() -> increment2, value -> increment2 = value, () -> getNumberOfBits() >= 100, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(89, 100)));
+        if (getNumberOfBits() < 100) {
+            return null;
+        }
+        if (!isDecoded(INCREMENT2)) {
+            increment2 = getPayload().getUnsigned(89, 11);
+            setDecoded(INCREMENT2);
+        }
+        return increment2;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getOffsetNumber3() {
-        return getDecodedValue(() -> offsetNumber3, value -> offsetNumber3 = value, () -> getNumberOfBits() >= 130, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(100, 112)));
+        if (getNumberOfBits() < 130) {
+            return null;
+        }
+        if (!isDecoded(OFFSET_NUMBER3)) {
+            offsetNumber3 = getPayload().getUnsigned(100, 12);
+            setDecoded(OFFSET_NUMBER3);
+        }
+        return offsetNumber3;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getReservedSlots3() {
-        return getDecodedValue(() -> reservedSlots3, value -> reservedSlots3 = value, () -> getNumberOfBits() >= 130, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(112, 116)));
+        if (getNumberOfBits() < 130) {
+            return null;
+        }
+        if (!isDecoded(RESERVED_SLOTS3)) {
+            reservedSlots3 = getPayload().getUnsigned(112, 4);
+            setDecoded(RESERVED_SLOTS3);
+        }
+        return reservedSlots3;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getTimeout3() {
-        return getDecodedValue(() -> timeout3, value -> timeout3 = value, () -> getNumberOfBits() >= 130, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(116, 119)));
+        if (getNumberOfBits() < 130) {
+            return null;
+        }
+        if (!isDecoded(TIMEOUT3)) {
+            timeout3 = getPayload().getUnsigned(116, 3);
+            setDecoded(TIMEOUT3);
+        }
+        return timeout3;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getIncrement3() {
-        return getDecodedValue(() -> increment3, value -> increment3 = value, () -> getNumberOfBits() >= 130, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(119, 130)));
+        if (getNumberOfBits() < 130) {
+            return null;
+        }
+        if (!isDecoded(INCREMENT3)) {
+            increment3 = getPayload().getUnsigned(119, 11);
+            setDecoded(INCREMENT3);
+        }
+        return increment3;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getOffsetNumber4() {
-        return getDecodedValue(() -> offsetNumber4, value -> offsetNumber4 = value, () -> getNumberOfBits() >= 160, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(130, 142)));
+        if (getNumberOfBits() < 160) {
+            return null;
+        }
+        if (!isDecoded(OFFSET_NUMBER4)) {
+            offsetNumber4 = getPayload().getUnsigned(130, 12);
+            setDecoded(OFFSET_NUMBER4);
+        }
+        return offsetNumber4;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getReservedSlots4() {
-        return getDecodedValue(() -> reservedSlots4, value -> reservedSlots4 = value, () -> getNumberOfBits() >= 160, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(142, 146)));
+        if (getNumberOfBits() < 160) {
+            return null;
+        }
+        if (!isDecoded(RESERVED_SLOTS4)) {
+            reservedSlots4 = getPayload().getUnsigned(142, 4);
+            setDecoded(RESERVED_SLOTS4);
+        }
+        return reservedSlots4;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getTimeout4() {
-        return getDecodedValue(() -> timeout4, value -> timeout4 = value, () -> getNumberOfBits() >= 160, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(146, 149)));
+        if (getNumberOfBits() < 160) {
+            return null;
+        }
+        if (!isDecoded(TIMEOUT4)) {
+            timeout4 = getPayload().getUnsigned(146, 3);
+            setDecoded(TIMEOUT4);
+        }
+        return timeout4;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getIncrement4() {
-        return getDecodedValue(() -> increment4, value -> increment4 = value, () -> getNumberOfBits() >= 160, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(149, 160)));
+        if (getNumberOfBits() < 160) {
+            return null;
+        }
+        if (!isDecoded(INCREMENT4)) {
+            increment4 = getPayload().getUnsigned(149, 11);
+            setDecoded(INCREMENT4);
+        }
+        return increment4;
 	}
 
     @Override
@@ -156,20 +256,37 @@ public class DataLinkManagement extends AISMessage {
                 "} " + super.toString();
     }
 
-    private transient Integer offsetNumber1;
-    private transient Integer reservedSlots1;
-    private transient Integer timeout1;
-    private transient Integer increment1;
-    private transient Integer offsetNumber2;
-    private transient Integer reservedSlots2;
-    private transient Integer timeout2;
-    private transient Integer increment2;
-    private transient Integer offsetNumber3;
-    private transient Integer reservedSlots3;
-    private transient Integer timeout3;
-    private transient Integer increment3;
-    private transient Integer offsetNumber4;
-    private transient Integer reservedSlots4;
-    private transient Integer timeout4;
-    private transient Integer increment4;
+    private static final int OFFSET_NUMBER1 = FIRST_FIELD;
+    private static final int RESERVED_SLOTS1 = FIRST_FIELD + 1;
+    private static final int TIMEOUT1 = FIRST_FIELD + 2;
+    private static final int INCREMENT1 = FIRST_FIELD + 3;
+    private static final int OFFSET_NUMBER2 = FIRST_FIELD + 4;
+    private static final int RESERVED_SLOTS2 = FIRST_FIELD + 5;
+    private static final int TIMEOUT2 = FIRST_FIELD + 6;
+    private static final int INCREMENT2 = FIRST_FIELD + 7;
+    private static final int OFFSET_NUMBER3 = FIRST_FIELD + 8;
+    private static final int RESERVED_SLOTS3 = FIRST_FIELD + 9;
+    private static final int TIMEOUT3 = FIRST_FIELD + 10;
+    private static final int INCREMENT3 = FIRST_FIELD + 11;
+    private static final int OFFSET_NUMBER4 = FIRST_FIELD + 12;
+    private static final int RESERVED_SLOTS4 = FIRST_FIELD + 13;
+    private static final int TIMEOUT4 = FIRST_FIELD + 14;
+    private static final int INCREMENT4 = FIRST_FIELD + 15;
+
+    private transient int offsetNumber1;
+    private transient int reservedSlots1;
+    private transient int timeout1;
+    private transient int increment1;
+    private transient int offsetNumber2;
+    private transient int reservedSlots2;
+    private transient int timeout2;
+    private transient int increment2;
+    private transient int offsetNumber3;
+    private transient int reservedSlots3;
+    private transient int timeout3;
+    private transient int increment3;
+    private transient int offsetNumber4;
+    private transient int reservedSlots4;
+    private transient int timeout4;
+    private transient int increment4;
 }
@@ -17,10 +17,16 @@
 package dk.tbsalling.aismessages.ais.messages;
 
 import dk.tbsalling.aismessages.ais.messages.types.AISMessageType;
+import dk.tbsalling.aismessages.nmea.DecodeStatus;
 import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
 
+import java.util.Arrays;
+
 /**
- * Identification and location message to be emitted by aids to navigation such as buoys and lighthouses.
+ * Holds NMEA messages which could not be decoded into an AIS message, together with the reason why.
+ * The NMEA messages are neither decoded nor validated, so an Error can be created for any input
+ * without exceptions being thrown; their payload is only unpacked if the source MMSI or repeat
+ * indicator is asked for.
  * @author tbsalling
  *
  */
@@ -34,8 +40,17 @@ public class Error extends AISMessage {
         return AISMessageType.Error;
     }
 
-    public Error(NMEAMessage[] nmeaMessages, String errorDescription) throws Exception {
-        super(nmeaMessages);
+    public Error(NMEAMessage[] nmeaMessages, String errorDescription) {
+        this(nmeaMessages, DecodeStatus.INVALID_MESSAGE, errorDescription);
+    }
+
+    public Error(NMEAMessage[] nmeaMessages, DecodeStatus status) {
+        this(nmeaMessages, status, status.getDescription());
+    }
+
+    private Error(NMEAMessage[] nmeaMessages, DecodeStatus status, String errorDescription) {
+        super(nmeaMessages, null);
+        this.status = status;
 		this.errorDescription = errorDescription;
 	}
 
@@ -43,8 +58,11 @@ public class Error extends AISMessage {
     public String toString() {
         return "Error{" +
                 "messageType=" + getMessageType() +
+                ", status=" + status +
                 ", errorDescription='" + errorDescription + '\'' +
-                "} " + super.toString();
+                ", nmeaMessages=" + Arrays.toString(getNmeaMessages()) +
+                ", metadata=" + getMetadata() +
+                '}';
     }
 
     @SuppressWarnings("unused")
@@ -52,5 +70,12 @@ public class Error extends AISMessage {
 		return errorDescription;
 	}
 
+    /** @return The reason why the NMEA messages could not be decoded. */
+    @SuppressWarnings("unused")
+    public DecodeStatus getStatus() {
+        return status;
+    }
+
+    private final DecodeStatus status;
 	private final String errorDescription;
 }
@@ -16,16 +16,21 @@
 
 package dk.tbsalling.aismessages.ais.messages;
 
+import dk.tbsalling.aismessages.ais.BitBuffer;
 import dk.tbsalling.aismessages.ais.messages.types.AISMessageType;
 import dk.tbsalling.aismessages.ais.messages.types.PositionFixingDevice;
 import dk.tbsalling.aismessages.ais.messages.types.ShipType;
 import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
+
+import java.io.IOException;
+
 import static dk.tbsalling.aismessages.ais.Decoders.BIT_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.BOOLEAN_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.FLOAT_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.STRING_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.UNSIGNED_FLOAT_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.UNSIGNED_INTEGER_DECODER;
+import static dk.tbsalling.aismessages.ais.Decoders.decodeBoolean;
+import static dk.tbsalling.aismessages.ais.Decoders.decodeSignedFixedPoint;
+import static dk.tbsalling.aismessages.ais.Decoders.decodeSignedInt;
+import static dk.tbsalling.aismessages.ais.Decoders.appendText;
+import static dk.tbsalling.aismessages.ais.Decoders.decodeText;
+import static dk.tbsalling.aismessages.ais.Decoders.decodeUnsignedFixedPoint;
 
 @SuppressWarnings("serial")
 public class ExtendedClassBEquipmentPositionReport extends AISMessage {
@@ -34,8 +39,8 @@ public class ExtendedClassBEquipmentPositionReport extends AISMessage {
         super(nmeaMessages);
     }
 
-    protected ExtendedClassBEquipmentPositionReport(NMEAMessage[] nmeaMessages, String bitString) throws Exception {
-        super(nmeaMessages, bitString);
+    protected ExtendedClassBEquipmentPositionReport(NMEAMessage[] nmeaMessages, BitBuffer payload) throws Exception {
+        super(nmeaMessages, payload);
     }
 
     protected void checkAISMessage() {
@@ -47,97 +52,209 @@ public class ExtendedClassBEquipmentPositionReport extends AISMessage {
 
     @SuppressWarnings("unused")
 	public String getRegionalReserved1() {
-        return getDecodedValue(() -> regionalReserved1, value -> regionalReserved1 = value, () -> Boolean.TRUE, () -> BIT_DECODER.apply(getBits(38, 46)));
+        if (!isDecoded(REGIONAL_RESERVED1)) {
+            regionalReserved1 = BIT_DECODER.apply(getBits(38, 46));
+            setDecoded(REGIONAL_RESERVED1);
+        }
+        return regionalReserved1;
 	}
 
     @SuppressWarnings("unused")
 	public Float getSpeedOverGround() {
-        return getDecodedValue(() -> speedOverGround, value -> speedOverGround = value, () -> Boolean.TRUE, () -> UNSIGNED_FLOAT_DECODER.apply(getBits(46, 55)) / 10f);
+        if (!isDecoded(SPEED_OVER_GROUND)) {
+            speedOverGround = decodeUnsignedFixedPoint(getPayload(), 46, 9, 10f);
+            setDecoded(SPEED_OVER_GROUND);
+        }
+        return speedOverGround;
 	}
 
     @SuppressWarnings("unused")
 	public Boolean getPositionAccurate() {
-        return getDecodedValue(() -> positionAccurate, value -> positionAccurate = value, () -> Boolean.TRUE, () -> BOOLEAN_DECODER.apply(getBits(56, 57)));
+        if (!isDecoded(POSITION_ACCURATE)) {
+            positionAccurate = decodeBoolean(getPayload(), 56);
+            setDecoded(POSITION_ACCURATE);
+        }
+        return positionAccurate;
 	}
 
     @SuppressWarnings("unused")
 	public Float getLatitude() {
-        return getDecodedValue(() -> latitude, value -> latitude = value, () -> Boolean.TRUE, () -> FLOAT_DECODER.apply(getBits(85, 112)) / 600000f);
+        if (!isDecoded(LATITUDE)) {
+            latitude = decodeSignedFixedPoint(getPayload(), 85, 27, 600000f);
+            setDecoded(LATITUDE);
+        }
+        return latitude;
 	}
 
     @SuppressWarnings("unused")
 	public Float getLongitude() {
-        return getDecodedValue(() -> longitude, value -> longitude = value, () -> Boolean.TRUE, () -> FLOAT_DECODER.apply(getBits(57, 85)) / 600000f);
+        if (!isDecoded(LONGITUDE)) {
+            longitude = decodeSignedFixedPoint(getPayload(), 57, 28, 600000f);
+            setDecoded(LONGITUDE);
+        }
+        return longitude;
 	}
 
     @SuppressWarnings("unused")
 	public Float getCourseOverGround() {
-        return getDecodedValue(() -> courseOverGround, value -> courseOverGround = value, () -> Boolean.TRUE, () -> UNSIGNED_FLOAT_DECODER.apply(getBits(112, 124)) / 10f);
+        if (!isDecoded(COURSE_OVER_GROUND)) {
+            courseOverGround = decodeUnsignedFixedPoint(getPayload(), 112, 12, 10f);
+            setDecoded(COURSE_OVER_GROUND);
+        }
+        return courseOverGround;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getTrueHeading() {
-        return getDecodedValue(() -> trueHeading, value -> trueHeading = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(124, 133)));
+        if (!isDecoded(TRUE_HEADING)) {
+            trueHeading = getPayload().getUnsigned(124, 9);
+            setDecoded(TRUE_HEADING);
+        }
+        return trueHeading;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getSecond() {
-        return getDecodedValue(() -> second, value -> second = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(133, 139)));
+        if (!isDecoded(SECOND)) {
+            second = getPayload().getUnsigned(133, 6);
+            setDecoded(SECOND);
+        }
+        return second;
 	}
 
     @SuppressWarnings("unused")
 	public String getRegionalReserved2() {
-        return getDecodedValue(() -> regionalReserved2, value -> regionalReserved2 = value, () -> Boolean.TRUE, () -> BIT_DECODER.apply(getBits(139, 143)));
+        if (!isDecoded(REGIONAL_RESERVED2)) {
+            regionalReserved2 = BIT_DECODER.apply(getBits(139, 143));
+            setDecoded(REGIONAL_RESERVED2);
+        }
+        return regionalReserved2;
 	}
 
     @SuppressWarnings("unused")
 	public String getShipName() {
-        return getDecodedValue(() -> shipName, value -> shipName = value, () -> Boolean.TRUE, () -> STRING_DECODER.apply(getBits(143, 263)));
+        if (!isDecoded(SHIP_NAME)) {
+            shipName = decodeText(getPayload(), 143, 20);
+            setDecoded(SHIP_NAME);
+        }
+        return shipName;
+	}
+
+    /** Append the ship name to out without creating a String. */
+    @SuppressWarnings("unused")
+	public void appendShipName(Appendable out) throws IOException {
+        appendText(getPayload(), 143, 20, out);
 	}
 
     @SuppressWarnings("unused")
 	public ShipType getShipType() {
-        return getDecodedValue(() -> shipType, value -> shipType = value, () -> Boolean.TRUE, () -> ShipType.fromInteger(UNSIGNED_INTEGER_DECODER.apply(getBits(263, 271))));
+        if (!isDecoded(SHIP_TYPE)) {
+            shipType = ShipType.fromInteger(getPayload().getUnsigned(263, 8));
+            setDecoded(SHIP_TYPE);
+        }
+        return shipType;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getToBow() {
-        return getDecodedValue(() -> toBow, value -> toBow = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(271, 280)));
+        if (!isDecoded(TO_BOW)) {
+            toBow = getPayload().getUnsigned(271, 9);
+            setDecoded(TO_BOW);
+        }
+        return toBow;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getToStern() {
-        return getDecodedValue(() -> toStern, value -> toStern = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(280, 289)));
+        if (!isDecoded(TO_STERN)) {
+            toStern = getPayload().getUnsigned(280, 9);
+            setDecoded(TO_STERN);
+        }
+        return toStern;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getToStarboard() {
-        return getDecodedValue(() -> toStarboard, value -> toStarboard = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(295, 301)));
+        if (!isDecoded(TO_STARBOARD)) {
+            toStarboard = getPayload().getUnsigned(295, 6);
+            setDecoded(TO_STARBOARD);
+        }
+        return toStarboard;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getToPort() {
-        return getDecodedValue(() -> toPort, value -> toPort = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(289, 295)));
+        if (!isDecoded(TO_PORT)) {
+            toPort = getPayload().getUnsigned(289, 6);
+            setDecoded(TO_PORT);
+        }
+        return toPort;
 	}
 
     @SuppressWarnings("unused")
 	public PositionFixingDevice getPositionFixingDevice() {
-        return getDecodedValue(() -> positionFixingDevice, value -> positionFixingDevice = value, () -> Boolean.TRUE, () -> PositionFixingDevice.fromInteger(UNSIGNED_INTEGER_DECODER.apply(getBits(301, 305))));
+        if (!isDecoded(POSITION_FIXING_DEVICE)) {
+            positionFixingDevice = PositionFixingDevice.fromInteger(getPayload().getUnsigned(301, 4));
+            setDecoded(POSITION_FIXING_DEVICE);
+        }
+        return positionFixingDevice;
 	}
 
     @SuppressWarnings("unused")
 	public Boolean getRaimFlag() {
-        return getDecodedValue(() -> raimFlag, value -> raimFlag = value, () -> Boolean.TRUE, () -> BOOLEAN_DECODER.apply(getBits(305, 306)));
+        if (!isDecoded(RAIM_FLAG)) {
+            raimFlag = decodeBoolean(getPayload(), 305);
+            setDecoded(RAIM_FLAG);
+        }
+        return raimFlag;
 	}
 
     @SuppressWarnings("unused")
 	public Boolean getDataTerminalReady() {
-        return getDecodedValue(() -> dataTerminalReady, value -> dataTerminalReady = value, () -> Boolean.TRUE, () -> BOOLEAN_DECODER.apply(getBits(306, 307)));
+        if (!isDecoded(DATA_TERMINAL_READY)) {
+            dataTerminalReady = decodeBoolean(getPayload(), 306);
+            setDecoded(DATA_TERMINAL_READY);
+        }
+        return dataTerminalReady;
 	}
 
     @SuppressWarnings("unused")
 	public Boolean getAssigned() {
-        return getDecodedValue(() -> assigned, value -> assigned = value, () -> Boolean.TRUE, () -> BOOLEAN_DECODER.apply(getBits(307, 308)));
+        if (!isDecoded(ASSIGNED)) {
+            assigned = decodeBoolean(getPayload(), 307);
+            setDecoded(ASSIGNED);
+        }
+        return assigned;
+	}
+
+    /** @return Latitude in 1/10000 minutes; read from the payload without boxing or caching. */
+    @SuppressWarnings("unused")
+	public int getLatitudeRaw() {
+        return decodeSignedInt(getPayload(), 85, 27);
+	}
+
+    /** @return Longitude in 1/10000 minutes; read from the payload without boxing or caching. */
+    @SuppressWarnings("unused")
+	public int getLongitudeRaw() {
+        return decodeSignedInt(getPayload(), 57, 28);
+	}
+
+    /** @return Speed over ground in 1/10 knots; read from the payload without boxing or caching. */
+    @SuppressWarnings("unused")
+	public int getSpeedOverGroundRaw() {
+        return getPayload().getUnsigned(46, 9);
+	}
+
+    /** @return Course over ground in 1/10 degrees; read from the payload without boxing or caching. */
+    @SuppressWarnings("unused")
+	public int getCourseOverGroundRaw() {
+        return getPayload().getUnsigned(112, 12);
+	}
+
+    /** @return True heading in degrees; 511 if not available; read from the payload without boxing or caching. */
+    @SuppressWarnings("unused")
+	public int getTrueHeadingRaw() {
+        return getPayload().getUnsigned(124, 9);
 	}
 
     @Override
@@ -166,23 +283,43 @@ public class ExtendedClassBEquipmentPositionReport extends AISMessage {
                 "} " + super.toString();
     }
 
+    private static final int REGIONAL_RESERVED1 = FIRST_FIELD;
+    private static final int SPEED_OVER_GROUND = FIRST_FIELD + 1;
+    private static final int POSITION_ACCURATE = FIRST_FIELD + 2;
+    private static final int LATITUDE = FIRST_FIELD + 3;
+    private static final int LONGITUDE = FIRST_FIELD + 4;
+    private static final int COURSE_OVER_GROUND = FIRST_FIELD + 5;
+    private static final int TRUE_HEADING = FIRST_FIELD + 6;
+    private static final int SECOND = FIRST_FIELD + 7;
+    private static final int REGIONAL_RESERVED2 = FIRST_FIELD + 8;
+    private static final int SHIP_NAME = FIRST_FIELD + 9;
+    private static final int SHIP_TYPE = FIRST_FIELD + 10;
+    private static final int TO_BOW = FIRST_FIELD + 11;
+    private static final int TO_STERN = FIRST_FIELD + 12;
+    private static final int TO_STARBOARD = FIRST_FIELD + 13;
+    private static final int TO_PORT = FIRST_FIELD + 14;
+    private static final int POSITION_FIXING_DEVICE = FIRST_FIELD + 15;
+    private static final int RAIM_FLAG = FIRST_FIELD + 16;
+    private static final int DATA_TERMINAL_READY = FIRST_FIELD + 17;
+    private static final int ASSIGNED = FIRST_FIELD + 18;
+
     private transient String regionalReserved1;
-    private transient Float speedOverGround;
-    private transient Boolean positionAccurate;
-    private transient Float latitude;
-    private transient Float longitude;
-    private transient Float courseOverGround;
-    private transient Integer trueHeading;
-    private transient Integer second;
+    private transient float speedOverGround;
+    private transient boolean positionAccurate;
+    private transient float latitude;
+    private transient float longitude;
+    private transient float courseOverGround;
+    private transient int trueHeading;
+    private transient int second;
     private transient String regionalReserved2;
     private transient String shipName;
     private transient ShipType shipType;
-    private transient Integer toBow;
-    private transient Integer toStern;
-    private transient Integer toStarboard;
-    private transient Integer toPort;
+    private transient int toBow;
+    private transient int toStern;
+    private transient int toStarboard;
+    private transient int toPort;
     private transient PositionFixingDevice positionFixingDevice;
-    private transient Boolean raimFlag;
-    private transient Boolean dataTerminalReady;
-    private transient Boolean assigned;
+    private transient boolean raimFlag;
+    private transient boolean dataTerminalReady;
+    private transient boolean assigned;
 }
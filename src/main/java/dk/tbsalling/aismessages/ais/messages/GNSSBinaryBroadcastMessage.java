@@ -16,11 +16,11 @@
 
 package dk.tbsalling.aismessages.ais.messages;
 
+import dk.tbsalling.aismessages.ais.BitBuffer;
 import dk.tbsalling.aismessages.ais.messages.types.AISMessageType;
 import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
 import static dk.tbsalling.aismessages.ais.Decoders.BIT_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.FLOAT_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.UNSIGNED_INTEGER_DECODER;
+import static dk.tbsalling.aismessages.ais.Decoders.decodeSignedFixedPoint;
 
 /**
  * used to broadcast differential corrections for GPS. The data in the payload
@@ -36,8 +36,8 @@ public class GNSSBinaryBroadcastMessage extends AISMessage {
         super(nmeaMessages);
     }
 
-    protected GNSSBinaryBroadcastMessage(NMEAMessage[] nmeaMessages, String bitString) throws Exception {
-        super(nmeaMessages, bitString);
+    protected GNSSBinaryBroadcastMessage(NMEAMessage[] nmeaMessages, BitBuffer payload) throws Exception {
+        super(nmeaMessages, payload);
     }
 
     protected void checkAISMessage() {
@@ -49,57 +49,122 @@ public class GNSSBinaryBroadcastMessage extends AISMessage {
 
     @SuppressWarnings("unused")
 	public Integer getSpare1() {
-        return getDecodedValue(() -> spare1, value -> spare1 = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(38, 40)));
+        if (!isDecoded(SPARE1)) {
+            spare1 = getPayload().getUnsigned(38, 2);
+            setDecoded(SPARE1);
+        }
+        return spare1;
 	}
 
     @SuppressWarnings("unused")
 	public Float getLatitude() {
-        return getDecodedValue(() -> latitude, value -> latitude = value, () -> Boolean.TRUE, () -> FLOAT_DECODER.apply(getBits(58, 75)) / 10f);
+        if (!isDecoded(LATITUDE)) {
+            latitude = decodeSignedFixedPoint(getPayload(), 58, 17, 10f);
+            setDecoded(LATITUDE);
+        }
+        return latitude;
 	}
 
     @SuppressWarnings("unused")
 	public Float getLongitude() {
-        return getDecodedValue(() -> longitude, value -> longitude = value, () -> Boolean.TRUE, () -> FLOAT_DECODER.apply(getBits(40, 58)) / 10f);
+        if (!isDecoded(LONGITUDE)) {
+            longitude = decodeSignedFixedPoint(getPayload(), 40, 18, 10f);
+            setDecoded(LONGITUDE);
+        }
+        return longitude;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getSpare2() {
-        return getDecodedValue(() -> spare2, value -> spare2 = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(75, 80)));
+        if (!isDecoded(SPARE2)) {
+            spare2 = getPayload().getUnsigned(75, 5);
+            setDecoded(SPARE2);
+        }
+        return spare2;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getMType() {
-        return getDecodedValue(() -> mType, value -> mType = value, () -> getNumberOfBits() > 80, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(80, 86)));
+        if (getNumberOfBits() <= 80) {
+            return null;
+        }
+        if (!isDecoded(M_TYPE)) {
+            mType = getPayload().getUnsigned(80, 6);
+            setDecoded(M_TYPE);
+        }
+        return mType;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getStationId() {
-        return getDecodedValue(() -> stationId, value -> stationId = value, () -> getNumberOfBits() > 80, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(86, 96)));
+        if (getNumberOfBits() <= 80) {
+            return null;
+        }
+        if (!isDecoded(STATION_ID)) {
+            stationId = getPayload().getUnsigned(86, 10);
+            setDecoded(STATION_ID);
+        }
+        return stationId;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getZCount() {
-        return getDecodedValue(() -> zCount, value -> zCount = value, () -> getNumberOfBits() > 80, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(96, 109)));
+        if (getNumberOfBits() <= 80) {
+            return null;
+        }
+        if (!isDecoded(Z_COUNT)) {
+            zCount = getPayload().getUnsigned(96, 13);
+            setDecoded(Z_COUNT);
+        }
+        return zCount;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getSequenceNumber() {
-        return getDecodedValue(() -> sequenceNumber, value -> sequenceNumber = value, () -> getNumberOfBits() > 80, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(109, 112)));
+        if (getNumberOfBits() <= 80) {
+            return null;
+        }
+        if (!isDecoded(SEQUENCE_NUMBER)) {
+            sequenceNumber = getPayload().getUnsigned(109, 3);
+            setDecoded(SEQUENCE_NUMBER);
+        }
+        return sequenceNumber;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getNumOfWords() {
-        return getDecodedValue(() -> numOfWords, value -> numOfWords = value, () -> getNumberOfBits() > 80, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(112, 117)));
+        if (getNumberOfBits() <= 80) {
+            return null;
+        }
+        if (!isDecoded(NUM_OF_WORDS)) {
+            numOfWords = getPayload().getUnsigned(112, 5);
+            setDecoded(NUM_OF_WORDS);
+        }
+        return numOfWords;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getHealth() {
-        return getDecodedValue(() -> health, value -> health = value, () -> getNumberOfBits() > 80, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(117, 120)));
+        if (getNumberOfBits() <= 80) {
+            return null;
+        }
+        if (!isDecoded(HEALTH)) {
+            health = getPayload().getUnsigned(117, 3);
+            setDecoded(HEALTH);
+        }
+        return health;
 	}
 
     @SuppressWarnings("unused")
 	public String getBinaryData() {
-        return getDecodedValue(() -> binaryData, value -> binaryData = value, () -> getNumberOfBits() > 80, () -> BIT_DECODER.apply(getBits(80, getNumberOfBits())));
+        if (getNumberOfBits() <= 80) {
+            return null;
+        }
+        if (!isDecoded(BINARY_DATA)) {
+            binaryData = BIT_DECODER.apply(getBits(80, getNumberOfBits()));
+            setDecoded(BINARY_DATA);
+        }
+        return binaryData;
 	}
 
     @Override
@@ -120,15 +185,27 @@ public class GNSSBinaryBroadcastMessage extends AISMessage {
                 "} " + super.toString();
     }
 
-    private transient Integer spare1;
-    private transient Float latitude;
-    private transient Float longitude;
-    private transient Integer spare2;
-    private transient Integer mType;
-    private transient Integer stationId;
-    private transient Integer zCount;
-    private transient Integer sequenceNumber;
-    private transient Integer numOfWords;
-    private transient Integer health;
+    private static final int SPARE1 = FIRST_FIELD;
+    private static final int LATITUDE = FIRST_FIELD + 1;
+    private static final int LONGITUDE = FIRST_FIELD + 2;
+    private static final int SPARE2 = FIRST_FIELD + 3;
+    private static final int M_TYPE = FIRST_FIELD + 4;
+    private static final int STATION_ID = FIRST_FIELD + 5;
+    private static final int Z_COUNT = FIRST_FIELD + 6;
+    private static final int SEQUENCE_NUMBER = FIRST_FIELD + 7;
+    private static final int NUM_OF_WORDS = FIRST_FIELD + 8;
+    private static final int HEALTH = FIRST_FIELD + 9;
+    private static final int BINARY_DATA = FIRST_FIELD + 10;
+
+    private transient int spare1;
+    private transient float latitude;
+    private transient float longitude;
+    private transient int spare2;
+    private transient int mType;
+    private transient int stationId;
+    private transient int zCount;
+    private transient int sequenceNumber;
+    private transient int numOfWords;
+    private transient int health;
     private transient String binaryData;
 }
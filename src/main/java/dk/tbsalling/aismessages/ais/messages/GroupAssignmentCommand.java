@@ -16,15 +16,15 @@
 
 package dk.tbsalling.aismessages.ais.messages;
 
+import dk.tbsalling.aismessages.ais.BitBuffer;
 import dk.tbsalling.aismessages.ais.messages.types.AISMessageType;
 import dk.tbsalling.aismessages.ais.messages.types.ReportingInterval;
 import dk.tbsalling.aismessages.ais.messages.types.ShipType;
 import dk.tbsalling.aismessages.ais.messages.types.StationType;
 import dk.tbsalling.aismessages.ais.messages.types.TxRxMode;
 import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
-import static dk.tbsalling.aismessages.ais.Decoders.FLOAT_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.STRING_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.UNSIGNED_INTEGER_DECODER;
+import static dk.tbsalling.aismessages.ais.Decoders.decodeSignedFixedPoint;
+import static dk.tbsalling.aismessages.ais.Decoders.decodeText;
 
 /**
  * intended to be broadcast by a competent authority (an AIS network-control
@@ -40,8 +40,8 @@ public class GroupAssignmentCommand extends AISMessage {
         super(nmeaMessages);
     }
 
-    protected GroupAssignmentCommand(NMEAMessage[] nmeaMessages, String bitString) throws Exception {
-        super(nmeaMessages, bitString);
+    protected GroupAssignmentCommand(NMEAMessage[] nmeaMessages, BitBuffer payload) throws Exception {
+        super(nmeaMessages, payload);
     }
 
     protected void checkAISMessage() {
@@ -53,57 +53,101 @@ public class GroupAssignmentCommand extends AISMessage {
 
     @SuppressWarnings("unused")
     public String getSpare1() {
-        return getDecodedValue(() -> spare1, value -> spare1 = value, () -> Boolean.TRUE, () -> STRING_DECODER.apply(getBits(38, 40)));
+        if (!isDecoded(SPARE1)) {
+            spare1 = decodeText(getPayload(), 38, 0);
+            setDecoded(SPARE1);
+        }
+        return spare1;
     }
 
     @SuppressWarnings("unused")
     public Float getNorthEastLongitude() {
-        return getDecodedValue(() -> northEastLongitude, value -> northEastLongitude = value, () -> Boolean.TRUE, () -> FLOAT_DECODER.apply(getBits(40, 58)) / 10f);
+        if (!isDecoded(NORTH_EAST_LONGITUDE)) {
+            northEastLongitude = decodeSignedFixedPoint(getPayload(), 40, 18, 10f);
+            setDecoded(NORTH_EAST_LONGITUDE);
+        }
+        return northEastLongitude;
     }
 
     @SuppressWarnings("unused")
 	public Float getNorthEastLatitude() {
-        return getDecodedValue(() -> northEastLatitude, value -> northEastLatitude = value, () -> Boolean.TRUE, () -> FLOAT_DECODER.apply(getBits(58, 75)) / 10f);
+        if (!isDecoded(NORTH_EAST_LATITUDE)) {
+            northEastLatitude = decodeSignedFixedPoint(getPayload(), 58, 17, 10f);
+            setDecoded(NORTH_EAST_LATITUDE);
+        }
+        return northEastLatitude;
 	}
 
     @SuppressWarnings("unused")
 	public Float getSouthWestLongitude() {
-        return getDecodedValue(() -> southWestLongitude, value -> southWestLongitude = value, () -> Boolean.TRUE, () -> FLOAT_DECODER.apply(getBits(75, 93)) / 10f);
+        if (!isDecoded(SOUTH_WEST_LONGITUDE)) {
+            southWestLongitude = decodeSignedFixedPoint(getPayload(), 75, 18, 10f);
+            setDecoded(SOUTH_WEST_LONGITUDE);
+        }
+        return southWestLongitude;
 	}
 
     @SuppressWarnings("unused")
     public Float getSouthWestLatitude() {
-        return getDecodedValue(() -> southWestLatitude, value -> southWestLatitude = value, () -> Boolean.TRUE, () -> FLOAT_DECODER.apply(getBits(93, 110)) / 10f);
+        if (!isDecoded(SOUTH_WEST_LATITUDE)) {
+            southWestLatitude = decodeSignedFixedPoint(getPayload(), 93, 17, 10f);
+            setDecoded(SOUTH_WEST_LATITUDE);
+        }
+        return southWestLatitude;
     }
 
     @SuppressWarnings("unused")
 	public StationType getStationType() {
-        return getDecodedValue(() -> stationType, value -> stationType = value, () -> Boolean.TRUE, () -> StationType.fromInteger(UNSIGNED_INTEGER_DECODER.apply(getBits(110, 114))));
+        if (!isDecoded(STATION_TYPE)) {
+            stationType = StationType.fromInteger(getPayload().getUnsigned(110, 4));
+            setDecoded(STATION_TYPE);
+        }
+        return stationType;
 	}
 
     @SuppressWarnings("unused")
 	public ShipType getShipType() {
-        return getDecodedValue(() -> shipType, value -> shipType = value, () -> Boolean.TRUE, () -> ShipType.fromInteger(UNSIGNED_INTEGER_DECODER.apply(getBits(114, 122))));
+        if (!isDecoded(SHIP_TYPE)) {
+            shipType = ShipType.fromInteger(getPayload().getUnsigned(114, 8));
+            setDecoded(SHIP_TYPE);
+        }
+        return shipType;
 	}
 
     @SuppressWarnings("unused")
     public String getSpare2() {
-        return getDecodedValue(() -> spare2, value -> spare2 = value, () -> Boolean.TRUE, () -> STRING_DECODER.apply(getBits(122, 166)));
+        if (!isDecoded(SPARE2)) {
+            spare2 = decodeText(getPayload(), 122, 7);
+            setDecoded(SPARE2);
+        }
+        return spare2;
     }
 
     @SuppressWarnings("unused")
 	public TxRxMode getTransmitReceiveMode() {
-        return getDecodedValue(() -> transmitReceiveMode, value -> transmitReceiveMode = value, () -> Boolean.TRUE, () -> TxRxMode.fromInteger(UNSIGNED_INTEGER_DECODER.apply(getBits(166, 168))));
+        if (!isDecoded(TRANSMIT_RECEIVE_MODE)) {
+            transmitReceiveMode = TxRxMode.fromInteger(getPayload().getUnsigned(166, 2));
+            setDecoded(TRANSMIT_RECEIVE_MODE);
+        }
+        return transmitReceiveMode;
 	}
 
     @SuppressWarnings("unused")
 	public ReportingInterval getReportingInterval() {
-        return getDecodedValue(() -> reportingInterval, value -> reportingInterval = value, () -> Boolean.TRUE, () -> ReportingInterval.fromInteger(UNSIGNED_INTEGER_DECODER.apply(getBits(168, 172))));
+        if (!isDecoded(REPORTING_INTERVAL)) {
+            reportingInterval = ReportingInterval.fromInteger(getPayload().getUnsigned(168, 4));
+            setDecoded(REPORTING_INTERVAL);
+        }
+        return reportingInterval;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getQuietTime() {
-        return getDecodedValue(() -> quietTime, value -> quietTime = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(172, 176)));
+        if (!isDecoded(QUIET_TIME)) {
+            quietTime = getPayload().getUnsigned(172, 4);
+            setDecoded(QUIET_TIME);
+        }
+        return quietTime;
 	}
 
     @Override
@@ -124,15 +168,27 @@ public class GroupAssignmentCommand extends AISMessage {
                 "} " + super.toString();
     }
 
+    private static final int SPARE1 = FIRST_FIELD;
+    private static final int NORTH_EAST_LATITUDE = FIRST_FIELD + 1;
+    private static final int NORTH_EAST_LONGITUDE = FIRST_FIELD + 2;
+    private static final int SOUTH_WEST_LATITUDE = FIRST_FIELD + 3;
+    private static final int SOUTH_WEST_LONGITUDE = FIRST_FIELD + 4;
+    private static final int STATION_TYPE = FIRST_FIELD + 5;
+    private static final int SHIP_TYPE = FIRST_FIELD + 6;
+    private static final int TRANSMIT_RECEIVE_MODE = FIRST_FIELD + 7;
+    private static final int REPORTING_INTERVAL = FIRST_FIELD + 8;
+    private static final int QUIET_TIME = FIRST_FIELD + 9;
+    private static final int SPARE2 = FIRST_FIELD + 10;
+
     private transient String spare1;
-    private transient Float northEastLatitude;
-    private transient Float northEastLongitude;
-    private transient Float southWestLatitude;
-    private transient Float southWestLongitude;
+    private transient float northEastLatitude;
+    private transient float northEastLongitude;
+    private transient float southWestLatitude;
+    private transient float southWestLongitude;
     private transient StationType stationType;
     private transient ShipType shipType;
     private transient TxRxMode transmitReceiveMode;
     private transient ReportingInterval reportingInterval;
-    private transient Integer quietTime;
+    private transient int quietTime;
     private transient String spare2;
 }
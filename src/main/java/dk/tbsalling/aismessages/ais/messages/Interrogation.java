@@ -16,11 +16,10 @@
 
 package dk.tbsalling.aismessages.ais.messages;
 
+import dk.tbsalling.aismessages.ais.BitBuffer;
 import dk.tbsalling.aismessages.ais.messages.types.AISMessageType;
 import dk.tbsalling.aismessages.ais.messages.types.MMSI;
 import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
-import static dk.tbsalling.aismessages.ais.Decoders.UNSIGNED_INTEGER_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.UNSIGNED_LONG_DECODER;
 
 /**
  * Used by a base station to query one or two other AIS transceivers for status messages of specified types.
@@ -34,8 +33,8 @@ public class Interrogation extends AISMessage {
         super(nmeaMessages);
     }
 
-    protected Interrogation(NMEAMessage[] nmeaMessages, String bitString) throws Exception {
-        super(nmeaMessages, bitString);
+    protected Interrogation(NMEAMessage[] nmeaMessages, BitBuffer payload) throws Exception {
+        super(nmeaMessages, payload);
     }
 
     protected void checkAISMessage() {
@@ -47,42 +46,89 @@ public class Interrogation extends AISMessage {
 
     @SuppressWarnings("unused")
 	public final MMSI getInterrogatedMmsi1() {
-        return getDecodedValue(() -> interrogatedMmsi1, value -> interrogatedMmsi1 = value, () -> Boolean.TRUE, () -> MMSI.valueOf(UNSIGNED_LONG_DECODER.apply(getBits(40, 70))));
+        if (!isDecoded(INTERROGATED_MMSI1)) {
+            interrogatedMmsi1 = MMSI.valueOf(getPayload().getUnsignedLong(40, 30));
+            setDecoded(INTERROGATED_MMSI1);
+        }
+        return interrogatedMmsi1;
 	}
 
     @SuppressWarnings("unused")
 	public final Integer getType1_1() {
-        return getDecodedValue(() -> type1_1, value -> type1_1 = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(70, 76)));
+        if (!isDecoded(TYPE1_1)) {
+            type1_1 = getPayload().getUnsigned(70, 6);
+            setDecoded(TYPE1_1);
+        }
+        return type1_1;
 	}
 
     @SuppressWarnings("unused")
 	public final Integer getOffset1_1() {
-        return getDecodedValue(() -> offset1_1, value -> offset1_1 = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(76, 88)));
+        if (!isDecoded(OFFSET1_1)) {
+            offset1_1 = getPayload().getUnsigned(76, 12);
+            setDecoded(OFFSET1_1);
+        }
+        return offset1_1;
 	}
 
     @SuppressWarnings("unused")
 	public final Integer getType1_2() {
-        return getDecodedValue(() -> type1_2, value -> type1_2 = value, () -> getNumberOfBits() > 88, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(90, 96)));
+        if (getNumberOfBits() <= 88) {
+            return null;
+        }
+        if (!isDecoded(TYPE1_2)) {
+            type1_2 = getPayload().getUnsigned(90, 6);
+            setDecoded(TYPE1_2);
+        }
+        return type1_2;
 	}
 
     @SuppressWarnings("unused")
 	public final Integer getOffset1_2() {
-        return getDecodedValue(() -> offset1_2, value -> offset1_2 = value, () -> getNumberOfBits() > 88, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(96, 108)));
+        if (getNumberOfBits() <= 88) {
+            return null;
+        }
+        if (!isDecoded(OFFSET1_2)) {
+            offset1_2 = getPayload().getUnsigned(96, 12);
+            setDecoded(OFFSET1_2);
+        }
+        return offset1_2;
 	}
 
     @SuppressWarnings("unused")
 	public final MMSI getInterrogatedMmsi2() {
-        return getDecodedValue(() -> interrogatedMmsi2, value -> interrogatedMmsi2 = value, () -> getNumberOfBits() >= 110, () -> MMSI.valueOf(UNSIGNED_LONG_DECODER.apply(getBits(110, 140))));
+        if (getNumberOfBits() < 110) {
+            return null;
+        }
+        if (!isDecoded(INTERROGATED_MMSI2)) {
+            interrogatedMmsi2 = MMSI.valueOf(getPayload().getUnsignedLong(110, 30));
+            setDecoded(INTERROGATED_MMSI2);
+        }
+        return interrogatedMmsi2;
 	}
 
     @SuppressWarnings("unused")
 	public final Integer getType2_1() {
-        return getDecodedValue(() -> type2_1, value -> type2_1 = value, () -> getNumberOfBits() >= 110, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(140, 146)));
+        if (getNumberOfBits() < 110) {
+            return null;
+        }
+        if (!isDecoded(TYPE2_1)) {
+            type2_1 = getPayload().getUnsigned(140, 6);
+            setDecoded(TYPE2_1);
+        }
+        return type2_1;
 	}
 
     @SuppressWarnings("unused")
 	public final Integer getOffset2_1() {
-        return getDecodedValue(() -> offset2_1, value -> offset2_1 = value, () -> getNumberOfBits() >= 110, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(146, 158)));
+        if (getNumberOfBits() < 110) {
+            return null;
+        }
+        if (!isDecoded(OFFSET2_1)) {
+            offset2_1 = getPayload().getUnsigned(146, 12);
+            setDecoded(OFFSET2_1);
+        }
+        return offset2_1;
 	}
 
     @Override
@@ -100,12 +146,21 @@ public class Interrogation extends AISMessage {
                 "} " + super.toString();
     }
 
+    private static final int INTERROGATED_MMSI1 = FIRST_FIELD;
+    private static final int TYPE1_1 = FIRST_FIELD + 1;
+    private static final int OFFSET1_1 = FIRST_FIELD + 2;
+    private static final int TYPE1_2 = FIRST_FIELD + 3;
+    private static final int OFFSET1_2 = FIRST_FIELD + 4;
+    private static final int INTERROGATED_MMSI2 = FIRST_FIELD + 5;
+    private static final int TYPE2_1 = FIRST_FIELD + 6;
+    private static final int OFFSET2_1 = FIRST_FIELD + 7;
+
     private transient MMSI interrogatedMmsi1;
-	private transient Integer type1_1;
-	private transient Integer offset1_1;
-	private transient Integer type1_2;
-	private transient Integer offset1_2;
+	private transient int type1_1;
+	private transient int offset1_1;
+	private transient int type1_2;
+	private transient int offset1_2;
 	private transient MMSI interrogatedMmsi2;
-	private transient Integer type2_1;
-	private transient Integer offset2_1;
+	private transient int type2_1;
+	private transient int offset2_1;
 }
@@ -1,10 +1,10 @@
 package dk.tbsalling.aismessages.ais.messages;
 
+import dk.tbsalling.aismessages.ais.BitBuffer;
 import dk.tbsalling.aismessages.ais.messages.types.AISMessageType;
 import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
-import static dk.tbsalling.aismessages.ais.Decoders.BOOLEAN_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.FLOAT_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.UNSIGNED_INTEGER_DECODER;
+import static dk.tbsalling.aismessages.ais.Decoders.decodeBoolean;
+import static dk.tbsalling.aismessages.ais.Decoders.decodeSignedFixedPoint;
 
 @SuppressWarnings("serial")
 public class LongRangeBroadcastMessage extends AISMessage {
@@ -13,8 +13,8 @@ public class LongRangeBroadcastMessage extends AISMessage {
         super(nmeaMessages);
     }
 
-    protected LongRangeBroadcastMessage(NMEAMessage[] nmeaMessages, String bitString) throws Exception {
-        super(nmeaMessages, bitString);
+    protected LongRangeBroadcastMessage(NMEAMessage[] nmeaMessages, BitBuffer payload) throws Exception {
+        super(nmeaMessages, payload);
     }
 
     protected void checkAISMessage() {
@@ -26,47 +26,83 @@ public class LongRangeBroadcastMessage extends AISMessage {
 
     @SuppressWarnings("unused")
 	public Boolean getAccuracy() {
-        return getDecodedValue(() -> accuracy, value -> accuracy = value, () -> Boolean.TRUE, () -> BOOLEAN_DECODER.apply(getBits(38, 39)));
+        if (!isDecoded(ACCURACY)) {
+            accuracy = decodeBoolean(getPayload(), 38);
+            setDecoded(ACCURACY);
+        }
+        return accuracy;
 	}
 
     @SuppressWarnings("unused")
     public Boolean getRaim() {
-        return getDecodedValue(() -> raim, value -> raim = value, () -> Boolean.TRUE, () -> BOOLEAN_DECODER.apply(getBits(39, 40)));
+        if (!isDecoded(RAIM)) {
+            raim = decodeBoolean(getPayload(), 39);
+            setDecoded(RAIM);
+        }
+        return raim;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getStatus() {
-        return getDecodedValue(() -> status, value -> status = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(40, 44)));
+        if (!isDecoded(STATUS)) {
+            status = getPayload().getUnsigned(40, 4);
+            setDecoded(STATUS);
+        }
+        return status;
 	}
 
     @SuppressWarnings("unused")
 	public Float getLongitude() {
-        return getDecodedValue(() -> longitude, value -> longitude = value, () -> Boolean.TRUE, () -> FLOAT_DECODER.apply(getBits(44, 62)) / 600f);
+        if (!isDecoded(LONGITUDE)) {
+            longitude = decodeSignedFixedPoint(getPayload(), 44, 18, 600f);
+            setDecoded(LONGITUDE);
+        }
+        return longitude;
 	}
 
     @SuppressWarnings("unused")
 	public Float getLatitude() {
-        return getDecodedValue(() -> latitude, value -> latitude = value, () -> Boolean.TRUE, () -> FLOAT_DECODER.apply(getBits(62, 79)) / 600f);
+        if (!isDecoded(LATITUDE)) {
+            latitude = decodeSignedFixedPoint(getPayload(), 62, 17, 600f);
+            setDecoded(LATITUDE);
+        }
+        return latitude;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getSpeed() {
-        return getDecodedValue(() -> speed, value -> speed = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(79, 85)));
+        if (!isDecoded(SPEED)) {
+            speed = getPayload().getUnsigned(79, 6);
+            setDecoded(SPEED);
+        }
+        return speed;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getCourse() {
-        return getDecodedValue(() -> course, value -> course = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(85, 94)));
+        if (!isDecoded(COURSE)) {
+            course = getPayload().getUnsigned(85, 9);
+            setDecoded(COURSE);
+        }
+        return course;
 	}
 
     @SuppressWarnings("unused")
 	public Boolean getGnss() {
-        return getDecodedValue(() -> gnss, value -> gnss = value, () -> Boolean.TRUE, () -> BOOLEAN_DECODER.apply(getBits(94, 95)));
+        if (!isDecoded(GNSS)) {
+            gnss = decodeBoolean(getPayload(), 94);
+            setDecoded(GNSS);
+        }
+        return gnss;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getSpare() {
-        return getDecodedValue(() -> spare, value -> spare = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(95, 96)));
+        if (!isDecoded(SPARE)) {
+            spare = getPayload().getUnsigned(95, 1);
+            setDecoded(SPARE);
+        }
+        return spare;
 	}
 
     @Override
@@ -85,13 +121,23 @@ public class LongRangeBroadcastMessage extends AISMessage {
                 "} " + super.toString();
     }
 
-    private transient Boolean accuracy;
-	private transient Boolean raim;
-	private transient Integer status;
-	private transient Float longitude;
-	private transient Float latitude;
-	private transient Integer speed;
-	private transient Integer course;
-	private transient Boolean gnss;
-	private transient Integer spare;
+    private static final int ACCURACY = FIRST_FIELD;
+    private static final int RAIM = FIRST_FIELD + 1;
+    private static final int STATUS = FIRST_FIELD + 2;
+    private static final int LONGITUDE = FIRST_FIELD + 3;
+    private static final int LATITUDE = FIRST_FIELD + 4;
+    private static final int SPEED = FIRST_FIELD + 5;
+    private static final int COURSE = FIRST_FIELD + 6;
+    private static final int GNSS = FIRST_FIELD + 7;
+    private static final int SPARE = FIRST_FIELD + 8;
+
+    private transient boolean accuracy;
+	private transient boolean raim;
+	private transient int status;
+	private transient float longitude;
+	private transient float latitude;
+	private transient int speed;
+	private transient int course;
+	private transient boolean gnss;
+	private transient int spare;
 }
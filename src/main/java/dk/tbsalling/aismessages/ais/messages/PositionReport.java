@@ -19,14 +19,14 @@
  */
 package dk.tbsalling.aismessages.ais.messages;
 
+import dk.tbsalling.aismessages.ais.BitBuffer;
 import dk.tbsalling.aismessages.ais.messages.types.ManeuverIndicator;
 import dk.tbsalling.aismessages.ais.messages.types.NavigationStatus;
 import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
-import static dk.tbsalling.aismessages.ais.Decoders.BOOLEAN_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.FLOAT_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.INTEGER_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.UNSIGNED_FLOAT_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.UNSIGNED_INTEGER_DECODER;
+import static dk.tbsalling.aismessages.ais.Decoders.decodeBoolean;
+import static dk.tbsalling.aismessages.ais.Decoders.decodeSignedFixedPoint;
+import static dk.tbsalling.aismessages.ais.Decoders.decodeSignedInt;
+import static dk.tbsalling.aismessages.ais.Decoders.decodeUnsignedFixedPoint;
 
 /**
  * @author tbsalling
@@ -39,8 +39,8 @@ public abstract class PositionReport extends AISMessage {
         super(nmeaMessages);
     }
 
-    protected PositionReport(NMEAMessage[] nmeaMessages, String bitString) throws Exception {
-        super(nmeaMessages, bitString);
+    protected PositionReport(NMEAMessage[] nmeaMessages, BitBuffer payload) throws Exception {
+        super(nmeaMessages, payload);
     }
 
     protected void checkAISMessage() {
@@ -48,59 +48,137 @@ public abstract class PositionReport extends AISMessage {
 
     @SuppressWarnings("unused")
 	public NavigationStatus getNavigationStatus() {
-        return getDecodedValue(() -> navigationStatus, value -> navigationStatus = value, () -> Boolean.TRUE, () -> NavigationStatus.fromInteger(UNSIGNED_INTEGER_DECODER.apply(getBits(38, 42))));
+        if (!isDecoded(NAVIGATION_STATUS)) {
+            navigationStatus = NavigationStatus.fromInteger(getPayload().getUnsigned(38, 4));
+            setDecoded(NAVIGATION_STATUS);
+        }
+        return navigationStatus;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getRateOfTurn() {
-        return getDecodedValue(() -> rateOfTurn, value -> rateOfTurn = value, () -> Boolean.TRUE, () -> INTEGER_DECODER.apply(getBits(42, 50)));
+        if (!isDecoded(RATE_OF_TURN)) {
+            rateOfTurn = decodeSignedInt(getPayload(), 42, 8);
+            setDecoded(RATE_OF_TURN);
+        }
+        return rateOfTurn;
 	}
 
     @SuppressWarnings("unused")
 	public Float getSpeedOverGround() {
-        return getDecodedValue(() -> speedOverGround, value -> speedOverGround = value, () -> Boolean.TRUE, () -> UNSIGNED_FLOAT_DECODER.apply(getBits(50, 60)) / 10f);
+        if (!isDecoded(SPEED_OVER_GROUND)) {
+            speedOverGround = decodeUnsignedFixedPoint(getPayload(), 50, 10, 10f);
+            setDecoded(SPEED_OVER_GROUND);
+        }
+        return speedOverGround;
 	}
 
     @SuppressWarnings("unused")
 	public Boolean getPositionAccurate() {
-        return getDecodedValue(() -> positionAccurate, value -> positionAccurate = value, () -> Boolean.TRUE, () -> BOOLEAN_DECODER.apply(getBits(60, 61)));
+        if (!isDecoded(POSITION_ACCURATE)) {
+            positionAccurate = decodeBoolean(getPayload(), 60);
+            setDecoded(POSITION_ACCURATE);
+        }
+        return positionAccurate;
 	}
 
     @SuppressWarnings("unused")
 	public Float getLatitude() {
-    	//System.out.println(FLOAT_DECODER.apply(getBits(89, 110)) / 600000f);
-        return getDecodedValue(() -> latitude, value -> latitude = value, () -> Boolean.TRUE, () -> FLOAT_DECODER.apply(getBits(89, 116)) / 600000f);
+        if (!isDecoded(LATITUDE)) {
+            latitude = decodeSignedFixedPoint(getPayload(), 89, 27, 600000f);
+            setDecoded(LATITUDE);
+        }
+        return latitude;
 	}
 
     @SuppressWarnings("unused")
 	public Float getLongitude() {
-    	//System.out.println(FLOAT_DECODER.apply(getBits(61, 89)) / 600000f);
-        return getDecodedValue(() -> longitude, value -> longitude = value, () -> Boolean.TRUE, () -> FLOAT_DECODER.apply(getBits(61, 89)) / 600000f);
+        if (!isDecoded(LONGITUDE)) {
+            longitude = decodeSignedFixedPoint(getPayload(), 61, 28, 600000f);
+            setDecoded(LONGITUDE);
+        }
+        return longitude;
 	}
 
     @SuppressWarnings("unused")
 	public Float getCourseOverGround() {
-        return getDecodedValue(() -> courseOverGround, value -> courseOverGround = value, () -> Boolean.TRUE, () -> UNSIGNED_FLOAT_DECODER.apply(getBits(116, 128)) / 10f);
+        if (!isDecoded(COURSE_OVER_GROUND)) {
+            courseOverGround = decodeUnsignedFixedPoint(getPayload(), 116, 12, 10f);
+            setDecoded(COURSE_OVER_GROUND);
+        }
+        return courseOverGround;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getTrueHeading() {
-        return getDecodedValue(() -> trueHeading, value -> trueHeading = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(128, 137)));
+        if (!isDecoded(TRUE_HEADING)) {
+            trueHeading = getPayload().getUnsigned(128, 9);
+            setDecoded(TRUE_HEADING);
+        }
+        return trueHeading;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getSecond() {
-        return getDecodedValue(() -> second, value -> second = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(137, 143)));
+        if (!isDecoded(SECOND)) {
+            second = getPayload().getUnsigned(137, 6);
+            setDecoded(SECOND);
+        }
+        return second;
 	}
 
     @SuppressWarnings("unused")
 	public ManeuverIndicator getManeuverIndicator() {
-        return getDecodedValue(() -> maneuverIndicator, value -> maneuverIndicator = value, () -> Boolean.TRUE, () -> ManeuverIndicator.fromInteger(UNSIGNED_INTEGER_DECODER.apply(getBits(143, 145))));
+        if (!isDecoded(MANEUVER_INDICATOR)) {
+            maneuverIndicator = ManeuverIndicator.fromInteger(getPayload().getUnsigned(143, 2));
+            setDecoded(MANEUVER_INDICATOR);
+        }
+        return maneuverIndicator;
 	}
 
     @SuppressWarnings("unused")
 	public Boolean getRaimFlag() {
-        return getDecodedValue(() -> raimFlag, value -> raimFlag = value, () -> Boolean.TRUE, () -> BOOLEAN_DECODER.apply(getBits(148, 149)));
+        if (!isDecoded(RAIM_FLAG)) {
+            raimFlag = decodeBoolean(getPayload(), 148);
+            setDecoded(RAIM_FLAG);
+        }
+        return raimFlag;
+	}
+
+    /** @return Latitude in 1/10000 minutes; read from the payload without boxing or caching. */
+    @SuppressWarnings("unused")
+	public int getLatitudeRaw() {
+        return decodeSignedInt(getPayload(), 89, 27);
+	}
+
+    /** @return Longitude in 1/10000 minutes; read from the payload without boxing or caching. */
+    @SuppressWarnings("unused")
+	public int getLongitudeRaw() {
+        return decodeSignedInt(getPayload(), 61, 28);
+	}
+
+    /** @return Speed over ground in 1/10 knots; read from the payload without boxing or caching. */
+    @SuppressWarnings("unused")
+	public int getSpeedOverGroundRaw() {
+        return getPayload().getUnsigned(50, 10);
+	}
+
+    /** @return Course over ground in 1/10 degrees; read from the payload without boxing or caching. */
+    @SuppressWarnings("unused")
+	public int getCourseOverGroundRaw() {
+        return getPayload().getUnsigned(116, 12);
+	}
+
+    /** @return True heading in degrees; 511 if not available; read from the payload without boxing or caching. */
+    @SuppressWarnings("unused")
+	public int getTrueHeadingRaw() {
+        return getPayload().getUnsigned(128, 9);
+	}
+
+    /** @return Rate of turn as transmitted, i.e. before any scaling; read from the payload without boxing or caching. */
+    @SuppressWarnings("unused")
+	public int getRateOfTurnRaw() {
+        return decodeSignedInt(getPayload(), 42, 8);
 	}
 
     @Override
@@ -120,15 +198,27 @@ public abstract class PositionReport extends AISMessage {
                 "} " + super.toString();
     }
 
+    private static final int NAVIGATION_STATUS = FIRST_FIELD;
+    private static final int RATE_OF_TURN = FIRST_FIELD + 1;
+    private static final int SPEED_OVER_GROUND = FIRST_FIELD + 2;
+    private static final int POSITION_ACCURATE = FIRST_FIELD + 3;
+    private static final int LATITUDE = FIRST_FIELD + 4;
+    private static final int LONGITUDE = FIRST_FIELD + 5;
+    private static final int COURSE_OVER_GROUND = FIRST_FIELD + 6;
+    private static final int TRUE_HEADING = FIRST_FIELD + 7;
+    private static final int SECOND = FIRST_FIELD + 8;
+    private static final int MANEUVER_INDICATOR = FIRST_FIELD + 9;
+    private static final int RAIM_FLAG = FIRST_FIELD + 10;
+
     private transient NavigationStatus navigationStatus;
-	private transient Integer rateOfTurn;
-	private transient Float speedOverGround;
-	private transient Boolean positionAccurate;
-	private transient Float latitude;
-	private transient Float longitude;
-	private transient Float courseOverGround;
-	private transient Integer trueHeading;
-	private transient Integer second;
+	private transient int rateOfTurn;
+	private transient float speedOverGround;
+	private transient boolean positionAccurate;
+	private transient float latitude;
+	private transient float longitude;
+	private transient float courseOverGround;
+	private transient int trueHeading;
+	private transient int second;
 	private transient ManeuverIndicator maneuverIndicator;
-	private transient Boolean raimFlag;
+	private transient boolean raimFlag;
 }
@@ -19,6 +19,7 @@
  */
 package dk.tbsalling.aismessages.ais.messages;
 
+import dk.tbsalling.aismessages.ais.BitBuffer;
 import dk.tbsalling.aismessages.ais.messages.types.AISMessageType;
 import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
 
@@ -33,8 +34,8 @@ public class PositionReportClassAScheduled extends PositionReport {
         super(nmeaMessages);
     }
 
-    protected PositionReportClassAScheduled(NMEAMessage[] nmeaMessages, String bitString) throws Exception{
-        super(nmeaMessages, bitString);
+    protected PositionReportClassAScheduled(NMEAMessage[] nmeaMessages, BitBuffer payload) throws Exception{
+        super(nmeaMessages, payload);
     }
 
     protected void checkAISMessage() {
@@ -16,11 +16,10 @@
 
 package dk.tbsalling.aismessages.ais.messages;
 
+import dk.tbsalling.aismessages.ais.BitBuffer;
 import dk.tbsalling.aismessages.ais.messages.types.AISMessageType;
 import dk.tbsalling.aismessages.ais.messages.types.MMSI;
 import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
-import static dk.tbsalling.aismessages.ais.Decoders.UNSIGNED_INTEGER_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.UNSIGNED_LONG_DECODER;
 
 @SuppressWarnings("serial")
 public class SafetyRelatedAcknowledge extends AISMessage {
@@ -29,8 +28,8 @@ public class SafetyRelatedAcknowledge extends AISMessage {
         super(nmeaMessages);
     }
 
-    protected SafetyRelatedAcknowledge(NMEAMessage[] nmeaMessages, String bitString) throws Exception {
-        super(nmeaMessages, bitString);
+    protected SafetyRelatedAcknowledge(NMEAMessage[] nmeaMessages, BitBuffer payload) throws Exception {
+        super(nmeaMessages, payload);
     }
 
     protected void checkAISMessage() {
@@ -43,47 +42,101 @@ public class SafetyRelatedAcknowledge extends AISMessage {
 
     @SuppressWarnings("unused")
 	public Integer getSpare() {
-        return getDecodedValue(() -> spare, value -> spare = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(38, 40)));
+        if (!isDecoded(SPARE)) {
+            spare = getPayload().getUnsigned(38, 2);
+            setDecoded(SPARE);
+        }
+        return spare;
 	}
 
     @SuppressWarnings("unused")
 	public MMSI getMmsi1() {
-        return getDecodedValue(() -> mmsi1, value -> mmsi1 = value, () -> Boolean.TRUE, () -> MMSI.valueOf(UNSIGNED_LONG_DECODER.apply(getBits(40, 70))));
+        if (!isDecoded(MMSI1)) {
+            mmsi1 = MMSI.valueOf(getPayload().getUnsignedLong(40, 30));
+            setDecoded(MMSI1);
+        }
+        return mmsi1;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getSequence1() {
-        return getDecodedValue(() -> sequence1, value -> sequence1 = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(70, 72)));
+        if (!isDecoded(SEQUENCE1)) {
+            sequence1 = getPayload().getUnsigned(70, 2);
+            setDecoded(SEQUENCE1);
+        }
+        return sequence1;
 	}
 
     @SuppressWarnings("unused")
 	public MMSI getMmsi2() {
-        return getDecodedValue(() -> mmsi2, value -> mmsi2 = value, () -> getNumberOfBits() > 72, () -> MMSI.valueOf(UNSIGNED_LONG_DECODER.apply(getBits(72, 102))));
+        if (getNumberOfBits() <= 72) {
+            return null;
+        }
+        if (!isDecoded(MMSI2)) {
+            mmsi2 = MMSI.valueOf(getPayload().getUnsignedLong(72, 30));
+            setDecoded(MMSI2);
+        }
+        return mmsi2;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getSequence2() {
-        return getDecodedValue(() -> sequence2, value -> sequence2 = value, () -> getNumberOfBits() > 72, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(102, 104)));
+        if (getNumberOfBits() <= 72) {
+            return null;
+        }
+        if (!isDecoded(SEQUENCE2)) {
+            sequence2 = getPayload().getUnsigned(102, 2);
+            setDecoded(SEQUENCE2);
+        }
+        return sequence2;
 	}
 
     @SuppressWarnings("unused")
 	public MMSI getMmsi3() {
-        return getDecodedValue(() -> mmsi3, value -> mmsi3 = value, () -> getNumberOfBits() > 104, () -> MMSI.valueOf(UNSIGNED_LONG_DECODER.apply(getBits(104, 134))));
+        if (getNumberOfBits() <= 104) {
+            return null;
+        }
+        if (!isDecoded(MMSI3)) {
+            mmsi3 = MMSI.valueOf(getPayload().getUnsignedLong(104, 30));
+            setDecoded(MMSI3);
+        }
+        return mmsi3;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getSequence3() {
-        return getDecodedValue(() -> sequence3, value -> sequence3 = value, () -> getNumberOfBits() > 104, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(134, 136)));
+        if (getNumberOfBits() <= 104) {
+            return null;
+        }
+        if (!isDecoded(SEQUENCE3)) {
+            sequence3 = getPayload().getUnsigned(134, 2);
+            setDecoded(SEQUENCE3);
+        }
+        return sequence3;
 	}
 
     @SuppressWarnings("unused")
 	public MMSI getMmsi4() {
-        return getDecodedValue(() -> mmsi4, value -> mmsi4 = value, () -> getNumberOfBits() > 136, () -> MMSI.valueOf(UNSIGNED_LONG_DECODER.apply(getBits(136, 166))));
+        if (getNumberOfBits() <= 136) {
+            return null;
+        }
+        if (!isDecoded(MMSI4)) {
+            mmsi4 = MMSI.valueOf(getPayload().getUnsignedLong(136, 30));
+            setDecoded(MMSI4);
+        }
+        return mmsi4;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getSequence4() {
-        return getDecodedValue(() -> sequence4, value -> sequence4 = value, () -> getNumberOfBits() > 136, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(166, 168)));
+        if (getNumberOfBits() <= 136) {
+            return null;
+        }
+        if (!isDecoded(SEQUENCE4)) {
+            sequence4 = getPayload().getUnsigned(166, 2);
+            setDecoded(SEQUENCE4);
+        }
+        return sequence4;
 	}
 
     @SuppressWarnings("unused")
@@ -120,14 +173,24 @@ public class SafetyRelatedAcknowledge extends AISMessage {
                 "} " + super.toString();
     }
 
-    private transient Integer spare;
+    private static final int SPARE = FIRST_FIELD;
+    private static final int MMSI1 = FIRST_FIELD + 1;
+    private static final int SEQUENCE1 = FIRST_FIELD + 2;
+    private static final int MMSI2 = FIRST_FIELD + 3;
+    private static final int SEQUENCE2 = FIRST_FIELD + 4;
+    private static final int MMSI3 = FIRST_FIELD + 5;
+    private static final int SEQUENCE3 = FIRST_FIELD + 6;
+    private static final int MMSI4 = FIRST_FIELD + 7;
+    private static final int SEQUENCE4 = FIRST_FIELD + 8;
+
+    private transient int spare;
 	private transient MMSI mmsi1;
-	private transient Integer sequence1;
+	private transient int sequence1;
 	private transient MMSI mmsi2;
-	private transient Integer sequence2;
+	private transient int sequence2;
 	private transient MMSI mmsi3;
-	private transient Integer sequence3;
+	private transient int sequence3;
 	private transient MMSI mmsi4;
-	private transient Integer sequence4;
+	private transient int sequence4;
 	private transient Integer numOfAcks;
 }
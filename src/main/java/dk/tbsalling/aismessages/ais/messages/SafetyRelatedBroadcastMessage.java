@@ -16,10 +16,10 @@
 
 package dk.tbsalling.aismessages.ais.messages;
 
+import dk.tbsalling.aismessages.ais.BitBuffer;
 import dk.tbsalling.aismessages.ais.messages.types.AISMessageType;
 import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
-import static dk.tbsalling.aismessages.ais.Decoders.STRING_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.UNSIGNED_INTEGER_DECODER;
+import static dk.tbsalling.aismessages.ais.Decoders.decodeText;
 
 @SuppressWarnings("serial")
 public class SafetyRelatedBroadcastMessage extends AISMessage {
@@ -28,8 +28,8 @@ public class SafetyRelatedBroadcastMessage extends AISMessage {
         super(nmeaMessages);
     }
 
-    protected SafetyRelatedBroadcastMessage(NMEAMessage[] nmeaMessages, String bitString) throws Exception {
-        super(nmeaMessages, bitString);
+    protected SafetyRelatedBroadcastMessage(NMEAMessage[] nmeaMessages, BitBuffer payload) throws Exception {
+        super(nmeaMessages, payload);
     }
 
     protected void checkAISMessage() {
@@ -41,15 +41,20 @@ public class SafetyRelatedBroadcastMessage extends AISMessage {
 
     @SuppressWarnings("unused")
 	public Integer getSpare() {
-        return getDecodedValue(() -> spare, value -> spare = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(38, 40)));
+        if (!isDecoded(SPARE)) {
+            spare = getPayload().getUnsigned(38, 2);
+            setDecoded(SPARE);
+        }
+        return spare;
 	}
 
     @SuppressWarnings("unused")
 	public final String getText() {
-        return getDecodedValue(() -> text, value -> text = value, () -> Boolean.TRUE, () -> {
-            int extraBitsOfChars = ((getNumberOfBits() - 40) / 6) * 6;
-            return STRING_DECODER.apply(getBits(40, 40 + extraBitsOfChars));
-        });
+        if (!isDecoded(TEXT)) {
+            text = decodeText(getPayload(), 40, Math.max(0, getNumberOfBits() - 40) / 6);
+            setDecoded(TEXT);
+        }
+        return text;
 	}
 
     @Override
@@ -61,6 +66,9 @@ public class SafetyRelatedBroadcastMessage extends AISMessage {
                 "} " + super.toString();
     }
 
-    private transient Integer spare;
+    private static final int SPARE = FIRST_FIELD;
+    private static final int TEXT = FIRST_FIELD + 1;
+
+    private transient int spare;
 	private transient String text;
 }
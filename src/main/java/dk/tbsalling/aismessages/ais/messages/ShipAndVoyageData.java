@@ -16,19 +16,23 @@
 
 package dk.tbsalling.aismessages.ais.messages;
 
+import dk.tbsalling.aismessages.ais.BitBuffer;
 import dk.tbsalling.aismessages.ais.exceptions.UnsupportedMessageType;
 import dk.tbsalling.aismessages.ais.messages.types.AISMessageType;
 import dk.tbsalling.aismessages.ais.messages.types.IMO;
 import dk.tbsalling.aismessages.ais.messages.types.PositionFixingDevice;
 import dk.tbsalling.aismessages.ais.messages.types.ShipType;
+import dk.tbsalling.aismessages.nmea.DecodeStatus;
 import dk.tbsalling.aismessages.nmea.exceptions.InvalidMessage;
 import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
-import static dk.tbsalling.aismessages.ais.Decoders.BOOLEAN_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.STRING_DECODER;
+
+import java.io.IOException;
+
 import static dk.tbsalling.aismessages.ais.Decoders.TIME_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.UNSIGNED_FLOAT_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.UNSIGNED_INTEGER_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.UNSIGNED_LONG_DECODER;
+import static dk.tbsalling.aismessages.ais.Decoders.decodeBoolean;
+import static dk.tbsalling.aismessages.ais.Decoders.appendText;
+import static dk.tbsalling.aismessages.ais.Decoders.decodeText;
+import static dk.tbsalling.aismessages.ais.Decoders.decodeUnsignedFixedPoint;
 
 /**
  * Message has a total of 424 bits, occupying two AIVDM sentences. In practice,
@@ -45,8 +49,8 @@ public class ShipAndVoyageData extends AISMessage  {
         super(nmeaMessages);
     }
 
-    protected ShipAndVoyageData(NMEAMessage[] nmeaMessages, String bitString) throws Exception {
-        super(nmeaMessages, bitString);
+    protected ShipAndVoyageData(NMEAMessage[] nmeaMessages, BitBuffer payload) throws Exception {
+        super(nmeaMessages, payload);
     }
 
     @Override
@@ -56,13 +60,9 @@ public class ShipAndVoyageData extends AISMessage  {
             throw new UnsupportedMessageType(messageType.getCode());
         }
         final int numberOfBits = getNumberOfBits();
-        if (numberOfBits != 424 && numberOfBits != 422) {
-            throw new InvalidMessage("Message of type " + messageType + " expected to be 424 bits long; not " + numberOfBits);
+        if (!messageType.isValidLength(numberOfBits)) {
+            throw new InvalidMessage(DecodeStatus.WRONG_LENGTH, "Message of type " + messageType + " expected to be 424 bits long; not " + numberOfBits);
         }
-/*        if(numberOfBits == 422){
-        	System.out.println(this.toString());
-        }*/
-        
     }
 
     public final AISMessageType getMessageType() {
@@ -71,67 +71,137 @@ public class ShipAndVoyageData extends AISMessage  {
 
     @SuppressWarnings("unused")
 	public IMO getImo() {
-        return getDecodedValue(() -> imo, value -> imo = value, () -> Boolean.TRUE, () -> IMO.valueOf(UNSIGNED_LONG_DECODER.apply(getBits(40, 70))));
+        if (!isDecoded(IMO_NUMBER)) {
+            imo = IMO.valueOf(getPayload().getUnsignedLong(40, 30));
+            setDecoded(IMO_NUMBER);
+        }
+        return imo;
 	}
 
     @SuppressWarnings("unused")
 	public String getCallsign() {
-        return getDecodedValue(() -> callsign, value -> callsign = value, () -> Boolean.TRUE, () -> STRING_DECODER.apply(getBits(70, 112)));
+        if (!isDecoded(CALLSIGN)) {
+            callsign = decodeText(getPayload(), 70, 7);
+            setDecoded(CALLSIGN);
+        }
+        return callsign;
+	}
+
+    /** Append the callsign to out without creating a String. */
+    @SuppressWarnings("unused")
+	public void appendCallsign(Appendable out) throws IOException {
+        appendText(getPayload(), 70, 7, out);
 	}
 
     @SuppressWarnings("unused")
 	public String getShipName() {
-        return getDecodedValue(() -> shipName, value -> shipName = value, () -> Boolean.TRUE, () -> STRING_DECODER.apply(getBits(112, 232)));
+        if (!isDecoded(SHIP_NAME)) {
+            shipName = decodeText(getPayload(), 112, 20);
+            setDecoded(SHIP_NAME);
+        }
+        return shipName;
+	}
+
+    /** Append the ship name to out without creating a String. */
+    @SuppressWarnings("unused")
+	public void appendShipName(Appendable out) throws IOException {
+        appendText(getPayload(), 112, 20, out);
 	}
 
     @SuppressWarnings("unused")
 	public ShipType getShipType() {
-        return getDecodedValue(() -> shipType, value -> shipType = value, () -> Boolean.TRUE, () -> ShipType.fromInteger(UNSIGNED_INTEGER_DECODER.apply(getBits(232, 240))));
+        if (!isDecoded(SHIP_TYPE)) {
+            shipType = ShipType.fromInteger(getPayload().getUnsigned(232, 8));
+            setDecoded(SHIP_TYPE);
+        }
+        return shipType;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getToBow() {
-        return getDecodedValue(() -> toBow, value -> toBow = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(240, 249)));
+        if (!isDecoded(TO_BOW)) {
+            toBow = getPayload().getUnsigned(240, 9);
+            setDecoded(TO_BOW);
+        }
+        return toBow;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getToStern() {
-        return getDecodedValue(() -> toStern, value -> toStern = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(249, 258)));
+        if (!isDecoded(TO_STERN)) {
+            toStern = getPayload().getUnsigned(249, 9);
+            setDecoded(TO_STERN);
+        }
+        return toStern;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getToStarboard() {
-        return getDecodedValue(() -> toStarboard, value -> toStarboard = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(264, 270)));
+        if (!isDecoded(TO_STARBOARD)) {
+            toStarboard = getPayload().getUnsigned(264, 6);
+            setDecoded(TO_STARBOARD);
+        }
+        return toStarboard;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getToPort() {
-        return getDecodedValue(() -> toPort, value -> toPort = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(258, 264)));
+        if (!isDecoded(TO_PORT)) {
+            toPort = getPayload().getUnsigned(258, 6);
+            setDecoded(TO_PORT);
+        }
+        return toPort;
 	}
 
     @SuppressWarnings("unused")
 	public PositionFixingDevice getPositionFixingDevice() {
-        return getDecodedValue(() -> positionFixingDevice, value -> positionFixingDevice = value, () -> Boolean.TRUE, () -> PositionFixingDevice.fromInteger(UNSIGNED_INTEGER_DECODER.apply(getBits(270, 274))));
+        if (!isDecoded(POSITION_FIXING_DEVICE)) {
+            positionFixingDevice = PositionFixingDevice.fromInteger(getPayload().getUnsigned(270, 4));
+            setDecoded(POSITION_FIXING_DEVICE);
+        }
+        return positionFixingDevice;
 	}
 
     @SuppressWarnings("unused")
 	public String getEta() {
-        return getDecodedValue(() -> eta, value -> eta = value, () -> Boolean.TRUE, () -> TIME_DECODER.apply(getBits(274, 294)));
+        if (!isDecoded(ETA)) {
+            eta = TIME_DECODER.apply(getBits(274, 294));
+            setDecoded(ETA);
+        }
+        return eta;
 	}
 
     @SuppressWarnings("unused")
 	public Float getDraught() {
-        return getDecodedValue(() -> draught, value -> draught = value, () -> Boolean.TRUE, () -> UNSIGNED_FLOAT_DECODER.apply(getBits(294, 302)) / 10f);
+        if (!isDecoded(DRAUGHT)) {
+            draught = decodeUnsignedFixedPoint(getPayload(), 294, 8, 10f);
+            setDecoded(DRAUGHT);
+        }
+        return draught;
 	}
 
     @SuppressWarnings("unused")
 	public String getDestination() {
-        return getDecodedValue(() -> destination, value -> destination = value, () -> Boolean.TRUE, () -> STRING_DECODER.apply(getBits(302, 422)));
+        if (!isDecoded(DESTINATION)) {
+            destination = decodeText(getPayload(), 302, 20);
+            setDecoded(DESTINATION);
+        }
+        return destination;
+	}
+
+    /** Append the destination to out without creating a String. */
+    @SuppressWarnings("unused")
+	public void appendDestination(Appendable out) throws IOException {
+        appendText(getPayload(), 302, 20, out);
 	}
 
     @SuppressWarnings("unused")
 	public Boolean getDataTerminalReady() {
-        return getDecodedValue(() -> dataTerminalReady, value -> dataTerminalReady = value, () -> Boolean.TRUE, () -> BOOLEAN_DECODER.apply(getBits(422, 423)));
+        if (!isDecoded(DATA_TERMINAL_READY)) {
+            dataTerminalReady = decodeBoolean(getPayload(), 422);
+            setDecoded(DATA_TERMINAL_READY);
+        }
+        return dataTerminalReady;
 	}
 
     @Override
@@ -154,17 +224,31 @@ public class ShipAndVoyageData extends AISMessage  {
                 "} " + super.toString();
     }
 
+    private static final int IMO_NUMBER = FIRST_FIELD;
+    private static final int CALLSIGN = FIRST_FIELD + 1;
+    private static final int SHIP_NAME = FIRST_FIELD + 2;
+    private static final int SHIP_TYPE = FIRST_FIELD + 3;
+    private static final int TO_BOW = FIRST_FIELD + 4;
+    private static final int TO_STERN = FIRST_FIELD + 5;
+    private static final int TO_STARBOARD = FIRST_FIELD + 6;
+    private static final int TO_PORT = FIRST_FIELD + 7;
+    private static final int POSITION_FIXING_DEVICE = FIRST_FIELD + 8;
+    private static final int ETA = FIRST_FIELD + 9;
+    private static final int DRAUGHT = FIRST_FIELD + 10;
+    private static final int DESTINATION = FIRST_FIELD + 11;
+    private static final int DATA_TERMINAL_READY = FIRST_FIELD + 12;
+
     private transient IMO imo;
     private transient String callsign;
     private transient String shipName;
     private transient ShipType shipType;
-    private transient Integer toBow;
-    private transient Integer toStern;
-    private transient Integer toStarboard;
-    private transient Integer toPort;
+    private transient int toBow;
+    private transient int toStern;
+    private transient int toStarboard;
+    private transient int toPort;
     private transient PositionFixingDevice positionFixingDevice;
     private transient String eta;
-    private transient Float draught;
+    private transient float draught;
     private transient String destination;
-    private transient Boolean dataTerminalReady;
+    private transient boolean dataTerminalReady;
 }
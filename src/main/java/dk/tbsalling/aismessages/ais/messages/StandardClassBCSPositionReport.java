@@ -16,13 +16,14 @@
 
 package dk.tbsalling.aismessages.ais.messages;
 
+import dk.tbsalling.aismessages.ais.BitBuffer;
 import dk.tbsalling.aismessages.ais.messages.types.AISMessageType;
 import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
 import static dk.tbsalling.aismessages.ais.Decoders.BIT_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.BOOLEAN_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.FLOAT_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.UNSIGNED_FLOAT_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.UNSIGNED_INTEGER_DECODER;
+import static dk.tbsalling.aismessages.ais.Decoders.decodeBoolean;
+import static dk.tbsalling.aismessages.ais.Decoders.decodeSignedFixedPoint;
+import static dk.tbsalling.aismessages.ais.Decoders.decodeSignedInt;
+import static dk.tbsalling.aismessages.ais.Decoders.decodeUnsignedFixedPoint;
 
 /**
  * A less detailed report than types 1-3 for vessels using Class B transmitters.
@@ -38,8 +39,8 @@ public class StandardClassBCSPositionReport extends AISMessage {
         super(nmeaMessages);
     }
 
-    protected StandardClassBCSPositionReport(NMEAMessage[] nmeaMessages, String bitString) throws Exception {
-        super(nmeaMessages, bitString);
+    protected StandardClassBCSPositionReport(NMEAMessage[] nmeaMessages, BitBuffer payload) throws Exception {
+        super(nmeaMessages, payload);
     }
 
     protected void checkAISMessage() {
@@ -51,87 +52,185 @@ public class StandardClassBCSPositionReport extends AISMessage {
 
     @SuppressWarnings("unused")
 	public String getRegionalReserved1() {
-        return getDecodedValue(() -> regionalReserved1, value -> regionalReserved1 = value, () -> Boolean.TRUE, () -> BIT_DECODER.apply(getBits(38, 46)));
+        if (!isDecoded(REGIONAL_RESERVED1)) {
+            regionalReserved1 = BIT_DECODER.apply(getBits(38, 46));
+            setDecoded(REGIONAL_RESERVED1);
+        }
+        return regionalReserved1;
 	}
 
     @SuppressWarnings("unused")
 	public Float getSpeedOverGround() {
-        return getDecodedValue(() -> speedOverGround, value -> speedOverGround = value, () -> Boolean.TRUE, () -> UNSIGNED_FLOAT_DECODER.apply(getBits(46, 55)) / 10f);
+        if (!isDecoded(SPEED_OVER_GROUND)) {
+            speedOverGround = decodeUnsignedFixedPoint(getPayload(), 46, 9, 10f);
+            setDecoded(SPEED_OVER_GROUND);
+        }
+        return speedOverGround;
 	}
 
     @SuppressWarnings("unused")
 	public Boolean getPositionAccurate() {
-        return getDecodedValue(() -> positionAccurate, value -> positionAccurate = value, () -> Boolean.TRUE, () -> BOOLEAN_DECODER.apply(getBits(56, 57)));
+        if (!isDecoded(POSITION_ACCURATE)) {
+            positionAccurate = decodeBoolean(getPayload(), 56);
+            setDecoded(POSITION_ACCURATE);
+        }
+        return positionAccurate;
 	}
 
     @SuppressWarnings("unused")
 	public Float getLatitude() {
-        return getDecodedValue(() -> latitude, value -> latitude = value, () -> Boolean.TRUE, () -> FLOAT_DECODER.apply(getBits(85, 112)) / 600000f);
+        if (!isDecoded(LATITUDE)) {
+            latitude = decodeSignedFixedPoint(getPayload(), 85, 27, 600000f);
+            setDecoded(LATITUDE);
+        }
+        return latitude;
 	}
 
     @SuppressWarnings("unused")
 	public Float getLongitude() {
-        return getDecodedValue(() -> longitude, value -> longitude = value, () -> Boolean.TRUE, () -> FLOAT_DECODER.apply(getBits(57, 85)) / 600000f);
+        if (!isDecoded(LONGITUDE)) {
+            longitude = decodeSignedFixedPoint(getPayload(), 57, 28, 600000f);
+            setDecoded(LONGITUDE);
+        }
+        return longitude;
 	}
 
     @SuppressWarnings("unused")
 	public Float getCourseOverGround() {
-        return getDecodedValue(() -> courseOverGround, value -> courseOverGround = value, () -> Boolean.TRUE, () -> UNSIGNED_FLOAT_DECODER.apply(getBits(112, 124)) / 10f);
+        if (!isDecoded(COURSE_OVER_GROUND)) {
+            courseOverGround = decodeUnsignedFixedPoint(getPayload(), 112, 12, 10f);
+            setDecoded(COURSE_OVER_GROUND);
+        }
+        return courseOverGround;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getTrueHeading() {
-        return getDecodedValue(() -> trueHeading, value -> trueHeading = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(124, 133)));
+        if (!isDecoded(TRUE_HEADING)) {
+            trueHeading = getPayload().getUnsigned(124, 9);
+            setDecoded(TRUE_HEADING);
+        }
+        return trueHeading;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getSecond() {
-        return getDecodedValue(() -> second, value -> second = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(133, 139)));
+        if (!isDecoded(SECOND)) {
+            second = getPayload().getUnsigned(133, 6);
+            setDecoded(SECOND);
+        }
+        return second;
 	}
 
     @SuppressWarnings("unused")
 	public String getRegionalReserved2() {
-        return getDecodedValue(() -> regionalReserved2, value -> regionalReserved2 = value, () -> Boolean.TRUE, () -> BIT_DECODER.apply(getBits(139, 141)));
+        if (!isDecoded(REGIONAL_RESERVED2)) {
+            regionalReserved2 = BIT_DECODER.apply(getBits(139, 141));
+            setDecoded(REGIONAL_RESERVED2);
+        }
+        return regionalReserved2;
 	}
 
     @SuppressWarnings("unused")
 	public Boolean getCsUnit() {
-        return getDecodedValue(() -> csUnit, value -> csUnit = value, () -> Boolean.TRUE, () -> BOOLEAN_DECODER.apply(getBits(141, 142)));
+        if (!isDecoded(CS_UNIT)) {
+            csUnit = decodeBoolean(getPayload(), 141);
+            setDecoded(CS_UNIT);
+        }
+        return csUnit;
 	}
 
     @SuppressWarnings("unused")
 	public Boolean getDisplay() {
-        return getDecodedValue(() -> display, value -> display = value, () -> Boolean.TRUE, () -> BOOLEAN_DECODER.apply(getBits(142, 143)));
+        if (!isDecoded(DISPLAY)) {
+            display = decodeBoolean(getPayload(), 142);
+            setDecoded(DISPLAY);
+        }
+        return display;
 	}
 
     @SuppressWarnings("unused")
 	public Boolean getDsc() {
-        return getDecodedValue(() -> dsc, value -> dsc = value, () -> Boolean.TRUE, () -> BOOLEAN_DECODER.apply(getBits(143, 144)));
+        if (!isDecoded(DSC)) {
+            dsc = decodeBoolean(getPayload(), 143);
+            setDecoded(DSC);
+        }
+        return dsc;
 	}
 
     @SuppressWarnings("unused")
 	public Boolean getBand() {
-        return getDecodedValue(() -> band, value -> band = value, () -> Boolean.TRUE, () -> BOOLEAN_DECODER.apply(getBits(144, 145)));
+        if (!isDecoded(BAND)) {
+            band = decodeBoolean(getPayload(), 144);
+            setDecoded(BAND);
+        }
+        return band;
 	}
 
     @SuppressWarnings("unused")
 	public Boolean getMessage22() {
-        return getDecodedValue(() -> message22, value -> message22 = value, () -> Boolean.TRUE, () -> BOOLEAN_DECODER.apply(getBits(145, 146)));
+        if (!isDecoded(MESSAGE22)) {
+            message22 = decodeBoolean(getPayload(), 145);
+            setDecoded(MESSAGE22);
+        }
+        return message22;
 	}
 
     @SuppressWarnings("unused")
 	public Boolean getAssigned() {
-        return getDecodedValue(() -> assigned, value -> assigned = value, () -> Boolean.TRUE, () -> BOOLEAN_DECODER.apply(getBits(146, 147)));
+        if (!isDecoded(ASSIGNED)) {
+            assigned = decodeBoolean(getPayload(), 146);
+            setDecoded(ASSIGNED);
+        }
+        return assigned;
 	}
 
     @SuppressWarnings("unused")
 	public Boolean getRaimFlag() {
-        return getDecodedValue(() -> raimFlag, value -> raimFlag = value, () -> Boolean.TRUE, () -> BOOLEAN_DECODER.apply(getBits(147, 148)));
+        if (!isDecoded(RAIM_FLAG)) {
+            raimFlag = decodeBoolean(getPayload(), 147);
+            setDecoded(RAIM_FLAG);
+        }
+        return raimFlag;
 	}
 
     @SuppressWarnings("unused")
 	public String getRadioStatus() {
-        return getDecodedValue(() -> radioStatus, value -> radioStatus = value, () -> Boolean.TRUE, () -> BIT_DECODER.apply(getBits(148, 168)));
+        if (!isDecoded(RADIO_STATUS)) {
+            radioStatus = BIT_DECODER.apply(getBits(148, 168));
+            setDecoded(RADIO_STATUS);
+        }
+        return radioStatus;
+	}
+
+    /** @return Latitude in 1/10000 minutes; read from the payload without boxing or caching. */
+    @SuppressWarnings("unused")
+	public int getLatitudeRaw() {
+        return decodeSignedInt(getPayload(), 85, 27);
+	}
+
+    /** @return Longitude in 1/10000 minutes; read from the payload without boxing or caching. */
+    @SuppressWarnings("unused")
+	public int getLongitudeRaw() {
+        return decodeSignedInt(getPayload(), 57, 28);
+	}
+
+    /** @return Speed over ground in 1/10 knots; read from the payload without boxing or caching. */
+    @SuppressWarnings("unused")
+	public int getSpeedOverGroundRaw() {
+        return getPayload().getUnsigned(46, 9);
+	}
+
+    /** @return Course over ground in 1/10 degrees; read from the payload without boxing or caching. */
+    @SuppressWarnings("unused")
+	public int getCourseOverGroundRaw() {
+        return getPayload().getUnsigned(112, 12);
+	}
+
+    /** @return True heading in degrees; 511 if not available; read from the payload without boxing or caching. */
+    @SuppressWarnings("unused")
+	public int getTrueHeadingRaw() {
+        return getPayload().getUnsigned(124, 9);
 	}
 
     @Override
@@ -158,21 +257,39 @@ public class StandardClassBCSPositionReport extends AISMessage {
                 "} " + super.toString();
     }
 
+    private static final int REGIONAL_RESERVED1 = FIRST_FIELD;
+    private static final int SPEED_OVER_GROUND = FIRST_FIELD + 1;
+    private static final int POSITION_ACCURATE = FIRST_FIELD + 2;
+    private static final int LATITUDE = FIRST_FIELD + 3;
+    private static final int LONGITUDE = FIRST_FIELD + 4;
+    private static final int COURSE_OVER_GROUND = FIRST_FIELD + 5;
+    private static final int TRUE_HEADING = FIRST_FIELD + 6;
+    private static final int SECOND = FIRST_FIELD + 7;
+    private static final int REGIONAL_RESERVED2 = FIRST_FIELD + 8;
+    private static final int CS_UNIT = FIRST_FIELD + 9;
+    private static final int DISPLAY = FIRST_FIELD + 10;
+    private static final int DSC = FIRST_FIELD + 11;
+    private static final int BAND = FIRST_FIELD + 12;
+    private static final int MESSAGE22 = FIRST_FIELD + 13;
+    private static final int ASSIGNED = FIRST_FIELD + 14;
+    private static final int RAIM_FLAG = FIRST_FIELD + 15;
+    private static final int RADIO_STATUS = FIRST_FIELD + 16;
+
     private transient String regionalReserved1;
-	private transient Float speedOverGround;
-	private transient Boolean positionAccurate;
-	private transient Float latitude;
-	private transient Float longitude;
-	private transient Float courseOverGround;
-	private transient Integer trueHeading;
-	private transient Integer second;
+	private transient float speedOverGround;
+	private transient boolean positionAccurate;
+	private transient float latitude;
+	private transient float longitude;
+	private transient float courseOverGround;
+	private transient int trueHeading;
+	private transient int second;
 	private transient String regionalReserved2;
-	private transient Boolean csUnit;
-	private transient Boolean display;
-	private transient Boolean dsc;
-	private transient Boolean band;
-	private transient Boolean message22;
-	private transient Boolean assigned;
-	private transient Boolean raimFlag;
+	private transient boolean csUnit;
+	private transient boolean display;
+	private transient boolean dsc;
+	private transient boolean band;
+	private transient boolean message22;
+	private transient boolean assigned;
+	private transient boolean raimFlag;
 	private transient String radioStatus;
 }
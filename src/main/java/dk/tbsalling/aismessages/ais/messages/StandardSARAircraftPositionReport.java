@@ -16,13 +16,13 @@
 
 package dk.tbsalling.aismessages.ais.messages;
 
+import dk.tbsalling.aismessages.ais.BitBuffer;
 import dk.tbsalling.aismessages.ais.messages.types.AISMessageType;
 import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
 import static dk.tbsalling.aismessages.ais.Decoders.BIT_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.BOOLEAN_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.FLOAT_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.UNSIGNED_FLOAT_DECODER;
-import static dk.tbsalling.aismessages.ais.Decoders.UNSIGNED_INTEGER_DECODER;
+import static dk.tbsalling.aismessages.ais.Decoders.decodeBoolean;
+import static dk.tbsalling.aismessages.ais.Decoders.decodeSignedFixedPoint;
+import static dk.tbsalling.aismessages.ais.Decoders.decodeUnsignedFixedPoint;
 
 @SuppressWarnings("serial")
 public class StandardSARAircraftPositionReport extends AISMessage {
@@ -31,8 +31,8 @@ public class StandardSARAircraftPositionReport extends AISMessage {
         super(nmeaMessages);
     }
 
-    protected StandardSARAircraftPositionReport(NMEAMessage[] nmeaMessages, String bitString) throws Exception {
-        super(nmeaMessages, bitString);
+    protected StandardSARAircraftPositionReport(NMEAMessage[] nmeaMessages, BitBuffer payload) throws Exception {
+        super(nmeaMessages, payload);
     }
 
     protected void checkAISMessage() {
@@ -44,62 +44,110 @@ public class StandardSARAircraftPositionReport extends AISMessage {
 
     @SuppressWarnings("unused")
 	public Integer getAltitude() {
-        return getDecodedValue(() -> altitude, value -> altitude = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(38, 50)));
+        if (!isDecoded(ALTITUDE)) {
+            altitude = getPayload().getUnsigned(38, 12);
+            setDecoded(ALTITUDE);
+        }
+        return altitude;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getSpeed() {
-        return getDecodedValue(() -> speed, value -> speed = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(50, 60)));
+        if (!isDecoded(SPEED)) {
+            speed = getPayload().getUnsigned(50, 10);
+            setDecoded(SPEED);
+        }
+        return speed;
 	}
 
     @SuppressWarnings("unused")
 	public Boolean getPositionAccurate() {
-        return getDecodedValue(() -> positionAccurate, value -> positionAccurate = value, () -> Boolean.TRUE, () -> BOOLEAN_DECODER.apply(getBits(60, 61)));
+        if (!isDecoded(POSITION_ACCURATE)) {
+            positionAccurate = decodeBoolean(getPayload(), 60);
+            setDecoded(POSITION_ACCURATE);
+        }
+        return positionAccurate;
 	}
 
     @SuppressWarnings("unused")
 	public Float getLongitude() {
-        return getDecodedValue(() -> longitude, value -> longitude = value, () -> Boolean.TRUE, () -> FLOAT_DECODER.apply(getBits(61, 89)) / 600000f);
+        if (!isDecoded(LONGITUDE)) {
+            longitude = decodeSignedFixedPoint(getPayload(), 61, 28, 600000f);
+            setDecoded(LONGITUDE);
+        }
+        return longitude;
 	}
 
     @SuppressWarnings("unused")
     public Float getLatitude() {
-        return getDecodedValue(() -> latitude, value -> latitude = value, () -> Boolean.TRUE, () -> FLOAT_DECODER.apply(getBits(89, 116)) / 600000f);
+        if (!isDecoded(LATITUDE)) {
+            latitude = decodeSignedFixedPoint(getPayload(), 89, 27, 600000f);
+            setDecoded(LATITUDE);
+        }
+        return latitude;
     }
 
     @SuppressWarnings("unused")
 	public Float getCourseOverGround() {
-        return getDecodedValue(() -> courseOverGround, value -> courseOverGround = value, () -> Boolean.TRUE, () -> UNSIGNED_FLOAT_DECODER.apply(getBits(116, 128)) / 10f);
+        if (!isDecoded(COURSE_OVER_GROUND)) {
+            courseOverGround = decodeUnsignedFixedPoint(getPayload(), 116, 12, 10f);
+            setDecoded(COURSE_OVER_GROUND);
+        }
+        return courseOverGround;
 	}
 
     @SuppressWarnings("unused")
 	public Integer getSecond() {
-        return getDecodedValue(() -> second, value -> second = value, () -> Boolean.TRUE, () -> UNSIGNED_INTEGER_DECODER.apply(getBits(128, 134)));
+        if (!isDecoded(SECOND)) {
+            second = getPayload().getUnsigned(128, 6);
+            setDecoded(SECOND);
+        }
+        return second;
 	}
 
     @SuppressWarnings("unused")
 	public String getRegionalReserved() {
-        return getDecodedValue(() -> regionalReserved, value -> regionalReserved = value, () -> Boolean.TRUE, () -> BIT_DECODER.apply(getBits(134, 142)));
+        if (!isDecoded(REGIONAL_RESERVED)) {
+            regionalReserved = BIT_DECODER.apply(getBits(134, 142));
+            setDecoded(REGIONAL_RESERVED);
+        }
+        return regionalReserved;
 	}
 
     @SuppressWarnings("unused")
 	public Boolean getDataTerminalReady() {
-        return getDecodedValue(() -> dataTerminalReady, value -> dataTerminalReady = value, () -> Boolean.TRUE, () -> BOOLEAN_DECODER.apply(getBits(142, 143)));
+        if (!isDecoded(DATA_TERMINAL_READY)) {
+            dataTerminalReady = decodeBoolean(getPayload(), 142);
+            setDecoded(DATA_TERMINAL_READY);
+        }
+        return dataTerminalReady;
 	}
 
     @SuppressWarnings("unused")
 	public Boolean getAssigned() {
-        return getDecodedValue(() -> assigned, value -> assigned = value, () -> Boolean.TRUE, () -> BOOLEAN_DECODER.apply(getBits(146, 147)));
+        if (!isDecoded(ASSIGNED)) {
+            assigned = decodeBoolean(getPayload(), 146);
+            setDecoded(ASSIGNED);
+        }
+        return assigned;
 	}
 
     @SuppressWarnings("unused")
 	public Boolean getRaimFlag() {
-        return getDecodedValue(() -> raimFlag, value -> raimFlag = value, () -> Boolean.TRUE, () -> BOOLEAN_DECODER.apply(getBits(147, 148)));
+        if (!isDecoded(RAIM_FLAG)) {
+            raimFlag = decodeBoolean(getPayload(), 147);
+            setDecoded(RAIM_FLAG);
+        }
+        return raimFlag;
 	}
 
     @SuppressWarnings("unused")
 	public String getRadioStatus() {
-        return getDecodedValue(() -> radioStatus, value -> radioStatus = value, () -> Boolean.TRUE, () -> BIT_DECODER.apply(getBits(148, 168)));
+        if (!isDecoded(RADIO_STATUS)) {
+            radioStatus = BIT_DECODER.apply(getBits(148, 168));
+            setDecoded(RADIO_STATUS);
+        }
+        return radioStatus;
 	}
 
     @Override
@@ -121,16 +169,29 @@ public class StandardSARAircraftPositionReport extends AISMessage {
                 "} " + super.toString();
     }
 
-    private transient Integer altitude;
-	private transient Integer speed;
-	private transient Boolean positionAccurate;
-	private transient Float latitude;
-	private transient Float longitude;
-	private transient Float courseOverGround;
-	private transient Integer second;
+    private static final int ALTITUDE = FIRST_FIELD;
+    private static final int SPEED = FIRST_FIELD + 1;
+    private static final int POSITION_ACCURATE = FIRST_FIELD + 2;
+    private static final int LATITUDE = FIRST_FIELD + 3;
+    private static final int LONGITUDE = FIRST_FIELD + 4;
+    private static final int COURSE_OVER_GROUND = FIRST_FIELD + 5;
+    private static final int SECOND = FIRST_FIELD + 6;
+    private static final int REGIONAL_RESERVED = FIRST_FIELD + 7;
+    private static final int DATA_TERMINAL_READY = FIRST_FIELD + 8;
+    private static final int ASSIGNED = FIRST_FIELD + 9;
+    private static final int RAIM_FLAG = FIRST_FIELD + 10;
+    private static final int RADIO_STATUS = FIRST_FIELD + 11;
+
+    private transient int altitude;
+	private transient int speed;
+	private transient boolean positionAccurate;
+	private transient float latitude;
+	private transient float longitude;
+	private transient float courseOverGround;
+	private transient int second;
 	private transient String regionalReserved;
-	private transient Boolean dataTerminalReady;
-	private transient Boolean assigned;
-	private transient Boolean raimFlag;
+	private transient boolean dataTerminalReady;
+	private transient boolean assigned;
+	private transient boolean raimFlag;
 	private transient String radioStatus;
 }
@@ -16,10 +16,10 @@
 
 package dk.tbsalling.aismessages.ais.messages;
 
+import dk.tbsalling.aismessages.ais.BitBuffer;
 import dk.tbsalling.aismessages.ais.messages.types.AISMessageType;
 import dk.tbsalling.aismessages.ais.messages.types.MMSI;
 import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
-import static dk.tbsalling.aismessages.ais.Decoders.UNSIGNED_LONG_DECODER;
 
 @SuppressWarnings("serial")
 public class UTCAndDateInquiry extends AISMessage {
@@ -28,8 +28,8 @@ public class UTCAndDateInquiry extends AISMessage {
         super(nmeaMessages);
     }
 
-    protected UTCAndDateInquiry(NMEAMessage[] nmeaMessages, String bitString) throws Exception {
-        super(nmeaMessages, bitString);
+    protected UTCAndDateInquiry(NMEAMessage[] nmeaMessages, BitBuffer payload) throws Exception {
+        super(nmeaMessages, payload);
     }
 
     protected void checkAISMessage() {
@@ -41,7 +41,11 @@ public class UTCAndDateInquiry extends AISMessage {
 
     @SuppressWarnings("unused")
 	public MMSI getDestinationMmsi() {
-        return getDecodedValue(() -> destinationMmsi, value -> destinationMmsi = value, () -> Boolean.TRUE, () -> MMSI.valueOf(UNSIGNED_LONG_DECODER.apply(getBits(40, 70))));
+        if (!isDecoded(DESTINATION_MMSI)) {
+            destinationMmsi = MMSI.valueOf(getPayload().getUnsignedLong(40, 30));
+            setDecoded(DESTINATION_MMSI);
+        }
+        return destinationMmsi;
 	}
 
     @Override
@@ -52,5 +56,7 @@ public class UTCAndDateInquiry extends AISMessage {
                 "} " + super.toString();
     }
 
+    private static final int DESTINATION_MMSI = FIRST_FIELD;
+
     private transient MMSI destinationMmsi;
 }
@@ -16,39 +16,42 @@
 
 package dk.tbsalling.aismessages.ais.messages.types;
 
+import java.util.function.IntPredicate;
+
 public enum AISMessageType {
 
-	PositionReportClassAScheduled(1),
-	PositionReportClassAAssignedSchedule(2),
-	PositionReportClassAResponseToInterrogation(3), 
-	BaseStationReport(4), 
-	ShipAndVoyageRelatedData(5), 
-	AddressedBinaryMessage(6), 
-	BinaryAcknowledge(7), 
-	BinaryBroadcastMessage(8), 
-	StandardSARAircraftPositionReport(9),
-	UTCAndDateInquiry(10),
-	UTCAndDateResponse(11),
-	AddressedSafetyRelatedMessage(12),
-	SafetyRelatedAcknowledge(13),
-	SafetyRelatedBroadcastMessage(14),
-	Interrogation(15), 
-	AssignedModeCommand(16), 
-	GNSSBinaryBroadcastMessage(17), 
-	StandardClassBCSPositionReport(18), 
-	ExtendedClassBEquipmentPositionReport(19), 
-	DataLinkManagement(20), 
-	AidToNavigationReport(21), 
-	ChannelManagement(22), 
-	GroupAssignmentCommand(23), 
-	ClassBCSStaticDataReport(24), 
-	BinaryMessageSingleSlot(25), 
-	BinaryMessageMultipleSlot(26),
-	LongRangeBroadcastMessage(27),
-	Error(-1);
-
-	AISMessageType(Integer code) {
+	PositionReportClassAScheduled(1, exactly(168)),
+	PositionReportClassAAssignedSchedule(2, exactly(168)),
+	PositionReportClassAResponseToInterrogation(3, exactly(168)), 
+	BaseStationReport(4, exactly(168)), 
+	ShipAndVoyageRelatedData(5, exactly(424, 422)), 
+	AddressedBinaryMessage(6, atMost(1008)), 
+	BinaryAcknowledge(7, exactly(72, 104, 136, 168)), 
+	BinaryBroadcastMessage(8, atMost(1008)), 
+	StandardSARAircraftPositionReport(9, exactly(168)),
+	UTCAndDateInquiry(10, exactly(72)),
+	UTCAndDateResponse(11, exactly(168)),
+	AddressedSafetyRelatedMessage(12, atMost(1008)),
+	SafetyRelatedAcknowledge(13, exactly(72, 104, 136, 168)),
+	SafetyRelatedBroadcastMessage(14, atMost(1008)),
+	Interrogation(15, exactly(88, 110, 112, 160)), 
+	AssignedModeCommand(16, exactly(96, 144)), 
+	GNSSBinaryBroadcastMessage(17, between(80, 816)), 
+	StandardClassBCSPositionReport(18, exactly(168)), 
+	ExtendedClassBEquipmentPositionReport(19, exactly(312)), 
+	DataLinkManagement(20, between(72, 160)), 
+	AidToNavigationReport(21, between(30, 360)), 
+	ChannelManagement(22, exactly(168)), 
+	GroupAssignmentCommand(23, exactly(160)), 
+	ClassBCSStaticDataReport(24, exactly(160, 168, 158)), 
+	BinaryMessageSingleSlot(25, atMost(168)), 
+	BinaryMessageMultipleSlot(26, anyLength()),
+	LongRangeBroadcastMessage(27, exactly(96, 168)),
+	Error(-1, noLength());
+
+	AISMessageType(Integer code, IntPredicate validLength) {
 		this.code = code;
+		this.validLength = validLength;
 	}
 
 	public Integer getCode() {
@@ -59,16 +62,58 @@ public enum AISMessageType {
 	    return toString();
 	}
 
+	/**
+	 * @param numberOfBits Length of a payload in bits.
+	 * @return true if a payload of this message type may have the given length.
+	 */
+	public boolean isValidLength(int numberOfBits) {
+		return validLength.test(numberOfBits);
+	}
+
 	public static AISMessageType fromInteger(Integer integer) {
-		if (integer != null) {
-			for (AISMessageType b : AISMessageType.values()) {
-				if (integer.equals(b.code)) {
-					return b;
+		if (integer != null && integer >= 0 && integer < BY_CODE.length) {
+			return BY_CODE[integer];
+		}
+		return null;
+	}
+
+	private static IntPredicate exactly(int... lengths) {
+		return numberOfBits -> {
+			for (int length : lengths) {
+				if (numberOfBits == length) {
+					return true;
 				}
 			}
+			return false;
+		};
+	}
+
+	private static IntPredicate atMost(int maxLength) {
+		return numberOfBits -> numberOfBits <= maxLength;
+	}
+
+	private static IntPredicate between(int minLength, int maxLength) {
+		return numberOfBits -> numberOfBits >= minLength && numberOfBits <= maxLength;
+	}
+
+	private static IntPredicate anyLength() {
+		return numberOfBits -> true;
+	}
+
+	private static IntPredicate noLength() {
+		return numberOfBits -> false;
+	}
+
+	/** Message types indexed by their code, which is a six-bit value. */
+	private static final AISMessageType[] BY_CODE = new AISMessageType[64];
+	static {
+		for (AISMessageType messageType : values()) {
+			if (messageType.code >= 0) {
+				BY_CODE[messageType.code] = messageType;
+			}
 		}
-		return null;
 	}
 
 	private final Integer code;
+	private final IntPredicate validLength;
 }
@@ -17,8 +17,7 @@
 package dk.tbsalling.aismessages.demo;
 
 import dk.tbsalling.aismessages.ais.messages.AISMessage;
-import dk.tbsalling.aismessages.nmea.NMEAMessageHandler;
-import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
+import dk.tbsalling.aismessages.nmea.NMEAMessageFileDecoder;
 
 import java.io.BufferedReader;
 import java.io.FileInputStream;
@@ -26,6 +25,7 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Properties;
 import java.util.function.Consumer;
@@ -43,41 +43,29 @@ public class FileDemoApp implements Consumer<AISMessage> {
 	public void runDemo() {
 
 		Properties prop = loadFileProperties();
-		String demoNmeaCSV = prop.getProperty("AisDecoderCsv");
-		//String[] demoNmeaStrings = getNmeaStringsFromCSV(demoNmeaCSV);
-		String[] demoNmeaStrings = getNmeaStringsNmeaLogFile(demoNmeaCSV);
-
+		String demoNmeaLogFile = prop.getProperty("AisDecoderCsv");
 
 		System.out.println("AISMessages File Demo App");
 		System.out.println("--------------------");
 
-		NMEAMessageHandler nmeaMessageHandler = new NMEAMessageHandler("FILE_DEMO1", this);
+		NMEAMessageFileDecoder decoder = new NMEAMessageFileDecoder();
 
-		long numNMEAStrings = 0;
 		long startTime = System.nanoTime();
 
-		//for (int i=0; i<1000; i++) {
-		for (String demoNmeaString : demoNmeaStrings) {
-			try {
-				nmeaMessageHandler.accept(NMEAMessage.fromString(demoNmeaString));
-			} catch (Exception e) {
-				// TODO Auto-generated catch block
-				System.out.println(demoNmeaString);
-				e.printStackTrace();
-			}
-			numNMEAStrings++;
+		try {
+			decoder.decode(Paths.get(demoNmeaLogFile), true, this);
+		} catch (IOException e) {
+			e.printStackTrace();
 		}
-		//}
-
-		ArrayList<NMEAMessage> unhandled = nmeaMessageHandler.flush();
 
 		long endTime = System.nanoTime();
 
+		long numNMEAStrings = decoder.getLines();
 		float secs = (endTime-startTime)/1000000000f;
 		int msgsPerSec = (int) (numNMEAStrings/secs);
 
 		System.out.println("DemoApp processed " + numNMEAStrings + " NMEA AIVDM messages in " + secs + " secs (" + msgsPerSec + " messages per second).");
-		System.out.println(unhandled.size() + " messages were not processed. Probably they were in incomplete sets.");
+		System.out.println(decoder.getIncompleteMessages() + " messages were not processed. Probably they were in incomplete sets.");
 	}
 
 	private String[] getNmeaStringsFromCSV(String demoNmeaCSV) {
@@ -132,58 +120,6 @@ public class FileDemoApp implements Consumer<AISMessage> {
 		return rawMessages.toArray(new String[rawMessages.size()]);
 	}
 
-	private String[] getNmeaStringsNmeaLogFile(String demoNmeaCSV) {
-		BufferedReader br = null;
-		String line = "";
-		String csvSplitBy = ",";
-		ArrayList<String> rawMessages = new ArrayList<String>();
-
-		try {
-
-			br = new BufferedReader(new InputStreamReader(new FileInputStream(demoNmeaCSV), "Cp1252"));
-
-			while ((line = br.readLine()) != null) {
-				/**
-				 * TODO: Remove later. Some hardcode to quickfix data alignment problem.
-				 */
-				if (!line.isEmpty()){
-					if (line.charAt(0)!='!'){
-						continue;
-					}
-				
-					// use comma as separator
-					String[] msg = line.split(csvSplitBy);
-					//System.out.println("Read Line: " +line);
-
-					String rawMessage = "";
-					for (int i = 0; i <= 5; i++) {
-						rawMessage += msg[i] + ',';
-					}
-					rawMessage += msg[6];
-					//System.out.println(rawMessage);
-					rawMessages.add(rawMessage);
-				}
-			}
-
-		} catch (FileNotFoundException e) {
-			e.printStackTrace();
-		} catch (IOException e) {
-			e.printStackTrace();
-		} finally {
-			if (br != null) {
-				try {
-					br.close();
-				} catch (IOException e) {
-					e.printStackTrace();
-				}
-			}
-		}
-
-		System.out.println("Done");
-		return rawMessages.toArray(new String[rawMessages.size()]);
-	}
-
-
 	private Properties loadFileProperties() {
 		Properties prop = new Properties();
 		InputStream input = null;
@@ -0,0 +1,80 @@
+/*
+ * AISMessages
+ * - a java-based library for decoding of AIS messages from digital VHF radio traffic related
+ * to maritime navigation and safety in compliance with ITU 1371.
+ *
+ * (C) Copyright 2011- by S-Consult ApS, DK31327490, http://s-consult.dk, Denmark.
+ *
+ * Released under the Creative Commons Attribution-NonCommercial-ShareAlike 3.0 Unported License.
+ * For details of this license see the nearby LICENCE-full file, visit http://creativecommons.org/licenses/by-nc-sa/3.0/
+ * or send a letter to Creative Commons, 171 Second Street, Suite 300, San Francisco, California, 94105, USA.
+ *
+ * NOT FOR COMMERCIAL USE!
+ * Contact sales@s-consult.dk to obtain a commercially licensed version of this software.
+ *
+ */
+
+package dk.tbsalling.aismessages.jfr;
+
+import dk.tbsalling.aismessages.ais.BitBuffer;
+import dk.tbsalling.aismessages.ais.messages.types.AISMessageType;
+import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+/**
+ * Base class of the JDK Flight Recorder events emitted around the stages of decoding. Each event
+ * carries the source, the AIS message type and the number of fragments of the message concerned,
+ * as far as they are known at the stage.
+ *
+ * The events are emitted in the usual pattern - begin, end, and fill in and commit only if
+ * shouldCommit - so that the fields are computed only for events which exceed their threshold in
+ * an active recording. When no recording is active, an emission site costs an allocation which
+ * the JIT compiler eliminates and a test of shouldCommit.
+ *
+ * @author tbsalling
+ */
+@Category({ "AISMessages", "Decoding" })
+public abstract class DecodeEvent extends Event {
+
+    @Label("Source")
+    protected String source;
+
+    @Label("Message Type")
+    protected String messageType;
+
+    @Label("Fragments")
+    protected int fragments;
+
+    /**
+     * Fill in the fields of the event.
+     * @param source The source; or null if unknown.
+     * @param messageType The name of the message type; or null if unknown.
+     * @param fragments The number of fragments.
+     */
+    public void set(String source, String messageType, int fragments) {
+        this.source = source;
+        this.messageType = messageType;
+        this.fragments = fragments;
+    }
+
+    /**
+     * Fill in the fields of the event from the NMEA messages of an AIS message.
+     * @param source The source; or null if unknown.
+     * @param nmeaMessages The NMEA messages, of which the first determines the message type.
+     */
+    public void set(String source, NMEAMessage... nmeaMessages) {
+        this.source = source;
+        this.fragments = nmeaMessages.length;
+        this.messageType = nmeaMessages.length == 0 ? null : messageTypeOf(nmeaMessages[0]);
+    }
+
+    /** @return The name of the AIS message type in the first payload character, or null if there is none. */
+    static String messageTypeOf(NMEAMessage nmeaMessage) {
+        final CharSequence payload = nmeaMessage.getEncodedPayloadView();
+        final AISMessageType messageType = payload == null ? null : AISMessageType.fromInteger(BitBuffer.deArmour(payload.charAt(0)));
+        return messageType == null ? null : messageType.name();
+    }
+
+}
@@ -0,0 +1,55 @@
+/*
+ * AISMessages
+ * - a java-based library for decoding of AIS messages from digital VHF radio traffic related
+ * to maritime navigation and safety in compliance with ITU 1371.
+ *
+ * (C) Copyright 2011- by S-Consult ApS, DK31327490, http://s-consult.dk, Denmark.
+ *
+ * Released under the Creative Commons Attribution-NonCommercial-ShareAlike 3.0 Unported License.
+ * For details of this license see the nearby LICENCE-full file, visit http://creativecommons.org/licenses/by-nc-sa/3.0/
+ * or send a letter to Creative Commons, 171 Second Street, Suite 300, San Francisco, California, 94105, USA.
+ *
+ * NOT FOR COMMERCIAL USE!
+ * Contact sales@s-consult.dk to obtain a commercially licensed version of this software.
+ *
+ */
+
+package dk.tbsalling.aismessages.jfr;
+
+import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Emitted by NMEAMessageHandler around passing a message to all of its receivers; a long event
+ * points to a slow synchronous receiver.
+ *
+ * @author tbsalling
+ */
+@Name("dk.tbsalling.aismessages.Dispatch")
+@Label("Dispatch")
+@Description("Dispatch of a decoded AISMessage to the receivers of an NMEAMessageHandler.")
+@Threshold("1 ms")
+public class DispatchEvent extends DecodeEvent {
+
+    @Label("Receivers")
+    public int receivers;
+
+    /**
+     * End the event, and commit it if it is recorded.
+     * @param source The source of the message.
+     * @param receivers The number of receivers the message was passed to.
+     * @param nmeaMessages The NMEA messages of the message.
+     */
+    public void record(String source, int receivers, NMEAMessage... nmeaMessages) {
+        end();
+        if (shouldCommit()) {
+            set(source, nmeaMessages);
+            this.receivers = receivers;
+            commit();
+        }
+    }
+
+}
@@ -0,0 +1,57 @@
+/*
+ * AISMessages
+ * - a java-based library for decoding of AIS messages from digital VHF radio traffic related
+ * to maritime navigation and safety in compliance with ITU 1371.
+ *
+ * (C) Copyright 2011- by S-Consult ApS, DK31327490, http://s-consult.dk, Denmark.
+ *
+ * Released under the Creative Commons Attribution-NonCommercial-ShareAlike 3.0 Unported License.
+ * For details of this license see the nearby LICENCE-full file, visit http://creativecommons.org/licenses/by-nc-sa/3.0/
+ * or send a letter to Creative Commons, 171 Second Street, Suite 300, San Francisco, California, 94105, USA.
+ *
+ * NOT FOR COMMERCIAL USE!
+ * Contact sales@s-consult.dk to obtain a commercially licensed version of this software.
+ *
+ */
+
+package dk.tbsalling.aismessages.jfr;
+
+import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Emitted by NMEAMessageHandler for each fragment it passes to its FragmentReassembler, including
+ * the time spent waiting for the lock of the stripe.
+ *
+ * @author tbsalling
+ */
+@Name("dk.tbsalling.aismessages.FragmentReassembly")
+@Label("Fragment Reassembly")
+@Description("Reassembly of a fragment of a multi-sentence AIS message.")
+@Threshold("20 us")
+public class FragmentReassemblyEvent extends DecodeEvent {
+
+    @Label("Complete")
+    @Description("True if the fragment completed the message.")
+    public boolean complete;
+
+    /**
+     * End the event, and commit it if it is recorded.
+     * @param source The source of the fragment.
+     * @param fragment The fragment reassembled.
+     * @param complete true if the fragment completed its message.
+     */
+    public void record(String source, NMEAMessage fragment, boolean complete) {
+        end();
+        if (shouldCommit()) {
+            final Integer numberOfFragments = fragment.getNumberOfFragments();
+            set(source, messageTypeOf(fragment), numberOfFragments == null ? 0 : numberOfFragments);
+            this.complete = complete;
+            commit();
+        }
+    }
+
+}
@@ -0,0 +1,56 @@
+/*
+ * AISMessages
+ * - a java-based library for decoding of AIS messages from digital VHF radio traffic related
+ * to maritime navigation and safety in compliance with ITU 1371.
+ *
+ * (C) Copyright 2011- by S-Consult ApS, DK31327490, http://s-consult.dk, Denmark.
+ *
+ * Released under the Creative Commons Attribution-NonCommercial-ShareAlike 3.0 Unported License.
+ * For details of this license see the nearby LICENCE-full file, visit http://creativecommons.org/licenses/by-nc-sa/3.0/
+ * or send a letter to Creative Commons, 171 Second Street, Suite 300, San Francisco, California, 94105, USA.
+ *
+ * NOT FOR COMMERCIAL USE!
+ * Contact sales@s-consult.dk to obtain a commercially licensed version of this software.
+ *
+ */
+
+package dk.tbsalling.aismessages.jfr;
+
+import dk.tbsalling.aismessages.nmea.DecodeStatus;
+import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Emitted by AISMessage.create, and by NMEAMessageHandler and NMEAMessageDecoder around AISMessage.tryCreate;
+ * the status is the DecodeStatus of the outcome.
+ *
+ * @author tbsalling
+ */
+@Name("dk.tbsalling.aismessages.MessageCreate")
+@Label("Message Create")
+@Description("Creation of an AISMessage from its NMEA messages by the registered factory.")
+@Threshold("50 us")
+public class MessageCreateEvent extends DecodeEvent {
+
+    @Label("Status")
+    public String status;
+
+    /**
+     * End the event, and commit it if it is recorded.
+     * @param source The source of the message; or null if unknown.
+     * @param status The outcome of creating the message.
+     * @param nmeaMessages The NMEA messages of the message.
+     */
+    public void record(String source, DecodeStatus status, NMEAMessage... nmeaMessages) {
+        end();
+        if (shouldCommit()) {
+            set(source, nmeaMessages);
+            this.status = status.name();
+            commit();
+        }
+    }
+
+}
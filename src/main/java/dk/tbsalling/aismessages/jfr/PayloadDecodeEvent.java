@@ -0,0 +1,55 @@
+/*
+ * AISMessages
+ * - a java-based library for decoding of AIS messages from digital VHF radio traffic related
+ * to maritime navigation and safety in compliance with ITU 1371.
+ *
+ * (C) Copyright 2011- by S-Consult ApS, DK31327490, http://s-consult.dk, Denmark.
+ *
+ * Released under the Creative Commons Attribution-NonCommercial-ShareAlike 3.0 Unported License.
+ * For details of this license see the nearby LICENCE-full file, visit http://creativecommons.org/licenses/by-nc-sa/3.0/
+ * or send a letter to Creative Commons, 171 Second Street, Suite 300, San Francisco, California, 94105, USA.
+ *
+ * NOT FOR COMMERCIAL USE!
+ * Contact sales@s-consult.dk to obtain a commercially licensed version of this software.
+ *
+ */
+
+package dk.tbsalling.aismessages.jfr;
+
+import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Emitted when the payload of an AISMessage created without one is unpacked, on the first access
+ * to any of its fields. The fields themselves are decoded individually from the unpacked payload.
+ *
+ * @author tbsalling
+ */
+@Name("dk.tbsalling.aismessages.PayloadDecode")
+@Label("Payload Decode")
+@Description("Lazy de-armouring of the payload of an AISMessage on first access to a field.")
+@Threshold("20 us")
+public class PayloadDecodeEvent extends DecodeEvent {
+
+    @Label("Bits")
+    public int bits;
+
+    /**
+     * End the event, and commit it if it is recorded.
+     * @param source The source of the message; or null if unknown.
+     * @param bits The number of bits in the payload.
+     * @param nmeaMessages The NMEA messages of the message.
+     */
+    public void record(String source, int bits, NMEAMessage... nmeaMessages) {
+        end();
+        if (shouldCommit()) {
+            set(source, nmeaMessages);
+            this.bits = bits;
+            commit();
+        }
+    }
+
+}
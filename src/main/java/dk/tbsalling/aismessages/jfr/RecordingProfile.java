@@ -0,0 +1,72 @@
+/*
+ * AISMessages
+ * - a java-based library for decoding of AIS messages from digital VHF radio traffic related
+ * to maritime navigation and safety in compliance with ITU 1371.
+ *
+ * (C) Copyright 2011- by S-Consult ApS, DK31327490, http://s-consult.dk, Denmark.
+ *
+ * Released under the Creative Commons Attribution-NonCommercial-ShareAlike 3.0 Unported License.
+ * For details of this license see the nearby LICENCE-full file, visit http://creativecommons.org/licenses/by-nc-sa/3.0/
+ * or send a letter to Creative Commons, 171 Second Street, Suite 300, San Francisco, California, 94105, USA.
+ *
+ * NOT FOR COMMERCIAL USE!
+ * Contact sales@s-consult.dk to obtain a commercially licensed version of this software.
+ *
+ */
+
+package dk.tbsalling.aismessages.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+
+/**
+ * The Flight Recorder settings shipped with the library, in the resource aismessages.jfc next to this
+ * class. They enable the decoding events of the library with thresholds for spotting latency spikes,
+ * together with the JDK events which usually explain them.
+ *
+ * @author tbsalling
+ */
+public final class RecordingProfile {
+
+    /** The name of the settings resource, relative to this class. */
+    public static final String RESOURCE = "aismessages.jfc";
+
+    private RecordingProfile() {
+    }
+
+    /**
+     * @return The settings, read from the classpath.
+     * @throws IOException if the resource cannot be read.
+     * @throws ParseException if the resource is not a valid settings file.
+     */
+    public static Configuration load() throws IOException, ParseException {
+        try (InputStream in = RecordingProfile.class.getResourceAsStream(RESOURCE)) {
+            if (in == null) {
+                throw new FileNotFoundException(RESOURCE);
+            }
+            try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+                return Configuration.create(reader);
+            }
+        }
+    }
+
+    /**
+     * @return A new recording with the settings; start it to record.
+     * @throws IOException if the settings cannot be read.
+     * @throws ParseException if the settings are not valid.
+     */
+    public static Recording newRecording() throws IOException, ParseException {
+        final Recording recording = new Recording(load());
+        recording.setName("AISMessages");
+        return recording;
+    }
+
+}
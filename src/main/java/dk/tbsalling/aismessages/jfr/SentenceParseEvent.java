@@ -0,0 +1,58 @@
+/*
+ * AISMessages
+ * - a java-based library for decoding of AIS messages from digital VHF radio traffic related
+ * to maritime navigation and safety in compliance with ITU 1371.
+ *
+ * (C) Copyright 2011- by S-Consult ApS, DK31327490, http://s-consult.dk, Denmark.
+ *
+ * Released under the Creative Commons Attribution-NonCommercial-ShareAlike 3.0 Unported License.
+ * For details of this license see the nearby LICENCE-full file, visit http://creativecommons.org/licenses/by-nc-sa/3.0/
+ * or send a letter to Creative Commons, 171 Second Street, Suite 300, San Francisco, California, 94105, USA.
+ *
+ * NOT FOR COMMERCIAL USE!
+ * Contact sales@s-consult.dk to obtain a commercially licensed version of this software.
+ *
+ */
+
+package dk.tbsalling.aismessages.jfr;
+
+import dk.tbsalling.aismessages.nmea.DecodeStatus;
+import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Emitted by NMEAMessage.fromString and NMEAMessage.tryFromString. The source is not known at this
+ * stage; the fragments field holds the number of fragments announced by the sentence.
+ *
+ * @author tbsalling
+ */
+@Name("dk.tbsalling.aismessages.SentenceParse")
+@Label("Sentence Parse")
+@Description("Parsing of an NMEA sentence into an NMEAMessage.")
+@Threshold("20 us")
+public class SentenceParseEvent extends DecodeEvent {
+
+    @Label("Status")
+    public String status;
+
+    /**
+     * End the event, and commit it if it is recorded.
+     * @param nmeaMessage The NMEA message parsed; or null if the sentence could not be parsed.
+     * @param status The outcome of parsing.
+     */
+    public void record(NMEAMessage nmeaMessage, DecodeStatus status) {
+        end();
+        if (shouldCommit()) {
+            if (nmeaMessage != null) {
+                final Integer numberOfFragments = nmeaMessage.getNumberOfFragments();
+                set(null, messageTypeOf(nmeaMessage), numberOfFragments == null ? 0 : numberOfFragments);
+            }
+            this.status = status.name();
+            commit();
+        }
+    }
+
+}
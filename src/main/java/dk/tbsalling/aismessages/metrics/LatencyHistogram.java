@@ -0,0 +1,113 @@
+/*
+ * AISMessages
+ * - a java-based library for decoding of AIS messages from digital VHF radio traffic related
+ * to maritime navigation and safety in compliance with ITU 1371.
+ *
+ * (C) Copyright 2011- by S-Consult ApS, DK31327490, http://s-consult.dk, Denmark.
+ *
+ * Released under the Creative Commons Attribution-NonCommercial-ShareAlike 3.0 Unported License.
+ * For details of this license see the nearby LICENCE-full file, visit http://creativecommons.org/licenses/by-nc-sa/3.0/
+ * or send a letter to Creative Commons, 171 Second Street, Suite 300, San Francisco, California, 94105, USA.
+ *
+ * NOT FOR COMMERCIAL USE!
+ * Contact sales@s-consult.dk to obtain a commercially licensed version of this software.
+ *
+ */
+
+package dk.tbsalling.aismessages.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of durations in nanoseconds. Durations are counted in buckets by their
+ * power of two, so percentiles are reported as the upper bound of the bucket they fall in; i.e.
+ * they are accurate to within a factor of two. Recording a duration costs two LongAdder increments
+ * and a max update, and allocates nothing.
+ *
+ * @author tbsalling
+ */
+public final class LatencyHistogram {
+
+    private static final int BUCKETS = 64;
+
+    /** Bucket i counts durations d with 2^(i-1) <= d < 2^i; bucket 0 counts d <= 0. */
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Record a duration.
+     * @param nanos The duration in nanoseconds.
+     */
+    public void record(long nanos) {
+        final long d = Math.max(0, nanos);
+        buckets[Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(d))].increment();
+        total.add(d);
+        max.accumulate(d);
+    }
+
+    /** @return The number of durations recorded. */
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    /** @return The mean duration in nanoseconds, or 0 if none has been recorded. */
+    public long getMean() {
+        final long count = getCount();
+        return count == 0 ? 0 : total.sum() / count;
+    }
+
+    /** @return The longest duration recorded in nanoseconds. */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * @param quantile The quantile, between 0 and 1; e.g. 0.99 for the 99th percentile.
+     * @return The upper bound in nanoseconds of the bucket holding the quantile, capped by the maximum; or 0 if none has been recorded.
+     */
+    public long getPercentile(double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("quantile must be between 0 and 1: " + quantile);
+        }
+        final long[] counts = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            count += counts[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(i == 0 ? 0 : (1L << i) - 1, getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /** Clear the histogram. Durations recorded concurrently may be partially lost. */
+    public void reset() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+        total.reset();
+        max.reset();
+    }
+
+}
@@ -0,0 +1,210 @@
+/*
+ * AISMessages
+ * - a java-based library for decoding of AIS messages from digital VHF radio traffic related
+ * to maritime navigation and safety in compliance with ITU 1371.
+ *
+ * (C) Copyright 2011- by S-Consult ApS, DK31327490, http://s-consult.dk, Denmark.
+ *
+ * Released under the Creative Commons Attribution-NonCommercial-ShareAlike 3.0 Unported License.
+ * For details of this license see the nearby LICENCE-full file, visit http://creativecommons.org/licenses/by-nc-sa/3.0/
+ * or send a letter to Creative Commons, 171 Second Street, Suite 300, San Francisco, California, 94105, USA.
+ *
+ * NOT FOR COMMERCIAL USE!
+ * Contact sales@s-consult.dk to obtain a commercially licensed version of this software.
+ *
+ */
+
+package dk.tbsalling.aismessages.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * A registry of SourceMetrics, one per source of NMEA sentences, which are created on first use
+ * and registered as MXBeans named dk.tbsalling.aismessages:type=SourceMetrics,source="...".
+ *
+ * The number of sources is capped; once it is reached, sentences from new sources are recorded in the
+ * metrics of OTHER_SOURCES, until sources are removed again.
+ *
+ * Metrics which are acquired are reference counted: they are removed, and their MBean unregistered, when the
+ * last user which acquired them releases them. Each NMEAMessageHandler acquires the metrics of its sources,
+ * so that closing one handler does not remove the metrics of a source which another handler still handles.
+ *
+ * Metrics are recorded by the readers and the NMEAMessageHandler in the default registry. They can be
+ * disabled entirely by starting the JVM with -Ddk.tbsalling.aismessages.metrics.disabled=true; the
+ * recording sites test the constant ENABLED, so that the JIT compiler removes them.
+ *
+ * @author tbsalling
+ */
+public final class MetricsRegistry {
+
+    private static final Logger LOG = Logger.getLogger(MetricsRegistry.class.getName());
+
+    /** The system property which disables metrics when set to true. */
+    public static final String DISABLED_PROPERTY = "dk.tbsalling.aismessages.metrics.disabled";
+
+    /** false if metrics have been disabled with the system property; read once, when the class is loaded. */
+    public static final boolean ENABLED = !Boolean.getBoolean(DISABLED_PROPERTY);
+
+    public static final String JMX_DOMAIN = "dk.tbsalling.aismessages";
+
+    /** The source of NMEA sentences which have been received without one. */
+    public static final String UNKNOWN_SOURCE = "unknown";
+
+    /** The source in whose metrics sentences are recorded, once the registry holds the maximum number of sources. */
+    public static final String OTHER_SOURCES = "other";
+
+    public static final int DEFAULT_MAX_SOURCES = 1024;
+
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry(true);
+
+    private final boolean registerMBeans;
+    private final int maxSources;
+    private final Map<String, SourceMetrics> metrics = new ConcurrentHashMap<>();
+
+    /**
+     * @param registerMBeans true to register the metrics of each source in the platform MBean server.
+     */
+    public MetricsRegistry(boolean registerMBeans) {
+        this(registerMBeans, DEFAULT_MAX_SOURCES);
+    }
+
+    /**
+     * @param registerMBeans true to register the metrics of each source in the platform MBean server.
+     * @param maxSources The number of sources above which new sources share the metrics of OTHER_SOURCES.
+     */
+    public MetricsRegistry(boolean registerMBeans, int maxSources) {
+        if (maxSources < 1) {
+            throw new IllegalArgumentException("maxSources must be positive: " + maxSources);
+        }
+        this.registerMBeans = registerMBeans;
+        this.maxSources = maxSources;
+    }
+
+    /** @return The registry which the readers and handlers of this library record in. */
+    public static MetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * @param source The source; or null for UNKNOWN_SOURCE.
+     * @return The metrics of the source; created and registered if it has none yet. The metrics of OTHER_SOURCES
+     *         if the registry already holds the maximum number of sources. No reference is taken, so the metrics
+     *         are removed when the last user which acquired them releases them.
+     */
+    public SourceMetrics forSource(String source) {
+        final String key = source == null ? UNKNOWN_SOURCE : source;
+        final SourceMetrics existing = metrics.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        // Checked without locking, so the maximum may be exceeded by a few sources created concurrently
+        return metrics.computeIfAbsent(metrics.size() < maxSources ? key : OTHER_SOURCES, this::create);
+    }
+
+    /**
+     * Take a reference to the metrics of a source, which keeps them in the registry until it is released.
+     * @param source The source; or null for UNKNOWN_SOURCE.
+     * @return The metrics of the source, as by forSource.
+     */
+    public SourceMetrics acquire(String source) {
+        final String key = source == null ? UNKNOWN_SOURCE : source;
+        // Checked without locking, so the maximum may be exceeded by a few sources created concurrently
+        return metrics.compute(metrics.containsKey(key) || metrics.size() < maxSources ? key : OTHER_SOURCES, (s, existing) -> {
+            final SourceMetrics acquired = existing == null ? create(s) : existing;
+            acquired.references++;
+            return acquired;
+        });
+    }
+
+    /**
+     * Release a reference taken by acquire. The metrics are removed, and their MBean unregistered, once
+     * the last reference to them is released.
+     * @param sourceMetrics The metrics returned by acquire.
+     */
+    public void release(SourceMetrics sourceMetrics) {
+        final String key = sourceMetrics.getSource();
+        final boolean[] removed = new boolean[1];
+        metrics.computeIfPresent(key, (s, existing) -> {
+            if (existing != sourceMetrics || --existing.references > 0) {
+                return existing;
+            }
+            removed[0] = true;
+            return null;
+        });
+        if (removed[0]) {
+            unregister(key);
+        }
+    }
+
+    private SourceMetrics create(String source) {
+        final SourceMetrics sourceMetrics = new SourceMetrics(source);
+        if (registerMBeans) {
+            try {
+                final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                final ObjectName name = objectNameOf(source);
+                if (!server.isRegistered(name)) {
+                    server.registerMBean(sourceMetrics, name);
+                }
+            } catch (JMException e) {
+                LOG.warning("Failed to register metrics of " + source + " over JMX: " + e);
+            }
+        }
+        return sourceMetrics;
+    }
+
+    /** @return The metrics of all sources, by source. */
+    @SuppressWarnings("unused")
+    public Map<String, SourceMetrics> getSources() {
+        return Collections.unmodifiableMap(metrics);
+    }
+
+    /**
+     * Forget the metrics of a source, and unregister its MBean; regardless of the references to them.
+     * @param source The source.
+     */
+    public void remove(String source) {
+        final String key = source == null ? UNKNOWN_SOURCE : source;
+        if (metrics.remove(key) != null) {
+            unregister(key);
+        }
+    }
+
+    private void unregister(String source) {
+        if (registerMBeans) {
+            try {
+                final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                final ObjectName name = objectNameOf(source);
+                if (server.isRegistered(name)) {
+                    server.unregisterMBean(name);
+                }
+            } catch (JMException e) {
+                LOG.warning("Failed to unregister metrics of " + source + " from JMX: " + e);
+            }
+        }
+    }
+
+    /** Forget the metrics of all sources. */
+    @SuppressWarnings("unused")
+    public void clear() {
+        for (String source : metrics.keySet()) {
+            remove(source);
+        }
+    }
+
+    /**
+     * @param source The source.
+     * @return The name of the MBean of the metrics of the source.
+     */
+    public static ObjectName objectNameOf(String source) throws MalformedObjectNameException {
+        return new ObjectName(JMX_DOMAIN + ":type=SourceMetrics,source=" + ObjectName.quote(source));
+    }
+
+}
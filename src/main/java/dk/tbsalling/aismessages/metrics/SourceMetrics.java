@@ -0,0 +1,253 @@
+/*
+ * AISMessages
+ * - a java-based library for decoding of AIS messages from digital VHF radio traffic related
+ * to maritime navigation and safety in compliance with ITU 1371.
+ *
+ * (C) Copyright 2011- by S-Consult ApS, DK31327490, http://s-consult.dk, Denmark.
+ *
+ * Released under the Creative Commons Attribution-NonCommercial-ShareAlike 3.0 Unported License.
+ * For details of this license see the nearby LICENCE-full file, visit http://creativecommons.org/licenses/by-nc-sa/3.0/
+ * or send a letter to Creative Commons, 171 Second Street, Suite 300, San Francisco, California, 94105, USA.
+ *
+ * NOT FOR COMMERCIAL USE!
+ * Contact sales@s-consult.dk to obtain a commercially licensed version of this software.
+ *
+ */
+
+package dk.tbsalling.aismessages.metrics;
+
+import dk.tbsalling.aismessages.ais.messages.types.AISMessageType;
+import dk.tbsalling.aismessages.nmea.DecodeCounters;
+import dk.tbsalling.aismessages.nmea.DecodeStatus;
+import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The metrics of a single source of NMEA sentences: counters recorded by the readers and the
+ * NMEAMessageHandler, and a histogram of decode durations. Recording is thread safe and allocation
+ * free; counters are LongAdders, which do not contend between threads.
+ *
+ * Decode durations are sampled, by default one decode in 16, so that the cost of reading the clock
+ * is not paid for every message.
+ *
+ * @author tbsalling
+ */
+public final class SourceMetrics implements SourceMetricsMXBean {
+
+    public static final int DEFAULT_LATENCY_SAMPLE_INTERVAL = 16;
+
+    private static final AISMessageType[] MESSAGE_TYPES = AISMessageType.values();
+    private static final DecodeStatus[] STATUSES = DecodeStatus.values();
+
+    private final String source;
+    private final int sampleMask;
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder lines = new LongAdder();
+    private final LongAdder rejectedLines = new LongAdder();
+    private final LongAdder sentences = new LongAdder();
+    private final LongAdder checksumFailures = new LongAdder();
+    private final LongAdder[] messagesByType = new LongAdder[MESSAGE_TYPES.length];
+    private volatile DecodeCounters outcomes = new DecodeCounters();
+    private final LatencyHistogram decodeLatency = new LatencyHistogram();
+    /** The number of users which have acquired these metrics from a MetricsRegistry; guarded by the registry. */
+    int references;
+
+    public SourceMetrics(String source) {
+        this(source, DEFAULT_LATENCY_SAMPLE_INTERVAL);
+    }
+
+    /**
+     * @param source The source.
+     * @param latencySampleInterval Sample one decode duration in this many; rounded up to a power of two.
+     */
+    public SourceMetrics(String source, int latencySampleInterval) {
+        if (latencySampleInterval < 1) {
+            throw new IllegalArgumentException("latencySampleInterval must be positive: " + latencySampleInterval);
+        }
+        this.source = source;
+        this.sampleMask = latencySampleInterval == 1 ? 0 : (Integer.highestOneBit(latencySampleInterval - 1) << 1) - 1;
+        for (int i = 0; i < messagesByType.length; i++) {
+            messagesByType[i] = new LongAdder();
+        }
+    }
+
+    /** Record bytes received by a reader. */
+    public void recordBytes(long n) {
+        bytes.add(n);
+    }
+
+    /**
+     * Record a line read by a reader.
+     * @param parsed true if the line was parsed as an NMEA sentence; false if it was rejected.
+     */
+    public void recordLine(boolean parsed) {
+        lines.increment();
+        if (!parsed) {
+            rejectedLines.increment();
+        }
+    }
+
+    /** Record an NMEA sentence received by the handler. */
+    public void recordSentence(NMEAMessage nmeaMessage) {
+        sentences.increment();
+        if (!nmeaMessage.isChecksumValid()) {
+            checksumFailures.increment();
+        }
+    }
+
+    /** Record the outcome of handling or decoding a sentence; except OK, which is counted by recordMessage. */
+    public void recordOutcome(DecodeStatus status) {
+        outcomes.increment(status);
+    }
+
+    /** Record incomplete multi-sentence messages dropped by the reassembler. */
+    public void recordDroppedFragments(long n) {
+        outcomes.add(DecodeStatus.TRUNCATED_FRAGMENT, n);
+    }
+
+    /** Record a decoded AIS message. */
+    public void recordMessage(AISMessageType messageType) {
+        messagesByType[messageType.ordinal()].increment();
+    }
+
+    /** @return true if the duration of the next decode should be recorded. */
+    public boolean isLatencySampled() {
+        return (ThreadLocalRandom.current().nextInt() & sampleMask) == 0;
+    }
+
+    /** Record the duration of a sampled decode. */
+    public void recordDecodeNanos(long nanos) {
+        decodeLatency.record(nanos);
+    }
+
+    @SuppressWarnings("unused")
+    public String getSource() {
+        return source;
+    }
+
+    @SuppressWarnings("unused")
+    public LatencyHistogram getDecodeLatency() {
+        return decodeLatency;
+    }
+
+    @Override
+    public long getBytes() {
+        return bytes.sum();
+    }
+
+    @Override
+    public long getLines() {
+        return lines.sum();
+    }
+
+    @Override
+    public long getRejectedLines() {
+        return rejectedLines.sum();
+    }
+
+    @Override
+    public long getSentences() {
+        return sentences.sum();
+    }
+
+    @Override
+    public long getChecksumFailures() {
+        return checksumFailures.sum();
+    }
+
+    @Override
+    public long getMessages() {
+        long messages = 0;
+        for (LongAdder count : messagesByType) {
+            messages += count.sum();
+        }
+        return messages;
+    }
+
+    @Override
+    public long getDecodeErrors() {
+        return outcomes.getErrors();
+    }
+
+    @Override
+    public long getDroppedFragments() {
+        return outcomes.get(DecodeStatus.TRUNCATED_FRAGMENT);
+    }
+
+    @Override
+    public Map<String, Long> getMessagesByType() {
+        final Map<String, Long> counts = new LinkedHashMap<>();
+        for (AISMessageType messageType : MESSAGE_TYPES) {
+            final long count = messagesByType[messageType.ordinal()].sum();
+            if (count > 0) {
+                counts.put(messageType.name(), count);
+            }
+        }
+        return counts;
+    }
+
+    @Override
+    public Map<String, Long> getDecodeOutcomes() {
+        final DecodeCounters counters = outcomes;
+        final Map<String, Long> counts = new LinkedHashMap<>();
+        for (DecodeStatus status : STATUSES) {
+            counts.put(status.name(), status == DecodeStatus.OK ? getMessages() : counters.get(status));
+        }
+        return counts;
+    }
+
+    @Override
+    public long getDecodeLatencySamples() {
+        return decodeLatency.getCount();
+    }
+
+    @Override
+    public long getDecodeLatencyMeanNanos() {
+        return decodeLatency.getMean();
+    }
+
+    @Override
+    public long getDecodeLatencyP50Nanos() {
+        return decodeLatency.getPercentile(0.5);
+    }
+
+    @Override
+    public long getDecodeLatencyP99Nanos() {
+        return decodeLatency.getPercentile(0.99);
+    }
+
+    @Override
+    public long getDecodeLatencyMaxNanos() {
+        return decodeLatency.getMax();
+    }
+
+    @Override
+    public void reset() {
+        bytes.reset();
+        lines.reset();
+        rejectedLines.reset();
+        sentences.reset();
+        checksumFailures.reset();
+        for (LongAdder count : messagesByType) {
+            count.reset();
+        }
+        outcomes = new DecodeCounters();
+        decodeLatency.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "SourceMetrics{" +
+                "source='" + source + '\'' +
+                ", lines=" + getLines() +
+                ", sentences=" + getSentences() +
+                ", messages=" + getMessages() +
+                ", decodeErrors=" + getDecodeErrors() +
+                '}';
+    }
+
+}
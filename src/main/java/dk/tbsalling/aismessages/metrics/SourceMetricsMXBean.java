@@ -0,0 +1,77 @@
+/*
+ * AISMessages
+ * - a java-based library for decoding of AIS messages from digital VHF radio traffic related
+ * to maritime navigation and safety in compliance with ITU 1371.
+ *
+ * (C) Copyright 2011- by S-Consult ApS, DK31327490, http://s-consult.dk, Denmark.
+ *
+ * Released under the Creative Commons Attribution-NonCommercial-ShareAlike 3.0 Unported License.
+ * For details of this license see the nearby LICENCE-full file, visit http://creativecommons.org/licenses/by-nc-sa/3.0/
+ * or send a letter to Creative Commons, 171 Second Street, Suite 300, San Francisco, California, 94105, USA.
+ *
+ * NOT FOR COMMERCIAL USE!
+ * Contact sales@s-consult.dk to obtain a commercially licensed version of this software.
+ *
+ */
+
+package dk.tbsalling.aismessages.metrics;
+
+import java.util.Map;
+
+/**
+ * The JMX view of the metrics of a single source. Registered by MetricsRegistry as
+ * dk.tbsalling.aismessages:type=SourceMetrics,source="...".
+ *
+ * @author tbsalling
+ */
+public interface SourceMetricsMXBean {
+
+    /** @return The number of bytes received; by the readers which count them. */
+    long getBytes();
+
+    /** @return The number of lines read. */
+    long getLines();
+
+    /** @return The number of lines which could not be parsed as NMEA sentences. */
+    long getRejectedLines();
+
+    /** @return The number of NMEA sentences handled. */
+    long getSentences();
+
+    /** @return The number of NMEA sentences whose checksum did not match. */
+    long getChecksumFailures();
+
+    /** @return The number of AIS messages decoded. */
+    long getMessages();
+
+    /** @return The number of sentences or messages rejected or dropped while decoding, of any status. */
+    long getDecodeErrors();
+
+    /** @return The number of incomplete multi-sentence messages which have been dropped. */
+    long getDroppedFragments();
+
+    /** @return The number of AIS messages decoded, by message type. */
+    Map<String, Long> getMessagesByType();
+
+    /** @return The number of decoding outcomes, by status. */
+    Map<String, Long> getDecodeOutcomes();
+
+    /** @return The number of decode durations sampled. */
+    long getDecodeLatencySamples();
+
+    /** @return The mean sampled decode duration in nanoseconds. */
+    long getDecodeLatencyMeanNanos();
+
+    /** @return The median sampled decode duration in nanoseconds; accurate to a factor of two. */
+    long getDecodeLatencyP50Nanos();
+
+    /** @return The 99th percentile of sampled decode durations in nanoseconds; accurate to a factor of two. */
+    long getDecodeLatencyP99Nanos();
+
+    /** @return The longest sampled decode duration in nanoseconds. */
+    long getDecodeLatencyMaxNanos();
+
+    /** Reset all counters and the latency histogram. */
+    void reset();
+
+}
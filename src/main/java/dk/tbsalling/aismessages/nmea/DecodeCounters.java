@@ -0,0 +1,86 @@
+/*
+ * AISMessages
+ * - a java-based library for decoding of AIS messages from digital VHF radio traffic related
+ * to maritime navigation and safety in compliance with ITU 1371.
+ *
+ * (C) Copyright 2011- by S-Consult ApS, DK31327490, http://s-consult.dk, Denmark.
+ *
+ * Released under the Creative Commons Attribution-NonCommercial-ShareAlike 3.0 Unported License.
+ * For details of this license see the nearby LICENCE-full file, visit http://creativecommons.org/licenses/by-nc-sa/3.0/
+ * or send a letter to Creative Commons, 171 Second Street, Suite 300, San Francisco, California, 94105, USA.
+ *
+ * NOT FOR COMMERCIAL USE!
+ * Contact sales@s-consult.dk to obtain a commercially licensed version of this software.
+ *
+ */
+
+package dk.tbsalling.aismessages.nmea;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the outcomes of decoding, one counter per DecodeStatus. The counters may be incremented
+ * and read from any thread.
+ *
+ * @author tbsalling
+ */
+public final class DecodeCounters {
+
+    private static final DecodeStatus[] STATUSES = DecodeStatus.values();
+
+    private final LongAdder[] counters = new LongAdder[STATUSES.length];
+
+    public DecodeCounters() {
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Count an outcome.
+     * @param status The outcome.
+     * @return The status.
+     */
+    public DecodeStatus increment(DecodeStatus status) {
+        counters[status.ordinal()].increment();
+        return status;
+    }
+
+    /**
+     * Count several occurrences of an outcome.
+     * @param status The outcome.
+     * @param n The number of occurrences.
+     */
+    public void add(DecodeStatus status, long n) {
+        counters[status.ordinal()].add(n);
+    }
+
+    /** @return The number of times the outcome has been counted. */
+    public long get(DecodeStatus status) {
+        return counters[status.ordinal()].sum();
+    }
+
+    /** @return The number of errors counted, of any status. */
+    public long getErrors() {
+        long errors = 0;
+        for (DecodeStatus status : STATUSES) {
+            if (status.isError()) {
+                errors += get(status);
+            }
+        }
+        return errors;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder("DecodeCounters{");
+        for (DecodeStatus status : STATUSES) {
+            if (s.length() > 15) {
+                s.append(", ");
+            }
+            s.append(status).append('=').append(get(status));
+        }
+        return s.append('}').toString();
+    }
+
+}
@@ -0,0 +1,100 @@
+/*
+ * AISMessages
+ * - a java-based library for decoding of AIS messages from digital VHF radio traffic related
+ * to maritime navigation and safety in compliance with ITU 1371.
+ *
+ * (C) Copyright 2011- by S-Consult ApS, DK31327490, http://s-consult.dk, Denmark.
+ *
+ * Released under the Creative Commons Attribution-NonCommercial-ShareAlike 3.0 Unported License.
+ * For details of this license see the nearby LICENCE-full file, visit http://creativecommons.org/licenses/by-nc-sa/3.0/
+ * or send a letter to Creative Commons, 171 Second Street, Suite 300, San Francisco, California, 94105, USA.
+ *
+ * NOT FOR COMMERCIAL USE!
+ * Contact sales@s-consult.dk to obtain a commercially licensed version of this software.
+ *
+ */
+
+package dk.tbsalling.aismessages.nmea;
+
+import dk.tbsalling.aismessages.ais.messages.AISMessage;
+import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
+
+/**
+ * The result of a non-throwing decoding step: a status, and the NMEA message and AISMessage produced
+ * by the step, if any.
+ *
+ * A result is mutable and may be reused for any number of decoding steps, so that decoding a stream
+ * of sentences need not allocate a result per sentence. Instances are not thread safe.
+ *
+ * @author tbsalling
+ */
+public final class DecodeResult {
+
+    private DecodeStatus status = DecodeStatus.OK;
+    private NMEAMessage nmeaMessage;
+    private AISMessage aisMessage;
+
+    /**
+     * Record the outcome of parsing an NMEA sentence. Clears any AISMessage.
+     *
+     * @param status The outcome.
+     * @param nmeaMessage The parsed NMEA message; or null if the sentence could not be parsed.
+     * @return The status.
+     */
+    public DecodeStatus setNmeaMessage(DecodeStatus status, NMEAMessage nmeaMessage) {
+        this.status = status;
+        this.nmeaMessage = nmeaMessage;
+        this.aisMessage = null;
+        return status;
+    }
+
+    /**
+     * Record the outcome of decoding an AIS message.
+     *
+     * @param status The outcome.
+     * @param aisMessage The decoded AISMessage; or null if none was decoded.
+     * @return The status.
+     */
+    public DecodeStatus setAisMessage(DecodeStatus status, AISMessage aisMessage) {
+        this.status = status;
+        this.aisMessage = aisMessage;
+        return status;
+    }
+
+    /** Clear the result, so that it holds no messages. */
+    public void clear() {
+        setNmeaMessage(DecodeStatus.OK, null);
+    }
+
+    @SuppressWarnings("unused")
+    public DecodeStatus getStatus() {
+        return status;
+    }
+
+    /** @return true if the status is OK. */
+    @SuppressWarnings("unused")
+    public boolean isOk() {
+        return status == DecodeStatus.OK;
+    }
+
+    /** @return The NMEA message of the last step; for a multi-sentence message the last fragment. */
+    @SuppressWarnings("unused")
+    public NMEAMessage getNmeaMessage() {
+        return nmeaMessage;
+    }
+
+    /** @return The AISMessage decoded by the last step, or null if none was decoded. */
+    @SuppressWarnings("unused")
+    public AISMessage getAisMessage() {
+        return aisMessage;
+    }
+
+    @Override
+    public String toString() {
+        return "DecodeResult{" +
+                "status=" + status +
+                ", nmeaMessage=" + nmeaMessage +
+                '}';
+    }
+
+}
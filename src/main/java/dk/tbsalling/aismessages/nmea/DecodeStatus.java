@@ -0,0 +1,69 @@
+/*
+ * AISMessages
+ * - a java-based library for decoding of AIS messages from digital VHF radio traffic related
+ * to maritime navigation and safety in compliance with ITU 1371.
+ *
+ * (C) Copyright 2011- by S-Consult ApS, DK31327490, http://s-consult.dk, Denmark.
+ *
+ * Released under the Creative Commons Attribution-NonCommercial-ShareAlike 3.0 Unported License.
+ * For details of this license see the nearby LICENCE-full file, visit http://creativecommons.org/licenses/by-nc-sa/3.0/
+ * or send a letter to Creative Commons, 171 Second Street, Suite 300, San Francisco, California, 94105, USA.
+ *
+ * NOT FOR COMMERCIAL USE!
+ * Contact sales@s-consult.dk to obtain a commercially licensed version of this software.
+ *
+ */
+
+package dk.tbsalling.aismessages.nmea;
+
+/**
+ * The outcome of decoding an NMEA sentence, or a group of NMEA sentences, into an AISMessage.
+ *
+ * The statuses are returned by the non-throwing decoding methods, e.g. NMEAMessageDecoder.decode,
+ * NMEAMessage.tryFromString and AISMessage.tryCreate, and are carried by the exceptions thrown by
+ * their throwing counterparts. They are constants, so reporting an outcome allocates nothing.
+ *
+ * @author tbsalling
+ */
+public enum DecodeStatus {
+
+    /** The AIS message was decoded. */
+    OK("Decoded"),
+    /** The sentence is a fragment of a message which is not yet complete. */
+    INCOMPLETE("Fragment of incomplete message"),
+    /** The sentence is not a VDM or VDO sentence. */
+    UNSUPPORTED_SENTENCE("Not a VDM or VDO sentence"),
+    /** The sentence has the wrong number of fields, no checksum or an illegal numeric field. */
+    MALFORMED_SENTENCE("Malformed NMEA sentence"),
+    /** The checksum of the sentence does not match its contents. */
+    BAD_CHECKSUM("Checksum does not match sentence"),
+    /** The number of fragments or the fragment number of the sentence is out of range. */
+    INVALID_FRAGMENT("Invalid number of fragments or fragment number"),
+    /** A message was dropped before all of its fragments were received. */
+    TRUNCATED_FRAGMENT("Incomplete message dropped"),
+    /** The armoured payload holds a character outside the armouring alphabet. */
+    ILLEGAL_CHARACTER("Illegal character in armoured payload"),
+    /** No AISMessage can be created for the message type in the payload. */
+    UNSUPPORTED_TYPE("Unsupported AIS message type"),
+    /** The payload does not have a valid length for its message type. */
+    WRONG_LENGTH("Wrong length of AIS message"),
+    /** The payload could not be decoded for any other reason. */
+    INVALID_MESSAGE("Invalid AIS message");
+
+    private final String description;
+
+    DecodeStatus(String description) {
+        this.description = description;
+    }
+
+    @SuppressWarnings("unused")
+    public String getDescription() {
+        return description;
+    }
+
+    /** @return true if the status means that input has been rejected or dropped. */
+    public boolean isError() {
+        return this != OK && this != INCOMPLETE;
+    }
+
+}
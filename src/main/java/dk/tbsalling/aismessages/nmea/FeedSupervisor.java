@@ -0,0 +1,406 @@
+/*
+ * AISMessages
+ * - a java-based library for decoding of AIS messages from digital VHF radio traffic related
+ * to maritime navigation and safety in compliance with ITU 1371.
+ *
+ * (C) Copyright 2011- by S-Consult ApS, DK31327490, http://s-consult.dk, Denmark.
+ *
+ * Released under the Creative Commons Attribution-NonCommercial-ShareAlike 3.0 Unported License.
+ * For details of this license see the nearby LICENCE-full file, visit http://creativecommons.org/licenses/by-nc-sa/3.0/
+ * or send a letter to Creative Commons, 171 Second Street, Suite 300, San Francisco, California, 94105, USA.
+ *
+ * NOT FOR COMMERCIAL USE!
+ * Contact sales@s-consult.dk to obtain a commercially licensed version of this software.
+ *
+ */
+
+package dk.tbsalling.aismessages.nmea;
+
+import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * A FeedSupervisor runs a number of feeds of NMEA messages, each on a thread of its own, reading with
+ * an NMEAMessageInputStreamReader. Feeds are reconnected with exponential backoff when their stream
+ * ends or fails, and can be stopped and restarted individually. Closing the supervisor stops all feeds
+ * and waits for their threads to end.
+ *
+ * Threads are created by a ThreadFactory. On Java 21 or later the supervisor runs each feed on a virtual
+ * thread by default, so hundreds or thousands of blocking feeds cost little more than their buffers;
+ * on earlier versions it falls back to platform threads. The read path holds no monitors, so virtual
+ * threads blocked on the network do not pin their carrier threads.
+ *
+ * @author tbsalling
+ */
+public class FeedSupervisor implements Closeable {
+
+    private static final Logger LOG = Logger.getLogger(FeedSupervisor.class.getName());
+
+    public static final long DEFAULT_MIN_BACKOFF_MILLIS = 1000;
+    public static final long DEFAULT_MAX_BACKOFF_MILLIS = 60000;
+    public static final int DEFAULT_CONNECT_TIMEOUT_MILLIS = 10000;
+
+    private static final ThreadFactory VIRTUAL_THREAD_FACTORY = lookUpVirtualThreadFactory();
+
+    private final ThreadFactory threadFactory;
+    private final long minBackoffMillis;
+    private final long maxBackoffMillis;
+    private final List<Feed> feeds = new CopyOnWriteArrayList<>();
+    private volatile boolean started;
+
+    /** Create a supervisor running feeds on virtual threads if available, or else on platform threads. */
+    public FeedSupervisor() {
+        this(isVirtualThreadSupported() ? virtualThreadFactory() : platformThreadFactory());
+    }
+
+    /**
+     * @param threadFactory The factory of the threads to run feeds on.
+     */
+    public FeedSupervisor(ThreadFactory threadFactory) {
+        this(threadFactory, DEFAULT_MIN_BACKOFF_MILLIS, DEFAULT_MAX_BACKOFF_MILLIS);
+    }
+
+    /**
+     * @param threadFactory The factory of the threads to run feeds on.
+     * @param minBackoffMillis Time to wait before the first attempt to reconnect a feed.
+     * @param maxBackoffMillis Maximum time to wait between attempts to reconnect a feed.
+     */
+    public FeedSupervisor(ThreadFactory threadFactory, long minBackoffMillis, long maxBackoffMillis) {
+        if (minBackoffMillis < 0 || maxBackoffMillis < minBackoffMillis) {
+            throw new IllegalArgumentException("Illegal backoff: " + minBackoffMillis + ", " + maxBackoffMillis);
+        }
+        this.threadFactory = threadFactory;
+        this.minBackoffMillis = minBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    /** @return true if virtual threads are supported by the running JVM. */
+    public static boolean isVirtualThreadSupported() {
+        return VIRTUAL_THREAD_FACTORY != null;
+    }
+
+    /**
+     * @return A factory of virtual threads.
+     * @throws UnsupportedOperationException if the running JVM does not support virtual threads.
+     */
+    public static ThreadFactory virtualThreadFactory() {
+        if (VIRTUAL_THREAD_FACTORY == null) {
+            throw new UnsupportedOperationException("Virtual threads require Java 21 or later.");
+        }
+        return VIRTUAL_THREAD_FACTORY;
+    }
+
+    /** @return A factory of platform daemon threads. */
+    public static ThreadFactory platformThreadFactory() {
+        return runnable -> {
+            Thread thread = new Thread(runnable);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /** Look up Thread.ofVirtual().factory(), which is not available when compiling for earlier versions. */
+    private static ThreadFactory lookUpVirtualThreadFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            return (ThreadFactory) Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Add a TCP feed.
+     *
+     * @param source The name of the feed.
+     * @param host Host to connect to.
+     * @param port Port to connect to.
+     * @param nmeaMessageHandler The handler of the received NMEA messages.
+     * @return The feed.
+     */
+    public Feed addSocketFeed(String source, String host, int port, NMEAMessageHandler nmeaMessageHandler) {
+        return addSocketFeed(source, host, port, DEFAULT_CONNECT_TIMEOUT_MILLIS, nmeaMessageHandler);
+    }
+
+    /**
+     * Add a TCP feed.
+     *
+     * @param source The name of the feed.
+     * @param host Host to connect to.
+     * @param port Port to connect to.
+     * @param connectTimeoutMillis Time in milliseconds to wait for a connection to be established.
+     * @param nmeaMessageHandler The handler of the received NMEA messages.
+     * @return The feed.
+     */
+    public Feed addSocketFeed(String source, String host, int port, int connectTimeoutMillis, NMEAMessageHandler nmeaMessageHandler) {
+        return addFeed(source, new SocketOpener(host, port, connectTimeoutMillis), nmeaMessageHandler.forSource(source));
+    }
+
+    /**
+     * Add a feed. Feeds added after the supervisor has been started are started immediately.
+     *
+     * @param source The name of the feed.
+     * @param opener Opens the stream of the feed; called again for each reconnect.
+     * @param nmeaMessageConsumer The consumer of the received NMEA messages.
+     * @return The feed.
+     */
+    public Feed addFeed(String source, Callable<? extends InputStream> opener, Consumer<? super NMEAMessage> nmeaMessageConsumer) {
+        Feed feed = new Feed(source, opener, nmeaMessageConsumer);
+        feeds.add(feed);
+        if (started) {
+            start(feed);
+        }
+        return feed;
+    }
+
+    /** @return All feeds of this supervisor. */
+    @SuppressWarnings("unused")
+    public List<Feed> getFeeds() {
+        return Collections.unmodifiableList(feeds);
+    }
+
+    /** Start all feeds which are not running. */
+    public void start() {
+        started = true;
+        for (Feed feed : feeds) {
+            if (!feed.isRunning()) {
+                start(feed);
+            }
+        }
+    }
+
+    /**
+     * Start a feed on a new thread.
+     * @param feed A feed of this supervisor, which is not running.
+     */
+    public void start(Feed feed) {
+        if (feed.isRunning()) {
+            throw new IllegalStateException("Feed " + feed.source + " is already running.");
+        }
+        feed.stopRequested = false;
+        Thread thread = threadFactory.newThread(feed);
+        thread.setName(FeedSupervisor.class.getSimpleName() + "-" + feed.source);
+        feed.thread = thread;
+        thread.start();
+    }
+
+    /**
+     * Stop a feed and wait for its thread to end.
+     * @param feed A feed of this supervisor.
+     */
+    public void stop(Feed feed) {
+        feed.requestStop();
+        feed.join();
+    }
+
+    /**
+     * Stop a feed, and start it again with a new connection.
+     * @param feed A feed of this supervisor.
+     */
+    @SuppressWarnings("unused")
+    public void restart(Feed feed) {
+        stop(feed);
+        start(feed);
+    }
+
+    /** Stop all feeds and wait for their threads to end. */
+    @Override
+    public void close() {
+        started = false;
+        for (Feed feed : feeds) {
+            feed.requestStop();
+        }
+        for (Feed feed : feeds) {
+            feed.join();
+        }
+    }
+
+    /**
+     * A feed of NMEA messages. The counters can be read from any thread.
+     */
+    public final class Feed implements Runnable {
+        private final String source;
+        private final Callable<? extends InputStream> opener;
+        private final Consumer<? super NMEAMessage> nmeaMessageConsumer;
+
+        private final LongAdder messages = new LongAdder();
+        private final LongAdder connects = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+
+        private volatile Thread thread;
+        private volatile boolean stopRequested;
+        private volatile InputStream stream;
+        private volatile NMEAMessageInputStreamReader reader;
+
+        private Feed(String source, Callable<? extends InputStream> opener, Consumer<? super NMEAMessage> nmeaMessageConsumer) {
+            this.source = source;
+            this.opener = opener;
+            this.nmeaMessageConsumer = nmeaMessageConsumer;
+        }
+
+        @Override
+        public void run() {
+            long backoffMillis = minBackoffMillis;
+            while (!stopRequested) {
+                final long received = messages.sum();
+                try (InputStream in = opener.call()) {
+                    stream = in;
+                    if (stopRequested) {
+                        break;
+                    }
+                    connects.increment();
+                    reader = new NMEAMessageInputStreamReader(in, this::accept, true, source);
+                    reader.run();
+                } catch (Exception e) {
+                    if (!stopRequested) {
+                        errors.increment();
+                        LOG.fine("Feed " + source + " failed: " + e);
+                    }
+                } finally {
+                    stream = null;
+                    reader = null;
+                }
+                if (messages.sum() > received) {
+                    backoffMillis = minBackoffMillis;
+                }
+                if (!stopRequested) {
+                    LOG.fine("Reconnecting feed " + source + " in " + backoffMillis + " ms");
+                    try {
+                        Thread.sleep(backoffMillis);
+                    } catch (InterruptedException e) {
+                        // Interrupted by a stop request
+                    }
+                    backoffMillis = Math.min(2 * Math.max(1, backoffMillis), maxBackoffMillis);
+                }
+            }
+        }
+
+        private void accept(NMEAMessage nmeaMessage) {
+            messages.increment();
+            nmeaMessageConsumer.accept(nmeaMessage);
+        }
+
+        private void requestStop() {
+            stopRequested = true;
+            final NMEAMessageInputStreamReader r = reader;
+            if (r != null) {
+                r.requestStop();
+            }
+            // Close the opener to abort a pending connect, the stream to unblock a pending read, and interrupt a pending backoff
+            if (opener instanceof Closeable) {
+                try {
+                    ((Closeable) opener).close();
+                } catch (IOException e) {
+                    LOG.warning("Failed to close connection of feed " + source + ": " + e);
+                }
+            }
+            final InputStream in = stream;
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (IOException e) {
+                    LOG.warning("Failed to close feed " + source + ": " + e);
+                }
+            }
+            final Thread t = thread;
+            if (t != null) {
+                t.interrupt();
+            }
+        }
+
+        private void join() {
+            final Thread t = thread;
+            if (t == null) {
+                return;
+            }
+            try {
+                t.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @SuppressWarnings("unused")
+        public String getSource() {
+            return source;
+        }
+
+        /** @return true if the thread of the feed is running. */
+        public boolean isRunning() {
+            final Thread t = thread;
+            return t != null && t.isAlive();
+        }
+
+        /** @return true if the stream of the feed is open. */
+        @SuppressWarnings("unused")
+        public boolean isConnected() {
+            return stream != null;
+        }
+
+        /** @return The number of NMEA messages received. */
+        public long getMessages() {
+            return messages.sum();
+        }
+
+        /** @return The number of times the stream of the feed has been opened. */
+        public long getConnects() {
+            return connects.sum();
+        }
+
+        /** @return The number of times opening or reading the stream has failed. */
+        public long getErrors() {
+            return errors.sum();
+        }
+    }
+
+    /** Opens the stream of a TCP feed; closing the opener aborts a pending connect. */
+    private static final class SocketOpener implements Callable<InputStream>, Closeable {
+        private final String host;
+        private final int port;
+        private final int connectTimeoutMillis;
+        /** The socket being connected, or read; set before connecting, so that it can be closed from another thread. */
+        private volatile Socket socket;
+
+        private SocketOpener(String host, int port, int connectTimeoutMillis) {
+            this.host = host;
+            this.port = port;
+            this.connectTimeoutMillis = connectTimeoutMillis;
+        }
+
+        @Override
+        public InputStream call() throws IOException {
+            // Closing the stream of the socket closes the socket
+            final Socket s = new Socket();
+            socket = s;
+            try {
+                s.connect(new InetSocketAddress(host, port), connectTimeoutMillis);
+                return s.getInputStream();
+            } catch (IOException e) {
+                s.close();
+                throw e;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            final Socket s = socket;
+            if (s != null) {
+                s.close();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,260 @@
+/*
+ * AISMessages
+ * - a java-based library for decoding of AIS messages from digital VHF radio traffic related
+ * to maritime navigation and safety in compliance with ITU 1371.
+ *
+ * (C) Copyright 2011- by S-Consult ApS, DK31327490, http://s-consult.dk, Denmark.
+ *
+ * Released under the Creative Commons Attribution-NonCommercial-ShareAlike 3.0 Unported License.
+ * For details of this license see the nearby LICENCE-full file, visit http://creativecommons.org/licenses/by-nc-sa/3.0/
+ * or send a letter to Creative Commons, 171 Second Street, Suite 300, San Francisco, California, 94105, USA.
+ *
+ * NOT FOR COMMERCIAL USE!
+ * Contact sales@s-consult.dk to obtain a commercially licensed version of this software.
+ *
+ */
+
+package dk.tbsalling.aismessages.nmea;
+
+import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.logging.Logger;
+
+/**
+ * This class reassembles AIS messages which span several NMEA messages. Several messages
+ * can be in flight at the same time; their fragments are grouped by source, sequence number
+ * and radio channel, so fragments of different messages may arrive interleaved.
+ *
+ * A group of fragments is dropped if it has not been completed within a timeout, or if the
+ * maximum number of groups in flight is exceeded. A group is also dropped if a fragment
+ * arrives which does not fit it - e.g. a duplicate fragment or a different number of fragments -
+ * in which case a new group is started with the offending fragment.
+ *
+ * Instances are not thread safe; the counters may be read from any thread.
+ *
+ * @author tbsalling
+ */
+public class FragmentReassembler {
+
+    private static final Logger LOG = Logger.getLogger(FragmentReassembler.class.getName());
+
+    /** The largest number of fragments an NMEA message can be split into. */
+    public static final int MAX_FRAGMENTS = 9;
+
+    public static final int DEFAULT_MAX_GROUPS = 1024;
+    public static final long DEFAULT_TIMEOUT_MILLIS = 10000;
+
+    private final int maxGroups;
+    private final long timeoutNanos;
+    private final LongSupplier nanoClock;
+
+    /** Groups in flight, in order of creation. */
+    private final LinkedHashMap<Key, Group> groups = new LinkedHashMap<>();
+
+    private final LongAdder completedCount = new LongAdder();
+    private final LongAdder expiredCount = new LongAdder();
+    private final LongAdder conflictingCount = new LongAdder();
+
+    public FragmentReassembler() {
+        this(DEFAULT_MAX_GROUPS, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * @param maxGroups The maximum number of incomplete messages in flight.
+     * @param timeoutMillis Time in milliseconds within which all fragments of a message must arrive.
+     */
+    public FragmentReassembler(int maxGroups, long timeoutMillis) {
+        this(maxGroups, timeoutMillis, System::nanoTime);
+    }
+
+    FragmentReassembler(int maxGroups, long timeoutMillis, LongSupplier nanoClock) {
+        if (maxGroups < 1) {
+            throw new IllegalArgumentException("maxGroups must be positive: " + maxGroups);
+        }
+        this.maxGroups = maxGroups;
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Check that an NMEA message can be decoded, or reassembled with the other fragments of its AIS message:
+     * that it is a valid VDM or VDO sentence, of 1 to MAX_FRAGMENTS fragments, with a fragment number among them.
+     *
+     * @param nmeaMessage The NMEA message.
+     * @return OK if the message is valid; UNSUPPORTED_SENTENCE if it is not a valid VDM or VDO sentence;
+     *         INVALID_FRAGMENT if its number of fragments or fragment number is invalid.
+     */
+    public static DecodeStatus checkFragment(NMEAMessage nmeaMessage) {
+        if (!nmeaMessage.isValid()) {
+            return DecodeStatus.UNSUPPORTED_SENTENCE;
+        }
+        final Integer numberOfFragments = nmeaMessage.getNumberOfFragments();
+        final Integer fragmentNumber = nmeaMessage.getFragmentNumber();
+        if (numberOfFragments == null || numberOfFragments < 1 || numberOfFragments > MAX_FRAGMENTS
+                || fragmentNumber == null || fragmentNumber < 1 || fragmentNumber > numberOfFragments) {
+            return DecodeStatus.INVALID_FRAGMENT;
+        }
+        return DecodeStatus.OK;
+    }
+
+    /**
+     * Add a fragment of a multi-part message.
+     *
+     * @param source The source which the fragment was received from.
+     * @param fragment An NMEA message with 2 or more fragments and a valid fragment number.
+     * @return All fragments of the message in order, if the fragment completed it; otherwise null.
+     */
+    public NMEAMessage[] add(String source, NMEAMessage fragment) {
+        final long now = nanoClock.getAsLong();
+        evictExpired(now);
+
+        final int numberOfFragments = fragment.getNumberOfFragments();
+        final int fragmentNumber = fragment.getFragmentNumber();
+        if (numberOfFragments < 2 || numberOfFragments > MAX_FRAGMENTS || fragmentNumber < 1 || fragmentNumber > numberOfFragments) {
+            throw new IllegalArgumentException("Not a valid fragment: " + fragment.getRawMessage());
+        }
+
+        final Key key = new Key(source, fragment.getSequenceNumber(), fragment.getRadioChannelCode());
+        Group group = groups.get(key);
+        if (group != null && !group.fits(fragment)) {
+            LOG.fine("Fragment " + fragmentNumber + " conflicts with message in flight; dropping " + group.received + " fragment(s): " + fragment.getRawMessage());
+            groups.remove(key);
+            conflictingCount.increment();
+            group = null;
+        }
+        if (group == null) {
+            if (groups.size() >= maxGroups) {
+                evictEldest();
+            }
+            group = new Group(numberOfFragments, now);
+            groups.put(key, group);
+        }
+
+        group.add(fragment);
+        if (group.isComplete()) {
+            groups.remove(key);
+            completedCount.increment();
+            return group.fragments;
+        }
+        return null;
+    }
+
+    /**
+     * Drop all incomplete messages.
+     * @return The fragments received of the incomplete messages.
+     */
+    public ArrayList<NMEAMessage> flush() {
+        ArrayList<NMEAMessage> unhandled = new ArrayList<>();
+        for (Group group : groups.values()) {
+            for (NMEAMessage fragment : group.fragments) {
+                if (fragment != null) {
+                    unhandled.add(fragment);
+                }
+            }
+        }
+        groups.clear();
+        return unhandled;
+    }
+
+    /** @return The number of messages currently in flight. */
+    public int getNumberOfGroups() {
+        return groups.size();
+    }
+
+    /** @return The number of messages which have been completely reassembled. */
+    public long getCompletedCount() {
+        return completedCount.sum();
+    }
+
+    /** @return The number of incomplete messages which have been dropped due to timeout or lack of space. */
+    public long getExpiredCount() {
+        return expiredCount.sum();
+    }
+
+    /** @return The number of incomplete messages which have been dropped due to a conflicting fragment. */
+    public long getConflictingCount() {
+        return conflictingCount.sum();
+    }
+
+    private void evictExpired(long now) {
+        final Iterator<Group> i = groups.values().iterator();
+        while (i.hasNext()) {
+            Group group = i.next();
+            if (now - group.created < timeoutNanos) {
+                break;
+            }
+            LOG.fine("Dropping incomplete message after timeout; received " + group.received + " of " + group.fragments.length + " fragments.");
+            i.remove();
+            expiredCount.increment();
+        }
+    }
+
+    private void evictEldest() {
+        final Iterator<Group> i = groups.values().iterator();
+        Group group = i.next();
+        LOG.fine("Too many incomplete messages; dropping eldest with " + group.received + " of " + group.fragments.length + " fragments.");
+        i.remove();
+        expiredCount.increment();
+    }
+
+    private static final class Key {
+        private final String source;
+        private final Integer sequenceNumber;
+        private final String radioChannelCode;
+        private final int hashCode;
+
+        private Key(String source, Integer sequenceNumber, String radioChannelCode) {
+            this.source = source;
+            this.sequenceNumber = sequenceNumber;
+            this.radioChannelCode = radioChannelCode;
+            this.hashCode = Objects.hash(source, sequenceNumber, radioChannelCode);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return Objects.equals(sequenceNumber, key.sequenceNumber) &&
+                    Objects.equals(radioChannelCode, key.radioChannelCode) &&
+                    Objects.equals(source, key.source);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    private static final class Group {
+        private final NMEAMessage[] fragments;
+        private final long created;
+        private int received;
+
+        private Group(int numberOfFragments, long created) {
+            this.fragments = new NMEAMessage[numberOfFragments];
+            this.created = created;
+        }
+
+        private boolean fits(NMEAMessage fragment) {
+            return fragment.getNumberOfFragments() == fragments.length && fragments[fragment.getFragmentNumber() - 1] == null;
+        }
+
+        private void add(NMEAMessage fragment) {
+            fragments[fragment.getFragmentNumber() - 1] = fragment;
+            received++;
+        }
+
+        private boolean isComplete() {
+            return received == fragments.length;
+        }
+    }
+
+}
@@ -0,0 +1,119 @@
+/*
+ * AISMessages
+ * - a java-based library for decoding of AIS messages from digital VHF radio traffic related
+ * to maritime navigation and safety in compliance with ITU 1371.
+ *
+ * (C) Copyright 2011- by S-Consult ApS, DK31327490, http://s-consult.dk, Denmark.
+ *
+ * Released under the Creative Commons Attribution-NonCommercial-ShareAlike 3.0 Unported License.
+ * For details of this license see the nearby LICENCE-full file, visit http://creativecommons.org/licenses/by-nc-sa/3.0/
+ * or send a letter to Creative Commons, 171 Second Street, Suite 300, San Francisco, California, 94105, USA.
+ *
+ * NOT FOR COMMERCIAL USE!
+ * Contact sales@s-consult.dk to obtain a commercially licensed version of this software.
+ *
+ */
+
+package dk.tbsalling.aismessages.nmea;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * A LineFramer splits a stream of ASCII bytes into lines, which are terminated by CR, LF or
+ * any combination of them. Empty lines are skipped. Bytes can be fed from byte arrays or
+ * from - possibly direct - ByteBuffers without any charset decoder in between; each byte is
+ * taken as one character.
+ *
+ * Lines longer than the maximum line length are dropped and counted; they cannot be valid
+ * NMEA sentences anyway.
+ *
+ * Instances are not thread safe.
+ *
+ * @author tbsalling
+ */
+public final class LineFramer {
+
+    public static final int DEFAULT_MAX_LINE_LENGTH = 1024;
+
+    private final byte[] line;
+    private final Consumer<String> lineConsumer;
+    private int length;
+    private boolean oversized;
+    private long oversizedLines;
+
+    public LineFramer(Consumer<String> lineConsumer) {
+        this(DEFAULT_MAX_LINE_LENGTH, lineConsumer);
+    }
+
+    /**
+     * @param maxLineLength The maximum number of characters in a line, excluding line terminators.
+     * @param lineConsumer Consumer of complete lines.
+     */
+    public LineFramer(int maxLineLength, Consumer<String> lineConsumer) {
+        this.line = new byte[maxLineLength];
+        this.lineConsumer = lineConsumer;
+    }
+
+    /**
+     * Frame the remaining bytes of a buffer. On return the buffer has been fully consumed.
+     * @param buffer The bytes to frame.
+     */
+    public void frame(ByteBuffer buffer) {
+        final int limit = buffer.limit();
+        for (int i = buffer.position(); i < limit; i++) {
+            accept(buffer.get(i));
+        }
+        buffer.position(limit);
+    }
+
+    /**
+     * Frame a range of bytes.
+     * @param bytes The bytes to frame.
+     * @param offset Index of the first byte.
+     * @param count Number of bytes.
+     */
+    public void frame(byte[] bytes, int offset, int count) {
+        final int end = offset + count;
+        for (int i = offset; i < end; i++) {
+            accept(bytes[i]);
+        }
+    }
+
+    /** Terminate the current line, if any; e.g. at the end of a stream without a final line terminator. */
+    public void endOfInput() {
+        endOfLine();
+    }
+
+    /** Drop any partially received line; e.g. after a connection has been lost. */
+    public void reset() {
+        length = 0;
+        oversized = false;
+    }
+
+    /** @return The number of lines which have been dropped for being too long. */
+    public long getOversizedLines() {
+        return oversizedLines;
+    }
+
+    private void accept(byte b) {
+        if (b == '\n' || b == '\r') {
+            endOfLine();
+        } else if (length < line.length) {
+            line[length++] = b;
+        } else {
+            oversized = true;
+        }
+    }
+
+    private void endOfLine() {
+        if (oversized) {
+            oversizedLines++;
+        } else if (length > 0) {
+            lineConsumer.accept(new String(line, 0, length, StandardCharsets.ISO_8859_1));
+        }
+        reset();
+    }
+
+}
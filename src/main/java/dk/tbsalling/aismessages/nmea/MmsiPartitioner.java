@@ -0,0 +1,214 @@
+/*
+ * AISMessages
+ * - a java-based library for decoding of AIS messages from digital VHF radio traffic related
+ * to maritime navigation and safety in compliance with ITU 1371.
+ *
+ * (C) Copyright 2011- by S-Consult ApS, DK31327490, http://s-consult.dk, Denmark.
+ *
+ * Released under the Creative Commons Attribution-NonCommercial-ShareAlike 3.0 Unported License.
+ * For details of this license see the nearby LICENCE-full file, visit http://creativecommons.org/licenses/by-nc-sa/3.0/
+ * or send a letter to Creative Commons, 171 Second Street, Suite 300, San Francisco, California, 94105, USA.
+ *
+ * NOT FOR COMMERCIAL USE!
+ * Contact sales@s-consult.dk to obtain a commercially licensed version of this software.
+ *
+ */
+
+package dk.tbsalling.aismessages.nmea;
+
+import java.io.Closeable;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Logger;
+
+/**
+ * A MmsiPartitioner runs tasks on a fixed number of worker threads, partitioned by MMSI. All tasks for
+ * the same MMSI run on the same thread, in the order in which they were submitted; tasks for different
+ * MMSIs may run in parallel.
+ *
+ * NMEAMessageHandler uses a partitioner to decode and dispatch AIS messages on several cores while
+ * preserving the order of the messages from each vessel.
+ *
+ * Each partition has a bounded queue; submitting to a full partition waits for room. Every task which
+ * is submitted before the partitioner is closed is run; submitting after it is closed fails.
+ *
+ * @author tbsalling
+ */
+public class MmsiPartitioner implements Closeable {
+
+    private static final Logger LOG = Logger.getLogger(MmsiPartitioner.class.getName());
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+    private static final Runnable STOP = () -> {};
+
+    private final Partition[] partitions;
+    /** Read locked while a task is queued, and write locked to close; so that no task is queued behind STOP. */
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+    private boolean closed;
+
+    /**
+     * @param numberOfPartitions The number of partitions, each with its own worker thread.
+     */
+    public MmsiPartitioner(int numberOfPartitions) {
+        this(numberOfPartitions, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * @param numberOfPartitions The number of partitions, each with its own worker thread.
+     * @param queueCapacity The number of tasks which can be queued in each partition.
+     */
+    public MmsiPartitioner(int numberOfPartitions, int queueCapacity) {
+        if (numberOfPartitions < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("numberOfPartitions and queueCapacity must be positive: " + numberOfPartitions + ", " + queueCapacity);
+        }
+        this.partitions = new Partition[numberOfPartitions];
+        for (int i = 0; i < numberOfPartitions; i++) {
+            partitions[i] = new Partition(i, queueCapacity);
+            partitions[i].thread.start();
+        }
+    }
+
+    /**
+     * Submit a task to the partition of an MMSI. Waits while the partition is full.
+     *
+     * @param mmsi The MMSI which the task concerns; tasks with unknown MMSI may be submitted with any value.
+     * @param task The task.
+     * @throws IllegalStateException if the partitioner is closed.
+     */
+    public void submit(long mmsi, Runnable task) {
+        final Partition partition = partitions[partitionOf(mmsi)];
+        final Lock lock = closeLock.readLock();
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Partitioner is closed.");
+            }
+            partition.queue.put(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for room in partition " + partition.index);
+        } finally {
+            lock.unlock();
+        }
+        partition.maxQueueDepth.accumulateAndGet(partition.queue.size(), Math::max);
+    }
+
+    /**
+     * @param mmsi An MMSI.
+     * @return The index of the partition which the MMSI belongs to.
+     */
+    public int partitionOf(long mmsi) {
+        // Spread consecutive MMSIs, which are common within a fleet, over the partitions
+        final long h = mmsi * 0x9E3779B97F4A7C15L;
+        return (int) ((h >>> 32) & Integer.MAX_VALUE) % partitions.length;
+    }
+
+    /** Stop accepting tasks, run the tasks already submitted, and wait for the worker threads to stop. */
+    @Override
+    public void close() {
+        // Waits for submitters queueing tasks; the workers keep making room for them meanwhile
+        final Lock lock = closeLock.writeLock();
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        } finally {
+            lock.unlock();
+        }
+        for (Partition partition : partitions) {
+            try {
+                partition.queue.put(STOP);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        for (Partition partition : partitions) {
+            try {
+                partition.thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /** @return The number of partitions. */
+    public int getNumberOfPartitions() {
+        return partitions.length;
+    }
+
+    /**
+     * @param partition The index of a partition.
+     * @return The number of tasks currently queued in the partition.
+     */
+    public int getQueueDepth(int partition) {
+        return partitions[partition].queue.size();
+    }
+
+    /**
+     * @param partition The index of a partition.
+     * @return The largest number of tasks which have been queued in the partition.
+     */
+    public int getMaxQueueDepth(int partition) {
+        return partitions[partition].maxQueueDepth.get();
+    }
+
+    /**
+     * @param partition The index of a partition.
+     * @return The number of tasks which have been run in the partition.
+     */
+    public long getCompletedCount(int partition) {
+        return partitions[partition].completed.sum();
+    }
+
+    /** @return The number of tasks currently queued in all partitions. */
+    public int getQueueDepth() {
+        int depth = 0;
+        for (Partition partition : partitions) {
+            depth += partition.queue.size();
+        }
+        return depth;
+    }
+
+    private static final class Partition implements Runnable {
+        private final int index;
+        private final BlockingQueue<Runnable> queue;
+        private final Thread thread;
+        private final AtomicInteger maxQueueDepth = new AtomicInteger();
+        private final LongAdder completed = new LongAdder();
+
+        private Partition(int index, int queueCapacity) {
+            this.index = index;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.thread = new Thread(this, MmsiPartitioner.class.getSimpleName() + "-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            try {
+                Runnable task;
+                while ((task = queue.take()) != STOP) {
+                    try {
+                        task.run();
+                    } catch (RuntimeException e) {
+                        LOG.warning("Task failed in partition " + index + ": " + e);
+                    }
+                    completed.increment();
+                }
+            } catch (InterruptedException e) {
+                LOG.warning("Partition " + index + " interrupted; " + queue.size() + " task(s) dropped.");
+            }
+        }
+    }
+
+}
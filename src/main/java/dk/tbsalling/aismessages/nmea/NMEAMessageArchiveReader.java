@@ -0,0 +1,301 @@
+/*
+ * AISMessages
+ * - a java-based library for decoding of AIS messages from digital VHF radio traffic related
+ * to maritime navigation and safety in compliance with ITU 1371.
+ *
+ * (C) Copyright 2011- by S-Consult ApS, DK31327490, http://s-consult.dk, Denmark.
+ *
+ * Released under the Creative Commons Attribution-NonCommercial-ShareAlike 3.0 Unported License.
+ * For details of this license see the nearby LICENCE-full file, visit http://creativecommons.org/licenses/by-nc-sa/3.0/
+ * or send a letter to Creative Commons, 171 Second Street, Suite 300, San Francisco, California, 94105, USA.
+ *
+ * NOT FOR COMMERCIAL USE!
+ * Contact sales@s-consult.dk to obtain a commercially licensed version of this software.
+ *
+ */
+
+package dk.tbsalling.aismessages.nmea;
+
+import dk.tbsalling.aismessages.metrics.MetricsRegistry;
+import dk.tbsalling.aismessages.metrics.SourceMetrics;
+import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * This reader reads NMEA messages from files and streams, which may be gzip compressed, and passes them
+ * on to an NMEAMessageHandler.
+ *
+ * Reading is pipelined: one thread reads and inflates the input into large blocks of bytes, which are
+ * handed through a bounded queue to the thread which frames, parses and decodes them. Blocks are
+ * recycled, so a stream is read with a fixed amount of memory.
+ *
+ * A directory of files can be read with several files in parallel. The messages of each file are passed
+ * on in file order, with the file name as source; messages of different files are passed on concurrently.
+ *
+ * @author tbsalling
+ */
+public class NMEAMessageArchiveReader implements Closeable {
+
+    private static final Logger LOG = Logger.getLogger(NMEAMessageArchiveReader.class.getName());
+
+    public static final int DEFAULT_BLOCK_SIZE = 256 * 1024;
+    public static final int DEFAULT_QUEUE_CAPACITY = 8;
+
+    private final int blockSize;
+    private final int queueCapacity;
+    private final ExecutorService inflaters;
+
+    private final LongAdder files = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder lines = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    public NMEAMessageArchiveReader() {
+        this(DEFAULT_BLOCK_SIZE, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * @param blockSize The number of bytes in each block passed from the inflating to the decoding thread.
+     * @param queueCapacity The number of blocks which may be queued for decoding per stream.
+     */
+    public NMEAMessageArchiveReader(int blockSize, int queueCapacity) {
+        if (blockSize < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("blockSize and queueCapacity must be positive: " + blockSize + ", " + queueCapacity);
+        }
+        this.blockSize = blockSize;
+        this.queueCapacity = queueCapacity;
+        this.inflaters = Executors.newCachedThreadPool(daemonThreads("inflater"));
+    }
+
+    /**
+     * Read all files in a directory whose names match a glob pattern, e.g. "*.nmea.gz". Files are started
+     * in order of their names. Blocks until all files have been read.
+     *
+     * @param directory The directory to read.
+     * @param glob The pattern of file names to read.
+     * @param parallelism The maximum number of files to read at the same time.
+     * @param nmeaMessageHandler The handler of the NMEA messages; receives messages of different files concurrently.
+     * @return The number of files read.
+     * @throws IOException if the directory or any of the files cannot be read.
+     */
+    public int readDirectory(Path directory, String glob, int parallelism, NMEAMessageHandler nmeaMessageHandler) throws IOException {
+        final List<Path> paths = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, glob)) {
+            for (Path path : stream) {
+                if (Files.isRegularFile(path)) {
+                    paths.add(path);
+                }
+            }
+        }
+        Collections.sort(paths);
+
+        final ExecutorService decoders = Executors.newFixedThreadPool(parallelism, daemonThreads("decoder"));
+        final List<Future<?>> futures = new ArrayList<>(paths.size());
+        try {
+            for (Path path : paths) {
+                futures.add(decoders.submit(() -> {
+                    readFile(path, nmeaMessageHandler);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while reading " + directory);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else {
+                throw new IOException(cause);
+            }
+        } finally {
+            decoders.shutdownNow();
+        }
+        return paths.size();
+    }
+
+    /**
+     * Read a file. Files with names ending in ".gz" are inflated. Blocks until the file has been read.
+     *
+     * @param file The file to read.
+     * @param nmeaMessageHandler The handler of the NMEA messages, which are passed on with the file name as source.
+     * @throws IOException if the file cannot be read.
+     */
+    public void readFile(Path file, NMEAMessageHandler nmeaMessageHandler) throws IOException {
+        final boolean gzipped = file.getFileName().toString().endsWith(".gz");
+        try (InputStream in = Files.newInputStream(file)) {
+            read(in, gzipped, file.getFileName().toString(), nmeaMessageHandler);
+        }
+        files.increment();
+    }
+
+    /**
+     * Read a stream until its end. The stream is read on another thread; it is not closed.
+     *
+     * @param in The stream to read.
+     * @param gzipped true if the stream is gzip compressed.
+     * @param source The source to pass the NMEA messages on with.
+     * @param nmeaMessageHandler The handler of the NMEA messages.
+     * @throws IOException if the stream cannot be read or inflated.
+     */
+    public void read(InputStream in, boolean gzipped, String source, NMEAMessageHandler nmeaMessageHandler) throws IOException {
+        final BlockingQueue<Block> full = new ArrayBlockingQueue<>(queueCapacity + 1);
+        final BlockingQueue<Block> free = new ArrayBlockingQueue<>(queueCapacity);
+        for (int i = 0; i < queueCapacity; i++) {
+            free.add(new Block(blockSize));
+        }
+
+        final Future<?> inflater = inflaters.submit(() -> inflate(in, gzipped, free, full));
+        final SourceMetrics metrics = MetricsRegistry.ENABLED ? MetricsRegistry.getDefault().forSource(source) : null;
+        final LineFramer lineFramer = new LineFramer(line -> handle(source, metrics, line, nmeaMessageHandler));
+        try {
+            Block block;
+            while ((block = full.take()).length >= 0) {
+                lineFramer.frame(block.bytes, 0, block.length);
+                free.add(block);
+            }
+            if (block.error instanceof IOException) {
+                throw (IOException) block.error;
+            } else if (block.error instanceof RuntimeException) {
+                throw (RuntimeException) block.error;
+            } else if (block.error instanceof Error) {
+                throw (Error) block.error;
+            }
+            lineFramer.endOfInput();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while reading " + source);
+        } finally {
+            inflater.cancel(true);
+        }
+    }
+
+    /**
+     * Read blocks from the stream until its end; runs on an inflater thread. The end of the stream, or the
+     * failure which ended reading, is always posted, so that the decoding thread does not wait for blocks forever.
+     */
+    private void inflate(InputStream in, boolean gzipped, BlockingQueue<Block> free, BlockingQueue<Block> full) {
+        Block endOfStream = new Block(0);
+        endOfStream.length = -1;
+        try {
+            final InputStream inflated = gzipped ? new GZIPInputStream(in, blockSize) : in;
+            while (true) {
+                final Block block = free.take();
+                block.length = readFully(inflated, block.bytes);
+                if (block.length <= 0) {
+                    break;
+                }
+                bytes.add(block.length);
+                full.put(block);
+            }
+        } catch (InterruptedException e) {
+            // Reading has been cancelled; the decoding thread is no longer waiting for blocks
+            return;
+        } catch (Throwable e) {
+            endOfStream.error = e;
+        }
+        full.add(endOfStream);
+    }
+
+    private static int readFully(InputStream in, byte[] bytes) throws IOException {
+        int length = 0;
+        int n;
+        while (length < bytes.length && (n = in.read(bytes, length, bytes.length - length)) >= 0) {
+            length += n;
+        }
+        return length;
+    }
+
+    private void handle(String source, SourceMetrics metrics, String line, NMEAMessageHandler nmeaMessageHandler) {
+        lines.increment();
+        final NMEAMessage nmeaMessage;
+        try {
+            nmeaMessage = NMEAMessage.fromString(line);
+        } catch (Exception e) {
+            errors.increment();
+            if (metrics != null) {
+                metrics.recordLine(false);
+            }
+            LOG.fine(source + ": Received non-compliant NMEA message: \"" + line + "\": " + e);
+            return;
+        }
+        if (metrics != null) {
+            metrics.recordLine(true);
+        }
+        nmeaMessageHandler.accept(source, nmeaMessage);
+    }
+
+    /** Stop the inflater threads. */
+    @Override
+    public void close() {
+        inflaters.shutdownNow();
+    }
+
+    /** @return The number of files read completely. */
+    public long getFiles() {
+        return files.sum();
+    }
+
+    /** @return The number of bytes read, after inflation. */
+    public long getBytes() {
+        return bytes.sum();
+    }
+
+    /** @return The number of lines read. */
+    public long getLines() {
+        return lines.sum();
+    }
+
+    /** @return The number of lines which could not be parsed as NMEA messages. */
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    private static ThreadFactory daemonThreads(String role) {
+        final AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, NMEAMessageArchiveReader.class.getSimpleName() + "-" + role + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /** A block of bytes passed from the inflating to the decoding thread. */
+    private static final class Block {
+        private final byte[] bytes;
+        private int length;
+        /** The failure which ended reading; an IOException, RuntimeException or Error. */
+        private Throwable error;
+
+        private Block(int size) {
+            this.bytes = new byte[size];
+        }
+    }
+
+}
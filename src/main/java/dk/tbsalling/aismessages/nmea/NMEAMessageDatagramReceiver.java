@@ -0,0 +1,258 @@
+/*
+ * AISMessages
+ * - a java-based library for decoding of AIS messages from digital VHF radio traffic related
+ * to maritime navigation and safety in compliance with ITU 1371.
+ *
+ * (C) Copyright 2011- by S-Consult ApS, DK31327490, http://s-consult.dk, Denmark.
+ *
+ * Released under the Creative Commons Attribution-NonCommercial-ShareAlike 3.0 Unported License.
+ * For details of this license see the nearby LICENCE-full file, visit http://creativecommons.org/licenses/by-nc-sa/3.0/
+ * or send a letter to Creative Commons, 171 Second Street, Suite 300, San Francisco, California, 94105, USA.
+ *
+ * NOT FOR COMMERCIAL USE!
+ * Contact sales@s-consult.dk to obtain a commercially licensed version of this software.
+ *
+ */
+
+package dk.tbsalling.aismessages.nmea;
+
+import dk.tbsalling.aismessages.metrics.MetricsRegistry;
+import dk.tbsalling.aismessages.metrics.SourceMetrics;
+import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.NetworkInterface;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.MembershipKey;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * This receiver reads NMEA messages from UDP datagrams, unicast or multicast, and passes them on
+ * to an NMEAMessageHandler with the address of the sender as source. The port of the sender is not part
+ * of the source, so that a sender which sends from a new port for each datagram is still one source.
+ *
+ * A datagram may hold any number of CR/LF separated sentences; the last one need not be terminated.
+ * Datagrams are received into a single reused buffer. Datagrams larger than the maximum datagram size
+ * are dropped and counted, as they would otherwise be silently truncated.
+ *
+ * @author tbsalling
+ */
+public class NMEAMessageDatagramReceiver implements Closeable {
+
+    private static final Logger LOG = Logger.getLogger(NMEAMessageDatagramReceiver.class.getName());
+
+    /** The largest payload of a UDP datagram over IPv4. */
+    public static final int MAX_DATAGRAM_SIZE = 65507;
+
+    private final DatagramChannel channel;
+    private final NMEAMessageHandler nmeaMessageHandler;
+    private final ByteBuffer buffer;
+    private final LineFramer lineFramer;
+    /** The senders seen, by address; confined to the thread running the receiver. */
+    private final Map<Object, Sender> senders = new HashMap<>();
+    private Sender currentSender;
+    private volatile boolean stopRequested;
+
+    private final LongAdder datagrams = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder lines = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder droppedDatagrams = new LongAdder();
+
+    /**
+     * @param bindAddress The local address and port to receive on.
+     * @param nmeaMessageHandler The handler of the received NMEA messages.
+     * @throws IOException if the address cannot be bound.
+     */
+    public NMEAMessageDatagramReceiver(InetSocketAddress bindAddress, NMEAMessageHandler nmeaMessageHandler) throws IOException {
+        this(bindAddress, MAX_DATAGRAM_SIZE, nmeaMessageHandler);
+    }
+
+    /**
+     * @param bindAddress The local address and port to receive on.
+     * @param maxDatagramSize The size in bytes of the largest datagram to accept.
+     * @param nmeaMessageHandler The handler of the received NMEA messages.
+     * @throws IOException if the address cannot be bound.
+     */
+    public NMEAMessageDatagramReceiver(InetSocketAddress bindAddress, int maxDatagramSize, NMEAMessageHandler nmeaMessageHandler) throws IOException {
+        if (maxDatagramSize < 1 || maxDatagramSize > MAX_DATAGRAM_SIZE) {
+            throw new IllegalArgumentException("maxDatagramSize must be between 1 and " + MAX_DATAGRAM_SIZE + ": " + maxDatagramSize);
+        }
+        this.nmeaMessageHandler = nmeaMessageHandler;
+        // One extra byte, so that a full buffer reveals a datagram which has been truncated
+        this.buffer = ByteBuffer.allocateDirect(maxDatagramSize + 1);
+        this.lineFramer = new LineFramer(this::handle);
+
+        final boolean ipv6 = bindAddress.getAddress() instanceof Inet6Address;
+        this.channel = DatagramChannel.open(ipv6 ? StandardProtocolFamily.INET6 : StandardProtocolFamily.INET);
+        try {
+            channel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+            channel.bind(bindAddress);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Join a multicast group.
+     *
+     * @param group The multicast group address.
+     * @param networkInterface The network interface to join the group on.
+     * @return The membership key, which can be used to leave the group again.
+     * @throws IOException if the group cannot be joined.
+     */
+    public MembershipKey joinGroup(InetAddress group, NetworkInterface networkInterface) throws IOException {
+        MembershipKey key = channel.join(group, networkInterface);
+        LOG.info("Joined multicast group " + group + " on " + networkInterface.getName());
+        return key;
+    }
+
+    /** @return The local address which the receiver is bound to. */
+    public InetSocketAddress getLocalAddress() throws IOException {
+        return (InetSocketAddress) channel.getLocalAddress();
+    }
+
+    /** Request the receiver to stop. The channel is closed, which unblocks a pending receive. */
+    public void requestStop() {
+        stopRequested = true;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            LOG.warning("Failed to close datagram channel: " + e);
+        }
+    }
+
+    @Override
+    public void close() {
+        requestStop();
+    }
+
+    /**
+     * Receive datagrams until stop is requested. Blocks the calling thread.
+     * @throws IOException if receiving fails for any other reason than a stop request.
+     */
+    public void run() throws IOException {
+        LOG.info("NMEAMessageDatagramReceiver running on " + channel.getLocalAddress());
+        try {
+            while (!stopRequested) {
+                buffer.clear();
+                SocketAddress sender = channel.receive(buffer);
+                if (sender == null) {
+                    continue;
+                }
+                datagrams.increment();
+                bytes.add(buffer.position());
+                if (!buffer.hasRemaining()) {
+                    LOG.fine("Dropped oversized datagram from " + sender);
+                    droppedDatagrams.increment();
+                    continue;
+                }
+                buffer.flip();
+                currentSender = senderOf(sender);
+                if (currentSender.metrics != null) {
+                    currentSender.metrics.recordBytes(buffer.remaining());
+                }
+                lineFramer.reset();
+                lineFramer.frame(buffer);
+                lineFramer.endOfInput();
+            }
+        } catch (ClosedChannelException e) {
+            if (!stopRequested) {
+                throw e;
+            }
+        }
+        LOG.info("NMEAMessageDatagramReceiver stopping.");
+    }
+
+    private void handle(String line) {
+        lines.increment();
+        final NMEAMessage nmeaMessage;
+        try {
+            nmeaMessage = NMEAMessage.fromString(line);
+        } catch (Exception e) {
+            errors.increment();
+            if (currentSender.metrics != null) {
+                currentSender.metrics.recordLine(false);
+            }
+            LOG.fine(currentSender.source + ": Received non-compliant NMEA message: \"" + line + "\": " + e);
+            return;
+        }
+        if (currentSender.metrics != null) {
+            currentSender.metrics.recordLine(true);
+        }
+        currentSender.nmeaMessageConsumer.accept(nmeaMessage);
+    }
+
+    /** @return The sender with the address of the socket address; created on first use. */
+    private Sender senderOf(SocketAddress socketAddress) {
+        final Object address = socketAddress instanceof InetSocketAddress ? ((InetSocketAddress) socketAddress).getAddress() : socketAddress;
+        Sender sender = senders.get(address);
+        if (sender == null) {
+            if (senders.size() >= MetricsRegistry.DEFAULT_MAX_SOURCES) {
+                senders.clear();
+            }
+            final String source = address instanceof InetAddress ? ((InetAddress) address).getHostAddress() : String.valueOf(address);
+            sender = new Sender(source, MetricsRegistry.ENABLED ? MetricsRegistry.getDefault().forSource(source) : null, nmeaMessageHandler.forSource(source));
+            senders.put(address, sender);
+        }
+        return sender;
+    }
+
+    /** A sender of datagrams, with its metrics and its consumer in the handler resolved once. */
+    private static final class Sender {
+        private final String source;
+        private final SourceMetrics metrics;
+        private final Consumer<NMEAMessage> nmeaMessageConsumer;
+
+        private Sender(String source, SourceMetrics metrics, Consumer<NMEAMessage> nmeaMessageConsumer) {
+            this.source = source;
+            this.metrics = metrics;
+            this.nmeaMessageConsumer = nmeaMessageConsumer;
+        }
+    }
+
+    /** @return The number of datagrams received. */
+    public long getDatagrams() {
+        return datagrams.sum();
+    }
+
+    /** @return The number of bytes received. */
+    public long getBytes() {
+        return bytes.sum();
+    }
+
+    /** @return The number of lines received. */
+    public long getLines() {
+        return lines.sum();
+    }
+
+    /** @return The number of lines which could not be parsed as NMEA messages. */
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    /** @return The number of datagrams which have been dropped for exceeding the maximum datagram size. */
+    public long getDroppedDatagrams() {
+        return droppedDatagrams.sum();
+    }
+
+    /** @return The number of lines which have been dropped for being too long. */
+    public long getOversizedLines() {
+        return lineFramer.getOversizedLines();
+    }
+
+}
@@ -0,0 +1,144 @@
+/*
+ * AISMessages
+ * - a java-based library for decoding of AIS messages from digital VHF radio traffic related
+ * to maritime navigation and safety in compliance with ITU 1371.
+ *
+ * (C) Copyright 2011- by S-Consult ApS, DK31327490, http://s-consult.dk, Denmark.
+ *
+ * Released under the Creative Commons Attribution-NonCommercial-ShareAlike 3.0 Unported License.
+ * For details of this license see the nearby LICENCE-full file, visit http://creativecommons.org/licenses/by-nc-sa/3.0/
+ * or send a letter to Creative Commons, 171 Second Street, Suite 300, San Francisco, California, 94105, USA.
+ *
+ * NOT FOR COMMERCIAL USE!
+ * Contact sales@s-consult.dk to obtain a commercially licensed version of this software.
+ *
+ */
+
+package dk.tbsalling.aismessages.nmea;
+
+import dk.tbsalling.aismessages.ais.messages.AISMessage;
+import dk.tbsalling.aismessages.ais.messages.Metadata;
+import dk.tbsalling.aismessages.jfr.MessageCreateEvent;
+import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * This decoder turns NMEA sentences from a single source into AISMessages without throwing
+ * exceptions for invalid input. Each call to decode reports its outcome as a DecodeStatus, which
+ * is also counted; the decoded message, if any, is recorded in a DecodeResult which the caller
+ * may reuse for every sentence.
+ *
+ * Sentences with a checksum which does not match are rejected by default, as corrupt input is
+ * common on noisy feeds; see setChecksumRequired.
+ *
+ * Instances are not thread safe; the counters may be read from any thread.
+ *
+ * @author tbsalling
+ */
+public class NMEAMessageDecoder {
+
+    private final String source;
+    private final FragmentReassembler reassembler;
+    private final DecodeCounters counters = new DecodeCounters();
+    private volatile boolean checksumRequired = true;
+
+    /**
+     * @param source The source of the NMEA sentences; passed on in the metadata of each AISMessage.
+     */
+    public NMEAMessageDecoder(String source) {
+        this(source, new FragmentReassembler());
+    }
+
+    /**
+     * @param source The source of the NMEA sentences; passed on in the metadata of each AISMessage.
+     * @param reassembler The reassembler of fragmented messages; allows its limits to be configured.
+     */
+    public NMEAMessageDecoder(String source, FragmentReassembler reassembler) {
+        this.source = source;
+        this.reassembler = requireNonNull(reassembler);
+    }
+
+    /**
+     * Decode an NMEA sentence.
+     *
+     * @param nmeaString The NMEA sentence.
+     * @param result The result to record the outcome in; holds the AISMessage if the status is OK.
+     * @return OK if an AISMessage was decoded; INCOMPLETE if the sentence is a fragment of a message which
+     *         is not yet complete; otherwise the reason why the sentence was rejected.
+     */
+    public DecodeStatus decode(String nmeaString, DecodeResult result) {
+        final DecodeStatus status = NMEAMessage.tryFromString(nmeaString, result);
+        if (status == DecodeStatus.OK || (status == DecodeStatus.BAD_CHECKSUM && !checksumRequired)) {
+            return decode(result.getNmeaMessage(), result);
+        }
+        return counters.increment(status);
+    }
+
+    /**
+     * Decode a parsed NMEA message.
+     *
+     * @param nmeaMessage The NMEA message.
+     * @param result The result to record the outcome in; holds the AISMessage if the status is OK.
+     * @return OK if an AISMessage was decoded; INCOMPLETE if the message is a fragment of a message which
+     *         is not yet complete; otherwise the reason why the message was rejected.
+     */
+    public DecodeStatus decode(NMEAMessage nmeaMessage, DecodeResult result) {
+        result.setNmeaMessage(DecodeStatus.OK, nmeaMessage);
+        final DecodeStatus fragmentStatus = FragmentReassembler.checkFragment(nmeaMessage);
+        if (fragmentStatus != DecodeStatus.OK) {
+            return counters.increment(result.setAisMessage(fragmentStatus, null));
+        }
+
+        final DecodeStatus status;
+        if (nmeaMessage.getNumberOfFragments() == 1) {
+            status = create(result, nmeaMessage);
+        } else {
+            final long dropped = reassembler.getExpiredCount() + reassembler.getConflictingCount();
+            final NMEAMessage[] fragments = reassembler.add(source, nmeaMessage);
+            final long truncated = reassembler.getExpiredCount() + reassembler.getConflictingCount() - dropped;
+            if (truncated > 0) {
+                counters.add(DecodeStatus.TRUNCATED_FRAGMENT, truncated);
+            }
+            status = fragments == null ? result.setAisMessage(DecodeStatus.INCOMPLETE, null) : create(result, fragments);
+        }
+
+        if (status == DecodeStatus.OK) {
+            result.getAisMessage().setMetadata(new Metadata(source));
+        }
+        return counters.increment(status);
+    }
+
+    private DecodeStatus create(DecodeResult result, NMEAMessage... nmeaMessages) {
+        final MessageCreateEvent event = new MessageCreateEvent();
+        event.begin();
+        final DecodeStatus status = AISMessage.tryCreate(result, nmeaMessages);
+        event.record(source, status, nmeaMessages);
+        return status;
+    }
+
+    /**
+     * @param checksumRequired true to reject sentences with a checksum which does not match; false to decode them.
+     */
+    @SuppressWarnings("unused")
+    public void setChecksumRequired(boolean checksumRequired) {
+        this.checksumRequired = checksumRequired;
+    }
+
+    @SuppressWarnings("unused")
+    public boolean isChecksumRequired() {
+        return checksumRequired;
+    }
+
+    /** @return The counters of outcomes; TRUNCATED_FRAGMENT counts messages dropped by the reassembler. */
+    @SuppressWarnings("unused")
+    public DecodeCounters getCounters() {
+        return counters;
+    }
+
+    @SuppressWarnings("unused")
+    public String getSource() {
+        return source;
+    }
+
+}
@@ -0,0 +1,429 @@
+/*
+ * AISMessages
+ * - a java-based library for decoding of AIS messages from digital VHF radio traffic related
+ * to maritime navigation and safety in compliance with ITU 1371.
+ *
+ * (C) Copyright 2011- by S-Consult ApS, DK31327490, http://s-consult.dk, Denmark.
+ *
+ * Released under the Creative Commons Attribution-NonCommercial-ShareAlike 3.0 Unported License.
+ * For details of this license see the nearby LICENCE-full file, visit http://creativecommons.org/licenses/by-nc-sa/3.0/
+ * or send a letter to Creative Commons, 171 Second Street, Suite 300, San Francisco, California, 94105, USA.
+ *
+ * NOT FOR COMMERCIAL USE!
+ * Contact sales@s-consult.dk to obtain a commercially licensed version of this software.
+ *
+ */
+
+package dk.tbsalling.aismessages.nmea;
+
+import dk.tbsalling.aismessages.ais.messages.AISMessage;
+import dk.tbsalling.aismessages.ais.messages.Metadata;
+import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * This decoder decodes large NMEA log files in parallel. The file is memory mapped chunk by chunk,
+ * and each chunk is decoded on a ForkJoinPool. Chunks are aligned to lines: a chunk decodes every line
+ * which starts inside it, reading past its end to complete the last one.
+ *
+ * Multi-part messages are reassembled within each chunk. Fragments of messages which straddle a chunk
+ * boundary are set aside by the chunks on either side and stitched together in file order once both
+ * chunks have been decoded.
+ *
+ * Lines which do not start with '!' are skipped, and anything following the seventh field of a sentence
+ * - e.g. a timestamp appended by a logger - is ignored.
+ *
+ * Decoded messages are delivered either in file order, from the calling thread, or unordered, as soon as
+ * they are decoded, from the threads of the pool. In the unordered case the consumer must be thread safe.
+ * Only a limited number of chunks is decoded ahead of delivery, so memory use does not grow with the
+ * size of the file.
+ *
+ * @author tbsalling
+ */
+public class NMEAMessageFileDecoder {
+
+    private static final Logger LOG = Logger.getLogger(NMEAMessageFileDecoder.class.getName());
+
+    /** The smallest chunk size; it ensures that the fragments of a message span at most two chunks. */
+    public static final int MIN_CHUNK_SIZE = FragmentReassembler.MAX_FRAGMENTS * LineFramer.DEFAULT_MAX_LINE_LENGTH;
+
+    public static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
+
+    private static final int MAX_LINE_LENGTH = LineFramer.DEFAULT_MAX_LINE_LENGTH;
+    private static final int NUMBER_OF_FIELDS = 7;
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+    private final int maxChunksInFlight;
+
+    private final LongAdder lines = new LongAdder();
+    private final LongAdder messages = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder oversizedLines = new LongAdder();
+    private final LongAdder incompleteMessages = new LongAdder();
+
+    public NMEAMessageFileDecoder() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param pool The pool to decode chunks on.
+     * @param chunkSize The number of bytes in each chunk; at least MIN_CHUNK_SIZE.
+     */
+    public NMEAMessageFileDecoder(ForkJoinPool pool, int chunkSize) {
+        if (chunkSize < MIN_CHUNK_SIZE) {
+            throw new IllegalArgumentException("chunkSize must be at least " + MIN_CHUNK_SIZE + ": " + chunkSize);
+        }
+        this.pool = Objects.requireNonNull(pool);
+        this.chunkSize = chunkSize;
+        this.maxChunksInFlight = 2 * pool.getParallelism();
+    }
+
+    /**
+     * Decode all AIS messages in a file. Blocks until the whole file has been decoded and delivered.
+     *
+     * @param file The NMEA log file.
+     * @param ordered true to deliver messages in file order from the calling thread; false to deliver
+     *                them in any order from the threads of the pool.
+     * @param aisMessageConsumer The consumer of the decoded messages.
+     * @return The number of AIS messages delivered.
+     * @throws IOException if the file cannot be read.
+     */
+    public long decode(Path file, boolean ordered, Consumer<? super AISMessage> aisMessageConsumer) throws IOException {
+        final String source = file.toString();
+        final ArrayDeque<ForkJoinTask<Chunk>> inFlight = new ArrayDeque<>();
+        long delivered = 0;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            LOG.info("Decoding " + size + " bytes from " + source);
+
+            long next = 0;
+            Map<Key, Group> pendingTail = Collections.emptyMap();
+            try {
+                while (next < size || !inFlight.isEmpty()) {
+                    while (next < size && inFlight.size() < maxChunksInFlight) {
+                        final long start = next, end = Math.min(size, start + chunkSize);
+                        final Consumer<? super AISMessage> directConsumer = ordered ? null : aisMessageConsumer;
+                        inFlight.add(pool.submit(() -> decodeChunk(channel, start, end, size, source, directConsumer)));
+                        next = end;
+                    }
+
+                    final Chunk chunk = inFlight.poll().join();
+                    delivered += chunk.delivered + deliver(chunk, pendingTail, source, aisMessageConsumer);
+                    incompleteMessages.add(pendingTail.size());
+                    pendingTail = chunk.tail;
+                }
+                incompleteMessages.add(pendingTail.size());
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            } finally {
+                for (ForkJoinTask<Chunk> task : inFlight) {
+                    task.cancel(false);
+                    task.quietlyJoin();
+                }
+            }
+        }
+
+        messages.add(delivered);
+        return delivered;
+    }
+
+    /**
+     * Deliver the messages decoded by a chunk, interleaved with the messages completed by its leading
+     * fragments and the trailing fragments of the chunk before it.
+     *
+     * @return The number of messages delivered.
+     */
+    private long deliver(Chunk chunk, Map<Key, Group> previousTail, String source, Consumer<? super AISMessage> aisMessageConsumer) {
+        long delivered = 0;
+        int next = 0;
+        for (LeadingFragment leadingFragment : chunk.head) {
+            while (next < leadingFragment.position) {
+                aisMessageConsumer.accept(chunk.messages.get(next++));
+                delivered++;
+            }
+            final NMEAMessage fragment = leadingFragment.fragment;
+            final Key key = new Key(fragment);
+            final Group group = previousTail.get(key);
+            if (group == null || !group.fits(fragment)) {
+                LOG.fine("Dropping fragment without preceding fragments: " + fragment.getRawMessage());
+                incompleteMessages.increment();
+                continue;
+            }
+            group.add(fragment);
+            if (group.isComplete()) {
+                previousTail.remove(key);
+                AISMessage aisMessage = create(source, group.fragments);
+                if (aisMessage != null) {
+                    aisMessageConsumer.accept(aisMessage);
+                    delivered++;
+                }
+            }
+        }
+        while (next < chunk.messages.size()) {
+            aisMessageConsumer.accept(chunk.messages.get(next++));
+            delivered++;
+        }
+        return delivered;
+    }
+
+    /** Decode the lines which start in the range [start, end) of the file. */
+    private Chunk decodeChunk(FileChannel channel, long start, long end, long size, String source, Consumer<? super AISMessage> directConsumer) {
+        // Map one byte before the chunk, to see if it starts on a line, and enough after it to complete its last line
+        final long mapStart = start == 0 ? 0 : start - 1;
+        final long mapEnd = Math.min(size, end + MAX_LINE_LENGTH + 1);
+        final MappedByteBuffer buffer;
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, mapStart, mapEnd - mapStart);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        final Chunk chunk = new Chunk(source, directConsumer);
+        final int bufferEnd = (int) (mapEnd - mapStart);
+        final int limit = (int) (end - mapStart);
+        final byte[] line = new byte[MAX_LINE_LENGTH];
+
+        int p = 0;
+        if (start > 0) {
+            // Skip the rest of a line which started in the previous chunk
+            if (!isLineTerminator(buffer.get(0))) {
+                while (p < bufferEnd && !isLineTerminator(buffer.get(p))) {
+                    p++;
+                }
+            } else {
+                p = 1;
+            }
+        }
+
+        while (p < limit) {
+            if (isLineTerminator(buffer.get(p))) {
+                p++;
+                continue;
+            }
+            int q = p, length = 0, commas = 0;
+            while (q < bufferEnd) {
+                byte b = buffer.get(q);
+                if (isLineTerminator(b)) {
+                    break;
+                }
+                if (b == ',' && ++commas == NUMBER_OF_FIELDS) {
+                    commas = -1; // Ignore the rest of the line
+                } else if (commas >= 0 && length < MAX_LINE_LENGTH) {
+                    line[length++] = b;
+                }
+                q++;
+            }
+            if (q - p > MAX_LINE_LENGTH || q == bufferEnd && mapEnd < size) {
+                LOG.fine("Dropping line longer than " + MAX_LINE_LENGTH + " characters at offset " + (mapStart + p));
+                oversizedLines.increment();
+            } else if (line[0] == '!') {
+                lines.increment();
+                chunk.accept(new String(line, 0, length, StandardCharsets.ISO_8859_1));
+            }
+            p = q;
+        }
+        return chunk;
+    }
+
+    private static boolean isLineTerminator(byte b) {
+        return b == '\n' || b == '\r';
+    }
+
+    private AISMessage create(String source, NMEAMessage... nmeaMessages) {
+        try {
+            AISMessage aisMessage = AISMessage.create(nmeaMessages);
+            aisMessage.setMetadata(new Metadata(source));
+            return aisMessage;
+        } catch (Exception e) {
+            LOG.fine("Cannot decode AIS message: " + nmeaMessages[nmeaMessages.length - 1].getRawMessage() + ": " + e);
+            errors.increment();
+            return null;
+        }
+    }
+
+    /** @return The number of NMEA sentences read. */
+    public long getLines() {
+        return lines.sum();
+    }
+
+    /** @return The number of AIS messages delivered. */
+    public long getMessages() {
+        return messages.sum();
+    }
+
+    /** @return The number of NMEA sentences or AIS messages which could not be decoded. */
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    /** @return The number of lines which have been dropped for being too long. */
+    public long getOversizedLines() {
+        return oversizedLines.sum();
+    }
+
+    /** @return The number of multi-part messages which have been dropped for missing or conflicting fragments. */
+    public long getIncompleteMessages() {
+        return incompleteMessages.sum();
+    }
+
+    /** The outcome of decoding one chunk. */
+    private final class Chunk {
+        private final String source;
+        private final Consumer<? super AISMessage> directConsumer;
+
+        /** Decoded messages awaiting ordered delivery. */
+        private final ArrayList<AISMessage> messages = new ArrayList<>();
+        /** Fragments of messages which started in the previous chunk. */
+        private final ArrayList<LeadingFragment> head = new ArrayList<>();
+        /** Messages still incomplete at the end of the chunk. */
+        private final LinkedHashMap<Key, Group> tail = new LinkedHashMap<>();
+        /** Keys of messages which have had a first fragment in this chunk. */
+        private final HashSet<Key> started = new HashSet<>();
+        private long delivered;
+
+        private Chunk(String source, Consumer<? super AISMessage> directConsumer) {
+            this.source = source;
+            this.directConsumer = directConsumer;
+        }
+
+        private void accept(String line) {
+            final NMEAMessage nmeaMessage;
+            try {
+                nmeaMessage = NMEAMessage.fromString(line);
+            } catch (Exception e) {
+                LOG.fine("Cannot parse NMEA message: \"" + line + "\": " + e);
+                errors.increment();
+                return;
+            }
+            if (FragmentReassembler.checkFragment(nmeaMessage) != DecodeStatus.OK) {
+                LOG.fine("NMEA message is invalid: " + line);
+                errors.increment();
+            } else if (nmeaMessage.getNumberOfFragments() == 1) {
+                emit(create(source, nmeaMessage));
+            } else {
+                addFragment(nmeaMessage, nmeaMessage.getFragmentNumber());
+            }
+        }
+
+        private void addFragment(NMEAMessage fragment, int fragmentNumber) {
+            final Key key = new Key(fragment);
+            final Group group = tail.get(key);
+            if (fragmentNumber == 1) {
+                if (group != null) {
+                    incompleteMessages.increment();
+                }
+                tail.put(key, new Group(fragment));
+                started.add(key);
+            } else if (group == null) {
+                if (started.contains(key)) {
+                    incompleteMessages.increment();
+                } else {
+                    head.add(new LeadingFragment(fragment, messages.size()));
+                }
+            } else if (!group.fits(fragment)) {
+                tail.remove(key);
+                incompleteMessages.increment();
+            } else {
+                group.add(fragment);
+                if (group.isComplete()) {
+                    tail.remove(key);
+                    emit(create(source, group.fragments));
+                }
+            }
+        }
+
+        private void emit(AISMessage aisMessage) {
+            if (aisMessage == null) {
+                return;
+            }
+            if (directConsumer != null) {
+                directConsumer.accept(aisMessage);
+                delivered++;
+            } else {
+                messages.add(aisMessage);
+            }
+        }
+    }
+
+    /** A fragment near the start of a chunk, which continues a message started in the previous chunk. */
+    private static final class LeadingFragment {
+        private final NMEAMessage fragment;
+        /** The number of messages decoded by the chunk before this fragment. */
+        private final int position;
+
+        private LeadingFragment(NMEAMessage fragment, int position) {
+            this.fragment = fragment;
+            this.position = position;
+        }
+    }
+
+    private static final class Key {
+        private final Integer sequenceNumber;
+        private final String radioChannelCode;
+
+        private Key(NMEAMessage fragment) {
+            this.sequenceNumber = fragment.getSequenceNumber();
+            this.radioChannelCode = fragment.getRadioChannelCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return Objects.equals(sequenceNumber, key.sequenceNumber) &&
+                    Objects.equals(radioChannelCode, key.radioChannelCode);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(sequenceNumber, radioChannelCode);
+        }
+    }
+
+    /** Fragments of a message received in order, starting with the first. */
+    private static final class Group {
+        private final NMEAMessage[] fragments;
+        private int received;
+
+        private Group(NMEAMessage first) {
+            this.fragments = new NMEAMessage[first.getNumberOfFragments()];
+            this.fragments[0] = first;
+            this.received = 1;
+        }
+
+        private boolean fits(NMEAMessage fragment) {
+            return fragment.getNumberOfFragments() == fragments.length && fragment.getFragmentNumber() == received + 1;
+        }
+
+        private void add(NMEAMessage fragment) {
+            fragments[received++] = fragment;
+        }
+
+        private boolean isComplete() {
+            return received == fragments.length;
+        }
+    }
+
+}
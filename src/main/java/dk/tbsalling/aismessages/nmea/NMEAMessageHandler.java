@@ -18,33 +18,119 @@ package dk.tbsalling.aismessages.nmea;
 
 import dk.tbsalling.aismessages.ais.messages.AISMessage;
 import dk.tbsalling.aismessages.ais.messages.Metadata;
+import dk.tbsalling.aismessages.jfr.DispatchEvent;
+import dk.tbsalling.aismessages.jfr.FragmentReassemblyEvent;
+import dk.tbsalling.aismessages.jfr.MessageCreateEvent;
+import dk.tbsalling.aismessages.metrics.MetricsRegistry;
+import dk.tbsalling.aismessages.metrics.SourceMetrics;
 import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
+import dk.tbsalling.aismessages.pipeline.AsyncConsumer;
 
+import java.io.Closeable;
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import static java.util.Objects.requireNonNull;
+
 /**
  * This class receives NMEA messages containing armoured and encoded AIS strings.
  * An AIS message can span several NMEA messages. Whenever a complete AIS message
  * is observed in the input, an AISMessage is constructed and passed on to all registered
  * receivers of encoded AIS messages.
  *
+ * Fragments of several AIS messages may arrive interleaved; they are reassembled by
+ * a FragmentReassembler which groups them by source, sequence number and radio channel.
+ *
+ * The handler is thread safe and can receive NMEA messages from several sources and threads
+ * at the same time. Unfragmented messages are decoded on the calling thread without locking.
+ * Fragmented messages are reassembled in one of a number of stripes, selected by source, each
+ * guarded by its own lock; so feeds from different sources rarely contend. The locks are
+ * java.util.concurrent locks rather than monitors, so virtual threads waiting for them do
+ * not pin their carrier threads.
+ *
+ * Decoding and dispatch of complete messages can be spread over several threads, partitioned
+ * by source MMSI, with a MmsiPartitioner.
+ *
+ * Invalid input is dropped without exceptions being thrown or logged above level FINE; the outcome
+ * of each message is counted by status in the DecodeCounters of the handler.
+ *
+ * Unless disabled, the sentences, outcomes, message types and sampled decode durations are also
+ * recorded per source in the default MetricsRegistry, which exposes them over JMX. The handler
+ * acquires the metrics of its sources, and closing it releases them again; so the metrics of a source are
+ * removed from the registry once no handler handles it.
+ *
  * @author tbsalling
  *
  */
-public class NMEAMessageHandler implements Consumer<NMEAMessage> {
+public class NMEAMessageHandler implements Consumer<NMEAMessage>, Closeable {
 
     private static final Logger LOG = Logger.getLogger(NMEAMessageHandler.class.getName());
 
+    private static final int MAX_STRIPES = 1 << 12;
+
     private final String source;
-    private final ArrayList<NMEAMessage> messageFragments = new ArrayList<>();
-    private final List<Consumer<? super AISMessage>> aisMessageReceivers = new LinkedList<>();
+    private final FragmentReassembler[] reassemblers;
+    private final ReentrantLock[] locks;
+    private final int stripeMask;
+    private final List<Consumer<? super AISMessage>> aisMessageReceivers = new CopyOnWriteArrayList<>();
+    private final LongAdder filteredCount = new LongAdder();
+    private final LongAdder passedCount = new LongAdder();
+    private final DecodeCounters decodeCounters = new DecodeCounters();
+    private final SourceMetrics defaultMetrics;
+    /** The metrics of the other sources handled, so that they are acquired once per source and released on close. */
+    private final Map<String, SourceMetrics> sourceMetrics = new ConcurrentHashMap<>();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private volatile PayloadFilter payloadFilter;
+    private volatile MmsiPartitioner partitioner;
 
+    @SafeVarargs
     public NMEAMessageHandler(String source, Consumer<? super AISMessage>... aisMessageReceivers) {
+        this(source, 1, FragmentReassembler::new, aisMessageReceivers);
+    }
+
+    /**
+     * @param source The source of the NMEA messages; passed on in the metadata of each AISMessage.
+     * @param reassembler The reassembler of fragmented messages; allows its limits to be configured.
+     * @param aisMessageReceivers The receivers of decoded AIS messages.
+     */
+    @SafeVarargs
+    public NMEAMessageHandler(String source, FragmentReassembler reassembler, Consumer<? super AISMessage>... aisMessageReceivers) {
+        this(source, 1, () -> reassembler, aisMessageReceivers);
+    }
+
+    /**
+     * @param source The default source of the NMEA messages; used for messages received without a source.
+     * @param concurrency The expected number of concurrently active sources. Rounded up to a power of two,
+     *                    this is the number of stripes in which fragmented messages are reassembled.
+     * @param reassemblers Factory of a reassembler for each stripe.
+     * @param aisMessageReceivers The receivers of decoded AIS messages.
+     */
+    @SafeVarargs
+    public NMEAMessageHandler(String source, int concurrency, Supplier<FragmentReassembler> reassemblers, Consumer<? super AISMessage>... aisMessageReceivers) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("concurrency must be positive: " + concurrency);
+        }
+        final int stripes = concurrency == 1 ? 1 : Integer.highestOneBit(Math.min(concurrency, MAX_STRIPES) - 1) << 1;
     	this.source = source;
+        this.defaultMetrics = MetricsRegistry.ENABLED ? MetricsRegistry.getDefault().acquire(source) : null;
+        this.reassemblers = new FragmentReassembler[stripes];
+        this.locks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.reassemblers[i] = requireNonNull(reassemblers.get());
+            this.locks[i] = new ReentrantLock();
+        }
+        this.stripeMask = stripes - 1;
         for (Consumer<? super AISMessage> aisMessageReceiver : aisMessageReceivers) {
             addAisMessageReceiver(aisMessageReceiver);
         }
@@ -56,76 +142,240 @@ public class NMEAMessageHandler implements Consumer<NMEAMessage> {
      */
     @Override
     public void accept(NMEAMessage nmeaMessage) {
-		LOG.finer("Received for processing: " + nmeaMessage.getRawMessage());
-		
-		if (! nmeaMessage.isValid()) {
-			LOG.warning("NMEA message is invalid: " + nmeaMessage.toString());
-			return;
+        accept(source, nmeaMessage);
+    }
+
+    /**
+     * Create a consumer which passes NMEA messages to this handler as received from the given source.
+     * The metrics of the source are looked up once, rather than for each message.
+     * @param source The source of the NMEA messages.
+     * @return A consumer of NMEA messages from the source.
+     */
+    @SuppressWarnings("unused")
+    public Consumer<NMEAMessage> forSource(String source) {
+        final SourceMetrics metrics = metricsOf(source);
+        return nmeaMessage -> accept(source, metrics, nmeaMessage);
+    }
+
+    /**
+     * Receive a single NMEA amoured AIS string from the given source. May be called from any thread.
+     * @param source The source of the NMEA message.
+     * @param nmeaMessage the NMEAMessage to handle.
+     */
+    public void accept(String source, NMEAMessage nmeaMessage) {
+        accept(source, metricsOf(source), nmeaMessage);
+    }
+
+    private void accept(String source, SourceMetrics metrics, NMEAMessage nmeaMessage) {
+		if (LOG.isLoggable(Level.FINER)) {
+			LOG.finer("Received for processing: " + nmeaMessage.getRawMessage());
+		}
+		if (metrics != null) {
+			metrics.recordSentence(nmeaMessage);
 		}
 		
-		int numberOfFragments = nmeaMessage.getNumberOfFragments();
-		if (numberOfFragments <= 0) {
-			LOG.warning("NMEA message is invalid: " + nmeaMessage.toString());
-			messageFragments.clear();
-		} else if (numberOfFragments == 1) {
+		final DecodeStatus status = FragmentReassembler.checkFragment(nmeaMessage);
+		if (status != DecodeStatus.OK) {
+			if (LOG.isLoggable(Level.FINE)) {
+				LOG.fine(status.getDescription() + ": " + nmeaMessage.getRawMessage());
+			}
+			count(metrics, status);
+		} else if (nmeaMessage.getNumberOfFragments() == 1) {
 			LOG.finest("Handling unfragmented NMEA message");
-            AISMessage aisMessage;
-            try {
-            	aisMessage = AISMessage.create(nmeaMessage);
-            	aisMessage.setMetadata(new Metadata(source));
-            	sendToAisMessageReceivers(aisMessage);
-                messageFragments.clear();
-            } catch (Exception e) {
-            	// TODO Auto-generated catch block
-				LOG.warning("NMEA message is invalid: " + nmeaMessage.toString());
-
-            	e.printStackTrace();
-				//messageFragments.clear();
-            }
+			createAndSend(source, metrics, nmeaMessage);
 		} else {
-			int fragmentNumber = nmeaMessage.getFragmentNumber();
-			LOG.finest("Handling fragmented NMEA message with fragment number " + fragmentNumber);
-			if (fragmentNumber < 0) {
-				LOG.warning("Fragment number cannot be negative: " + fragmentNumber + ": " + nmeaMessage.getRawMessage());
-				messageFragments.clear();
-			} else if (fragmentNumber > numberOfFragments) {
-				LOG.fine("Fragment number " + fragmentNumber + " higher than expected " + numberOfFragments + ": " + nmeaMessage.getRawMessage());
-				messageFragments.clear();
-			} else {
-				int expectedFragmentNumber = messageFragments.size() + 1;
-				LOG.finest("Expected fragment number is: " + expectedFragmentNumber + ": " + nmeaMessage.getRawMessage());
-				
-				if (expectedFragmentNumber != fragmentNumber) {
-					LOG.fine("Expected fragment number " + expectedFragmentNumber + "; not " + fragmentNumber + ": " + nmeaMessage.getRawMessage());
-					messageFragments.clear();
-				} else {
-					messageFragments.add(nmeaMessage);
-					LOG.finest("nmeaMessage.getNumberOfFragments(): " + nmeaMessage.getNumberOfFragments());
-					LOG.finest("messageFragments.size(): " + messageFragments.size());
-					if (nmeaMessage.getNumberOfFragments() == messageFragments.size()) {
-                        AISMessage aisMessage;
-						try {
-							aisMessage = AISMessage.create(messageFragments.toArray(new NMEAMessage[messageFragments.size()]));
-	                        aisMessage.setMetadata(new Metadata(source));
-	                        sendToAisMessageReceivers(aisMessage);
-							messageFragments.clear();
-						} catch (Exception e) {
-							// TODO Auto-generated catch block
-							LOG.warning("NMEA message is invalid: " + nmeaMessage.toString());
-							e.printStackTrace();
-							//messageFragments.clear();
-						}
-
-					} else
-						LOG.finest("Fragmented message not yet complete; missing " + (nmeaMessage.getNumberOfFragments() - messageFragments.size()) + " fragment(s).");
+			if (LOG.isLoggable(Level.FINEST)) {
+				LOG.finest("Handling fragmented NMEA message with fragment number " + nmeaMessage.getFragmentNumber());
+			}
+			NMEAMessage[] fragments;
+			long dropped;
+			final int stripe = stripeOf(source);
+			final FragmentReassembler reassembler = reassemblers[stripe];
+			final FragmentReassemblyEvent event = new FragmentReassemblyEvent();
+			event.begin();
+			locks[stripe].lock();
+			try {
+				dropped = reassembler.getExpiredCount() + reassembler.getConflictingCount();
+				fragments = reassembler.add(source, nmeaMessage);
+				dropped = reassembler.getExpiredCount() + reassembler.getConflictingCount() - dropped;
+			} finally {
+				locks[stripe].unlock();
+			}
+			event.record(source, nmeaMessage, fragments != null);
+			if (dropped > 0) {
+				decodeCounters.add(DecodeStatus.TRUNCATED_FRAGMENT, dropped);
+				if (metrics != null) {
+					metrics.recordDroppedFragments(dropped);
 				}
 			}
+			if (fragments != null) {
+				createAndSend(source, metrics, fragments);
+			} else {
+				LOG.finest("Fragmented message not yet complete.");
+				count(metrics, DecodeStatus.INCOMPLETE);
+			}
 		}
 	}
 
+    /** @return The index of the stripe in which fragments from the source are reassembled. */
+    private int stripeOf(String source) {
+        if (stripeMask == 0) {
+            return 0;
+        }
+        final int h = source == null ? 0 : source.hashCode();
+        return (h ^ (h >>> 16)) & stripeMask;
+    }
+
+    /** @return The metrics of the source; or null if metrics are disabled. */
+    private SourceMetrics metricsOf(String source) {
+        if (!MetricsRegistry.ENABLED) {
+            return null;
+        }
+        if (Objects.equals(source, this.source)) {
+            return defaultMetrics;
+        }
+        final String key = source == null ? MetricsRegistry.UNKNOWN_SOURCE : source;
+        final SourceMetrics metrics = sourceMetrics.get(key);
+        if (metrics != null) {
+            return metrics;
+        }
+        // Beyond the capacity of the registry, new sources share its metrics of other sources; do not acquire them
+        return sourceMetrics.size() < MetricsRegistry.DEFAULT_MAX_SOURCES && !closed.get()
+                ? sourceMetrics.computeIfAbsent(key, MetricsRegistry.getDefault()::acquire)
+                : MetricsRegistry.getDefault().forSource(key);
+    }
+
+    /**
+     * Release the metrics of the sources handled in the default MetricsRegistry, which removes them and unregisters
+     * their MBeans unless another handler still handles the same sources. Messages handled after close are still
+     * decoded and dispatched.
+     */
+    @Override
+    public void close() {
+        if (!MetricsRegistry.ENABLED || !closed.compareAndSet(false, true)) {
+            return;
+        }
+        MetricsRegistry.getDefault().release(defaultMetrics);
+        for (String key : sourceMetrics.keySet()) {
+            final SourceMetrics metrics = sourceMetrics.remove(key);
+            if (metrics != null) {
+                MetricsRegistry.getDefault().release(metrics);
+            }
+        }
+    }
+
+    private void count(SourceMetrics metrics, DecodeStatus status) {
+        decodeCounters.increment(status);
+        if (metrics != null) {
+            metrics.recordOutcome(status);
+        }
+    }
+
+    /** Filter, decode and pass on a complete AIS message; on a partition of its source MMSI, if partitioned. */
+    private void createAndSend(String source, SourceMetrics metrics, NMEAMessage... nmeaMessages) {
+        if (! passesFilter(nmeaMessages[0])) {
+            return;
+        }
+        final MmsiPartitioner p = partitioner;
+        if (p == null) {
+            decodeAndSend(source, metrics, nmeaMessages);
+        } else {
+            p.submit(PayloadFilter.sourceMmsiOf(nmeaMessages[0].getEncodedPayloadView()), () -> decodeAndSend(source, metrics, nmeaMessages));
+        }
+    }
+
+    private void decodeAndSend(String source, SourceMetrics metrics, NMEAMessage... nmeaMessages) {
+        final DecodeResult result = new DecodeResult();
+        final boolean sampled = metrics != null && metrics.isLatencySampled();
+        final long start = sampled ? System.nanoTime() : 0;
+        final MessageCreateEvent createEvent = new MessageCreateEvent();
+        createEvent.begin();
+        final DecodeStatus status = AISMessage.tryCreate(result, nmeaMessages);
+        createEvent.record(source, status, nmeaMessages);
+        if (sampled) {
+            metrics.recordDecodeNanos(System.nanoTime() - start);
+        }
+        if (status != DecodeStatus.OK) {
+            count(metrics, status);
+            LOG.fine(status.getDescription() + ": " + nmeaMessages[nmeaMessages.length - 1].getRawMessage());
+            return;
+        }
+        final AISMessage aisMessage = result.getAisMessage();
+        aisMessage.setMetadata(new Metadata(source));
+        decodeCounters.increment(status);
+        if (metrics != null) {
+            metrics.recordMessage(aisMessage.getMessageType());
+        }
+        final DispatchEvent dispatchEvent = new DispatchEvent();
+        dispatchEvent.begin();
+        sendToAisMessageReceivers(aisMessage);
+        dispatchEvent.record(source, aisMessageReceivers.size(), nmeaMessages);
+    }
+
+    /** Apply the payload filter to the first NMEA message of an AIS message, and count the outcome. */
+    private boolean passesFilter(NMEAMessage nmeaMessage) {
+        final PayloadFilter filter = payloadFilter;
+        if (filter == null || filter.test(nmeaMessage.getEncodedPayloadView())) {
+            passedCount.increment();
+            return true;
+        } else {
+            LOG.finest("Filtered: " + nmeaMessage.getRawMessage());
+            filteredCount.increment();
+            return false;
+        }
+    }
+
+    /**
+     * Set a filter which is applied to the armoured payload before any AISMessage is constructed.
+     * Messages rejected by the filter are dropped without being decoded.
+     *
+     * @param payloadFilter The filter; or null to decode all messages.
+     */
+    @SuppressWarnings("unused")
+    public void setPayloadFilter(PayloadFilter payloadFilter) {
+        this.payloadFilter = payloadFilter;
+    }
+
+    /**
+     * Decode and dispatch complete AIS messages on the worker threads of a partitioner, partitioned by
+     * source MMSI. Messages from the same vessel are passed on in order, by the same thread; messages from
+     * different vessels are passed on concurrently, so receivers must be thread safe. Reassembly of
+     * fragments still happens on the thread calling accept.
+     *
+     * @param partitioner The partitioner; or null to decode and dispatch on the thread calling accept.
+     */
+    @SuppressWarnings("unused")
+    public void setPartitioner(MmsiPartitioner partitioner) {
+        this.partitioner = partitioner;
+    }
+
+    /** @return The number of AIS messages which have been dropped by the payload filter. */
+    @SuppressWarnings("unused")
+    public long getFilteredCount() {
+        return filteredCount.sum();
+    }
+
+    /** @return The number of AIS messages which have passed the payload filter and been decoded. */
+    @SuppressWarnings("unused")
+    public long getPassedCount() {
+        return passedCount.sum();
+    }
+
+    /** @return The number of messages handled, counted by the outcome of decoding them. */
+    @SuppressWarnings("unused")
+    public DecodeCounters getDecodeCounters() {
+        return decodeCounters;
+    }
+
     /** Send encoded AIS message to all interested receivers. */
     private void sendToAisMessageReceivers(final AISMessage aisMessage) {
-        aisMessageReceivers.forEach(r -> r.accept(aisMessage));
+        for (Consumer<? super AISMessage> aisMessageReceiver : aisMessageReceivers) {
+            try {
+                aisMessageReceiver.accept(aisMessage);
+            } catch (RuntimeException e) {
+                LOG.log(Level.WARNING, "AIS message receiver failed on " + aisMessage.getMessageType(), e);
+            }
+        }
     }
 
     /**
@@ -137,15 +387,78 @@ public class NMEAMessageHandler implements Consumer<NMEAMessage> {
         aisMessageReceivers.add(aisMessageReceiver);
     }
 
+    /**
+     * Remove a consumer of encoded AIS messages.
+     * @param aisMessageReceiver The consumer to remove.
+     * @return true if the consumer was removed; false if it had not been added.
+     */
+    @SuppressWarnings("unused")
+    public boolean removeAisMessageReceiver(Consumer<? super AISMessage> aisMessageReceiver) {
+        return aisMessageReceivers.remove(aisMessageReceiver);
+    }
+
+    /**
+     * Add a consumer of encoded AIS messages, which runs on a thread of its own with its own bounded queue,
+     * so that it cannot slow down other consumers or the input - as long as the overflow policy is not BLOCK.
+     *
+     * @param aisMessageReceiver The consumer to add.
+     * @param queueCapacity The capacity of the queue of the consumer.
+     * @param overflowPolicy What to do with new messages when the queue is full.
+     * @return The asynchronous consumer, which exposes the queue depth and drop counters. To stop its thread, remove it
+     *         with {@link #removeAisMessageReceiver(Consumer)} and close it; messages reaching it after close are dropped.
+     */
+    @SuppressWarnings("unused")
+    public AsyncConsumer<AISMessage> addAsyncAisMessageReceiver(Consumer<? super AISMessage> aisMessageReceiver, int queueCapacity, AsyncConsumer.OverflowPolicy overflowPolicy) {
+        AsyncConsumer<AISMessage> asyncConsumer = new AsyncConsumer<>(aisMessageReceiver, queueCapacity, overflowPolicy);
+        aisMessageReceivers.add(asyncConsumer);
+        return asyncConsumer;
+    }
+
     /**
 	 * Empty buffer of unhandled messages and return those not handled.
      * @return List of unhandled NMEAMessages.
 	 */
-	@SuppressWarnings("unchecked")
 	public ArrayList<NMEAMessage> flush() {
-		ArrayList<NMEAMessage> unhandled = (ArrayList<NMEAMessage>) messageFragments.clone();
-		messageFragments.clear();
+		ArrayList<NMEAMessage> unhandled = new ArrayList<>();
+		for (int i = 0; i < reassemblers.length; i++) {
+			locks[i].lock();
+			try {
+				unhandled.addAll(reassemblers[i].flush());
+			} finally {
+				locks[i].unlock();
+			}
+		}
 		return unhandled;
 	}
 
+    /** @return The number of fragmented AIS messages which have been completely reassembled. */
+    @SuppressWarnings("unused")
+    public long getCompletedCount() {
+        long count = 0;
+        for (FragmentReassembler reassembler : reassemblers) {
+            count += reassembler.getCompletedCount();
+        }
+        return count;
+    }
+
+    /** @return The number of fragmented AIS messages which have been dropped due to timeout or lack of space. */
+    @SuppressWarnings("unused")
+    public long getExpiredCount() {
+        long count = 0;
+        for (FragmentReassembler reassembler : reassemblers) {
+            count += reassembler.getExpiredCount();
+        }
+        return count;
+    }
+
+    /** @return The number of fragmented AIS messages which have been dropped due to a conflicting fragment. */
+    @SuppressWarnings("unused")
+    public long getConflictingCount() {
+        long count = 0;
+        for (FragmentReassembler reassembler : reassemblers) {
+            count += reassembler.getConflictingCount();
+        }
+        return count;
+    }
+
 }
@@ -16,8 +16,8 @@
 
 package dk.tbsalling.aismessages.nmea;
 
-import dk.tbsalling.aismessages.nmea.exceptions.NMEAParseException;
-import dk.tbsalling.aismessages.nmea.exceptions.UnsupportedMessageType;
+import dk.tbsalling.aismessages.metrics.MetricsRegistry;
+import dk.tbsalling.aismessages.metrics.SourceMetrics;
 import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
 
 import java.io.BufferedReader;
@@ -26,47 +26,111 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.Charset;
 import java.util.function.Consumer;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
+/**
+ * This class reads NMEA messages line by line from an InputStream and passes them on to a consumer.
+ *
+ * By default the stream is decoded using the platform's default charset. In ASCII framing mode,
+ * lines are instead framed directly from the bytes of the stream, which is cheaper as NMEA is a
+ * pure ASCII protocol.
+ *
+ * If the reader is given a source, the lines read are recorded in the metrics of that source.
+ */
 public class NMEAMessageInputStreamReader {
 
 	private static final Logger log = Logger.getLogger(NMEAMessageInputStreamReader.class.getName());
 
+	private static final int BUFFER_SIZE = 64 * 1024;
+
 	public NMEAMessageInputStreamReader(InputStream inputStream, Consumer<? super NMEAMessage> nmeaMessageHandler) {
+		this(inputStream, nmeaMessageHandler, false);
+	}
+
+	/**
+	 * @param inputStream The stream to read from.
+	 * @param nmeaMessageHandler The consumer of the NMEA messages read.
+	 * @param asciiFraming true to frame lines directly from bytes, without charset decoding.
+	 */
+	public NMEAMessageInputStreamReader(InputStream inputStream, Consumer<? super NMEAMessage> nmeaMessageHandler, boolean asciiFraming) {
+		this(inputStream, nmeaMessageHandler, asciiFraming, null);
+	}
+
+	/**
+	 * @param inputStream The stream to read from.
+	 * @param nmeaMessageHandler The consumer of the NMEA messages read.
+	 * @param asciiFraming true to frame lines directly from bytes, without charset decoding.
+	 * @param source The source to record metrics of the lines read for; or null to record none.
+	 */
+	public NMEAMessageInputStreamReader(InputStream inputStream, Consumer<? super NMEAMessage> nmeaMessageHandler, boolean asciiFraming, String source) {
 		this.nmeaMessageHandler = nmeaMessageHandler;
 		this.inputStream = inputStream;
+		this.asciiFraming = asciiFraming;
+		this.metrics = MetricsRegistry.ENABLED && source != null ? MetricsRegistry.getDefault().forSource(source) : null;
 	}
 
-	public final synchronized void requestStop() {
+	public final void requestStop() {
 		this.stopRequested = true;
 	}
 
 	public void run() throws Exception {
 	    log.info("NMEAMessageInputStreamReader running.");
 
+		if (asciiFraming) {
+			readBytes();
+		} else {
+			readLines();
+		}
+
+		log.info("NMEAMessageInputStreamReader stopping.");
+	}
+
+	private void readLines() throws IOException {
 		InputStreamReader reader = new InputStreamReader(inputStream, Charset.defaultCharset());
 		BufferedReader bufferedReader = new BufferedReader(reader);
 		String string;
-		while ((string = bufferedReader.readLine()) != null && !stopRequested()) {
-			try {
-				NMEAMessage nmea = NMEAMessage.fromString(string);
-				nmeaMessageHandler.accept(nmea);
-				log.fine("Received: " + nmea.toString());
-			} catch (UnsupportedMessageType unsupportedMessageTypeException) {
-				log.warning("Received unsupported NMEA message: \"" + string + "\"");
-			} catch (NMEAParseException parseException) {
-				log.warning("Received non-compliant NMEA message: \"" + string + "\"");
-			}
+		while ((string = bufferedReader.readLine()) != null && !stopRequested) {
+			handle(string);
 		}
+	}
 
-		log.info("NMEAMessageInputStreamReader stopping.");
+	private void readBytes() throws IOException {
+		final LineFramer lineFramer = new LineFramer(this::handle);
+		final byte[] buffer = new byte[BUFFER_SIZE];
+		int n;
+		while (!stopRequested && (n = inputStream.read(buffer)) >= 0) {
+			lineFramer.frame(buffer, 0, n);
+		}
+		lineFramer.endOfInput();
 	}
 
-	private synchronized Boolean stopRequested() {
-		return this.stopRequested;
+	private void handle(String string) {
+		if (stopRequested) {
+			return;
+		}
+		final DecodeStatus status = NMEAMessage.tryFromString(string, result);
+		final boolean parsed = status == DecodeStatus.OK || status == DecodeStatus.BAD_CHECKSUM;
+		if (metrics != null) {
+			metrics.recordLine(parsed);
+		}
+		if (parsed) {
+			NMEAMessage nmea = result.getNmeaMessage();
+			nmeaMessageHandler.accept(nmea);
+			if (log.isLoggable(Level.FINE)) {
+				log.fine("Received: " + nmea.toString());
+			}
+		} else if (log.isLoggable(Level.FINE)) {
+			log.fine(status.getDescription() + ": \"" + string + "\"");
+		}
 	}
 
-	private Boolean stopRequested = false;
+	/** Reused for every line; lines are handled on the reading thread only. */
+	private final DecodeResult result = new DecodeResult();
+	private final SourceMetrics metrics;
+
+	private volatile boolean stopRequested;
 	private final InputStream inputStream;
 	private final Consumer<? super NMEAMessage> nmeaMessageHandler;
+	private final boolean asciiFraming;
 }
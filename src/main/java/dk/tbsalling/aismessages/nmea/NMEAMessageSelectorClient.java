@@ -0,0 +1,488 @@
+/*
+ * AISMessages
+ * - a java-based library for decoding of AIS messages from digital VHF radio traffic related
+ * to maritime navigation and safety in compliance with ITU 1371.
+ *
+ * (C) Copyright 2011- by S-Consult ApS, DK31327490, http://s-consult.dk, Denmark.
+ *
+ * Released under the Creative Commons Attribution-NonCommercial-ShareAlike 3.0 Unported License.
+ * For details of this license see the nearby LICENCE-full file, visit http://creativecommons.org/licenses/by-nc-sa/3.0/
+ * or send a letter to Creative Commons, 171 Second Street, Suite 300, San Francisco, California, 94105, USA.
+ *
+ * NOT FOR COMMERCIAL USE!
+ * Contact sales@s-consult.dk to obtain a commercially licensed version of this software.
+ *
+ */
+
+package dk.tbsalling.aismessages.nmea;
+
+import dk.tbsalling.aismessages.metrics.MetricsRegistry;
+import dk.tbsalling.aismessages.metrics.SourceMetrics;
+import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * This client receives NMEA messages from any number of TCP feeds using non-blocking IO.
+ * The feeds are multiplexed on a fixed number of threads, each running a Selector; no thread
+ * is blocked on a single socket.
+ *
+ * Bytes are read into a direct buffer and framed into lines without any intermediate stream
+ * or charset decoder. A feed which fails to connect, or whose connection is lost, is reconnected
+ * after a delay which doubles with each consecutive failure, up to a maximum.
+ *
+ * Host names are resolved on a small pool of threads, so that a slow lookup does not stall the other
+ * feeds of a selector thread. They are resolved again on every reconnect, so a feed follows a host
+ * whose address changes.
+ *
+ * @author tbsalling
+ */
+public class NMEAMessageSelectorClient implements Closeable {
+
+    private static final Logger LOG = Logger.getLogger(NMEAMessageSelectorClient.class.getName());
+
+    public static final long DEFAULT_MIN_BACKOFF_MILLIS = 1000;
+    public static final long DEFAULT_MAX_BACKOFF_MILLIS = 60000;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /** The number of threads resolving host names; shared by all feeds. */
+    private static final int RESOLVER_THREADS = 4;
+
+    private final Loop[] loops;
+    private final ExecutorService resolver;
+    private final AtomicInteger nextLoop = new AtomicInteger();
+    private final List<Feed> feeds = new CopyOnWriteArrayList<>();
+    private final long minBackoffNanos;
+    private final long maxBackoffNanos;
+    private volatile boolean stopRequested;
+
+    /**
+     * @param threads The number of threads to multiplex the feeds on.
+     * @throws IOException if a Selector cannot be opened.
+     */
+    public NMEAMessageSelectorClient(int threads) throws IOException {
+        this(threads, DEFAULT_MIN_BACKOFF_MILLIS, DEFAULT_MAX_BACKOFF_MILLIS);
+    }
+
+    /**
+     * @param threads The number of threads to multiplex the feeds on.
+     * @param minBackoffMillis Delay before the first attempt to reconnect a feed.
+     * @param maxBackoffMillis Maximum delay between attempts to reconnect a feed.
+     * @throws IOException if a Selector cannot be opened.
+     */
+    public NMEAMessageSelectorClient(int threads, long minBackoffMillis, long maxBackoffMillis) throws IOException {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be positive: " + threads);
+        }
+        this.minBackoffNanos = TimeUnit.MILLISECONDS.toNanos(minBackoffMillis);
+        this.maxBackoffNanos = Math.max(minBackoffNanos, TimeUnit.MILLISECONDS.toNanos(maxBackoffMillis));
+        this.loops = new Loop[threads];
+        try {
+            for (int i = 0; i < threads; i++) {
+                loops[i] = new Loop(i);
+            }
+        } catch (IOException e) {
+            closeSelectors();
+            throw e;
+        }
+        this.resolver = Executors.newFixedThreadPool(RESOLVER_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, NMEAMessageSelectorClient.class.getSimpleName() + "-resolver");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Add a feed whose NMEA messages are passed to a handler, which will label them with the feed's source.
+     *
+     * @param source The name of the feed.
+     * @param host Host to connect to.
+     * @param port Port to connect to.
+     * @param nmeaMessageHandler The handler of the received NMEA messages.
+     * @return The feed.
+     */
+    public Feed addFeed(String source, String host, int port, NMEAMessageHandler nmeaMessageHandler) {
+        return addFeed(source, host, port, nmeaMessageHandler.forSource(source));
+    }
+
+    /**
+     * Add a feed. Feeds can be added before or after the client is started.
+     *
+     * @param source The name of the feed.
+     * @param host Host to connect to.
+     * @param port Port to connect to.
+     * @param nmeaMessageConsumer The consumer of the received NMEA messages.
+     * @return The feed.
+     */
+    public Feed addFeed(String source, String host, int port, Consumer<? super NMEAMessage> nmeaMessageConsumer) {
+        Feed feed = new Feed(source, host, port, nmeaMessageConsumer);
+        feeds.add(feed);
+        loops[Math.floorMod(nextLoop.getAndIncrement(), loops.length)].add(feed);
+        return feed;
+    }
+
+    /** @return All feeds of this client. */
+    @SuppressWarnings("unused")
+    public List<Feed> getFeeds() {
+        return Collections.unmodifiableList(feeds);
+    }
+
+    /** Start the threads which connect to and receive from the feeds. */
+    public void start() {
+        for (Loop loop : loops) {
+            loop.thread.start();
+        }
+    }
+
+    /** Request the client to stop. All connections will be closed by the receiving threads. */
+    public void requestStop() {
+        stopRequested = true;
+        for (Loop loop : loops) {
+            loop.selector.wakeup();
+        }
+    }
+
+    /** Stop the client and wait for its threads to close all connections. The selectors are closed, also if the client was never started. */
+    @Override
+    public void close() throws IOException {
+        requestStop();
+        resolver.shutdownNow();
+        try {
+            for (Loop loop : loops) {
+                if (loop.thread.isAlive()) {
+                    loop.thread.join();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeSelectors();
+        }
+    }
+
+    private void closeSelectors() {
+        for (Loop loop : loops) {
+            if (loop != null) {
+                try {
+                    loop.selector.close();
+                } catch (IOException e) {
+                    LOG.log(Level.WARNING, "Failed to close selector.", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * A TCP feed of NMEA messages. The counters can be read from any thread.
+     */
+    public static final class Feed {
+        private final String source;
+        private final String host;
+        private final int port;
+
+        private final LongAdder bytes = new LongAdder();
+        private final LongAdder lines = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder connects = new LongAdder();
+        private final SourceMetrics metrics;
+        private volatile boolean connected;
+
+        // State below is confined to the thread running the feed
+        private final LineFramer lineFramer;
+        private InetSocketAddress address;
+        private InetSocketAddress resolvedAddress;
+        private SocketChannel channel;
+        private long backoffNanos;
+        private long reconnectAt;
+
+        private Feed(String source, String host, int port, Consumer<? super NMEAMessage> nmeaMessageConsumer) {
+            this.source = source;
+            this.host = host;
+            this.port = port;
+            this.metrics = MetricsRegistry.ENABLED ? MetricsRegistry.getDefault().forSource(source) : null;
+            this.lineFramer = new LineFramer(line -> {
+                lines.increment();
+                final NMEAMessage nmeaMessage;
+                try {
+                    nmeaMessage = NMEAMessage.fromString(line);
+                } catch (Exception e) {
+                    errors.increment();
+                    if (metrics != null) {
+                        metrics.recordLine(false);
+                    }
+                    LOG.fine(source + ": Received non-compliant NMEA message: \"" + line + "\": " + e);
+                    return;
+                }
+                if (metrics != null) {
+                    metrics.recordLine(true);
+                }
+                nmeaMessageConsumer.accept(nmeaMessage);
+            });
+        }
+
+        public String getSource() {
+            return source;
+        }
+
+        public String getHost() {
+            return host;
+        }
+
+        public int getPort() {
+            return port;
+        }
+
+        /** @return The number of bytes received. */
+        public long getBytes() {
+            return bytes.sum();
+        }
+
+        /** @return The number of lines received. */
+        public long getLines() {
+            return lines.sum();
+        }
+
+        /** @return The number of lines which could not be parsed, plus the number of failed or lost connections. */
+        public long getErrors() {
+            return errors.sum();
+        }
+
+        /** @return The number of times a connection has been established. */
+        public long getConnects() {
+            return connects.sum();
+        }
+
+        /** @return true if the feed is currently connected. */
+        public boolean isConnected() {
+            return connected;
+        }
+
+        @Override
+        public String toString() {
+            return "Feed{" +
+                    "source='" + source + '\'' +
+                    ", host='" + host + '\'' +
+                    ", port=" + port +
+                    ", connected=" + connected +
+                    ", bytes=" + getBytes() +
+                    ", lines=" + getLines() +
+                    ", errors=" + getErrors() +
+                    ", connects=" + getConnects() +
+                    '}';
+        }
+    }
+
+    /** A thread running a Selector for a subset of the feeds. */
+    private final class Loop implements Runnable {
+        private final Selector selector;
+        private final Thread thread;
+        private final ConcurrentLinkedQueue<Feed> added = new ConcurrentLinkedQueue<>();
+        private final ConcurrentLinkedQueue<Feed> resolved = new ConcurrentLinkedQueue<>();
+        private final List<Feed> waiting = new ArrayList<>();
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        private Loop(int index) throws IOException {
+            this.selector = Selector.open();
+            this.thread = new Thread(this, NMEAMessageSelectorClient.class.getSimpleName() + "-" + index);
+        }
+
+        private void add(Feed feed) {
+            added.add(feed);
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            LOG.info(thread.getName() + " running.");
+            try {
+                while (!stopRequested) {
+                    Feed feed;
+                    while ((feed = added.poll()) != null) {
+                        connect(feed);
+                    }
+                    while ((feed = resolved.poll()) != null) {
+                        resolved(feed);
+                    }
+
+                    selector.select(millisToNextReconnect());
+
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        handle(key);
+                    }
+
+                    reconnectDueFeeds();
+                }
+            } catch (IOException e) {
+                LOG.log(Level.SEVERE, thread.getName() + " failed.", e);
+            } finally {
+                for (SelectionKey key : selector.keys()) {
+                    disconnect((Feed) key.attachment());
+                }
+                try {
+                    selector.close();
+                } catch (IOException e) {
+                    LOG.log(Level.WARNING, "Failed to close selector.", e);
+                }
+                LOG.info(thread.getName() + " stopping.");
+            }
+        }
+
+        private void handle(SelectionKey key) {
+            Feed feed = (Feed) key.attachment();
+            try {
+                if (key.isConnectable()) {
+                    if (feed.channel.finishConnect()) {
+                        connected(feed);
+                        key.interestOps(SelectionKey.OP_READ);
+                    }
+                } else if (key.isReadable()) {
+                    buffer.clear();
+                    int n = feed.channel.read(buffer);
+                    if (n < 0) {
+                        LOG.info(feed.source + ": Connection closed by " + feed.address);
+                        lost(feed);
+                    } else if (n > 0) {
+                        feed.bytes.add(n);
+                        if (feed.metrics != null) {
+                            feed.metrics.recordBytes(n);
+                        }
+                        feed.backoffNanos = minBackoffNanos;
+                        buffer.flip();
+                        feed.lineFramer.frame(buffer);
+                    }
+                }
+            } catch (IOException e) {
+                LOG.warning(feed.source + ": Connection to " + feed.address + " failed: " + e);
+                feed.errors.increment();
+                lost(feed);
+            }
+        }
+
+        private void open(Feed feed) {
+            try {
+                SocketChannel channel = SocketChannel.open();
+                feed.channel = channel;
+                channel.configureBlocking(false);
+                if (channel.connect(feed.address)) {
+                    connected(feed);
+                    channel.register(selector, SelectionKey.OP_READ, feed);
+                } else {
+                    channel.register(selector, SelectionKey.OP_CONNECT, feed);
+                }
+            } catch (IOException | RuntimeException e) {
+                LOG.warning(feed.source + ": Cannot connect to " + feed.host + ":" + feed.port + ": " + e);
+                feed.errors.increment();
+                lost(feed);
+            }
+        }
+
+        /**
+         * Connect a feed: resolve its address on a resolver thread, and connect when the feed is handed back.
+         * The host name is resolved again for every connection, so that a changed address is used.
+         */
+        private void connect(Feed feed) {
+            try {
+                resolver.execute(() -> {
+                    feed.resolvedAddress = new InetSocketAddress(feed.host, feed.port);
+                    resolved.add(feed);
+                    selector.wakeup();
+                });
+            } catch (RejectedExecutionException e) {
+                // The client is stopping
+            }
+        }
+
+        private void resolved(Feed feed) {
+            feed.address = feed.resolvedAddress;
+            if (feed.address.isUnresolved()) {
+                LOG.warning(feed.source + ": Cannot resolve " + feed.host);
+                feed.errors.increment();
+                lost(feed);
+            } else {
+                open(feed);
+            }
+        }
+
+        private void connected(Feed feed) {
+            LOG.info(feed.source + ": Connected to " + feed.address);
+            feed.lineFramer.reset();
+            feed.connected = true;
+            feed.connects.increment();
+        }
+
+        private void lost(Feed feed) {
+            disconnect(feed);
+            if (feed.backoffNanos == 0) {
+                feed.backoffNanos = minBackoffNanos;
+            }
+            feed.reconnectAt = System.nanoTime() + feed.backoffNanos;
+            feed.backoffNanos = Math.min(feed.backoffNanos * 2, maxBackoffNanos);
+            waiting.add(feed);
+        }
+
+        private void disconnect(Feed feed) {
+            feed.connected = false;
+            if (feed.channel != null) {
+                try {
+                    feed.channel.close();
+                } catch (IOException e) {
+                    LOG.fine(feed.source + ": Failed to close connection: " + e);
+                }
+                feed.channel = null;
+            }
+        }
+
+        private long millisToNextReconnect() {
+            if (waiting.isEmpty()) {
+                return 0;
+            }
+            long next = Long.MAX_VALUE;
+            for (Feed feed : waiting) {
+                next = Math.min(next, feed.reconnectAt);
+            }
+            return Math.max(1, TimeUnit.NANOSECONDS.toMillis(next - System.nanoTime()) + 1);
+        }
+
+        private void reconnectDueFeeds() {
+            if (waiting.isEmpty()) {
+                return;
+            }
+            final long now = System.nanoTime();
+            List<Feed> due = new ArrayList<>();
+            for (Iterator<Feed> i = waiting.iterator(); i.hasNext(); ) {
+                Feed feed = i.next();
+                if (feed.reconnectAt - now <= 0) {
+                    i.remove();
+                    due.add(feed);
+                }
+            }
+            due.forEach(this::connect);
+        }
+    }
+
+}
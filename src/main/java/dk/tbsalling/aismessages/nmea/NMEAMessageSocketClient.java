@@ -29,6 +29,13 @@ import java.net.UnknownHostException;
 import java.util.function.Consumer;
 import java.util.logging.Logger;
 
+/**
+ * This client receives NMEA messages from a single TCP feed, blocking the calling thread.
+ * See NMEAMessageSelectorClient for receiving from many feeds on a few threads, and
+ * FeedSupervisor for running many feeds on a thread each.
+ *
+ * The read path holds no monitors, so the client can run on a virtual thread without pinning it.
+ */
 public class NMEAMessageSocketClient {
 
 	private static final Logger log = Logger.getLogger(NMEAMessageSocketClient.class.getName());
@@ -45,25 +52,48 @@ public class NMEAMessageSocketClient {
 		this.nmeaMessageConsumer = nmeaMessageConsumer;
 	}
 
+    /** Request the client to stop. May be called from any thread; closes the socket to unblock a pending read. */
     @SuppressWarnings("unused")
 	public void requestStop() {
-		if (streamReader != null)
-			streamReader.requestStop();
+		stopRequested = true;
+		final NMEAMessageInputStreamReader reader = streamReader;
+		if (reader != null)
+			reader.requestStop();
+		final Socket s = socket;
+		if (s != null) {
+			try {
+				s.close();
+			} catch (IOException e) {
+				log.warning("Failed to close socket: " + e);
+			}
+		}
 	}
 
 	public void run() throws Exception {
 	    log.info("NMEAMessageSocketClient running.");
-	    Socket socket = new Socket();
-	    socket.connect(socketAddress);
-	    log.info("Connected to AIS server on " + socketAddress.toString());
-	    InputStream inputStream = socket.getInputStream();
-	    streamReader = new NMEAMessageInputStreamReader(inputStream, nmeaMessageConsumer);
-	    streamReader.run();
-	    // TODO: Close socket
+	    try (Socket socket = new Socket()) {
+	        this.socket = socket;
+	        if (stopRequested) {
+	            return;
+	        }
+	        socket.connect(socketAddress);
+	        log.info("Connected to AIS server on " + socketAddress.toString());
+	        InputStream inputStream = socket.getInputStream();
+	        streamReader = new NMEAMessageInputStreamReader(inputStream, nmeaMessageConsumer, true, socketAddress.toString());
+	        streamReader.run();
+	    } catch (IOException e) {
+	        if (!stopRequested) {
+	            throw e;
+	        }
+	    } finally {
+	        this.socket = null;
+	    }
 	    log.info("NMEAMessageSocketClient stopping.");
 	}
 
-	private NMEAMessageInputStreamReader streamReader;
+	private volatile boolean stopRequested;
+	private volatile Socket socket;
+	private volatile NMEAMessageInputStreamReader streamReader;
 	private final SocketAddress socketAddress;
 	private final Consumer<? super NMEAMessage> nmeaMessageConsumer;
 }
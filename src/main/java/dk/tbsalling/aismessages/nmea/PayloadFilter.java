@@ -0,0 +1,123 @@
+/*
+ * AISMessages
+ * - a java-based library for decoding of AIS messages from digital VHF radio traffic related
+ * to maritime navigation and safety in compliance with ITU 1371.
+ *
+ * (C) Copyright 2011- by S-Consult ApS, DK31327490, http://s-consult.dk, Denmark.
+ *
+ * Released under the Creative Commons Attribution-NonCommercial-ShareAlike 3.0 Unported License.
+ * For details of this license see the nearby LICENCE-full file, visit http://creativecommons.org/licenses/by-nc-sa/3.0/
+ * or send a letter to Creative Commons, 171 Second Street, Suite 300, San Francisco, California, 94105, USA.
+ *
+ * NOT FOR COMMERCIAL USE!
+ * Contact sales@s-consult.dk to obtain a commercially licensed version of this software.
+ *
+ */
+
+package dk.tbsalling.aismessages.nmea;
+
+import dk.tbsalling.aismessages.ais.BitBuffer;
+import dk.tbsalling.aismessages.ais.messages.types.AISMessageType;
+
+import java.util.Arrays;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A PayloadFilter decides whether an AIS message is worth decoding, based on values which
+ * can be read directly from the armoured payload of its first NMEA sentence: the message type,
+ * which is held in the first character, and the source MMSI, which is held in bits 8-37.
+ *
+ * Filters are applied by NMEAMessageHandler before any AISMessage is constructed.
+ *
+ * @author tbsalling
+ */
+@FunctionalInterface
+public interface PayloadFilter {
+
+    /** Value passed as message type or source MMSI when it cannot be read from the payload. */
+    int UNKNOWN = -1;
+
+    /**
+     * @param messageType The message type code; or UNKNOWN.
+     * @param sourceMmsi The source MMSI; or UNKNOWN if the payload is too short to hold it.
+     * @return true if the message should be decoded; false if it should be dropped.
+     */
+    boolean test(int messageType, long sourceMmsi);
+
+    /**
+     * Apply this filter to the armoured payload of the first NMEA sentence of a message.
+     *
+     * @param armouredPayload The armoured payload; may be null.
+     * @return true if the message should be decoded; false if it should be dropped.
+     */
+    default boolean test(CharSequence armouredPayload) {
+        return test(messageTypeOf(armouredPayload), sourceMmsiOf(armouredPayload));
+    }
+
+    /** @return A filter which passes messages passed by both this filter and the other. */
+    default PayloadFilter and(PayloadFilter other) {
+        requireNonNull(other);
+        return (messageType, sourceMmsi) -> test(messageType, sourceMmsi) && other.test(messageType, sourceMmsi);
+    }
+
+    /** @return A filter which passes messages passed by this filter or the other. */
+    default PayloadFilter or(PayloadFilter other) {
+        requireNonNull(other);
+        return (messageType, sourceMmsi) -> test(messageType, sourceMmsi) || other.test(messageType, sourceMmsi);
+    }
+
+    /**
+     * @param messageTypes The message types to pass.
+     * @return A filter which passes messages of the given types only.
+     */
+    static PayloadFilter messageTypes(AISMessageType... messageTypes) {
+        final boolean[] pass = new boolean[64];
+        for (AISMessageType messageType : messageTypes) {
+            int code = messageType.getCode();
+            if (code >= 0 && code < pass.length) {
+                pass[code] = true;
+            }
+        }
+        return (messageType, sourceMmsi) -> messageType >= 0 && messageType < pass.length && pass[messageType];
+    }
+
+    /**
+     * @param sourceMmsis The source MMSIs to pass.
+     * @return A filter which passes messages from the given sources only.
+     */
+    static PayloadFilter sourceMmsis(long... sourceMmsis) {
+        final long[] pass = sourceMmsis.clone();
+        Arrays.sort(pass);
+        return (messageType, sourceMmsi) -> Arrays.binarySearch(pass, sourceMmsi) >= 0;
+    }
+
+    /**
+     * @param armouredPayload The armoured payload of the first NMEA sentence of a message.
+     * @return The message type; or UNKNOWN.
+     */
+    static int messageTypeOf(CharSequence armouredPayload) {
+        return armouredPayload == null || armouredPayload.length() < 1 ? UNKNOWN : BitBuffer.deArmour(armouredPayload.charAt(0));
+    }
+
+    /**
+     * @param armouredPayload The armoured payload of the first NMEA sentence of a message.
+     * @return The source MMSI held in bits 8-37; or UNKNOWN.
+     */
+    static long sourceMmsiOf(CharSequence armouredPayload) {
+        if (armouredPayload == null || armouredPayload.length() < 7) {
+            return UNKNOWN;
+        }
+        // Characters 1..6 hold bits 6..41 of the payload
+        long bits = 0;
+        for (int i = 1; i <= 6; i++) {
+            int sixBits = BitBuffer.deArmour(armouredPayload.charAt(i));
+            if (sixBits < 0) {
+                return UNKNOWN;
+            }
+            bits = (bits << 6) | sixBits;
+        }
+        return (bits >>> 4) & 0x3fffffffL;
+    }
+
+}
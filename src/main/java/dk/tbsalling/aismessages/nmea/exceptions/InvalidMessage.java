@@ -16,11 +16,28 @@
 
 package dk.tbsalling.aismessages.nmea.exceptions;
 
+import dk.tbsalling.aismessages.nmea.DecodeStatus;
+
+/**
+ * Thrown when a message cannot be decoded. The exception does not capture a stack trace, as it is
+ * thrown for ordinary corrupt input.
+ */
 @SuppressWarnings("serial")
 public class InvalidMessage extends RuntimeException {
 
 	public InvalidMessage(String message) {
-		super(message);
+		this(DecodeStatus.INVALID_MESSAGE, message);
+	}
+
+	public InvalidMessage(DecodeStatus status, String message) {
+		super(message, null, false, false);
+		this.status = status;
 	}
+
+	public final DecodeStatus getStatus() {
+		return status;
+	}
+
+	private final DecodeStatus status;
 	
 }
@@ -16,11 +16,23 @@
 
 package dk.tbsalling.aismessages.nmea.exceptions;
 
+import dk.tbsalling.aismessages.nmea.DecodeStatus;
+
+/**
+ * Thrown when an NMEA sentence cannot be parsed. The exception does not capture a stack trace, as
+ * it is thrown for ordinary corrupt input.
+ */
 @SuppressWarnings("serial")
 public class NMEAParseException extends RuntimeException {
 
 	public NMEAParseException(String rawMessage, String errorDescription) {
+		this(rawMessage, DecodeStatus.MALFORMED_SENTENCE, errorDescription);
+	}
+
+	public NMEAParseException(String rawMessage, DecodeStatus status, String errorDescription) {
+		super(errorDescription, null, false, false);
 		this.rawMessage = rawMessage;
+		this.status = status;
 		this.errorDescription = errorDescription;
 	}
 	
@@ -37,7 +49,12 @@ public class NMEAParseException extends RuntimeException {
 		return errorDescription;
 	}
 
+	public final DecodeStatus getStatus() {
+		return status;
+	}
+
 	final String rawMessage;
+	final DecodeStatus status;
 	final String errorDescription;
 	
 }
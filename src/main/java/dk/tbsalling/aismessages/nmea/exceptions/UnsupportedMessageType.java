@@ -16,11 +16,18 @@
 
 package dk.tbsalling.aismessages.nmea.exceptions;
 
+import dk.tbsalling.aismessages.nmea.DecodeStatus;
+
+/** Thrown for an NMEA sentence which is not a VDM or VDO sentence. Does not capture a stack trace. */
 @SuppressWarnings("serial")
 public class UnsupportedMessageType extends RuntimeException {
 
 	public UnsupportedMessageType(String message) {
-		super(message);
+		super(message, null, false, false);
+	}
+
+	public final DecodeStatus getStatus() {
+		return DecodeStatus.UNSUPPORTED_SENTENCE;
 	}
 	
 }
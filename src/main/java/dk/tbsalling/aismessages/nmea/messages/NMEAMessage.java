@@ -16,10 +16,17 @@
 
 package dk.tbsalling.aismessages.nmea.messages;
 
+import dk.tbsalling.aismessages.jfr.SentenceParseEvent;
+import dk.tbsalling.aismessages.nmea.DecodeResult;
+import dk.tbsalling.aismessages.nmea.DecodeStatus;
 import dk.tbsalling.aismessages.nmea.exceptions.NMEAParseException;
 import dk.tbsalling.aismessages.nmea.exceptions.UnsupportedMessageType;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.util.logging.Logger;
 
 /*
  * AISMessages
@@ -37,75 +44,129 @@ import java.io.Serializable;
  * 
  */
 
-// TODO optimize getters
+/**
+ * An NMEAMessage holds one NMEA sentence of the type !xxVDM or !xxVDO.
+ *
+ * The sentence is tokenized once, when the NMEAMessage is constructed. The offsets of the fields
+ * are kept in a compact int index, and numeric fields are parsed in the same pass, so that
+ * all getters run in constant time. The checksum is computed in the same pass as well.
+ *
+ * Sentences can be parsed without exceptions with tryFromString, which reports the outcome as a DecodeStatus.
+ */
+@SuppressWarnings("serial")
 public class NMEAMessage implements Serializable {
 
+    private static final Logger LOG = Logger.getLogger(NMEAMessage.class.getName());
+
+    /** Expected number of comma separated fields in a sentence. */
+    private static final int NUMBER_OF_FIELDS = 7;
+
+    /** Marks an empty numeric field. */
+    private static final int NONE = Integer.MIN_VALUE;
+
+    /** Marks a numeric field holding an illegal character. */
+    private static final int ILLEGAL = Integer.MIN_VALUE + 1;
+
 	public static NMEAMessage fromString(String nmeaString) throws Exception {
-		return new NMEAMessage(nmeaString);
+        final NMEAMessage nmeaMessage = new NMEAMessage();
+        nmeaMessage.rawMessage = nmeaString;
+        final DecodeStatus status = nmeaMessage.parseAndRecord();
+        if (status == DecodeStatus.UNSUPPORTED_SENTENCE) {
+            throw new UnsupportedMessageType(nmeaMessage.rawMessage.substring(nmeaMessage.typeBegin, nmeaMessage.typeEnd));
+        } else if (status == DecodeStatus.BAD_CHECKSUM) {
+            LOG.fine("Raw message " + nmeaMessage.rawMessage + " does not match checksum.");
+        } else if (status != DecodeStatus.OK) {
+            throw new NMEAParseException(nmeaMessage.rawMessage, status, nmeaMessage.malformation);
+        }
+		return nmeaMessage;
 	}
 
-	public final boolean isValid() {
-        String messageType = getMessageType();
+    /**
+     * Parse an NMEA sentence without throwing exceptions for invalid input.
+     *
+     * A sentence whose checksum does not match is parsed, and reported with status BAD_CHECKSUM;
+     * the NMEA message is available from the result, so that the caller can decide whether to use it.
+     *
+     * @param nmeaString The NMEA sentence.
+     * @param result The result to record the NMEA message, or null, and the status in.
+     * @return OK, BAD_CHECKSUM, UNSUPPORTED_SENTENCE or MALFORMED_SENTENCE.
+     */
+    public static DecodeStatus tryFromString(String nmeaString, DecodeResult result) {
+        final NMEAMessage nmeaMessage = new NMEAMessage();
+        nmeaMessage.rawMessage = nmeaString;
+        final DecodeStatus status = nmeaMessage.parseAndRecord();
+        return result.setNmeaMessage(status, status == DecodeStatus.OK || status == DecodeStatus.BAD_CHECKSUM ? nmeaMessage : null);
+    }
 
-        if(messageType == null || messageType.length() != 5) return false;
-		
-		String type = messageType.substring(2);
-		if (! ("VDM".equals(type) || "VDO".equals(type))) {
-			return false;
-		}
-		
-		return true;
+	public final boolean isValid() {
+		return typeEnd - typeBegin == 5 && rawMessage.charAt(typeBegin + 2) == 'V' && rawMessage.charAt(typeBegin + 3) == 'D'
+				&& (rawMessage.charAt(typeBegin + 4) == 'M' || rawMessage.charAt(typeBegin + 4) == 'O');
 	}
 
+    /** @return true if the transmitted checksum matches the checksum computed from the sentence. */
+    @SuppressWarnings("unused")
+    public boolean isChecksumValid() {
+        return checksum == computedChecksum;
+    }
+
     @SuppressWarnings("unused")
 	public String getMessageType() {
-        String[] msg = rawMessage.split(",");
-		return isBlank(msg[0]) ? null : msg[0].replace("!", "");
+        String t = messageType;
+        if (t == null && typeEnd > typeBegin) {
+            t = rawMessage.substring(typeBegin, typeEnd);
+            messageType = t;
+        }
+		return t;
 	}
 
     @SuppressWarnings("unused")
     public Integer getNumberOfFragments() {
-        String[] msg = rawMessage.split(",");
-        return isBlank(msg[1]) ? null : Integer.valueOf(msg[1]);
+        return valueOf(numberOfFragments);
 	}
 
     @SuppressWarnings("unused")
     public Integer getFragmentNumber() {
-        String[] msg = rawMessage.split(",");
-        return isBlank(msg[2]) ? null : Integer.valueOf(msg[2]);
+        return valueOf(fragmentNumber);
 	}
 
     @SuppressWarnings("unused")
     public Integer getSequenceNumber() {
-        String[] msg = rawMessage.split(",");
-        return isBlank(msg[3]) ? null : Integer.valueOf(msg[3]);
+        return valueOf(sequenceNumber);
 	}
 
     @SuppressWarnings("unused")
     public String getRadioChannelCode() {
-        String[] msg = rawMessage.split(",");
-        return isBlank(msg[4]) ? null : msg[4];
+        return isBlank(4) ? null : field(4);
 	}
 
+    /** @return The armoured payload as a new String; see getEncodedPayloadView for a view without copying. */
     @SuppressWarnings("unused")
     public String getEncodedPayload() {
-        String[] msg = rawMessage.split(",");
-        //System.out.println(msg[5]);
-        return isBlank(msg[5]) ? null : msg[5];
+        return isBlank(5) ? null : field(5);
+	}
+
+    /** @return The armoured payload as a view into the raw sentence, or null if the payload is empty. */
+    @SuppressWarnings("unused")
+    public CharSequence getEncodedPayloadView() {
+        if (isBlank(5)) {
+            return null;
+        }
+        CharSequence view = encodedPayloadView;
+        if (view == null) {
+            view = new Slice(rawMessage, fieldBegin(5), fieldEnd(5));
+            encodedPayloadView = view;
+        }
+        return view;
 	}
 
     @SuppressWarnings("unused")
     public Integer getFillBits() {
-        String[] msg = rawMessage.split(",");
-        String msg1[] = msg[6].split("\\*");
-        return isBlank(msg1[0]) ? null : Integer.valueOf(msg1[0]);
+        return valueOf(fillBits);
 	}
 
     @SuppressWarnings("unused")
     public Integer getChecksum() {
-        String[] msg = rawMessage.split(",");
-        String msg1[] = msg[6].split("\\*");
-		return isBlank(msg1[1]) ? null : Integer.valueOf(msg1[1], 16);
+		return valueOf(checksum);
 	}
 
     @SuppressWarnings("unused")
@@ -113,50 +174,145 @@ public class NMEAMessage implements Serializable {
 		return rawMessage;
 	}
 
-	private NMEAMessage(String rawMessage) throws Exception {
-        this.rawMessage = rawMessage;
-        //System.out.println(rawMessage);
-        validate();
-	}
-	
-	private void validateChecksum(String rawMessage) {
-		int checksum = 0;
-		for (int i = 1; i < rawMessage.length()-3; i++){
-		    checksum ^= rawMessage.charAt(i);
-		}
-		if (!(checksum == getChecksum())){
-			System.out.println("Raw message "  + rawMessage +" does not match checksum.");
-		}
-	}
+    private NMEAMessage() {
+    }
 
+    /** Parse the raw message, and emit a SentenceParseEvent if it is being recorded. */
+    private DecodeStatus parseAndRecord() {
+        final SentenceParseEvent event = new SentenceParseEvent();
+        event.begin();
+        final DecodeStatus status = parse();
+        event.record(status == DecodeStatus.OK || status == DecodeStatus.BAD_CHECKSUM ? this : null, status);
+        return status;
+    }
 
-	private void validate() throws Exception{
+    /** @return The outcome of parsing the raw message; sets malformation if MALFORMED_SENTENCE. */
+	private DecodeStatus parse() {
+        locateMessageType();
 
-        
 		if(!isValid()) {
-			throw new UnsupportedMessageType(getMessageType());
+			return DecodeStatus.UNSUPPORTED_SENTENCE;
 		}
 
-        final String nmeaMessageRegExp = "^!.*\\*[0-9A-Fa-f]{2}$";
+        if (rawMessage.length() > 7 && '!' == rawMessage.charAt(7)){
+        	rawMessage =  rawMessage.substring(7,rawMessage.length()-3)+','+rawMessage.charAt(rawMessage.length()-1)+"*00";
+            locateMessageType();
+        }
 
-        if (!rawMessage.matches(nmeaMessageRegExp)){
-        	//System.out.println(rawMessage);
-            //throw new NMEAParseException(rawMessage, "Message does not comply with regexp \"" + nmeaMessageRegExp + "\"");
+        // Single pass: record field offsets and compute the checksum up to the '*'
+        final String s = rawMessage;
+        final int n = s.length();
+        final int[] commas = new int[NUMBER_OF_FIELDS - 1];
+        int numberOfCommas = 0;
+        int star = -1;
+        int xor = 0;
+        for (int i = 1; i < n; i++) {
+            final char c = s.charAt(i);
+            if (c == '*') {
+                star = i;
+                break;
+            }
+            xor ^= c;
+            if (c == ',') {
+                if (numberOfCommas < commas.length) {
+                    commas[numberOfCommas] = i;
+                }
+                numberOfCommas++;
+            }
         }
-        
-        if ('!' == rawMessage.charAt(7)){
-        	rawMessage =  rawMessage.substring(7,rawMessage.length()-3)+','+rawMessage.charAt(rawMessage.length()-1)+"*00";
+
+        if (numberOfCommas + 1 != NUMBER_OF_FIELDS) {
+            malformation = "Expected 7 fields separated by commas";
+            return DecodeStatus.MALFORMED_SENTENCE;
         }
-        
-        String[] msg = rawMessage.split(",");
-        if (msg.length != 7)
-            throw new NMEAParseException(rawMessage, "Expected 7 fields separated by commas; got " + msg.length);
+        if (star < 0 || star == n - 1 || s.indexOf('*', star + 1) >= 0) {
+            malformation = "Expected checksum fields to start with *";
+            return DecodeStatus.MALFORMED_SENTENCE;
+        }
+
+        fieldOffsets = commas;
+        starIndex = star;
+        computedChecksum = xor;
 
-        String msg1[] = msg[6].split("\\*");
-        if (msg1.length != 2)
-            throw new NMEAParseException(rawMessage, "Expected checksum fields to start with *");
-        
-        validateChecksum(rawMessage);
+        numberOfFragments = parseInt(fieldBegin(1), fieldEnd(1), 10);
+        fragmentNumber = parseInt(fieldBegin(2), fieldEnd(2), 10);
+        sequenceNumber = parseInt(fieldBegin(3), fieldEnd(3), 10);
+        fillBits = parseInt(fieldBegin(6), fieldEnd(6), 10);
+        checksum = parseInt(star + 1, n, 16);
+
+        if (numberOfFragments == ILLEGAL || fragmentNumber == ILLEGAL || sequenceNumber == ILLEGAL || fillBits == ILLEGAL || checksum == ILLEGAL) {
+            malformation = "Illegal character in numeric field";
+            return DecodeStatus.MALFORMED_SENTENCE;
+        }
+        return checksum == computedChecksum ? DecodeStatus.OK : DecodeStatus.BAD_CHECKSUM;
+    }
+
+    private void locateMessageType() {
+        typeBegin = rawMessage.isEmpty() || rawMessage.charAt(0) != '!' ? 0 : 1;
+        typeEnd = rawMessage.indexOf(',');
+        if (typeEnd < 0) {
+            typeEnd = rawMessage.length();
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        final DecodeStatus status = parse();
+        if (status != DecodeStatus.OK && status != DecodeStatus.BAD_CHECKSUM) {
+            throw new InvalidObjectException(status.getDescription() + ": " + rawMessage);
+        }
+    }
+
+    /** @return Index of the first character of field i. */
+    private int fieldBegin(int i) {
+        return i == 0 ? 0 : fieldOffsets[i - 1] + 1;
+    }
+
+    /** @return Index after the last character of field i. */
+    private int fieldEnd(int i) {
+        return i == NUMBER_OF_FIELDS - 1 ? starIndex : fieldOffsets[i];
+    }
+
+    private String field(int i) {
+        return rawMessage.substring(fieldBegin(i), fieldEnd(i));
+    }
+
+    private boolean isBlank(int i) {
+        return isBlank(fieldBegin(i), fieldEnd(i));
+    }
+
+    private boolean isBlank(int begin, int end) {
+        for (int i = begin; i < end; i++) {
+            if (rawMessage.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int parseInt(int begin, int end, int radix) {
+        if (isBlank(begin, end)) {
+            return NONE;
+        }
+        int value = 0;
+        boolean negative = false;
+        for (int i = begin; i < end; i++) {
+            final char c = rawMessage.charAt(i);
+            if (i == begin && c == '-') {
+                negative = true;
+                continue;
+            }
+            final int digit = Character.digit(c, radix);
+            if (digit < 0) {
+                return ILLEGAL;
+            }
+            value = value * radix + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    private static Integer valueOf(int value) {
+        return value == NONE ? null : Integer.valueOf(value);
     }
 
     @Override
@@ -166,9 +322,60 @@ public class NMEAMessage implements Serializable {
                 '}';
     }
 
-    private static boolean isBlank(String s) {
-		return s == null || s.trim().length() == 0;
-	}
+    /** A read-only view of a range of characters in a String. */
+    private static final class Slice implements CharSequence {
+        private final String string;
+        private final int begin;
+        private final int end;
+
+        private Slice(String string, int begin, int end) {
+            this.string = string;
+            this.begin = begin;
+            this.end = end;
+        }
+
+        @Override
+        public int length() {
+            return end - begin;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= end - begin) {
+                throw new IndexOutOfBoundsException("index: " + index);
+            }
+            return string.charAt(begin + index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            if (start < 0 || end > length() || start > end) {
+                throw new IndexOutOfBoundsException("start: " + start + ", end: " + end);
+            }
+            return new Slice(string, begin + start, begin + end);
+        }
+
+        @Override
+        public String toString() {
+            return string.substring(begin, end);
+        }
+    }
 
 	private String rawMessage;
+
+    private transient int typeBegin;
+    private transient int typeEnd;
+    /** Index of the commas separating the fields. */
+    private transient int[] fieldOffsets;
+    private transient int starIndex;
+    private transient int numberOfFragments;
+    private transient int fragmentNumber;
+    private transient int sequenceNumber;
+    private transient int fillBits;
+    private transient int checksum;
+    private transient int computedChecksum;
+    private transient String messageType;
+    private transient CharSequence encodedPayloadView;
+    /** Description of why the raw message is malformed; only set when parsing fails. */
+    private transient String malformation;
 }
@@ -0,0 +1,241 @@
+/*
+ * AISMessages
+ * - a java-based library for decoding of AIS messages from digital VHF radio traffic related
+ * to maritime navigation and safety in compliance with ITU 1371.
+ *
+ * (C) Copyright 2011- by S-Consult ApS, DK31327490, http://s-consult.dk, Denmark.
+ *
+ * Released under the Creative Commons Attribution-NonCommercial-ShareAlike 3.0 Unported License.
+ * For details of this license see the nearby LICENCE-full file, visit http://creativecommons.org/licenses/by-nc-sa/3.0/
+ * or send a letter to Creative Commons, 171 Second Street, Suite 300, San Francisco, California, 94105, USA.
+ *
+ * NOT FOR COMMERCIAL USE!
+ * Contact sales@s-consult.dk to obtain a commercially licensed version of this software.
+ *
+ */
+
+package dk.tbsalling.aismessages.pipeline;
+
+import dk.tbsalling.aismessages.ais.messages.AISMessage;
+import dk.tbsalling.aismessages.nmea.LineFramer;
+import dk.tbsalling.aismessages.nmea.NMEAMessageHandler;
+import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * A Flow.Publisher of the AIS messages decoded from an InputStream - e.g. of a file or a socket.
+ *
+ * The publisher is cold: each subscriber gets a stream of its own, opened when it first requests
+ * messages. The stream is read only while the subscriber has outstanding demand, one small block at a
+ * time; so data which the subscriber is not ready for is left unread in the file or, for a socket, in
+ * the TCP receive window - pushing back on the sender.
+ *
+ * Reading, decoding and signalling the subscriber happens on the given executor, one task per
+ * subscription at a time. Reads block, so the executor should not be one which is shared with
+ * non-blocking work.
+ *
+ * @author tbsalling
+ */
+public class AISMessagePublisher implements Flow.Publisher<AISMessage> {
+
+    private static final Logger LOG = Logger.getLogger(AISMessagePublisher.class.getName());
+
+    private static final int BLOCK_SIZE = 8 * 1024;
+
+    private final String source;
+    private final Callable<? extends InputStream> opener;
+    private final Executor executor;
+
+    /**
+     * @param source The source of the AIS messages.
+     * @param opener Opens a new stream of NMEA sentences for each subscriber.
+     * @param executor The executor to read, decode and signal subscribers on.
+     */
+    public AISMessagePublisher(String source, Callable<? extends InputStream> opener, Executor executor) {
+        this.source = source;
+        this.opener = Objects.requireNonNull(opener);
+        this.executor = Objects.requireNonNull(executor);
+    }
+
+    /**
+     * @param file A file of NMEA sentences; gzip compressed if its name ends with ".gz".
+     * @param executor The executor to read, decode and signal subscribers on.
+     * @return A publisher of the AIS messages in the file.
+     */
+    public static AISMessagePublisher forFile(Path file, Executor executor) {
+        final boolean gzipped = file.getFileName().toString().endsWith(".gz");
+        return new AISMessagePublisher(file.getFileName().toString(), () -> {
+            InputStream in = Files.newInputStream(file);
+            return gzipped ? new GZIPInputStream(in, BLOCK_SIZE) : in;
+        }, executor);
+    }
+
+    /**
+     * @param host The host to connect to.
+     * @param port The port to connect to.
+     * @param executor The executor to read, decode and signal subscribers on.
+     * @return A publisher of the AIS messages received on a new connection for each subscriber.
+     */
+    public static AISMessagePublisher forSocket(String host, int port, Executor executor) {
+        // Closing the stream of a socket closes the socket
+        return new AISMessagePublisher(host + ":" + port, () -> new Socket(host, port).getInputStream(), executor);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super AISMessage> subscriber) {
+        Objects.requireNonNull(subscriber);
+        subscriber.onSubscribe(new StreamSubscription(subscriber));
+    }
+
+    /** The subscription of one subscriber, reading its own stream. */
+    private final class StreamSubscription implements Flow.Subscription, Runnable {
+        private final Flow.Subscriber<? super AISMessage> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger pendingRuns = new AtomicInteger();
+        private final ArrayDeque<AISMessage> decoded = new ArrayDeque<>();
+        private final NMEAMessageHandler nmeaMessageHandler;
+        private final LineFramer lineFramer;
+        private final byte[] block = new byte[BLOCK_SIZE];
+
+        private volatile InputStream in;
+        private volatile boolean cancelled;
+        private volatile IllegalArgumentException illegalRequest;
+        private boolean endOfStream;
+        private boolean terminated;
+
+        private StreamSubscription(Flow.Subscriber<? super AISMessage> subscriber) {
+            this.subscriber = subscriber;
+            this.nmeaMessageHandler = new NMEAMessageHandler(source, decoded::add);
+            this.lineFramer = new LineFramer(this::handle);
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                illegalRequest = new IllegalArgumentException("Non-positive request: " + n);
+            } else {
+                demand.getAndUpdate(d -> d + n < 0 ? Long.MAX_VALUE : d + n);
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            // Unblock a pending read
+            close();
+            schedule();
+        }
+
+        private void schedule() {
+            if (pendingRuns.getAndIncrement() == 0) {
+                executor.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            int runs = 1;
+            do {
+                if (!terminated) {
+                    try {
+                        drain();
+                    } catch (Exception e) {
+                        terminate();
+                        if (!cancelled) {
+                            subscriber.onError(e);
+                        }
+                    }
+                }
+                runs = pendingRuns.addAndGet(-runs);
+            } while (runs != 0);
+        }
+
+        /** Deliver decoded messages while there is demand, reading more from the stream as needed. */
+        private void drain() throws Exception {
+            if (cancelled) {
+                terminate();
+                return;
+            }
+            if (illegalRequest != null) {
+                terminate();
+                subscriber.onError(illegalRequest);
+                return;
+            }
+            while (!cancelled && demand.get() > 0) {
+                AISMessage aisMessage = decoded.poll();
+                if (aisMessage != null) {
+                    subscriber.onNext(aisMessage);
+                    if (demand.get() != Long.MAX_VALUE) {
+                        demand.decrementAndGet();
+                    }
+                } else if (endOfStream) {
+                    break;
+                } else {
+                    read();
+                }
+            }
+            if (cancelled) {
+                terminate();
+            } else if (endOfStream && decoded.isEmpty()) {
+                terminate();
+                subscriber.onComplete();
+            }
+        }
+
+        private void read() throws Exception {
+            if (in == null) {
+                in = opener.call();
+                LOG.info("Publishing AIS messages from " + source);
+            }
+            final int n = in.read(block);
+            if (n < 0) {
+                lineFramer.endOfInput();
+                endOfStream = true;
+            } else {
+                lineFramer.frame(block, 0, n);
+            }
+        }
+
+        private void handle(String line) {
+            try {
+                nmeaMessageHandler.accept(NMEAMessage.fromString(line));
+            } catch (Exception e) {
+                LOG.fine(source + ": Received non-compliant NMEA message: \"" + line + "\": " + e);
+            }
+        }
+
+        private void terminate() {
+            terminated = true;
+            decoded.clear();
+            close();
+        }
+
+        private void close() {
+            nmeaMessageHandler.close();
+            final InputStream stream = in;
+            if (stream != null) {
+                try {
+                    stream.close();
+                } catch (IOException e) {
+                    LOG.warning("Failed to close stream from " + source + ": " + e);
+                }
+            }
+        }
+    }
+
+}
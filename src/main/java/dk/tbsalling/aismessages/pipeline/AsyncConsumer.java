@@ -0,0 +1,244 @@
+/*
+ * AISMessages
+ * - a java-based library for decoding of AIS messages from digital VHF radio traffic related
+ * to maritime navigation and safety in compliance with ITU 1371.
+ *
+ * (C) Copyright 2011- by S-Consult ApS, DK31327490, http://s-consult.dk, Denmark.
+ *
+ * Released under the Creative Commons Attribution-NonCommercial-ShareAlike 3.0 Unported License.
+ * For details of this license see the nearby LICENCE-full file, visit http://creativecommons.org/licenses/by-nc-sa/3.0/
+ * or send a letter to Creative Commons, 171 Second Street, Suite 300, San Francisco, California, 94105, USA.
+ *
+ * NOT FOR COMMERCIAL USE!
+ * Contact sales@s-consult.dk to obtain a commercially licensed version of this software.
+ *
+ */
+
+package dk.tbsalling.aismessages.pipeline;
+
+import java.io.Closeable;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * An AsyncConsumer decouples a consumer from the threads which feed it. Elements are put in a bounded
+ * queue and passed on to the consumer by a task on an executor - by default a thread of its own - one
+ * at a time and in the order in which they were queued.
+ *
+ * When the queue is full, the overflow policy decides what happens:
+ * <ul>
+ *     <li>BLOCK - the feeding thread waits for room.</li>
+ *     <li>DROP_OLDEST - the oldest queued element is dropped to make room.</li>
+ *     <li>DROP_NEWEST - the new element is dropped.</li>
+ *     <li>SAMPLE - once the queue is half full, only every n'th new element is queued; the rest are dropped.</li>
+ * </ul>
+ *
+ * @param <T> The type of elements.
+ * @author tbsalling
+ */
+public final class AsyncConsumer<T> implements Consumer<T>, Closeable {
+
+    private static final Logger LOG = Logger.getLogger(AsyncConsumer.class.getName());
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    public enum OverflowPolicy { BLOCK, DROP_OLDEST, DROP_NEWEST, SAMPLE }
+
+    public static final int DEFAULT_SAMPLE_INTERVAL = 10;
+
+    private final Consumer<? super T> consumer;
+    private final BlockingQueue<T> queue;
+    private final int capacity;
+    private final OverflowPolicy overflowPolicy;
+    private final int sampleInterval;
+    private final Executor executor;
+    private final ExecutorService ownExecutor;
+
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final AtomicLong congested = new AtomicLong();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private volatile boolean closed;
+
+    /**
+     * Create an AsyncConsumer with a thread of its own.
+     * @param consumer The consumer to pass elements on to.
+     * @param capacity The capacity of the queue.
+     * @param overflowPolicy What to do when the queue is full.
+     */
+    public AsyncConsumer(Consumer<? super T> consumer, int capacity, OverflowPolicy overflowPolicy) {
+        this(consumer, capacity, overflowPolicy, DEFAULT_SAMPLE_INTERVAL, null);
+    }
+
+    /**
+     * @param consumer The consumer to pass elements on to.
+     * @param capacity The capacity of the queue.
+     * @param overflowPolicy What to do when the queue is full.
+     * @param sampleInterval With the SAMPLE policy, the interval between elements queued once the queue is half full.
+     * @param executor The executor to run the consumer on; or null to use a thread of its own.
+     */
+    public AsyncConsumer(Consumer<? super T> consumer, int capacity, OverflowPolicy overflowPolicy, int sampleInterval, Executor executor) {
+        if (capacity < 1 || sampleInterval < 1) {
+            throw new IllegalArgumentException("capacity and sampleInterval must be positive: " + capacity + ", " + sampleInterval);
+        }
+        this.consumer = consumer;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.capacity = capacity;
+        this.overflowPolicy = overflowPolicy;
+        this.sampleInterval = sampleInterval;
+        if (executor == null) {
+            this.ownExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, AsyncConsumer.class.getSimpleName() + "-" + THREAD_COUNT.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.executor = ownExecutor;
+        } else {
+            this.ownExecutor = null;
+            this.executor = executor;
+        }
+    }
+
+    /**
+     * Queue an element for the consumer, applying the overflow policy if the queue is full.
+     * Elements accepted after close are dropped.
+     * @param element The element.
+     */
+    @Override
+    public void accept(T element) {
+        if (closed) {
+            dropped.increment();
+            return;
+        }
+        switch (overflowPolicy) {
+            case BLOCK:
+                if (!queue.offer(element)) {
+                    schedule();
+                    try {
+                        queue.put(element);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        dropped.increment();
+                        return;
+                    }
+                }
+                break;
+            case DROP_OLDEST:
+                while (!queue.offer(element)) {
+                    if (queue.poll() != null) {
+                        dropped.increment();
+                    }
+                }
+                break;
+            case DROP_NEWEST:
+                if (!queue.offer(element)) {
+                    dropped.increment();
+                    return;
+                }
+                break;
+            case SAMPLE:
+                if (queue.size() >= capacity / 2 && congested.getAndIncrement() % sampleInterval != 0 || !queue.offer(element)) {
+                    dropped.increment();
+                    return;
+                }
+                break;
+        }
+        schedule();
+    }
+
+    /** Make sure a task is running or about to run, which drains the queue. */
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // The executor has been shut down, most likely by a close racing this call
+                scheduled.set(false);
+                while (queue.poll() != null) {
+                    dropped.increment();
+                }
+            }
+        }
+    }
+
+    private void drain() {
+        do {
+            T element;
+            while ((element = queue.poll()) != null) {
+                try {
+                    consumer.accept(element);
+                    delivered.increment();
+                } catch (RuntimeException e) {
+                    failures.increment();
+                    LOG.warning("Consumer failed: " + e);
+                }
+            }
+            scheduled.set(false);
+            // An element may have been queued after the last poll, but before scheduled was cleared
+        } while (!queue.isEmpty() && scheduled.compareAndSet(false, true));
+    }
+
+    /** Stop accepting elements, and wait until the queued elements have been passed on to the consumer. */
+    @Override
+    public void close() {
+        closed = true;
+        if (ownExecutor != null) {
+            ownExecutor.shutdown();
+            try {
+                ownExecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        } else {
+            while ((scheduled.get() || !queue.isEmpty()) && !Thread.currentThread().isInterrupted()) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+        }
+    }
+
+    /** @return The overflow policy. */
+    @SuppressWarnings("unused")
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /** @return The number of elements currently queued. */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /** @return The capacity of the queue. */
+    @SuppressWarnings("unused")
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /** @return The number of elements passed on to the consumer. */
+    public long getDelivered() {
+        return delivered.sum();
+    }
+
+    /** @return The number of elements dropped by the overflow policy, or because the consumer was closed. */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /** @return The number of elements for which the consumer threw an exception. */
+    public long getFailures() {
+        return failures.sum();
+    }
+
+}
@@ -0,0 +1,310 @@
+/*
+ * AISMessages
+ * - a java-based library for decoding of AIS messages from digital VHF radio traffic related
+ * to maritime navigation and safety in compliance with ITU 1371.
+ *
+ * (C) Copyright 2011- by S-Consult ApS, DK31327490, http://s-consult.dk, Denmark.
+ *
+ * Released under the Creative Commons Attribution-NonCommercial-ShareAlike 3.0 Unported License.
+ * For details of this license see the nearby LICENCE-full file, visit http://creativecommons.org/licenses/by-nc-sa/3.0/
+ * or send a letter to Creative Commons, 171 Second Street, Suite 300, San Francisco, California, 94105, USA.
+ *
+ * NOT FOR COMMERCIAL USE!
+ * Contact sales@s-consult.dk to obtain a commercially licensed version of this software.
+ *
+ */
+
+package dk.tbsalling.aismessages.pipeline;
+
+import dk.tbsalling.aismessages.ais.messages.AISMessage;
+import dk.tbsalling.aismessages.ais.messages.Metadata;
+import dk.tbsalling.aismessages.nmea.FragmentReassembler;
+import dk.tbsalling.aismessages.nmea.DecodeResult;
+import dk.tbsalling.aismessages.nmea.DecodeStatus;
+import dk.tbsalling.aismessages.nmea.LineFramer;
+import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+
+/**
+ * A pipeline which decodes NMEA sentences to AIS messages in stages, each running on its own thread:
+ * parse, reassemble, decode and dispatch. The stages are connected by SpscRingBuffers, so a slow
+ * receiver of AIS messages does not stall the thread reading the sentences until the buffers are full.
+ *
+ * Sentences are fed to the pipeline by a single reading thread - either by calling accept for each line,
+ * or by letting the pipeline read them from an InputStream. The receivers are called from the dispatch
+ * thread only, in the order in which the sentences were read.
+ *
+ * Threads which wait for input or room in a buffer do so using the configured WaitStrategy.
+ *
+ * @author tbsalling
+ */
+public class NMEAMessagePipeline implements Consumer<String>, Closeable {
+
+    private static final Logger LOG = Logger.getLogger(NMEAMessagePipeline.class.getName());
+
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private final String source;
+    private final WaitStrategy waitStrategy;
+    private final List<Consumer<? super AISMessage>> aisMessageReceivers = new CopyOnWriteArrayList<>();
+    private final FragmentReassembler fragmentReassembler = new FragmentReassembler();
+    /** Reused for every message; used by the decode stage only. */
+    private final DecodeResult decodeResult = new DecodeResult();
+
+    private final SpscRingBuffer<String> lines;
+    private final SpscRingBuffer<NMEAMessage> nmeaMessages;
+    private final SpscRingBuffer<NMEAMessage[]> completeMessages;
+    private final SpscRingBuffer<AISMessage> aisMessages;
+    private final Stage<?>[] stages;
+
+    private final LongAdder lineCount = new LongAdder();
+    private final LongAdder messageCount = new LongAdder();
+    private final LongAdder errorCount = new LongAdder();
+
+    private volatile boolean closed;
+    /**
+     * true while a sentence is being fed to the pipeline. Set before closed is tested, so that the parse stage,
+     * which tests it after closed, either sees the sentence or leaves the feeding thread to see closed.
+     */
+    private volatile boolean accepting;
+
+    @SafeVarargs
+    public NMEAMessagePipeline(String source, Consumer<? super AISMessage>... aisMessageReceivers) {
+        this(source, DEFAULT_CAPACITY, WaitStrategy.PARK, aisMessageReceivers);
+    }
+
+    /**
+     * @param source The source of the NMEA sentences.
+     * @param capacity The capacity of each of the ring buffers between the stages.
+     * @param waitStrategy What threads do while waiting for input or room in a buffer.
+     * @param aisMessageReceivers The receivers of the decoded AIS messages.
+     */
+    @SafeVarargs
+    public NMEAMessagePipeline(String source, int capacity, WaitStrategy waitStrategy, Consumer<? super AISMessage>... aisMessageReceivers) {
+        this.source = source;
+        this.waitStrategy = waitStrategy;
+        for (Consumer<? super AISMessage> aisMessageReceiver : aisMessageReceivers) {
+            this.aisMessageReceivers.add(aisMessageReceiver);
+        }
+
+        this.lines = new SpscRingBuffer<>(capacity);
+        this.nmeaMessages = new SpscRingBuffer<>(capacity);
+        this.completeMessages = new SpscRingBuffer<>(capacity);
+        this.aisMessages = new SpscRingBuffer<>(capacity);
+
+        final Stage<String> parse = new Stage<>("parse", lines, null, this::parse);
+        final Stage<NMEAMessage> reassemble = new Stage<>("reassemble", nmeaMessages, parse, this::reassemble);
+        final Stage<NMEAMessage[]> decode = new Stage<>("decode", completeMessages, reassemble, this::decode);
+        final Stage<AISMessage> dispatch = new Stage<>("dispatch", aisMessages, decode, this::dispatch);
+        this.stages = new Stage<?>[] { parse, reassemble, decode, dispatch };
+    }
+
+    /** Start the threads of the stages. */
+    public void start() {
+        for (Stage<?> stage : stages) {
+            stage.thread.start();
+        }
+    }
+
+    /**
+     * Feed a sentence to the pipeline. Waits while the pipeline is full. Must only be called by one thread.
+     * A sentence fed while the pipeline is being closed is either processed before close returns, or rejected.
+     * @param line The NMEA sentence.
+     * @throws IllegalStateException if the pipeline is closed.
+     */
+    @Override
+    public void accept(String line) {
+        accepting = true;
+        try {
+            if (closed) {
+                throw new IllegalStateException("Pipeline is closed.");
+            }
+            lineCount.increment();
+            lines.put(line, waitStrategy);
+        } finally {
+            accepting = false;
+        }
+    }
+
+    /**
+     * Read sentences from a stream and feed them to the pipeline, until the end of the stream.
+     * This is the read stage of the pipeline; it runs on the calling thread.
+     *
+     * @param inputStream The stream to read.
+     * @throws IOException if the stream cannot be read.
+     */
+    public void read(InputStream inputStream) throws IOException {
+        final LineFramer lineFramer = new LineFramer(this);
+        final byte[] buffer = new byte[64 * 1024];
+        int n;
+        while (!closed && (n = inputStream.read(buffer)) >= 0) {
+            lineFramer.frame(buffer, 0, n);
+        }
+        lineFramer.endOfInput();
+    }
+
+    /**
+     * Stop accepting sentences, let the stages finish the sentences already accepted, and wait for their threads.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (Stage<?> stage : stages) {
+            try {
+                if (stage.thread.isAlive()) {
+                    stage.thread.join();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Add a receiver of decoded AIS messages.
+     * @param aisMessageReceiver The receiver to add.
+     */
+    @SuppressWarnings("unused")
+    public void addAisMessageReceiver(Consumer<? super AISMessage> aisMessageReceiver) {
+        aisMessageReceivers.add(aisMessageReceiver);
+    }
+
+    private void parse(String line) {
+        try {
+            nmeaMessages.put(NMEAMessage.fromString(line), waitStrategy);
+        } catch (Exception e) {
+            LOG.fine(source + ": Received non-compliant NMEA message: \"" + line + "\": " + e);
+            errorCount.increment();
+        }
+    }
+
+    private void reassemble(NMEAMessage nmeaMessage) {
+        if (FragmentReassembler.checkFragment(nmeaMessage) != DecodeStatus.OK) {
+            LOG.fine("NMEA message is invalid: " + nmeaMessage.getRawMessage());
+            errorCount.increment();
+        } else if (nmeaMessage.getNumberOfFragments() == 1) {
+            completeMessages.put(new NMEAMessage[] { nmeaMessage }, waitStrategy);
+        } else {
+            try {
+                NMEAMessage[] fragments = fragmentReassembler.add(source, nmeaMessage);
+                if (fragments != null) {
+                    completeMessages.put(fragments, waitStrategy);
+                }
+            } catch (IllegalArgumentException e) {
+                LOG.fine(e.getMessage());
+                errorCount.increment();
+            }
+        }
+    }
+
+    private void decode(NMEAMessage[] fragments) {
+        final DecodeStatus status = AISMessage.tryCreate(decodeResult, fragments);
+        if (status == DecodeStatus.OK) {
+            final AISMessage aisMessage = decodeResult.getAisMessage();
+            aisMessage.setMetadata(new Metadata(source));
+            aisMessages.put(aisMessage, waitStrategy);
+        } else {
+            LOG.fine("Cannot decode AIS message: " + fragments[fragments.length - 1].getRawMessage() + ": " + status.getDescription());
+            errorCount.increment();
+        }
+        decodeResult.clear();
+    }
+
+    private void dispatch(AISMessage aisMessage) {
+        messageCount.increment();
+        for (Consumer<? super AISMessage> aisMessageReceiver : aisMessageReceivers) {
+            try {
+                aisMessageReceiver.accept(aisMessage);
+            } catch (RuntimeException e) {
+                LOG.warning("Receiver failed to handle AIS message: " + e);
+            }
+        }
+    }
+
+    /** @return The number of sentences fed to the pipeline. */
+    public long getLines() {
+        return lineCount.sum();
+    }
+
+    /** @return The number of AIS messages dispatched to the receivers. */
+    public long getMessages() {
+        return messageCount.sum();
+    }
+
+    /** @return The number of sentences or messages which could not be parsed or decoded. */
+    public long getErrors() {
+        return errorCount.sum();
+    }
+
+    /** @return The number of sentences and messages waiting in the buffers between the stages. */
+    public int getBacklog() {
+        return lines.size() + nmeaMessages.size() + completeMessages.size() + aisMessages.size();
+    }
+
+    /** A stage of the pipeline: a thread which takes elements from a ring buffer and processes them. */
+    private final class Stage<E> implements Runnable {
+        private final SpscRingBuffer<E> input;
+        private final Stage<?> upstream;
+        private final Consumer<E> processor;
+        private final Thread thread;
+        private volatile boolean finished;
+
+        private Stage(String name, SpscRingBuffer<E> input, Stage<?> upstream, Consumer<E> processor) {
+            this.input = input;
+            this.upstream = upstream;
+            this.processor = processor;
+            this.thread = new Thread(this, NMEAMessagePipeline.class.getSimpleName() + "-" + source + "-" + name);
+            this.thread.setDaemon(true);
+        }
+
+        /** @return true when no more elements will be added to the input of this stage. */
+        private boolean upstreamFinished() {
+            return upstream == null ? closed && !accepting : upstream.finished;
+        }
+
+        @Override
+        public void run() {
+            try {
+                int attempt = 0;
+                while (true) {
+                    E element = input.poll();
+                    if (element == null) {
+                        // Check the input again after seeing upstream finished, as it may have added a last element
+                        if (!upstreamFinished()) {
+                            waitStrategy.idle(attempt);
+                            if (attempt < Integer.MAX_VALUE) {
+                                attempt++;
+                            }
+                            continue;
+                        }
+                        element = input.poll();
+                        if (element == null) {
+                            break;
+                        }
+                    }
+                    attempt = 0;
+                    try {
+                        processor.accept(element);
+                    } catch (RuntimeException e) {
+                        LOG.log(Level.WARNING, thread.getName() + " failed to process " + element + "; dropped.", e);
+                        errorCount.increment();
+                    }
+                }
+            } finally {
+                finished = true;
+            }
+        }
+    }
+
+}
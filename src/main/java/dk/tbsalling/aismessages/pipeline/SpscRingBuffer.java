@@ -0,0 +1,124 @@
+/*
+ * AISMessages
+ * - a java-based library for decoding of AIS messages from digital VHF radio traffic related
+ * to maritime navigation and safety in compliance with ITU 1371.
+ *
+ * (C) Copyright 2011- by S-Consult ApS, DK31327490, http://s-consult.dk, Denmark.
+ *
+ * Released under the Creative Commons Attribution-NonCommercial-ShareAlike 3.0 Unported License.
+ * For details of this license see the nearby LICENCE-full file, visit http://creativecommons.org/licenses/by-nc-sa/3.0/
+ * or send a letter to Creative Commons, 171 Second Street, Suite 300, San Francisco, California, 94105, USA.
+ *
+ * NOT FOR COMMERCIAL USE!
+ * Contact sales@s-consult.dk to obtain a commercially licensed version of this software.
+ *
+ */
+
+package dk.tbsalling.aismessages.pipeline;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded, lock-free ring buffer for exactly one producer thread and one consumer thread.
+ *
+ * The slots are allocated up front, so passing an element through the buffer allocates nothing.
+ * Each side caches the last seen position of the other side, and only reads it again - a volatile
+ * read - when the buffer looks full or empty.
+ *
+ * @param <E> The type of elements.
+ * @author tbsalling
+ */
+public final class SpscRingBuffer<E> {
+
+    private final Object[] slots;
+    private final int mask;
+
+    /** Position of the next element to read; written by the consumer only. */
+    private final AtomicLong head = new AtomicLong();
+    /** Position of the next element to write; written by the producer only. */
+    private final AtomicLong tail = new AtomicLong();
+
+    /** The producer's view of head. */
+    private long cachedHead;
+    /** The consumer's view of tail. */
+    private long cachedTail;
+
+    /**
+     * @param capacity The minimum number of elements the buffer can hold; rounded up to a power of two.
+     */
+    public SpscRingBuffer(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity must be between 1 and 2^30: " + capacity);
+        }
+        final int size = Integer.highestOneBit(capacity) == capacity ? capacity : Integer.highestOneBit(capacity) << 1;
+        this.slots = new Object[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Add an element, if there is room. May only be called by the producer thread.
+     * @param element The element to add; not null.
+     * @return true if the element was added; false if the buffer is full.
+     */
+    public boolean offer(E element) {
+        if (element == null) {
+            throw new NullPointerException();
+        }
+        final long t = tail.get();
+        if (t - cachedHead >= slots.length) {
+            cachedHead = head.get();
+            if (t - cachedHead >= slots.length) {
+                return false;
+            }
+        }
+        slots[(int) t & mask] = element;
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    /**
+     * Add an element, waiting while the buffer is full. May only be called by the producer thread.
+     * @param element The element to add; not null.
+     * @param waitStrategy What to do while the buffer is full.
+     */
+    public void put(E element, WaitStrategy waitStrategy) {
+        int attempt = 0;
+        while (!offer(element)) {
+            waitStrategy.idle(attempt);
+            if (attempt < Integer.MAX_VALUE) {
+                attempt++;
+            }
+        }
+    }
+
+    /**
+     * Remove the oldest element. May only be called by the consumer thread.
+     * @return The oldest element; or null if the buffer is empty.
+     */
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        final long h = head.get();
+        if (h >= cachedTail) {
+            cachedTail = tail.get();
+            if (h >= cachedTail) {
+                return null;
+            }
+        }
+        final int index = (int) h & mask;
+        final E element = (E) slots[index];
+        slots[index] = null;
+        head.lazySet(h + 1);
+        return element;
+    }
+
+    /** @return The number of elements in the buffer; an estimate if read while the buffer is in use. */
+    public int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    /** @return The number of elements the buffer can hold. */
+    public int capacity() {
+        return slots.length;
+    }
+
+}
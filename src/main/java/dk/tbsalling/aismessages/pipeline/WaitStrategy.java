@@ -0,0 +1,69 @@
+/*
+ * AISMessages
+ * - a java-based library for decoding of AIS messages from digital VHF radio traffic related
+ * to maritime navigation and safety in compliance with ITU 1371.
+ *
+ * (C) Copyright 2011- by S-Consult ApS, DK31327490, http://s-consult.dk, Denmark.
+ *
+ * Released under the Creative Commons Attribution-NonCommercial-ShareAlike 3.0 Unported License.
+ * For details of this license see the nearby LICENCE-full file, visit http://creativecommons.org/licenses/by-nc-sa/3.0/
+ * or send a letter to Creative Commons, 171 Second Street, Suite 300, San Francisco, California, 94105, USA.
+ *
+ * NOT FOR COMMERCIAL USE!
+ * Contact sales@s-consult.dk to obtain a commercially licensed version of this software.
+ *
+ */
+
+package dk.tbsalling.aismessages.pipeline;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A WaitStrategy decides what a thread does while it cannot make progress, because the ring buffer
+ * it reads from is empty or the ring buffer it writes to is full.
+ *
+ * Busy spinning gives the lowest latency at the cost of a fully loaded core per waiting thread;
+ * parking costs the least CPU but adds the latency of waking up.
+ *
+ * @author tbsalling
+ */
+@FunctionalInterface
+public interface WaitStrategy {
+
+    /**
+     * Wait a little.
+     * @param attempt The number of consecutive times the thread has waited without progress, starting at 0.
+     *                Callers stop counting at {@link Integer#MAX_VALUE}.
+     */
+    void idle(int attempt);
+
+    /**
+     * Spin without giving up the CPU, calling Thread.onSpinWait on every attempt. Only suitable when every stage
+     * has a core of its own; with fewer cores, spinning stages take the CPU from the stages they wait for.
+     */
+    WaitStrategy BUSY_SPIN = attempt -> Thread.onSpinWait();
+
+    /** Yield the CPU to other threads. */
+    WaitStrategy YIELD = attempt -> Thread.yield();
+
+    /** Spin with Thread.onSpinWait, then yield, then park for up to 100 microseconds at a time. */
+    WaitStrategy PARK = park(TimeUnit.MICROSECONDS.toNanos(100));
+
+    /**
+     * @param parkNanos The time to park for, once spinning and yielding has not helped.
+     * @return A strategy which spins with Thread.onSpinWait, then yields, then parks.
+     */
+    static WaitStrategy park(long parkNanos) {
+        return attempt -> {
+            if (attempt < 100) {
+                Thread.onSpinWait();
+            } else if (attempt < 200) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(parkNanos);
+            }
+        };
+    }
+
+}
@@ -0,0 +1,183 @@
+/*
+ * AISMessages
+ * - a java-based library for decoding of AIS messages from digital VHF radio traffic related
+ * to maritime navigation and safety in compliance with ITU 1371.
+ *
+ * (C) Copyright 2011- by S-Consult ApS, DK31327490, http://s-consult.dk, Denmark.
+ *
+ * Released under the Creative Commons Attribution-NonCommercial-ShareAlike 3.0 Unported License.
+ * For details of this license see the nearby LICENCE-full file, visit http://creativecommons.org/licenses/by-nc-sa/3.0/
+ * or send a letter to Creative Commons, 171 Second Street, Suite 300, San Francisco, California, 94105, USA.
+ *
+ * NOT FOR COMMERCIAL USE!
+ * Contact sales@s-consult.dk to obtain a commercially licensed version of this software.
+ *
+ */
+
+package dk.tbsalling.aismessages;
+
+import dk.tbsalling.aismessages.ais.messages.AISMessage;
+import dk.tbsalling.aismessages.ais.messages.PositionReport;
+import dk.tbsalling.aismessages.ais.messages.ShipAndVoyageData;
+import dk.tbsalling.aismessages.ais.messages.StandardClassBCSPositionReport;
+import dk.tbsalling.aismessages.ais.messages.types.AISMessageType;
+import dk.tbsalling.aismessages.nmea.NMEAMessageHandler;
+import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
+import dk.tbsalling.test.helpers.AllocationMeter;
+import org.junit.Before;
+import org.junit.Test;
+
+import static dk.tbsalling.test.helpers.AllocationMeter.bytesPerOperation;
+import static dk.tbsalling.test.helpers.AllocationMeter.isSupported;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Allocation budgets of the decode path, which guard against regressions of its allocation rate.
+ *
+ * Budgets on NMEAMessageHandler.accept cover everything allocated from a parsed sentence to the delivery
+ * of its AIS message, including fragment reassembly and metrics. They are set with headroom above the
+ * measured allocation, as it depends on the JIT compiler. Decoded fields are stored as primitives, so boxed
+ * getters, e.g. getLatitude(), allocate at most one box per call; getters of objects, which are cached, and
+ * the raw getters must not allocate at all.
+ */
+public class AllocationBudgetTest {
+
+    private static final long SINGLE_SENTENCE_BUDGET = 768;
+    private static final long TWO_FRAGMENT_BUDGET = 1536;
+    /** One Integer or Float; values which Integer.valueOf caches take none. */
+    private static final long BOXED_GETTER_BUDGET = 16;
+
+    private AISMessage received;
+    private Object sink;
+    private NMEAMessageHandler handler;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        assumeTrue(isSupported());
+        handler = new NMEAMessageHandler("TEST", m -> received = m);
+    }
+
+    @Test
+    public void acceptPositionReportClassAScheduledWithinBudget() throws Exception {
+        assertAcceptWithinBudget(AISMessageType.PositionReportClassAScheduled, SINGLE_SENTENCE_BUDGET,
+                "!AIVDM,1,1,,B,15MqdBP000G@qoLEi69PVGaN0D0=,0*3A");
+    }
+
+    @Test
+    public void acceptPositionReportClassAAssignedScheduleWithinBudget() throws Exception {
+        assertAcceptWithinBudget(AISMessageType.PositionReportClassAAssignedSchedule, SINGLE_SENTENCE_BUDGET,
+                "!AIVDM,1,1,,A,24RjBV0028o:pnNEBeU<pJF>0PT@,0*3E");
+    }
+
+    @Test
+    public void acceptPositionReportClassAResponseToInterrogationWithinBudget() throws Exception {
+        assertAcceptWithinBudget(AISMessageType.PositionReportClassAResponseToInterrogation, SINGLE_SENTENCE_BUDGET,
+                "!AIVDM,1,1,,A,34RjBV0028o:pnNEBeU<pJF>0PT@,0*3F");
+    }
+
+    @Test
+    public void acceptStandardClassBCSPositionReportWithinBudget() throws Exception {
+        assertAcceptWithinBudget(AISMessageType.StandardClassBCSPositionReport, SINGLE_SENTENCE_BUDGET,
+                "!AIVDM,1,1,,A,B5NJ;PP005l4ot5Isbl03wsUkP06,0*76");
+    }
+
+    @Test
+    public void acceptTwoFragmentShipAndVoyageDataWithinBudget() throws Exception {
+        assertAcceptWithinBudget(AISMessageType.ShipAndVoyageRelatedData, TWO_FRAGMENT_BUDGET,
+                "!AIVDM,2,1,3,B,55DA><02=6wpPuID000qTf059@DlU<00000000171lMDD4q20LmDp3hB,0*27",
+                "!AIVDM,2,2,3,B,p=Mh00000000000,2*4C");
+    }
+
+    @Test
+    public void positionReportGettersWithinBudget() throws Exception {
+        final PositionReport message = (PositionReport) AISMessage.create(NMEAMessage.fromString("!AIVDM,1,1,,B,15MqdBP000G@qoLEi69PVGaN0D0=,0*3A"));
+        message.toString();
+        final long[] sum = new long[1];
+
+        assertEquals(0, bytesPerOperation(() -> sink = message.getSourceMmsi()));
+        assertEquals(0, bytesPerOperation(() -> sink = message.getNavigationStatus()));
+        assertEquals(0, bytesPerOperation(() -> sink = message.getManeuverIndicator()));
+        assertBoxedWithinBudget(() -> sink = message.getLatitude());
+        assertBoxedWithinBudget(() -> sink = message.getLongitude());
+        assertBoxedWithinBudget(() -> sink = message.getSpeedOverGround());
+        assertBoxedWithinBudget(() -> sink = message.getCourseOverGround());
+        assertBoxedWithinBudget(() -> sink = message.getTrueHeading());
+        assertBoxedWithinBudget(() -> sink = message.getRateOfTurn());
+        assertBoxedWithinBudget(() -> sink = message.getSecond());
+        assertBoxedWithinBudget(() -> sink = message.getRepeatIndicator());
+        assertEquals(0, bytesPerOperation(() -> sum[0] += message.getSourceMmsiAsLong()));
+        assertEquals(0, bytesPerOperation(() -> sum[0] += message.getLatitudeRaw() + message.getLongitudeRaw()));
+        assertEquals(0, bytesPerOperation(() -> sum[0] += message.getSpeedOverGroundRaw() + message.getCourseOverGroundRaw()));
+        assertEquals(0, bytesPerOperation(() -> sum[0] += message.getTrueHeadingRaw() + message.getRateOfTurnRaw()));
+    }
+
+    @Test
+    public void standardClassBCSPositionReportGettersWithinBudget() throws Exception {
+        final StandardClassBCSPositionReport message = (StandardClassBCSPositionReport) AISMessage.create(NMEAMessage.fromString("!AIVDM,1,1,,A,B5NJ;PP005l4ot5Isbl03wsUkP06,0*76"));
+        message.toString();
+        final long[] sum = new long[1];
+
+        assertEquals(0, bytesPerOperation(() -> sink = message.getSourceMmsi()));
+        assertBoxedWithinBudget(() -> sink = message.getLatitude());
+        assertBoxedWithinBudget(() -> sink = message.getLongitude());
+        assertBoxedWithinBudget(() -> sink = message.getSpeedOverGround());
+        assertBoxedWithinBudget(() -> sink = message.getCourseOverGround());
+        assertBoxedWithinBudget(() -> sink = message.getTrueHeading());
+        assertEquals(0, bytesPerOperation(() -> sum[0] += message.getLatitudeRaw() + message.getLongitudeRaw()));
+        assertEquals(0, bytesPerOperation(() -> sum[0] += message.getSpeedOverGroundRaw() + message.getCourseOverGroundRaw()));
+    }
+
+    @Test
+    public void shipAndVoyageDataGettersWithinBudget() throws Exception {
+        final ShipAndVoyageData message = (ShipAndVoyageData) AISMessage.create(
+                NMEAMessage.fromString("!AIVDM,2,1,3,B,55DA><02=6wpPuID000qTf059@DlU<00000000171lMDD4q20LmDp3hB,0*27"),
+                NMEAMessage.fromString("!AIVDM,2,2,3,B,p=Mh00000000000,2*4C"));
+        message.toString();
+
+        assertEquals(0, bytesPerOperation(() -> sink = message.getShipName()));
+        assertEquals(0, bytesPerOperation(() -> sink = message.getCallsign()));
+        assertEquals(0, bytesPerOperation(() -> sink = message.getDestination()));
+        assertEquals(0, bytesPerOperation(() -> sink = message.getShipType()));
+        assertBoxedWithinBudget(() -> sink = message.getToBow());
+        assertBoxedWithinBudget(() -> sink = message.getDraught());
+    }
+
+    @Test
+    public void appendShipNameDoesNotAllocate() throws Exception {
+        final ShipAndVoyageData message = (ShipAndVoyageData) AISMessage.create(
+                NMEAMessage.fromString("!AIVDM,2,1,3,B,55DA><02=6wpPuID000qTf059@DlU<00000000171lMDD4q20LmDp3hB,0*27"),
+                NMEAMessage.fromString("!AIVDM,2,2,3,B,p=Mh00000000000,2*4C"));
+        final StringBuilder shipName = new StringBuilder(32);
+
+        assertEquals(0, bytesPerOperation(() -> {
+            shipName.setLength(0);
+            message.appendShipName(shipName);
+        }));
+        assertEquals("NYK ARTEMIS", shipName.toString().trim());
+    }
+
+    private static void assertBoxedWithinBudget(AllocationMeter.Operation getter) throws Exception {
+        final long bytes = bytesPerOperation(getter);
+        assertTrue(bytes + " bytes per call; budget is " + BOXED_GETTER_BUDGET, bytes <= BOXED_GETTER_BUDGET);
+    }
+
+    private void assertAcceptWithinBudget(AISMessageType expectedType, long budget, String... sentences) throws Exception {
+        final NMEAMessage[] nmeaMessages = new NMEAMessage[sentences.length];
+        for (int i = 0; i < sentences.length; i++) {
+            nmeaMessages[i] = NMEAMessage.fromString(sentences[i]);
+        }
+
+        final long bytes = bytesPerOperation(() -> {
+            for (NMEAMessage nmeaMessage : nmeaMessages) {
+                handler.accept(nmeaMessage);
+            }
+        });
+
+        assertEquals(expectedType, received.getMessageType());
+        assertTrue(expectedType + ": " + bytes + " bytes per message; budget is " + budget, bytes <= budget);
+    }
+
+}
@@ -0,0 +1,68 @@
+package dk.tbsalling.aismessages.ais;
+
+import dk.tbsalling.aismessages.nmea.exceptions.InvalidMessage;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class BitBufferTest {
+
+    @Test
+    public void canUnpackArmouredPayload() {
+        BitBuffer bits = BitBuffer.fromArmouredPayload(0, "1:02Ih001U0d=V:Op85<2aT>0<0F");
+
+        assertEquals(168, bits.length());
+        assertEquals(1, bits.getUnsigned(0, 6));
+        assertEquals("000001", bits.toBitString(0, 6));
+        assertEquals(168, bits.toBitString().length());
+    }
+
+    @Test
+    public void canReadAcrossWordBoundaries() {
+        // 'w' is 111111, '0' is 000000
+        BitBuffer bits = BitBuffer.fromArmouredPayload(0, "0000000000w0");
+
+        assertEquals(72, bits.length());
+        assertEquals(0x3f, bits.getUnsigned(60, 6));
+        assertEquals(0x0f, bits.getUnsigned(56, 8));
+        assertEquals(0x3c, bits.getUnsigned(62, 6));
+        assertEquals(0x3fL, bits.getUnsignedLong(8, 58));
+    }
+
+    @Test
+    public void honoursFillBitsAndReadsZerosBeyondEnd() {
+        BitBuffer bits = BitBuffer.fromArmouredPayload(2, "w");
+
+        assertEquals(4, bits.length());
+        assertEquals(0x3c, bits.getUnsigned(0, 6));
+        assertEquals(0, bits.getUnsigned(100, 30));
+        assertEquals("111100", bits.toBitString(0, 6));
+    }
+
+    @Test
+    public void canConcatenateFragments() {
+        BitBuffer bits = BitBuffer.fromArmouredPayload(2, "5:02Ih01WrRsEH57J20H5P8u8N222222222222167H66663k085QBS1H", "888888888888880");
+
+        assertEquals(424, bits.length());
+        assertEquals(5, bits.getUnsigned(0, 6));
+    }
+
+    @Test
+    public void canDeArmourAllLegalCharacters() {
+        assertEquals(0, BitBuffer.deArmour('0'));
+        assertEquals(39, BitBuffer.deArmour('W'));
+        assertEquals(40, BitBuffer.deArmour('`'));
+        assertEquals(63, BitBuffer.deArmour('w'));
+        assertEquals(-1, BitBuffer.deArmour('X'));
+        assertEquals(-1, BitBuffer.deArmour('x'));
+        assertEquals(-1, BitBuffer.deArmour('/'));
+        assertEquals(-1, BitBuffer.deArmour('\u00e6'));
+    }
+
+    @Test(expected = InvalidMessage.class)
+    public void rejectsIllegalCharacters() {
+        BitBuffer.fromArmouredPayload(0, "15MqdBP000G@qoLEi69PVGaN0DX=");
+    }
+
+}
@@ -2,8 +2,20 @@ package dk.tbsalling.aismessages.ais;
 
 import org.junit.Test;
 
+import java.io.IOException;
+
 import static dk.tbsalling.aismessages.ais.Decoders.FLOAT_DECODER;
+import static dk.tbsalling.aismessages.ais.Decoders.INTEGER_DECODER;
+import static dk.tbsalling.aismessages.ais.Decoders.STRING_DECODER;
+import static dk.tbsalling.aismessages.ais.Decoders.appendText;
+import static dk.tbsalling.aismessages.ais.Decoders.decodeBoolean;
+import static dk.tbsalling.aismessages.ais.Decoders.decodeSignedFixedPoint;
+import static dk.tbsalling.aismessages.ais.Decoders.decodeSignedInt;
+import static dk.tbsalling.aismessages.ais.Decoders.decodeText;
+import static dk.tbsalling.aismessages.ais.Decoders.decodeUnsignedFixedPoint;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 public class DecodersTest {
 
@@ -22,5 +34,67 @@ public class DecodersTest {
         // Course over ground will be 3600 (0xE10)
     }
 
+    @Test
+    public void canDecodeSignedIntegerWithoutRegularExpressions() {
+        assertEquals(Integer.valueOf(5), INTEGER_DECODER.apply("00101"));
+        assertEquals(Integer.valueOf(-10), INTEGER_DECODER.apply("10101"));
+    }
+
+    @Test
+    public void canDecodePrimitivesFromPayload() {
+        // 'w' is 111111, '0' is 000000, '8' is 001000
+        BitBuffer bits = BitBuffer.fromArmouredPayload(0, "w08");
+
+        assertEquals(0, decodeSignedInt(bits, 0, 6));
+        assertEquals(-7, decodeSignedInt(bits, 3, 6));
+        assertEquals(-31, decodeSignedInt(bits, 5, 6));
+        assertEquals(8, decodeSignedInt(bits, 12, 6));
+        assertTrue(decodeBoolean(bits, 5));
+        assertFalse(decodeBoolean(bits, 6));
+        assertEquals(0.8f, decodeUnsignedFixedPoint(bits, 12, 6, 10f), 0f);
+        assertEquals(-0.7f, decodeSignedFixedPoint(bits, 3, 6, 10f), 0f);
+    }
+
+    @Test
+    public void signedPayloadDecodingAgreesWithIntegerDecoder() {
+        for (int value = 0; value < 256; value++) {
+            String bitString = String.format("%8s", Integer.toBinaryString(value)).replace(' ', '0');
+            BitBuffer bits = BitBuffer.fromArmouredPayload(4, armour(bitString + "0000"));
+
+            assertEquals(bitString, INTEGER_DECODER.apply(bitString).intValue(), decodeSignedInt(bits, 0, 8));
+        }
+    }
+
+    private static String armour(String bitString) {
+        StringBuilder payload = new StringBuilder();
+        for (int i = 0; i < bitString.length(); i += 6) {
+            int sixBits = Integer.parseInt(bitString.substring(i, i + 6), 2);
+            payload.append((char) (sixBits < 40 ? sixBits + 48 : sixBits + 56));
+        }
+        return payload.toString();
+    }
+
+    @Test
+    public void canDecodeText() throws IOException {
+        // '@' is 0 and is padding; 'A' (1) and 'B' (2) armour as '1' and '2'
+        BitBuffer bits = BitBuffer.fromArmouredPayload(0, "0102000");
+
+        assertEquals("A B", decodeText(bits, 0, 7));
+
+        char[] target = new char[7];
+        assertEquals(3, decodeText(bits, 0, 7, target));
+        assertEquals("A B", new String(target, 0, 3));
+
+        StringBuilder out = new StringBuilder("x");
+        appendText(bits, 0, 7, out);
+        assertEquals("xA B", out.toString());
+
+        assertEquals("", decodeText(bits, 36, 1));
+    }
+
+    @Test
+    public void canDecodeTextFromBitString() {
+        assertEquals("A B", STRING_DECODER.apply("000000000001000000000010000000" + "0000"));
+    }
 
-}
\ No newline at end of file
+}
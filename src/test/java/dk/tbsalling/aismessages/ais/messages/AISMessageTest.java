@@ -1,6 +1,10 @@
 package dk.tbsalling.aismessages.ais.messages;
 
 import dk.tbsalling.aismessages.ais.exceptions.UnsupportedMessageType;
+import dk.tbsalling.aismessages.ais.messages.types.AISMessageType;
+import dk.tbsalling.aismessages.nmea.DecodeResult;
+import dk.tbsalling.aismessages.nmea.DecodeStatus;
+import dk.tbsalling.aismessages.nmea.exceptions.InvalidMessage;
 import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
 
 import org.junit.Test;
@@ -11,8 +15,12 @@ import java.io.ObjectOutputStream;
 import java.io.Serializable;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class AISMessageTest {
 
@@ -21,6 +29,19 @@ public class AISMessageTest {
         AISMessage.create(NMEAMessage.fromString("!AIVDM,1,1,,B,00,4*21"));
     }
 
+    @Test
+    public void errorKeepsItsNmeaMessagesUndecoded() throws Exception {
+        NMEAMessage[] nmeaMessages = { NMEAMessage.fromString("!AIVDM,1,1,,B,15MqdBP000G@qoLEi69PVGaN0D0=,0*3A") };
+        Error error = new Error(nmeaMessages, DecodeStatus.UNSUPPORTED_TYPE);
+
+        assertSame(nmeaMessages, error.getNmeaMessages());
+        assertEquals(DecodeStatus.UNSUPPORTED_TYPE, error.getStatus());
+        AISMessage decoded = AISMessage.create(nmeaMessages);
+        assertEquals(decoded.getRepeatIndicator(), error.getRepeatIndicator());
+        assertEquals(decoded.getSourceMmsi().getMMSI(), error.getSourceMmsi().getMMSI());
+        assertTrue(error.toString().contains(nmeaMessages[0].toString()));
+    }
+
     @Test
     public void isSerializable() throws Exception {
         // Type 1
@@ -65,6 +86,83 @@ public class AISMessageTest {
         assertEquals("!BSVDM,2,2,5,A,888888888888880,2*38", nmeaMessages[1].getRawMessage());
     }
 
+    @Test
+    public void canRegisterCustomFactory() throws Exception {
+        AISMessageFactory builtIn = AISMessage.getFactory(AISMessageType.PositionReportClassAScheduled);
+        AISMessageFactory custom = (nmeaMessages, payload) -> new PositionReportClassAScheduled(nmeaMessages, payload) {
+            @Override
+            public String toString() {
+                return "custom";
+            }
+        };
+        try {
+            assertSame(builtIn, AISMessage.register(AISMessageType.PositionReportClassAScheduled, custom));
+            AISMessage aisMessage = AISMessage.create(NMEAMessage.fromString("!BSVDM,1,1,,A,1:02Ih001U0d=V:Op85<2aT>0<0F,0*3B"));
+            assertEquals("custom", aisMessage.toString());
+            assertEquals(AISMessageType.PositionReportClassAScheduled, aisMessage.getMessageType());
+        } finally {
+            AISMessage.register(AISMessageType.PositionReportClassAScheduled, builtIn);
+        }
+        assertTrue(AISMessage.create(NMEAMessage.fromString("!BSVDM,1,1,,A,1:02Ih001U0d=V:Op85<2aT>0<0F,0*3B")) instanceof PositionReportClassAScheduled);
+    }
+
+    @Test(expected = UnsupportedMessageType.class)
+    public void rejectsTypeWithoutFactory() throws Exception {
+        AISMessageFactory builtIn = AISMessage.register(AISMessageType.BaseStationReport, null);
+        try {
+            AISMessage.create(NMEAMessage.fromString("!AIVDM,1,1,,B,4h3Ovk1udp6I9o>jPHEdjdW000S:,0*0C"));
+        } finally {
+            AISMessage.register(AISMessageType.BaseStationReport, builtIn);
+        }
+    }
+
+    @Test
+    public void decodesWrongLengthAsFarAsItGoes() throws Exception {
+        // Type 1 truncated to 162 bits, and type 18 shortened to 166 bits by fill bits
+        NMEAMessage truncated = NMEAMessage.fromString("!AIVDM,1,1,,B,15MqdBP000G@qoLEi69PVGaN0D0,0*07");
+        NMEAMessage filled = NMEAMessage.fromString("!AIVDM,1,1,,A,B5NJ;PP005l4ot5Isbl03wsUkP06,2*74");
+        DecodeResult result = new DecodeResult();
+
+        assertEquals(DecodeStatus.OK, AISMessage.tryCreate(result, truncated));
+        assertFalse(result.getAisMessage().isValid());
+        assertEquals(AISMessageType.PositionReportClassAScheduled, result.getAisMessage().getMessageType());
+        assertEquals(DecodeStatus.OK, AISMessage.tryCreate(result, filled));
+        assertFalse(result.getAisMessage().isValid());
+        assertFalse(AISMessage.create(truncated).isValid());
+
+        assertEquals(DecodeStatus.OK, AISMessage.tryCreate(result, NMEAMessage.fromString("!AIVDM,1,1,,A,B5NJ;PP005l4ot5Isbl03wsUkP06,0*76")));
+        assertTrue(result.getAisMessage().isValid());
+    }
+
+    @Test
+    public void rejectsShipAndVoyageDataOfWrongLength() throws Exception {
+        // Type 5 in a single sentence, without its second fragment
+        NMEAMessage truncated = NMEAMessage.fromString("!AIVDM,1,1,,B,55DA><02=6wpPuID000qTf059@DlU<00000000171lMDD4q20LmDp3hB,0*17");
+        DecodeResult result = new DecodeResult();
+
+        assertEquals(DecodeStatus.WRONG_LENGTH, AISMessage.tryCreate(result, truncated));
+        assertNull(result.getAisMessage());
+        try {
+            AISMessage.create(truncated);
+            fail("Expected InvalidMessage");
+        } catch (InvalidMessage e) {
+            assertEquals(DecodeStatus.WRONG_LENGTH, e.getStatus());
+        }
+    }
+
+    @Test
+    public void canLookUpMessageTypes() {
+        assertEquals(AISMessageType.PositionReportClassAScheduled, AISMessageType.fromInteger(1));
+        assertEquals(AISMessageType.LongRangeBroadcastMessage, AISMessageType.fromInteger(27));
+        assertNull(AISMessageType.fromInteger(0));
+        assertNull(AISMessageType.fromInteger(-1));
+        assertNull(AISMessageType.fromInteger(64));
+        assertTrue(AISMessageType.ShipAndVoyageRelatedData.isValidLength(422));
+        assertFalse(AISMessageType.ShipAndVoyageRelatedData.isValidLength(423));
+        assertTrue(AISMessageType.GNSSBinaryBroadcastMessage.isValidLength(80));
+        assertFalse(AISMessageType.GNSSBinaryBroadcastMessage.isValidLength(817));
+    }
+
     private boolean isSerializable(Object object) {
         assertTrue(object instanceof Serializable);
 
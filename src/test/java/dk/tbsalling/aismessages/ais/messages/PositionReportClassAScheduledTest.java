@@ -1,5 +1,6 @@
 package dk.tbsalling.aismessages.ais.messages;
 
+import dk.tbsalling.aismessages.ais.Decoders;
 import dk.tbsalling.aismessages.ais.messages.types.AISMessageType;
 import dk.tbsalling.aismessages.ais.messages.types.MMSI;
 import dk.tbsalling.aismessages.ais.messages.types.ManeuverIndicator;
@@ -36,4 +37,44 @@ public class PositionReportClassAScheduledTest {
         assertEquals(ManeuverIndicator.NotAvailable, message.getManeuverIndicator());
         assertFalse(message.getRaimFlag());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void canDecodeRawValues() throws Exception {
+        PositionReport message = (PositionReport) AISMessage.create(NMEAMessage.fromString("!AIVDM,1,1,,A,13@nePh01>PjcO4PGReoJEmL0HJg,0*67"));
+
+        assertEquals(219000195L, message.getSourceMmsiAsLong());
+        assertEquals(0, message.getRateOfTurnRaw());
+        assertEquals(78, message.getSpeedOverGroundRaw());
+        assertEquals(message.getLatitude(), message.getLatitudeRaw() / 600000f, 0f);
+        assertEquals(message.getLongitude(), message.getLongitudeRaw() / 600000f, 0f);
+        assertEquals(1897, message.getCourseOverGroundRaw());
+        assertEquals(186, message.getTrueHeadingRaw());
+    }
+    @Test
+    public void canDecodeNegativeValues() throws Exception {
+        // Rate of turn 10000000 and longitude 1011100101011100011011001111; negative values are the negated inverted value bits
+        PositionReport message = (PositionReport) AISMessage.create(NMEAMessage.fromString("!AIVDM,1,1,,A,13@nePhP1>o:pnNPGRf7JEmL0000,0*37"));
+
+        assertEquals((Integer) (-127), message.getRateOfTurn());
+        assertEquals(-127, message.getRateOfTurnRaw());
+        assertEquals(-74070320, message.getLongitudeRaw());
+        assertEquals(-123.450533333333f, message.getLongitude(), 0f);
+        assertEquals(Decoders.INTEGER_DECODER.apply("10000000"), message.getRateOfTurn());
+        assertEquals(Decoders.FLOAT_DECODER.apply("1011100101011100011011001111") / 600000f, message.getLongitude(), 0f);
+        assertEquals(Float.valueOf(56.56692f), message.getLatitude());
+    }
+
+    @Test
+    public void cachedValuesAreStable() throws Exception {
+        PositionReport message = (PositionReport) AISMessage.create(NMEAMessage.fromString("!AIVDM,1,1,,A,13@nePh01>PjcO4PGReoJEmL0HJg,0*67"));
+
+        for (int i = 0; i < 2; i++) {
+            assertEquals(Float.valueOf(7.8f), message.getSpeedOverGround());
+            assertEquals(Integer.valueOf(186), message.getTrueHeading());
+            assertEquals(Boolean.TRUE, message.getPositionAccurate());
+            assertEquals(Integer.valueOf(0), message.getRepeatIndicator());
+            assertEquals(219000195L, message.getSourceMmsi().getMMSI().longValue());
+        }
+    }
+
+}
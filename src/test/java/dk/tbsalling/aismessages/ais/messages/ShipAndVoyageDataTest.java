@@ -41,6 +41,14 @@ public class ShipAndVoyageDataTest {
         assertEquals("06-03 19:00", message.getEta());
         assertEquals("SFO 70", message.getDestination());
         assertFalse(message.getDataTerminalReady());
+
+        StringBuilder names = new StringBuilder();
+        message.appendShipName(names);
+        names.append('|');
+        message.appendCallsign(names);
+        names.append('|');
+        message.appendDestination(names);
+        assertEquals("MISSISSIPPI VOYAGER|WDD7294|SFO 70", names.toString());
     }
 
     @Test
@@ -0,0 +1,104 @@
+/*
+ * AISMessages
+ * - a java-based library for decoding of AIS messages from digital VHF radio traffic related
+ * to maritime navigation and safety in compliance with ITU 1371.
+ *
+ * (C) Copyright 2011- by S-Consult ApS, DK31327490, http://s-consult.dk, Denmark.
+ *
+ * Released under the Creative Commons Attribution-NonCommercial-ShareAlike 3.0 Unported License.
+ * For details of this license see the nearby LICENCE-full file, visit http://creativecommons.org/licenses/by-nc-sa/3.0/
+ * or send a letter to Creative Commons, 171 Second Street, Suite 300, San Francisco, California, 94105, USA.
+ *
+ * NOT FOR COMMERCIAL USE!
+ * Contact sales@s-consult.dk to obtain a commercially licensed version of this software.
+ *
+ */
+
+package dk.tbsalling.aismessages.jfr;
+
+import dk.tbsalling.aismessages.ais.messages.PositionReportClassAScheduled;
+import dk.tbsalling.aismessages.nmea.NMEAMessageHandler;
+import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DecodeEventTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void emitsEventsAroundDecodingStages() throws Exception {
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            for (String name : new String[] { "SentenceParse", "FragmentReassembly", "MessageCreate", "PayloadDecode", "Dispatch" }) {
+                recording.enable("dk.tbsalling.aismessages." + name).withThreshold(Duration.ZERO);
+            }
+            recording.start();
+
+            NMEAMessageHandler handler = new NMEAMessageHandler("JFR", m -> {});
+            handler.accept(NMEAMessage.fromString("!AIVDM,2,1,3,B,55DA><02=6wpPuID000qTf059@DlU<00000000171lMDD4q20LmDp3hB,0*27"));
+            handler.accept(NMEAMessage.fromString("!AIVDM,2,2,3,B,p=Mh00000000000,2*4C"));
+            new PositionReportClassAScheduled(new NMEAMessage[] { NMEAMessage.fromString("!AIVDM,1,1,,B,15MqdBP000G@qoLEi69PVGaN0D0=,0*3A") }).getSpeedOverGround();
+
+            recording.stop();
+            Path file = folder.getRoot().toPath().resolve("decode.jfr");
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file);
+        }
+
+        List<RecordedEvent> parses = named(events, "SentenceParse");
+        assertEquals(3, parses.size());
+        assertEquals("OK", parses.get(0).getString("status"));
+        assertEquals(2, parses.get(0).getInt("fragments"));
+
+        List<RecordedEvent> reassemblies = named(events, "FragmentReassembly");
+        assertEquals(2, reassemblies.size());
+        assertEquals("JFR", reassemblies.get(1).getString("source"));
+        assertTrue(reassemblies.get(1).getBoolean("complete"));
+
+        List<RecordedEvent> creates = named(events, "MessageCreate");
+        assertEquals(1, creates.size());
+        assertEquals("ShipAndVoyageRelatedData", creates.get(0).getString("messageType"));
+        assertEquals(2, creates.get(0).getInt("fragments"));
+
+        List<RecordedEvent> dispatches = named(events, "Dispatch");
+        assertEquals(1, dispatches.size());
+        assertEquals(1, dispatches.get(0).getInt("receivers"));
+
+        List<RecordedEvent> payloads = named(events, "PayloadDecode");
+        assertEquals(1, payloads.size());
+        assertEquals("PositionReportClassAScheduled", payloads.get(0).getString("messageType"));
+        assertEquals(168, payloads.get(0).getInt("bits"));
+    }
+
+    @Test
+    public void canLoadRecordingProfile() throws Exception {
+        Configuration configuration = RecordingProfile.load();
+
+        assertEquals("AISMessages", configuration.getLabel());
+        assertEquals("50 us", configuration.getSettings().get("dk.tbsalling.aismessages.MessageCreate#threshold"));
+        assertEquals("true", configuration.getSettings().get("dk.tbsalling.aismessages.Dispatch#enabled"));
+    }
+
+    private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+        return events.stream()
+                .filter(e -> e.getEventType().getName().equals("dk.tbsalling.aismessages." + name))
+                .sorted((a, b) -> a.getStartTime().compareTo(b.getStartTime()))
+                .collect(Collectors.toList());
+    }
+
+}
@@ -0,0 +1,171 @@
+/*
+ * AISMessages
+ * - a java-based library for decoding of AIS messages from digital VHF radio traffic related
+ * to maritime navigation and safety in compliance with ITU 1371.
+ *
+ * (C) Copyright 2011- by S-Consult ApS, DK31327490, http://s-consult.dk, Denmark.
+ *
+ * Released under the Creative Commons Attribution-NonCommercial-ShareAlike 3.0 Unported License.
+ * For details of this license see the nearby LICENCE-full file, visit http://creativecommons.org/licenses/by-nc-sa/3.0/
+ * or send a letter to Creative Commons, 171 Second Street, Suite 300, San Francisco, California, 94105, USA.
+ *
+ * NOT FOR COMMERCIAL USE!
+ * Contact sales@s-consult.dk to obtain a commercially licensed version of this software.
+ *
+ */
+
+package dk.tbsalling.aismessages.metrics;
+
+import dk.tbsalling.aismessages.nmea.DecodeStatus;
+import dk.tbsalling.aismessages.nmea.NMEAMessageHandler;
+import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
+import org.junit.After;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class MetricsRegistryTest {
+
+    private static final String SOURCE = "MetricsRegistryTest \"feed\", 1";
+
+    @After
+    public void tearDown() {
+        MetricsRegistry.getDefault().remove(SOURCE);
+    }
+
+    @Test
+    public void handlerRecordsMetricsPerSource() throws Exception {
+        NMEAMessageHandler handler = new NMEAMessageHandler(SOURCE, m -> {});
+
+        handler.accept(NMEAMessage.fromString("!AIVDM,1,1,,B,15MqdBP000G@qoLEi69PVGaN0D0=,0*3A"));
+        handler.accept(NMEAMessage.fromString("!AIVDM,1,1,,B,15MqdBP000G@qoLEi69PVGaN0D0=,0*3B"));
+        handler.accept(NMEAMessage.fromString("!AIVDM,2,1,3,B,55DA><02=6wpPuID000qTf059@DlU<00000000171lMDD4q20LmDp3hB,0*27"));
+        handler.accept(NMEAMessage.fromString("!AIVDM,2,1,3,B,55DA><02=6wpPuID000qTf059@DlU<00000000171lMDD4q20LmDp3hB,0*27"));
+        handler.accept(NMEAMessage.fromString("!AIVDM,2,2,3,B,p=Mh00000000000,2*4C"));
+
+        SourceMetrics metrics = MetricsRegistry.getDefault().forSource(SOURCE);
+        assertEquals(5, metrics.getSentences());
+        assertEquals(1, metrics.getChecksumFailures());
+        assertEquals(3, metrics.getMessages());
+        assertEquals(1, metrics.getDroppedFragments());
+        assertEquals(2L, (long) metrics.getMessagesByType().get("PositionReportClassAScheduled"));
+        assertEquals(1L, (long) metrics.getMessagesByType().get("ShipAndVoyageRelatedData"));
+        assertEquals(2L, (long) metrics.getDecodeOutcomes().get(DecodeStatus.INCOMPLETE.name()));
+    }
+
+    @Test
+    public void registersMXBeanPerSource() throws Exception {
+        SourceMetrics metrics = MetricsRegistry.getDefault().forSource(SOURCE);
+        assertSame(metrics, MetricsRegistry.getDefault().forSource(SOURCE));
+        metrics.recordLine(true);
+        metrics.recordLine(false);
+        metrics.recordDecodeNanos(1000);
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = MetricsRegistry.objectNameOf(SOURCE);
+        assertTrue(server.isRegistered(name));
+        assertEquals(2L, server.getAttribute(name, "Lines"));
+        assertEquals(1L, server.getAttribute(name, "RejectedLines"));
+        assertEquals(1000L, server.getAttribute(name, "DecodeLatencyMaxNanos"));
+        TabularData outcomes = (TabularData) server.getAttribute(name, "DecodeOutcomes");
+        CompositeData ok = outcomes.get(new Object[] { DecodeStatus.OK.name() });
+        assertEquals(0L, ok.get("value"));
+
+        server.invoke(name, "reset", null, null);
+        assertEquals(0, metrics.getLines());
+
+        MetricsRegistry.getDefault().remove(SOURCE);
+        assertFalse(server.isRegistered(name));
+    }
+
+    @Test
+    public void capsNumberOfSources() {
+        MetricsRegistry registry = new MetricsRegistry(false, 2);
+        SourceMetrics a = registry.forSource("A");
+        registry.forSource("B");
+        SourceMetrics c = registry.forSource("C");
+
+        assertSame(registry.forSource(MetricsRegistry.OTHER_SOURCES), c);
+        assertSame(c, registry.forSource("D"));
+        assertSame(a, registry.forSource("A"));
+        assertEquals(3, registry.getSources().size());
+
+        registry.remove("B");
+        registry.remove(MetricsRegistry.OTHER_SOURCES);
+        assertEquals("C", registry.forSource("C").getSource());
+    }
+
+    @Test
+    public void handlerRemovesMetricsOfItsSourcesOnClose() throws Exception {
+        NMEAMessageHandler handler = new NMEAMessageHandler(SOURCE, m -> {});
+        handler.forSource(SOURCE + " 2").accept(NMEAMessage.fromString("!AIVDM,1,1,,B,15MqdBP000G@qoLEi69PVGaN0D0=,0*3A"));
+        assertTrue(MetricsRegistry.getDefault().getSources().containsKey(SOURCE));
+        assertEquals(1, MetricsRegistry.getDefault().getSources().get(SOURCE + " 2").getMessages());
+
+        handler.close();
+        assertFalse(MetricsRegistry.getDefault().getSources().containsKey(SOURCE));
+        assertFalse(MetricsRegistry.getDefault().getSources().containsKey(SOURCE + " 2"));
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(MetricsRegistry.objectNameOf(SOURCE + " 2")));
+    }
+
+    @Test
+    public void handlerKeepsMetricsOfSourcesSharedWithOtherHandlersOnClose() throws Exception {
+        NMEAMessageHandler first = new NMEAMessageHandler(SOURCE, m -> {});
+        NMEAMessageHandler second = new NMEAMessageHandler("DEFAULT", m -> {});
+        second.forSource(SOURCE).accept(NMEAMessage.fromString("!AIVDM,1,1,,B,15MqdBP000G@qoLEi69PVGaN0D0=,0*3A"));
+        SourceMetrics metrics = MetricsRegistry.getDefault().getSources().get(SOURCE);
+
+        first.close();
+        first.close();
+        assertSame(metrics, MetricsRegistry.getDefault().getSources().get(SOURCE));
+        assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(MetricsRegistry.objectNameOf(SOURCE)));
+
+        second.close();
+        assertFalse(MetricsRegistry.getDefault().getSources().containsKey(SOURCE));
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(MetricsRegistry.objectNameOf(SOURCE)));
+    }
+
+    @Test
+    public void releasesAcquiredMetricsOnLastRelease() {
+        MetricsRegistry registry = new MetricsRegistry(false, 2);
+        SourceMetrics a = registry.acquire("A");
+        assertSame(a, registry.acquire("A"));
+        SourceMetrics b = registry.acquire("B");
+        SourceMetrics other = registry.acquire("C");
+        assertEquals(MetricsRegistry.OTHER_SOURCES, other.getSource());
+
+        registry.release(a);
+        assertSame(a, registry.forSource("A"));
+        registry.release(a);
+        assertFalse(registry.getSources().containsKey("A"));
+
+        registry.remove("B");
+        registry.release(b);
+        assertFalse(registry.getSources().containsKey("B"));
+        registry.release(other);
+        assertFalse(registry.getSources().containsKey(MetricsRegistry.OTHER_SOURCES));
+    }
+
+    @Test
+    public void samplesDecodeLatency() {
+        SourceMetrics metrics = new SourceMetrics("test", 4);
+        int sampled = 0;
+        for (int i = 0; i < 40000; i++) {
+            if (metrics.isLatencySampled()) {
+                sampled++;
+            }
+        }
+        assertTrue("sampled " + sampled, sampled > 8000 && sampled < 12000);
+        assertTrue(new SourceMetrics("test", 1).isLatencySampled());
+    }
+
+}
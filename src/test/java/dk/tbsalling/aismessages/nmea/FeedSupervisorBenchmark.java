@@ -0,0 +1,123 @@
+/*
+ * AISMessages
+ * - a java-based library for decoding of AIS messages from digital VHF radio traffic related
+ * to maritime navigation and safety in compliance with ITU 1371.
+ *
+ * (C) Copyright 2011- by S-Consult ApS, DK31327490, http://s-consult.dk, Denmark.
+ *
+ * Released under the Creative Commons Attribution-NonCommercial-ShareAlike 3.0 Unported License.
+ * For details of this license see the nearby LICENCE-full file, visit http://creativecommons.org/licenses/by-nc-sa/3.0/
+ * or send a letter to Creative Commons, 171 Second Street, Suite 300, San Francisco, California, 94105, USA.
+ *
+ * NOT FOR COMMERCIAL USE!
+ * Contact sales@s-consult.dk to obtain a commercially licensed version of this software.
+ *
+ */
+
+package dk.tbsalling.aismessages.nmea;
+
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compares running many simulated feeds on platform threads and on virtual threads, when supported.
+ * Each feed delivers a sentence every few milliseconds, like a slow network feed.
+ *
+ * Run with: java -cp target/classes:target/test-classes dk.tbsalling.aismessages.nmea.FeedSupervisorBenchmark [feeds] [sentencesPerFeed]
+ */
+public class FeedSupervisorBenchmark {
+
+    private static final byte[] SENTENCE = "!AIVDM,1,1,,B,15MqdBP000G@qoLEi69PVGaN0D0=,0*3A\r\n".getBytes(StandardCharsets.US_ASCII);
+    private static final long INTERVAL_MILLIS = 5;
+
+    public static void main(String[] args) throws Exception {
+        final int feeds = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        final int sentencesPerFeed = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        System.out.println("Feeds: " + feeds + ", sentences per feed: " + sentencesPerFeed + ", interval: " + INTERVAL_MILLIS + " ms");
+        run("platform", FeedSupervisor.platformThreadFactory(), feeds, sentencesPerFeed);
+        if (FeedSupervisor.isVirtualThreadSupported()) {
+            run("virtual", FeedSupervisor.virtualThreadFactory(), feeds, sentencesPerFeed);
+        } else {
+            System.out.println("virtual: not supported by this JVM");
+        }
+    }
+
+    private static void run(String name, ThreadFactory threadFactory, int feeds, int sentencesPerFeed) throws Exception {
+        final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        System.gc();
+        final long heapBefore = usedHeap();
+
+        final LongAdder received = new LongAdder();
+        final NMEAMessageHandler handler = new NMEAMessageHandler("BENCHMARK", 64, FragmentReassembler::new, m -> received.increment());
+        final FeedSupervisor supervisor = new FeedSupervisor(threadFactory, 60000, 60000);
+        for (int i = 0; i < feeds; i++) {
+            supervisor.addFeed("feed" + i, () -> new SimulatedFeed(sentencesPerFeed), handler.forSource("feed" + i));
+        }
+
+        final long start = System.nanoTime();
+        supervisor.start();
+        long heapPeak = 0;
+        final long expected = (long) feeds * sentencesPerFeed;
+        while (received.sum() < expected) {
+            heapPeak = Math.max(heapPeak, usedHeap() - heapBefore);
+            Thread.sleep(10);
+        }
+        final long elapsed = System.nanoTime() - start;
+        final int peakThreads = threads.getPeakThreadCount();
+        supervisor.close();
+
+        System.out.printf("%-8s: %,d messages in %,d ms (%,.0f messages/s), peak platform threads %d, peak heap growth %,d KB%n",
+                name, expected, TimeUnit.NANOSECONDS.toMillis(elapsed), expected * 1e9 / elapsed, peakThreads, heapPeak / 1024);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /** A stream which delivers one sentence per interval, and then blocks until closed. */
+    private static final class SimulatedFeed extends InputStream {
+        private int remaining;
+        private volatile boolean closed;
+
+        SimulatedFeed(int sentences) {
+            this.remaining = sentences;
+        }
+
+        @Override
+        public int read() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            try {
+                while (remaining == 0 && !closed) {
+                    Thread.sleep(100);
+                }
+                if (closed) {
+                    return -1;
+                }
+                Thread.sleep(INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                return -1;
+            }
+            remaining--;
+            System.arraycopy(SENTENCE, 0, b, off, SENTENCE.length);
+            return SENTENCE.length;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+}
@@ -0,0 +1,151 @@
+/*
+ * AISMessages
+ * - a java-based library for decoding of AIS messages from digital VHF radio traffic related
+ * to maritime navigation and safety in compliance with ITU 1371.
+ *
+ * (C) Copyright 2011- by S-Consult ApS, DK31327490, http://s-consult.dk, Denmark.
+ *
+ * Released under the Creative Commons Attribution-NonCommercial-ShareAlike 3.0 Unported License.
+ * For details of this license see the nearby LICENCE-full file, visit http://creativecommons.org/licenses/by-nc-sa/3.0/
+ * or send a letter to Creative Commons, 171 Second Street, Suite 300, San Francisco, California, 94105, USA.
+ *
+ * NOT FOR COMMERCIAL USE!
+ * Contact sales@s-consult.dk to obtain a commercially licensed version of this software.
+ *
+ */
+
+package dk.tbsalling.aismessages.nmea;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FeedSupervisorTest {
+
+    private static final byte[] SENTENCES = (
+            "!AIVDM,1,1,,B,15MqdBP000G@qoLEi69PVGaN0D0=,0*3A\r\n" +
+            "!AIVDM,2,1,3,B,55DA><02=6wpPuID000qTf059@DlU<00000000171lMDD4q20LmDp3hB,0*27\r\n" +
+            "!AIVDM,2,2,3,B,p=Mh00000000000,2*4C\r\n").getBytes(StandardCharsets.US_ASCII);
+
+    @Test
+    public void runsAndReconnectsManyFeeds() throws Exception {
+        runFeeds(new FeedSupervisor(FeedSupervisor.platformThreadFactory(), 1, 10));
+    }
+
+    @Test
+    public void runsFeedsOnVirtualThreads() throws Exception {
+        Assume.assumeTrue(FeedSupervisor.isVirtualThreadSupported());
+        runFeeds(new FeedSupervisor(FeedSupervisor.virtualThreadFactory(), 1, 10));
+    }
+
+    private static void runFeeds(FeedSupervisor supervisor) throws Exception {
+        final int feeds = 100;
+        final CountDownLatch reconnected = new CountDownLatch(feeds);
+        final AtomicInteger messages = new AtomicInteger();
+        NMEAMessageHandler handler = new NMEAMessageHandler("TEST", 16, FragmentReassembler::new, m -> messages.incrementAndGet());
+        for (int i = 0; i < feeds; i++) {
+            final AtomicInteger opened = new AtomicInteger();
+            supervisor.addFeed("feed" + i, () -> {
+                // A connection is counted after it has been opened, so wait for the third to count two
+                if (opened.incrementAndGet() == 3) {
+                    reconnected.countDown();
+                }
+                return new ByteArrayInputStream(SENTENCES);
+            }, handler.forSource("feed" + i));
+        }
+
+        supervisor.start();
+        assertTrue(reconnected.await(10, TimeUnit.SECONDS));
+        supervisor.close();
+
+        for (FeedSupervisor.Feed feed : supervisor.getFeeds()) {
+            assertFalse(feed.isRunning());
+            assertTrue(feed.getConnects() >= 2);
+            // The last connection may have been closed before all messages were read
+            assertTrue(feed.getMessages() >= 3 * (feed.getConnects() - 1));
+            assertTrue(feed.getMessages() <= 3 * feed.getConnects());
+        }
+        assertTrue(messages.get() >= 2 * 2 * feeds);
+    }
+
+    @Test
+    public void canStopAndRestartBlockedFeed() throws Exception {
+        final AtomicInteger opened = new AtomicInteger();
+        FeedSupervisor supervisor = new FeedSupervisor(FeedSupervisor.platformThreadFactory(), 1, 10);
+        final CountDownLatch[] reading = { new CountDownLatch(1) };
+        FeedSupervisor.Feed feed = supervisor.addFeed("blocked", () -> {
+            opened.incrementAndGet();
+            return new BlockingInputStream(reading[0]);
+        }, m -> {});
+        supervisor.start();
+        assertTrue(reading[0].await(5, TimeUnit.SECONDS));
+
+        supervisor.stop(feed);
+        assertFalse(feed.isRunning());
+        assertEquals(1, opened.get());
+
+        reading[0] = new CountDownLatch(1);
+        supervisor.start(feed);
+        assertTrue(reading[0].await(5, TimeUnit.SECONDS));
+        assertTrue(feed.isConnected());
+        supervisor.close();
+
+        assertEquals(2, opened.get());
+        assertEquals(0, feed.getErrors());
+    }
+
+    @Test
+    public void canStopFeedWhileConnecting() throws Exception {
+        FeedSupervisor supervisor = new FeedSupervisor(FeedSupervisor.platformThreadFactory(), 1, 10);
+        NMEAMessageHandler handler = new NMEAMessageHandler("TEST", m -> {});
+        // Not routable, so the connect hangs until it times out, unless the network is unreachable altogether
+        FeedSupervisor.Feed feed = supervisor.addSocketFeed("connecting", "10.255.255.1", 4001, 60000, handler);
+        supervisor.start();
+        Thread.sleep(200);
+
+        final long start = System.nanoTime();
+        supervisor.stop(feed);
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+        assertFalse(feed.isRunning());
+        supervisor.close();
+        handler.close();
+    }
+
+    /** A stream which blocks in read until it is closed. */
+    private static class BlockingInputStream extends InputStream {
+        private final CountDownLatch reading;
+        private final CountDownLatch closed = new CountDownLatch(1);
+
+        BlockingInputStream(CountDownLatch reading) {
+            this.reading = reading;
+        }
+
+        @Override
+        public int read() throws IOException {
+            reading.countDown();
+            try {
+                closed.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return -1;
+        }
+
+        @Override
+        public void close() {
+            closed.countDown();
+        }
+    }
+
+}
@@ -0,0 +1,125 @@
+package dk.tbsalling.aismessages.nmea;
+
+import dk.tbsalling.aismessages.ais.messages.AISMessage;
+import dk.tbsalling.aismessages.ais.messages.ShipAndVoyageData;
+import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class FragmentReassemblerTest {
+
+    private NMEAMessage a1, a2, b1, b2;
+
+    private long now;
+
+    @Before
+    public void setUp() throws Exception {
+        a1 = NMEAMessage.fromString("!AIVDM,2,1,3,A,55MuUD02;EFUL@CO;W@lU=<U=<U10V1HuT4LE:1DC@T>B4kC0DliSp=t,0*14");
+        a2 = NMEAMessage.fromString("!AIVDM,2,2,3,A,888888888888880,2*27");
+        b1 = NMEAMessage.fromString("!AIVDM,2,1,3,B,55DA><02=6wpPuID000qTf059@DlU<00000000171lMDD4q20LmDp3hB,0*27");
+        b2 = NMEAMessage.fromString("!AIVDM,2,2,3,B,p=Mh00000000000,2*4C");
+    }
+
+    private FragmentReassembler newReassembler(int maxGroups) {
+        return new FragmentReassembler(maxGroups, 1000, () -> now);
+    }
+
+    @Test
+    public void canReassembleInterleavedMessages() {
+        FragmentReassembler reassembler = newReassembler(10);
+
+        assertNull(reassembler.add("S", a1));
+        assertNull(reassembler.add("S", b1));
+        assertEquals(2, reassembler.getNumberOfGroups());
+        assertArrayEquals(new NMEAMessage[] {b1, b2}, reassembler.add("S", b2));
+        assertArrayEquals(new NMEAMessage[] {a1, a2}, reassembler.add("S", a2));
+        assertEquals(0, reassembler.getNumberOfGroups());
+        assertEquals(2, reassembler.getCompletedCount());
+    }
+
+    @Test
+    public void canReassembleFragmentsOutOfOrder() {
+        FragmentReassembler reassembler = newReassembler(10);
+
+        assertNull(reassembler.add("S", a2));
+        assertArrayEquals(new NMEAMessage[] {a1, a2}, reassembler.add("S", a1));
+    }
+
+    @Test
+    public void keepsSourcesApart() {
+        FragmentReassembler reassembler = newReassembler(10);
+
+        assertNull(reassembler.add("S1", a1));
+        assertNull(reassembler.add("S2", a2));
+        assertEquals(2, reassembler.getNumberOfGroups());
+    }
+
+    @Test
+    public void dropsConflictingGroup() {
+        FragmentReassembler reassembler = newReassembler(10);
+
+        assertNull(reassembler.add("S", a1));
+        assertNull(reassembler.add("S", a1));
+        assertEquals(1, reassembler.getConflictingCount());
+        assertArrayEquals(new NMEAMessage[] {a1, a2}, reassembler.add("S", a2));
+    }
+
+    @Test
+    public void expiresIncompleteGroups() {
+        FragmentReassembler reassembler = newReassembler(10);
+
+        assertNull(reassembler.add("S", a1));
+        now += TimeUnit.MILLISECONDS.toNanos(1000);
+        assertNull(reassembler.add("S", a2));
+        assertEquals(1, reassembler.getExpiredCount());
+        assertEquals(1, reassembler.getNumberOfGroups());
+    }
+
+    @Test
+    public void evictsEldestGroupWhenFull() {
+        FragmentReassembler reassembler = newReassembler(1);
+
+        assertNull(reassembler.add("S", a1));
+        assertNull(reassembler.add("S", b1));
+        assertEquals(1, reassembler.getExpiredCount());
+        assertNull(reassembler.add("S", a2));
+
+        List<NMEAMessage> unhandled = reassembler.flush();
+        assertEquals(1, unhandled.size());
+        assertEquals(a2, unhandled.get(0));
+    }
+
+    @Test
+    public void handlerDecodesInterleavedMessages() {
+        List<AISMessage> received = new ArrayList<>();
+        NMEAMessageHandler handler = new NMEAMessageHandler("TEST", received::add);
+
+        handler.accept(a1);
+        handler.accept(b1);
+        handler.accept(a2);
+        handler.accept(b2);
+
+        assertEquals(2, received.size());
+        assertEquals("MISSISSIPPI VOYAGER", ((ShipAndVoyageData) received.get(0)).getShipName());
+        assertEquals(2, handler.getCompletedCount());
+    }
+
+    @Test
+    public void checksFragmentation() throws Exception {
+        assertEquals(DecodeStatus.OK, FragmentReassembler.checkFragment(NMEAMessage.fromString("!AIVDM,1,1,,B,15MqdBP000G@qoLEi69PVGaN0D0=,0*3A")));
+        assertEquals(DecodeStatus.OK, FragmentReassembler.checkFragment(b2));
+        assertEquals(DecodeStatus.INVALID_FRAGMENT, FragmentReassembler.checkFragment(NMEAMessage.fromString("!AIVDM,10,1,3,B,55DA><02=6wpPuID000qTf059@DlU<00000000171lMDD4q20LmDp3hB,0*14")));
+        assertEquals(DecodeStatus.INVALID_FRAGMENT, FragmentReassembler.checkFragment(NMEAMessage.fromString("!AIVDM,2,3,3,B,55DA><02=6wpPuID000qTf059@DlU<00000000171lMDD4q20LmDp3hB,0*25")));
+        assertEquals(DecodeStatus.INVALID_FRAGMENT, FragmentReassembler.checkFragment(NMEAMessage.fromString("!AIVDM,2,,3,B,55DA><02=6wpPuID000qTf059@DlU<00000000171lMDD4q20LmDp3hB,0*16")));
+    }
+
+}
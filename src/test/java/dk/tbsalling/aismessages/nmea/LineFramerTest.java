@@ -0,0 +1,57 @@
+package dk.tbsalling.aismessages.nmea;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class LineFramerTest {
+
+    @Test
+    public void canFrameLinesAcrossBuffers() {
+        List<String> lines = new ArrayList<>();
+        LineFramer framer = new LineFramer(lines::add);
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(64);
+        buffer.put("!AIVDM,1\r\n!AIVDM,2\n\n!AI".getBytes(StandardCharsets.US_ASCII)).flip();
+        framer.frame(buffer);
+        assertEquals(0, buffer.remaining());
+
+        byte[] bytes = "VDM,3\r!AIVDM,4".getBytes(StandardCharsets.US_ASCII);
+        framer.frame(bytes, 0, bytes.length);
+        framer.endOfInput();
+
+        assertEquals(Arrays.asList("!AIVDM,1", "!AIVDM,2", "!AIVDM,3", "!AIVDM,4"), lines);
+    }
+
+    @Test
+    public void dropsOversizedLines() {
+        List<String> lines = new ArrayList<>();
+        LineFramer framer = new LineFramer(4, lines::add);
+
+        byte[] bytes = "1234\n12345\n123\n".getBytes(StandardCharsets.US_ASCII);
+        framer.frame(bytes, 0, bytes.length);
+
+        assertEquals(Arrays.asList("1234", "123"), lines);
+        assertEquals(1, framer.getOversizedLines());
+    }
+
+    @Test
+    public void resetDropsPartialLine() {
+        List<String> lines = new ArrayList<>();
+        LineFramer framer = new LineFramer(lines::add);
+
+        byte[] bytes = "partial".getBytes(StandardCharsets.US_ASCII);
+        framer.frame(bytes, 0, bytes.length);
+        framer.reset();
+        framer.endOfInput();
+
+        assertEquals(0, lines.size());
+    }
+
+}
@@ -0,0 +1,142 @@
+/*
+ * AISMessages
+ * - a java-based library for decoding of AIS messages from digital VHF radio traffic related
+ * to maritime navigation and safety in compliance with ITU 1371.
+ *
+ * (C) Copyright 2011- by S-Consult ApS, DK31327490, http://s-consult.dk, Denmark.
+ *
+ * Released under the Creative Commons Attribution-NonCommercial-ShareAlike 3.0 Unported License.
+ * For details of this license see the nearby LICENCE-full file, visit http://creativecommons.org/licenses/by-nc-sa/3.0/
+ * or send a letter to Creative Commons, 171 Second Street, Suite 300, San Francisco, California, 94105, USA.
+ *
+ * NOT FOR COMMERCIAL USE!
+ * Contact sales@s-consult.dk to obtain a commercially licensed version of this software.
+ *
+ */
+
+package dk.tbsalling.aismessages.nmea;
+
+import dk.tbsalling.aismessages.ais.messages.AISMessage;
+import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MmsiPartitionerTest {
+
+    @Test
+    public void runsTasksOfSameMmsiInOrder() {
+        final int partitions = 4;
+        final List<List<Integer>> runs = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            runs.add(new ArrayList<>());
+        }
+
+        MmsiPartitioner partitioner = new MmsiPartitioner(partitions, 8);
+        for (int i = 0; i < 10000; i++) {
+            final int mmsi = i % 10, sequence = i;
+            partitioner.submit(mmsi, () -> runs.get(mmsi).add(sequence));
+        }
+        partitioner.close();
+
+        for (int mmsi = 0; mmsi < 10; mmsi++) {
+            List<Integer> run = runs.get(mmsi);
+            assertEquals(1000, run.size());
+            for (int j = 0; j < run.size(); j++) {
+                assertEquals(mmsi + 10 * j, (int) run.get(j));
+            }
+        }
+        long completed = 0;
+        for (int i = 0; i < partitions; i++) {
+            completed += partitioner.getCompletedCount(i);
+            assertEquals(0, partitioner.getQueueDepth(i));
+            assertTrue(partitioner.getMaxQueueDepth(i) <= 8);
+        }
+        assertEquals(10000, completed);
+    }
+
+    @Test(timeout = 60000)
+    public void closeEitherRunsOrRejectsConcurrentTasks() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            final MmsiPartitioner partitioner = new MmsiPartitioner(2, 4);
+            final AtomicInteger submitted = new AtomicInteger();
+            final AtomicInteger run = new AtomicInteger();
+            final Thread[] submitters = new Thread[3];
+            for (int t = 0; t < submitters.length; t++) {
+                final int mmsi = t;
+                submitters[t] = new Thread(() -> {
+                    try {
+                        while (true) {
+                            partitioner.submit(mmsi, run::incrementAndGet);
+                            submitted.incrementAndGet();
+                        }
+                    } catch (IllegalStateException e) {
+                        // Closed
+                    }
+                });
+                submitters[t].start();
+            }
+            Thread.sleep(round % 5);
+            partitioner.close();
+            for (Thread submitter : submitters) {
+                submitter.join();
+            }
+
+            assertEquals(submitted.get(), run.get());
+            assertEquals(0, partitioner.getQueueDepth());
+        }
+    }
+
+    @Test
+    public void handlerDispatchesInOrderPerMmsi() throws Exception {
+        final Map<Long, List<Integer>> received = new ConcurrentHashMap<>();
+        NMEAMessageHandler handler = new NMEAMessageHandler("TEST", (AISMessage m) ->
+                received.computeIfAbsent(m.getSourceMmsiAsLong(), k -> new ArrayList<>()).add(Integer.valueOf(m.getMetadata().getSource())));
+        MmsiPartitioner partitioner = new MmsiPartitioner(3);
+        handler.setPartitioner(partitioner);
+
+        final int vessels = 20, n = 100;
+        for (int i = 0; i < vessels * n; i++) {
+            handler.accept(String.valueOf(i), positionReport(219000000 + i % vessels));
+        }
+        partitioner.close();
+        // Removes the metrics of the many sources from the default registry
+        handler.close();
+
+        assertEquals(vessels, received.size());
+        for (Map.Entry<Long, List<Integer>> entry : received.entrySet()) {
+            List<Integer> sequence = entry.getValue();
+            assertEquals(n, sequence.size());
+            for (int j = 1; j < n; j++) {
+                assertTrue(sequence.get(j - 1) < sequence.get(j));
+            }
+        }
+    }
+
+    /** Encode a position report with the given MMSI and all other fields zero. */
+    static NMEAMessage positionReport(int mmsi) throws Exception {
+        final int[] sixBits = new int[28];
+        final long header = (1L << 36) | ((long) mmsi << 4); // Type 1, repeat indicator 0 and MMSI in the first 42 bits
+        for (int i = 0; i < 7; i++) {
+            sixBits[i] = (int) (header >>> (36 - 6 * i)) & 0x3f;
+        }
+        StringBuilder payload = new StringBuilder();
+        for (int value : sixBits) {
+            payload.append((char) (value < 40 ? value + 48 : value + 56));
+        }
+        String body = "AIVDM,1,1,,A," + payload + ",0";
+        int checksum = 0;
+        for (int i = 0; i < body.length(); i++) {
+            checksum ^= body.charAt(i);
+        }
+        return NMEAMessage.fromString(String.format("!%s*%02X", body, checksum));
+    }
+
+}
@@ -0,0 +1,154 @@
+/*
+ * AISMessages
+ * - a java-based library for decoding of AIS messages from digital VHF radio traffic related
+ * to maritime navigation and safety in compliance with ITU 1371.
+ *
+ * (C) Copyright 2011- by S-Consult ApS, DK31327490, http://s-consult.dk, Denmark.
+ *
+ * Released under the Creative Commons Attribution-NonCommercial-ShareAlike 3.0 Unported License.
+ * For details of this license see the nearby LICENCE-full file, visit http://creativecommons.org/licenses/by-nc-sa/3.0/
+ * or send a letter to Creative Commons, 171 Second Street, Suite 300, San Francisco, California, 94105, USA.
+ *
+ * NOT FOR COMMERCIAL USE!
+ * Contact sales@s-consult.dk to obtain a commercially licensed version of this software.
+ *
+ */
+
+package dk.tbsalling.aismessages.nmea;
+
+import dk.tbsalling.aismessages.ais.messages.types.AISMessageType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class NMEAMessageArchiveReaderTest {
+
+    private static final String SENTENCES =
+            "!AIVDM,1,1,,B,15MqdBP000G@qoLEi69PVGaN0D0=,0*3A\r\n" +
+            "!AIVDM,2,1,3,B,55DA><02=6wpPuID000qTf059@DlU<00000000171lMDD4q20LmDp3hB,0*27\r\n" +
+            "!AIVDM,2,2,3,B,p=Mh00000000000,2*4C\r\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private NMEAMessageArchiveReader reader;
+    private Map<String, List<AISMessageType>> received;
+    private NMEAMessageHandler handler;
+
+    @Before
+    public void setUp() {
+        // Small blocks, so that sentences are split across blocks
+        reader = new NMEAMessageArchiveReader(100, 2);
+        received = new ConcurrentHashMap<>();
+        handler = new NMEAMessageHandler("TEST", 4, FragmentReassembler::new, m ->
+                received.computeIfAbsent(m.getMetadata().getSource(), s -> new ArrayList<>()).add(m.getMessageType()));
+    }
+
+    @After
+    public void tearDown() {
+        reader.close();
+    }
+
+    @Test
+    public void canReadDirectoryOfArchives() throws Exception {
+        final int n = 500;
+        for (int i = 0; i < 4; i++) {
+            write("day" + i + ".nmea.gz", n, true);
+        }
+        write("day4.nmea", n, false);
+
+        assertEquals(4, reader.readDirectory(folder.getRoot().toPath(), "*.nmea.gz", 3, handler));
+
+        assertEquals(4, received.size());
+        for (int i = 0; i < 4; i++) {
+            List<AISMessageType> types = received.get("day" + i + ".nmea.gz");
+            assertEquals(2 * n, types.size());
+            for (int j = 0; j < types.size(); j++) {
+                assertEquals(j % 2 == 0 ? AISMessageType.PositionReportClassAScheduled : AISMessageType.ShipAndVoyageRelatedData, types.get(j));
+            }
+        }
+        assertEquals(4, reader.getFiles());
+        assertEquals(4 * 3 * n, reader.getLines());
+        assertEquals(0, reader.getErrors());
+    }
+
+    @Test
+    public void canReadUncompressedFile() throws Exception {
+        Path file = write("day.nmea", 10, false);
+
+        reader.readFile(file, handler);
+
+        assertEquals(20, received.get("day.nmea").size());
+    }
+
+    @Test
+    public void reportsCorruptArchive() throws Exception {
+        byte[] bytes = gzip(SENTENCES, 100);
+        try {
+            reader.read(new ByteArrayInputStream(bytes, 0, bytes.length / 2), true, "corrupt", handler);
+            fail("Expected IOException");
+        } catch (IOException e) {
+            // Expected
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void reportsUncheckedFailureOfStream() throws Exception {
+        byte[] bytes = repeat(SENTENCES, 10).getBytes(StandardCharsets.US_ASCII);
+        InputStream in = new SequenceInputStream(new ByteArrayInputStream(bytes), new InputStream() {
+            @Override
+            public int read() {
+                throw new IllegalStateException("Failed");
+            }
+        });
+        try {
+            reader.read(in, false, "failing", handler);
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            assertEquals("Failed", e.getMessage());
+        }
+    }
+
+    private Path write(String name, int n, boolean gzipped) throws IOException {
+        Path file = folder.getRoot().toPath().resolve(name);
+        Files.write(file, gzipped ? gzip(SENTENCES, n) : repeat(SENTENCES, n).getBytes(StandardCharsets.US_ASCII));
+        return file;
+    }
+
+    private static byte[] gzip(String content, int n) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(repeat(content, n).getBytes(StandardCharsets.US_ASCII));
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String repeat(String content, int n) {
+        StringBuilder s = new StringBuilder();
+        for (int i = 0; i < n; i++) {
+            s.append(content);
+        }
+        return s.toString();
+    }
+
+}
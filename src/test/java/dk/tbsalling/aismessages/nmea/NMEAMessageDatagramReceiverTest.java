@@ -0,0 +1,121 @@
+package dk.tbsalling.aismessages.nmea;
+
+import dk.tbsalling.aismessages.ais.messages.AISMessage;
+import dk.tbsalling.aismessages.metrics.MetricsRegistry;
+import dk.tbsalling.aismessages.metrics.SourceMetrics;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.MulticastSocket;
+import java.net.NetworkInterface;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class NMEAMessageDatagramReceiverTest {
+
+    private static final String SENTENCES =
+            "!AIVDM,1,1,,B,15MqdBP000G@qoLEi69PVGaN0D0=,0*3A\r\n" +
+            "garbage\r\n" +
+            "!AIVDM,2,1,3,B,55DA><02=6wpPuID000qTf059@DlU<00000000171lMDD4q20LmDp3hB,0*27\r\n" +
+            "!AIVDM,2,2,3,B,p=Mh00000000000,2*4C";
+
+    @Test
+    public void canReceiveSeveralSentencesPerDatagram() throws Exception {
+        List<AISMessage> received = new CopyOnWriteArrayList<>();
+        NMEAMessageHandler handler = new NMEAMessageHandler("DEFAULT", received::add);
+
+        try (NMEAMessageDatagramReceiver receiver = new NMEAMessageDatagramReceiver(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 256, handler);
+             DatagramSocket sender = new DatagramSocket(0, InetAddress.getLoopbackAddress())) {
+            Thread thread = start(receiver);
+
+            send(sender, receiver.getLocalAddress(), SENTENCES);
+            send(sender, receiver.getLocalAddress(), new String(new char[300]).replace('\0', 'x'));
+            awaitTrue(() -> receiver.getDatagrams() == 2);
+
+            receiver.requestStop();
+            thread.join(10000);
+
+            assertEquals(2, received.size());
+            assertEquals("127.0.0.1", received.get(0).getMetadata().getSource());
+            assertEquals(4, receiver.getLines());
+            assertEquals(1, receiver.getErrors());
+            assertEquals(1, receiver.getDroppedDatagrams());
+
+            SourceMetrics metrics = MetricsRegistry.getDefault().getSources().get("127.0.0.1");
+            assertTrue(metrics.getBytes() > 0);
+            assertTrue(metrics.getLines() >= 4);
+            handler.close();
+            assertFalse(MetricsRegistry.getDefault().getSources().containsKey("127.0.0.1"));
+        }
+    }
+
+    @Test
+    public void canReceiveMulticast() throws Exception {
+        InetAddress group = InetAddress.getByName("239.255.42.99");
+        NetworkInterface loopback = NetworkInterface.getByInetAddress(InetAddress.getLoopbackAddress());
+        Assume.assumeTrue(loopback != null && loopback.supportsMulticast());
+
+        List<AISMessage> received = new CopyOnWriteArrayList<>();
+        NMEAMessageHandler handler = new NMEAMessageHandler("DEFAULT", received::add);
+
+        try (NMEAMessageDatagramReceiver receiver = new NMEAMessageDatagramReceiver(new InetSocketAddress(0), handler);
+             MulticastSocket sender = new MulticastSocket(0)) {
+            try {
+                receiver.joinGroup(group, loopback);
+                sender.setNetworkInterface(loopback);
+            } catch (IOException e) {
+                Assume.assumeNoException(e);
+            }
+            Thread thread = start(receiver);
+
+            send(sender, new InetSocketAddress(group, receiver.getLocalAddress().getPort()), SENTENCES);
+            long deadline = System.currentTimeMillis() + 2000;
+            while (received.size() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            receiver.requestStop();
+            thread.join(10000);
+
+            Assume.assumeTrue("Multicast is not delivered over loopback here", received.size() > 0);
+            assertEquals(2, received.size());
+        }
+    }
+
+    private static Thread start(NMEAMessageDatagramReceiver receiver) {
+        Thread thread = new Thread(() -> {
+            try {
+                receiver.run();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private static void send(DatagramSocket socket, InetSocketAddress address, String sentences) throws IOException {
+        byte[] bytes = sentences.getBytes(StandardCharsets.US_ASCII);
+        socket.send(new DatagramPacket(bytes, bytes.length, address));
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!condition.getAsBoolean()) {
+            assertTrue("Timed out", System.currentTimeMillis() < deadline);
+            Thread.sleep(5);
+        }
+    }
+
+}
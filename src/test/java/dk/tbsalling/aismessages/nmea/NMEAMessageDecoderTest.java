@@ -0,0 +1,113 @@
+/*
+ * AISMessages
+ * - a java-based library for decoding of AIS messages from digital VHF radio traffic related
+ * to maritime navigation and safety in compliance with ITU 1371.
+ *
+ * (C) Copyright 2011- by S-Consult ApS, DK31327490, http://s-consult.dk, Denmark.
+ *
+ * Released under the Creative Commons Attribution-NonCommercial-ShareAlike 3.0 Unported License.
+ * For details of this license see the nearby LICENCE-full file, visit http://creativecommons.org/licenses/by-nc-sa/3.0/
+ * or send a letter to Creative Commons, 171 Second Street, Suite 300, San Francisco, California, 94105, USA.
+ *
+ * NOT FOR COMMERCIAL USE!
+ * Contact sales@s-consult.dk to obtain a commercially licensed version of this software.
+ *
+ */
+
+package dk.tbsalling.aismessages.nmea;
+
+import dk.tbsalling.aismessages.ais.messages.types.AISMessageType;
+import dk.tbsalling.aismessages.nmea.exceptions.NMEAParseException;
+import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class NMEAMessageDecoderTest {
+
+    private static final String POSITION_REPORT = "!AIVDM,1,1,,B,15MqdBP000G@qoLEi69PVGaN0D0=,0*3A";
+    private static final String STATIC_DATA_1 = "!AIVDM,2,1,3,B,55DA><02=6wpPuID000qTf059@DlU<00000000171lMDD4q20LmDp3hB,0*27";
+    private static final String STATIC_DATA_2 = "!AIVDM,2,2,3,B,p=Mh00000000000,2*4C";
+
+    private final NMEAMessageDecoder decoder = new NMEAMessageDecoder("TEST");
+    private final DecodeResult result = new DecodeResult();
+
+    @Test
+    public void canDecode() {
+        assertEquals(DecodeStatus.OK, decoder.decode(POSITION_REPORT, result));
+        assertEquals(AISMessageType.PositionReportClassAScheduled, result.getAisMessage().getMessageType());
+        assertEquals("TEST", result.getAisMessage().getMetadata().getSource());
+
+        assertEquals(DecodeStatus.INCOMPLETE, decoder.decode(STATIC_DATA_1, result));
+        assertNull(result.getAisMessage());
+        assertEquals(DecodeStatus.OK, decoder.decode(STATIC_DATA_2, result));
+        assertEquals(AISMessageType.ShipAndVoyageRelatedData, result.getAisMessage().getMessageType());
+
+        assertEquals(2, decoder.getCounters().get(DecodeStatus.OK));
+        assertEquals(1, decoder.getCounters().get(DecodeStatus.INCOMPLETE));
+        assertEquals(0, decoder.getCounters().getErrors());
+    }
+
+    @Test
+    public void reportsInvalidInput() {
+        assertEquals(DecodeStatus.UNSUPPORTED_SENTENCE, decoder.decode("$GPGGA,123519,4807.038,N,01131.000,E,1,08,0.9,545.4,M,46.9,M,,*47", result));
+        assertEquals(DecodeStatus.MALFORMED_SENTENCE, decoder.decode("!AIVDM,1,1,B,15MqdBP000G@qoLEi69PVGaN0D0=,0*3A", result));
+        assertEquals(DecodeStatus.MALFORMED_SENTENCE, decoder.decode(withChecksum("!AIVDM,1,x,,B,15MqdBP000G@qoLEi69PVGaN0D0=,0"), result));
+        assertEquals(DecodeStatus.BAD_CHECKSUM, decoder.decode("!AIVDM,1,1,,B,15MqdBP000G@qoLEi69PVGaN0D0=,0*3B", result));
+        assertEquals(DecodeStatus.INVALID_FRAGMENT, decoder.decode(withChecksum("!AIVDM,2,3,1,B,15MqdBP000G@qoLEi69PVGaN0D0=,0"), result));
+        assertEquals(DecodeStatus.ILLEGAL_CHARACTER, decoder.decode(withChecksum("!AIVDM,1,1,,B,15Mqd~P000G@qoLEi69PVGaN0D0=,0"), result));
+        assertEquals(DecodeStatus.UNSUPPORTED_TYPE, decoder.decode(withChecksum("!AIVDM,1,1,,B,05MqdBP000G@qoLEi69PVGaN0D0=,0"), result));
+        assertEquals(DecodeStatus.WRONG_LENGTH, decoder.decode(withChecksum("!AIVDM,1,1,,B,55DA><02=6wpPuID000qTf059@DlU<00000000171lMDD4q20LmDp3hB,0"), result));
+
+        assertNull(result.getAisMessage());
+        assertEquals(8, decoder.getCounters().getErrors());
+        assertEquals(2, decoder.getCounters().get(DecodeStatus.MALFORMED_SENTENCE));
+    }
+
+    @Test
+    public void canAcceptBadChecksum() {
+        decoder.setChecksumRequired(false);
+        assertEquals(DecodeStatus.OK, decoder.decode("!AIVDM,1,1,,B,15MqdBP000G@qoLEi69PVGaN0D0=,0*3B", result));
+    }
+
+    @Test
+    public void countsTruncatedFragments() {
+        assertEquals(DecodeStatus.INCOMPLETE, decoder.decode(STATIC_DATA_1, result));
+        assertEquals(DecodeStatus.INCOMPLETE, decoder.decode(STATIC_DATA_1, result));
+        assertEquals(DecodeStatus.OK, decoder.decode(STATIC_DATA_2, result));
+
+        assertEquals(1, decoder.getCounters().get(DecodeStatus.TRUNCATED_FRAGMENT));
+    }
+
+    @Test
+    public void canParseWithoutExceptions() {
+        assertEquals(DecodeStatus.OK, NMEAMessage.tryFromString(POSITION_REPORT, result));
+        assertEquals(POSITION_REPORT, result.getNmeaMessage().getRawMessage());
+
+        assertEquals(DecodeStatus.MALFORMED_SENTENCE, NMEAMessage.tryFromString("!AIVDM,1,1,,B,15MqdBP000G@qoLEi69PVGaN0D0=,0", result));
+        assertNull(result.getNmeaMessage());
+    }
+
+    @Test
+    public void exceptionsCarryStatusWithoutStackTrace() throws Exception {
+        try {
+            NMEAMessage.fromString("!AIVDM,1,1,,B,15MqdBP000G@qoLEi69PVGaN0D0=,0");
+            fail("Expected NMEAParseException");
+        } catch (NMEAParseException e) {
+            assertSame(DecodeStatus.MALFORMED_SENTENCE, e.getStatus());
+            assertEquals(0, e.getStackTrace().length);
+        }
+    }
+
+    private static String withChecksum(String sentence) {
+        int checksum = 0;
+        for (int i = 1; i < sentence.length(); i++) {
+            checksum ^= sentence.charAt(i);
+        }
+        return String.format("%s*%02X", sentence, checksum);
+    }
+
+}
@@ -0,0 +1,172 @@
+/*
+ * AISMessages
+ * - a java-based library for decoding of AIS messages from digital VHF radio traffic related
+ * to maritime navigation and safety in compliance with ITU 1371.
+ *
+ * (C) Copyright 2011- by S-Consult ApS, DK31327490, http://s-consult.dk, Denmark.
+ *
+ * Released under the Creative Commons Attribution-NonCommercial-ShareAlike 3.0 Unported License.
+ * For details of this license see the nearby LICENCE-full file, visit http://creativecommons.org/licenses/by-nc-sa/3.0/
+ * or send a letter to Creative Commons, 171 Second Street, Suite 300, San Francisco, California, 94105, USA.
+ *
+ * NOT FOR COMMERCIAL USE!
+ * Contact sales@s-consult.dk to obtain a commercially licensed version of this software.
+ *
+ */
+
+package dk.tbsalling.aismessages.nmea;
+
+import dk.tbsalling.aismessages.ais.messages.AISMessage;
+import dk.tbsalling.aismessages.ais.messages.types.AISMessageType;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+public class NMEAMessageFileDecoderTest {
+
+    private static final String POSITION_REPORT = "!AIVDM,1,1,,B,15MqdBP000G@qoLEi69PVGaN0D0=,0*3A";
+    private static final String STATIC_DATA_1 = "!AIVDM,2,1,3,B,55DA><02=6wpPuID000qTf059@DlU<00000000171lMDD4q20LmDp3hB,0*27";
+    private static final String STATIC_DATA_2 = "!AIVDM,2,2,3,B,p=Mh00000000000,2*4C";
+
+    private static ForkJoinPool pool;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @BeforeClass
+    public static void startPool() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterClass
+    public static void stopPool() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void canDecodeInFileOrder() throws Exception {
+        final int n = 3000;
+        Path file = write(logFile(n));
+        NMEAMessageFileDecoder decoder = new NMEAMessageFileDecoder(pool, NMEAMessageFileDecoder.MIN_CHUNK_SIZE);
+
+        List<AISMessage> messages = new ArrayList<>();
+        long delivered = decoder.decode(file, true, messages::add);
+
+        assertEquals(2 * n, delivered);
+        assertEquals(2 * n, messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+            assertEquals(i % 2 == 0 ? AISMessageType.PositionReportClassAScheduled : AISMessageType.ShipAndVoyageRelatedData, messages.get(i).getMessageType());
+        }
+        assertEquals(3 * n, decoder.getLines());
+        assertEquals(0, decoder.getErrors());
+        assertEquals(0, decoder.getIncompleteMessages());
+    }
+
+    @Test
+    public void canDecodeUnordered() throws Exception {
+        final int n = 3000;
+        Path file = write(logFile(n));
+        NMEAMessageFileDecoder decoder = new NMEAMessageFileDecoder(pool, NMEAMessageFileDecoder.MIN_CHUNK_SIZE);
+
+        AtomicInteger positionReports = new AtomicInteger();
+        AtomicInteger staticData = new AtomicInteger();
+        long delivered = decoder.decode(file, false, m -> {
+            if (m.getMessageType() == AISMessageType.PositionReportClassAScheduled) {
+                positionReports.incrementAndGet();
+            } else if (m.getMessageType() == AISMessageType.ShipAndVoyageRelatedData) {
+                staticData.incrementAndGet();
+            }
+        });
+
+        assertEquals(2 * n, delivered);
+        assertEquals(n, positionReports.get());
+        assertEquals(n, staticData.get());
+        assertEquals(0, decoder.getIncompleteMessages());
+    }
+
+    @Test
+    public void stitchesFragmentsAcrossChunkBoundary() throws Exception {
+        final int boundary = NMEAMessageFileDecoder.MIN_CHUNK_SIZE;
+        for (int offset : new int[] { -20, -1, 0, 1, 20 }) {
+            // Place the start of the second fragment around the chunk boundary
+            StringBuilder log = new StringBuilder();
+            pad(log, boundary + offset - STATIC_DATA_1.length() - 1);
+            log.append(STATIC_DATA_1).append('\n');
+            log.append(STATIC_DATA_2).append('\n');
+            log.append(POSITION_REPORT).append('\n');
+            Path file = write(log.toString());
+
+            for (boolean ordered : new boolean[] { true, false }) {
+                NMEAMessageFileDecoder decoder = new NMEAMessageFileDecoder(pool, boundary);
+                List<AISMessage> messages = new ArrayList<>();
+                decoder.decode(file, ordered, m -> {
+                    synchronized (messages) {
+                        messages.add(m);
+                    }
+                });
+
+                assertEquals("offset " + offset, 2, messages.size());
+                assertEquals(0, decoder.getIncompleteMessages());
+                if (ordered) {
+                    assertEquals(AISMessageType.ShipAndVoyageRelatedData, messages.get(0).getMessageType());
+                    assertEquals(AISMessageType.PositionReportClassAScheduled, messages.get(1).getMessageType());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void dropsIncompleteMessages() throws Exception {
+        Path file = write(STATIC_DATA_2 + "\n" + POSITION_REPORT + "\n" + STATIC_DATA_1 + "\n");
+        NMEAMessageFileDecoder decoder = new NMEAMessageFileDecoder(pool, NMEAMessageFileDecoder.MIN_CHUNK_SIZE);
+
+        assertEquals(1, decoder.decode(file, true, m -> {}));
+        assertEquals(2, decoder.getIncompleteMessages());
+    }
+
+    /** A log with comments, timestamps after the sentences and mixed line terminators. */
+    private static String logFile(int n) {
+        StringBuilder log = new StringBuilder("# AIS log\n");
+        for (int i = 0; i < n; i++) {
+            log.append(POSITION_REPORT).append(",1420113").append(i).append("\r\n");
+            log.append(STATIC_DATA_1).append('\n');
+            log.append(STATIC_DATA_2).append(i % 10 == 0 ? "\n\n" : "\n");
+        }
+        return log.toString();
+    }
+
+    /** Append comment lines, so that the log reaches the given length. */
+    private static void pad(StringBuilder log, int length) {
+        while (log.length() < length) {
+            int lineLength = Math.min(length - log.length(), 500);
+            if (lineLength > 1) {
+                log.append('#');
+            }
+            for (int i = 2; i < lineLength; i++) {
+                log.append('x');
+            }
+            log.append('\n');
+        }
+        assertEquals(length, log.length());
+    }
+
+    private Path write(String content) throws Exception {
+        File file = folder.newFile();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.US_ASCII));
+        return file.toPath();
+    }
+
+}
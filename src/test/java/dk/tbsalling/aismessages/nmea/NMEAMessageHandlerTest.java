@@ -3,6 +3,7 @@ package dk.tbsalling.aismessages.nmea;
 import dk.tbsalling.aismessages.ais.messages.AISMessage;
 import dk.tbsalling.aismessages.ais.messages.types.AISMessageType;
 import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
+import dk.tbsalling.aismessages.pipeline.AsyncConsumer;
 import dk.tbsalling.test.helpers.ArgumentCaptor;
 
 import org.jmock.Expectations;
@@ -12,10 +13,16 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 public class NMEAMessageHandlerTest {
     private final static Mockery context = new JUnit4Mockery();
@@ -103,4 +110,55 @@ public class NMEAMessageHandlerTest {
         assertEquals(1, flush.size());
         assertEquals(fragmentedNMEAMessage1, flush.get(0));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void canHandleManySourcesConcurrently() throws Exception {
+        final int sources = 8, messagesPerSource = 500;
+        final NMEAMessage unfragmented = NMEAMessage.fromString("!AIVDM,1,1,,B,15MqdBP000G@qoLEi69PVGaN0D0=,0*3A");
+        final NMEAMessage fragment1 = NMEAMessage.fromString("!AIVDM,2,1,3,B,55DA><02=6wpPuID000qTf059@DlU<00000000171lMDD4q20LmDp3hB,0*27");
+        final NMEAMessage fragment2 = NMEAMessage.fromString("!AIVDM,2,2,3,B,p=Mh00000000000,2*4C");
+
+        final LongAdder received = new LongAdder();
+        final NMEAMessageHandler handler = new NMEAMessageHandler("TEST", sources, FragmentReassembler::new, m -> received.increment());
+
+        ExecutorService executor = Executors.newFixedThreadPool(sources);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int s = 0; s < sources; s++) {
+            final Consumer<NMEAMessage> feed = handler.forSource("SOURCE" + s);
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < messagesPerSource; i++) {
+                    feed.accept(fragment1);
+                    feed.accept(unfragmented);
+                    feed.accept(fragment2);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertEquals(2L * sources * messagesPerSource, received.sum());
+        assertEquals((long) sources * messagesPerSource, handler.getCompletedCount());
+        assertEquals(0, handler.getConflictingCount());
+        assertEquals(0, handler.flush().size());
+    }
+
+    @Test
+    public void failingReceiverDoesNotStopOthers() throws Exception {
+        final NMEAMessage unfragmented = NMEAMessage.fromString("!AIVDM,1,1,,B,15MqdBP000G@qoLEi69PVGaN0D0=,0*3A");
+
+        final LongAdder received = new LongAdder();
+        final NMEAMessageHandler handler = new NMEAMessageHandler("TEST", m -> { throw new IllegalStateException("Receiver failed"); }, m -> received.increment());
+        final AsyncConsumer<AISMessage> async = handler.addAsyncAisMessageReceiver(m -> received.increment(), 4, AsyncConsumer.OverflowPolicy.BLOCK);
+        handler.accept(unfragmented);
+
+        assertTrue(handler.removeAisMessageReceiver(async));
+        async.close();
+        handler.accept(unfragmented);
+
+        assertEquals(3, received.sum());
+        assertEquals(1, async.getDelivered());
+        assertEquals(0, async.getDropped());
+    }
+}
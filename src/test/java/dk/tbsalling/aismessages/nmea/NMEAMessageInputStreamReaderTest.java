@@ -0,0 +1,56 @@
+package dk.tbsalling.aismessages.nmea;
+
+import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class NMEAMessageInputStreamReaderTest {
+
+    private static final String SENTENCES =
+            "!AIVDM,1,1,,B,15MqdBP000G@qoLEi69PVGaN0D0=,0*3A\r\n" +
+            "garbage\r\n" +
+            "\r\n" +
+            "!AIVDM,2,1,3,B,55DA><02=6wpPuID000qTf059@DlU<00000000171lMDD4q20LmDp3hB,0*27\n" +
+            "!AIVDM,2,2,3,B,p=Mh00000000000,2*4C";
+
+    @Test
+    public void canReadWithCharsetDecoding() throws Exception {
+        assertEquals(3, read(false).size());
+    }
+
+    @Test
+    public void canReadWithAsciiFraming() throws Exception {
+        List<NMEAMessage> messages = read(true);
+
+        assertEquals(3, messages.size());
+        assertEquals("!AIVDM,1,1,,B,15MqdBP000G@qoLEi69PVGaN0D0=,0*3A", messages.get(0).getRawMessage());
+        assertEquals("!AIVDM,2,2,3,B,p=Mh00000000000,2*4C", messages.get(2).getRawMessage());
+    }
+
+    @Test
+    public void stopsWhenRequested() throws Exception {
+        List<NMEAMessage> messages = new ArrayList<>();
+        NMEAMessageInputStreamReader[] reader = new NMEAMessageInputStreamReader[1];
+        reader[0] = new NMEAMessageInputStreamReader(new ByteArrayInputStream(SENTENCES.getBytes(StandardCharsets.US_ASCII)), m -> {
+            messages.add(m);
+            reader[0].requestStop();
+        }, true);
+        reader[0].run();
+
+        assertEquals(1, messages.size());
+    }
+
+    private static List<NMEAMessage> read(boolean asciiFraming) throws Exception {
+        List<NMEAMessage> messages = new ArrayList<>();
+        new NMEAMessageInputStreamReader(new ByteArrayInputStream(SENTENCES.getBytes(StandardCharsets.US_ASCII)), messages::add, asciiFraming).run();
+        return messages;
+    }
+
+}
@@ -0,0 +1,119 @@
+package dk.tbsalling.aismessages.nmea;
+
+import dk.tbsalling.aismessages.ais.messages.AISMessage;
+import dk.tbsalling.aismessages.metrics.MetricsRegistry;
+import dk.tbsalling.aismessages.metrics.SourceMetrics;
+
+import org.junit.Test;
+
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class NMEAMessageSelectorClientTest {
+
+    private static final String SENTENCES =
+            "!AIVDM,1,1,,B,15MqdBP000G@qoLEi69PVGaN0D0=,0*3A\r\n" +
+            "garbage\r\n" +
+            "!AIVDM,2,1,3,B,55DA><02=6wpPuID000qTf059@DlU<00000000171lMDD4q20LmDp3hB,0*27\r\n" +
+            "!AIVDM,2,2,3,B,p=Mh00000000000,2*4C\r\n";
+
+    @Test
+    public void canReceiveFromSeveralFeedsAndReconnect() throws Exception {
+        List<AISMessage> received = new CopyOnWriteArrayList<>();
+        NMEAMessageHandler handler = new NMEAMessageHandler("DEFAULT", 2, FragmentReassembler::new, received::add);
+
+        try (ServerSocket server1 = new ServerSocket(0, 10, InetAddress.getLoopbackAddress());
+             ServerSocket server2 = new ServerSocket(0, 10, InetAddress.getLoopbackAddress());
+             NMEAMessageSelectorClient client = new NMEAMessageSelectorClient(1, 10, 100)) {
+
+            NMEAMessageSelectorClient.Feed feed1 = client.addFeed("FEED1", "localhost", server1.getLocalPort(), handler);
+            NMEAMessageSelectorClient.Feed feed2 = client.addFeed("FEED2", "localhost", server2.getLocalPort(), handler);
+            client.start();
+
+            try (Socket socket = server1.accept()) {
+                send(socket, SENTENCES);
+                awaitTrue(() -> feed1.getLines() == 4);
+            }
+            try (Socket socket = server2.accept()) {
+                send(socket, SENTENCES);
+                awaitTrue(() -> feed2.getLines() == 4);
+            }
+            // Feed 1 was closed by the server, and must reconnect
+            try (Socket socket = server1.accept()) {
+                send(socket, SENTENCES);
+                awaitTrue(() -> feed1.getLines() == 8);
+            }
+
+            awaitTrue(() -> received.size() == 6);
+            assertTrue(feed1.getConnects() >= 2);
+            assertTrue(feed2.getConnects() >= 1);
+            assertEquals(2 * SENTENCES.length(), feed1.getBytes());
+            assertEquals(SENTENCES.length(), feed2.getBytes());
+            assertEquals(2, feed1.getErrors());
+            assertEquals(1, feed2.getErrors());
+            assertEquals(4, received.stream().filter(m -> "FEED1".equals(m.getMetadata().getSource())).count());
+            assertEquals(2, received.stream().filter(m -> "FEED2".equals(m.getMetadata().getSource())).count());
+
+            SourceMetrics metrics = MetricsRegistry.getDefault().getSources().get("FEED2");
+            assertEquals(SENTENCES.length(), metrics.getBytes());
+            assertEquals(4, metrics.getLines());
+            assertEquals(1, metrics.getRejectedLines());
+            handler.close();
+            assertFalse(MetricsRegistry.getDefault().getSources().containsKey("FEED2"));
+        }
+    }
+
+    @Test
+    public void keepsReceivingWhileResolvingUnknownHost() throws Exception {
+        List<AISMessage> received = new CopyOnWriteArrayList<>();
+        NMEAMessageHandler handler = new NMEAMessageHandler("DEFAULT", 2, FragmentReassembler::new, received::add);
+
+        try (ServerSocket server = new ServerSocket(0, 10, InetAddress.getLoopbackAddress());
+             NMEAMessageSelectorClient client = new NMEAMessageSelectorClient(1, 10, 100)) {
+
+            NMEAMessageSelectorClient.Feed unknown = client.addFeed("UNKNOWN", "no-such-host.invalid", 10110, handler);
+            NMEAMessageSelectorClient.Feed feed = client.addFeed("FEED", "localhost", server.getLocalPort(), handler);
+            client.start();
+
+            try (Socket socket = server.accept()) {
+                send(socket, SENTENCES);
+                awaitTrue(() -> feed.getLines() == 4);
+            }
+            awaitTrue(() -> unknown.getErrors() >= 1);
+            assertFalse(unknown.isConnected());
+            assertEquals(0, unknown.getConnects());
+        }
+    }
+
+    @Test
+    public void canCloseWithoutStart() throws Exception {
+        NMEAMessageSelectorClient client = new NMEAMessageSelectorClient(2);
+        client.addFeed("FEED", "localhost", 10110, m -> {});
+        client.close();
+    }
+
+    private static void send(Socket socket, String sentences) throws Exception {
+        OutputStream out = socket.getOutputStream();
+        out.write(sentences.getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!condition.getAsBoolean()) {
+            assertTrue("Timed out", System.currentTimeMillis() < deadline);
+            Thread.sleep(5);
+        }
+    }
+
+}
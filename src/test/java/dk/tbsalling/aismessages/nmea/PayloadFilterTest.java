@@ -0,0 +1,73 @@
+package dk.tbsalling.aismessages.nmea;
+
+import dk.tbsalling.aismessages.ais.messages.AISMessage;
+import dk.tbsalling.aismessages.ais.messages.types.AISMessageType;
+import dk.tbsalling.aismessages.nmea.messages.NMEAMessage;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PayloadFilterTest {
+
+    private static final String TYPE_1 = "!AIVDM,1,1,,B,15MqdBP000G@qoLEi69PVGaN0D0=,0*3A";
+    private static final String TYPE_5_1 = "!AIVDM,2,1,3,B,55DA><02=6wpPuID000qTf059@DlU<00000000171lMDD4q20LmDp3hB,0*27";
+    private static final String TYPE_5_2 = "!AIVDM,2,2,3,B,p=Mh00000000000,2*4C";
+
+    @Test
+    public void canReadTypeAndMmsiFromArmouredPayload() throws Exception {
+        AISMessage aisMessage = AISMessage.create(NMEAMessage.fromString(TYPE_1));
+
+        assertEquals(1, PayloadFilter.messageTypeOf("15MqdBP000G@qoLEi69PVGaN0D0="));
+        assertEquals(aisMessage.getSourceMmsiAsLong(), PayloadFilter.sourceMmsiOf("15MqdBP000G@qoLEi69PVGaN0D0="));
+        assertEquals(PayloadFilter.UNKNOWN, PayloadFilter.messageTypeOf(""));
+        assertEquals(PayloadFilter.UNKNOWN, PayloadFilter.sourceMmsiOf("15Mqd"));
+    }
+
+    @Test
+    public void canFilterOnTypeAndMmsi() {
+        PayloadFilter types = PayloadFilter.messageTypes(AISMessageType.PositionReportClassAScheduled, AISMessageType.StandardClassBCSPositionReport);
+        PayloadFilter mmsis = PayloadFilter.sourceMmsis(366999663L, 123456789L);
+
+        assertTrue(types.test(1, 0));
+        assertTrue(types.test(18, 0));
+        assertFalse(types.test(5, 0));
+        assertFalse(types.test(PayloadFilter.UNKNOWN, 0));
+        assertTrue(mmsis.test(1, 123456789L));
+        assertFalse(mmsis.test(1, 987654321L));
+        assertTrue(types.and(mmsis).test(18, 366999663L));
+        assertFalse(types.and(mmsis).test(5, 366999663L));
+        assertTrue(types.or(mmsis).test(5, 366999663L));
+    }
+
+    @Test
+    public void handlerDropsFilteredMessagesBeforeDecoding() throws Exception {
+        List<AISMessage> received = new ArrayList<>();
+        NMEAMessageHandler handler = new NMEAMessageHandler("TEST", received::add);
+        handler.setPayloadFilter(PayloadFilter.messageTypes(AISMessageType.PositionReportClassAScheduled));
+
+        handler.accept(NMEAMessage.fromString(TYPE_5_1));
+        handler.accept(NMEAMessage.fromString(TYPE_5_2));
+        handler.accept(NMEAMessage.fromString(TYPE_1));
+
+        assertEquals(1, received.size());
+        assertEquals(AISMessageType.PositionReportClassAScheduled, received.get(0).getMessageType());
+        assertEquals(1, handler.getFilteredCount());
+        assertEquals(1, handler.getPassedCount());
+        assertEquals(0, handler.flush().size());
+
+        handler.setPayloadFilter(null);
+        handler.accept(NMEAMessage.fromString(TYPE_5_1));
+        handler.accept(NMEAMessage.fromString(TYPE_5_2));
+
+        assertEquals(2, received.size());
+        assertEquals(AISMessageType.ShipAndVoyageRelatedData, received.get(1).getMessageType());
+        assertEquals(2, handler.getPassedCount());
+    }
+
+}
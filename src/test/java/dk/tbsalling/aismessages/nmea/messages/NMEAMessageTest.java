@@ -0,0 +1,62 @@
+package dk.tbsalling.aismessages.nmea.messages;
+
+import dk.tbsalling.aismessages.nmea.exceptions.NMEAParseException;
+import dk.tbsalling.aismessages.nmea.exceptions.UnsupportedMessageType;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class NMEAMessageTest {
+
+    @Test
+    public void canParseFields() throws Exception {
+        NMEAMessage nmeaMessage = NMEAMessage.fromString("!AIVDM,2,1,3,B,55DA><02=6wpPuID000qTf059@DlU<00000000171lMDD4q20LmDp3hB,0*27");
+
+        assertTrue(nmeaMessage.isValid());
+        assertEquals("AIVDM", nmeaMessage.getMessageType());
+        assertEquals(Integer.valueOf(2), nmeaMessage.getNumberOfFragments());
+        assertEquals(Integer.valueOf(1), nmeaMessage.getFragmentNumber());
+        assertEquals(Integer.valueOf(3), nmeaMessage.getSequenceNumber());
+        assertEquals("B", nmeaMessage.getRadioChannelCode());
+        assertEquals("55DA><02=6wpPuID000qTf059@DlU<00000000171lMDD4q20LmDp3hB", nmeaMessage.getEncodedPayload());
+        assertEquals("55DA><02=6wpPuID000qTf059@DlU<00000000171lMDD4q20LmDp3hB", nmeaMessage.getEncodedPayloadView().toString());
+        assertEquals(Integer.valueOf(0), nmeaMessage.getFillBits());
+        assertEquals(Integer.valueOf(0x27), nmeaMessage.getChecksum());
+        assertTrue(nmeaMessage.isChecksumValid());
+    }
+
+    @Test
+    public void canHandleEmptyFields() throws Exception {
+        NMEAMessage nmeaMessage = NMEAMessage.fromString("!AIVDM,1,1,,B,15MqdBP000G@qoLEi69PVGaN0D0=,0*3A");
+
+        assertNull(nmeaMessage.getSequenceNumber());
+        assertEquals('1', nmeaMessage.getEncodedPayloadView().charAt(0));
+        assertEquals(28, nmeaMessage.getEncodedPayloadView().length());
+    }
+
+    @Test
+    public void canDetectWrongChecksum() throws Exception {
+        NMEAMessage nmeaMessage = NMEAMessage.fromString("!AIVDM,1,1,,B,15MqdBP000G@qoLEi69PVGaN0D0=,0*3B");
+
+        assertFalse(nmeaMessage.isChecksumValid());
+    }
+
+    @Test(expected = UnsupportedMessageType.class)
+    public void rejectsUnsupportedSentence() throws Exception {
+        NMEAMessage.fromString("$GPGGA,123519,4807.038,N,01131.000,E,1,08,0.9,545.4,M,46.9,M,,*47");
+    }
+
+    @Test(expected = NMEAParseException.class)
+    public void rejectsWrongNumberOfFields() throws Exception {
+        NMEAMessage.fromString("!AIVDM,1,1,B,15MqdBP000G@qoLEi69PVGaN0D0=,0*3A");
+    }
+
+    @Test(expected = NMEAParseException.class)
+    public void rejectsMissingChecksum() throws Exception {
+        NMEAMessage.fromString("!AIVDM,1,1,,B,15MqdBP000G@qoLEi69PVGaN0D0=,0");
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * AISMessages
+ * - a java-based library for decoding of AIS messages from digital VHF radio traffic related
+ * to maritime navigation and safety in compliance with ITU 1371.
+ *
+ * (C) Copyright 2011- by S-Consult ApS, DK31327490, http://s-consult.dk, Denmark.
+ *
+ * Released under the Creative Commons Attribution-NonCommercial-ShareAlike 3.0 Unported License.
+ * For details of this license see the nearby LICENCE-full file, visit http://creativecommons.org/licenses/by-nc-sa/3.0/
+ * or send a letter to Creative Commons, 171 Second Street, Suite 300, San Francisco, California, 94105, USA.
+ *
+ * NOT FOR COMMERCIAL USE!
+ * Contact sales@s-consult.dk to obtain a commercially licensed version of this software.
+ *
+ */
+
+package dk.tbsalling.aismessages.pipeline;
+
+import dk.tbsalling.aismessages.ais.messages.AISMessage;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AISMessagePublisherTest {
+
+    private static final String SENTENCES =
+            "!AIVDM,1,1,,B,15MqdBP000G@qoLEi69PVGaN0D0=,0*3A\r\n" +
+            "!AIVDM,2,1,3,B,55DA><02=6wpPuID000qTf059@DlU<00000000171lMDD4q20LmDp3hB,0*27\r\n" +
+            "!AIVDM,2,2,3,B,p=Mh00000000000,2*4C\r\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void publishesOnDemand() throws Exception {
+        final int n = 1000;
+        final CountingInputStream in = new CountingInputStream(repeat(n));
+        AISMessagePublisher publisher = new AISMessagePublisher("TEST", () -> in, Runnable::run);
+        TestSubscriber subscriber = new TestSubscriber();
+        publisher.subscribe(subscriber);
+        assertEquals(0, in.count);
+
+        subscriber.subscription.request(1);
+        assertEquals(1, subscriber.received.size());
+        // Only a small block of the stream has been read
+        assertTrue(in.count > 0 && in.count < 10000);
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertEquals(2 * n, subscriber.received.size());
+        assertTrue(subscriber.completed.await(0, TimeUnit.SECONDS));
+        assertTrue(in.closed);
+    }
+
+    @Test
+    public void stopsReadingWhenCancelled() throws Exception {
+        final CountingInputStream in = new CountingInputStream(repeat(1000));
+        AISMessagePublisher publisher = new AISMessagePublisher("TEST", () -> in, Runnable::run);
+        TestSubscriber subscriber = new TestSubscriber();
+        publisher.subscribe(subscriber);
+
+        subscriber.subscription.request(10);
+        final long read = in.count;
+        subscriber.subscription.cancel();
+        subscriber.subscription.request(10);
+
+        assertEquals(10, subscriber.received.size());
+        assertEquals(read, in.count);
+        assertTrue(in.closed);
+        assertFalse(subscriber.completed.await(0, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void signalsErrorOnNonPositiveRequest() {
+        AISMessagePublisher publisher = new AISMessagePublisher("TEST", () -> repeat(1), Runnable::run);
+        TestSubscriber subscriber = new TestSubscriber();
+        publisher.subscribe(subscriber);
+
+        subscriber.subscription.request(0);
+
+        assertTrue(subscriber.error instanceof IllegalArgumentException);
+    }
+
+    @Test
+    public void canPublishGzipFileOnExecutor() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("day.nmea.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+            for (int i = 0; i < 500; i++) {
+                out.write(SENTENCES.getBytes(StandardCharsets.US_ASCII));
+            }
+        }
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        TestSubscriber subscriber = new TestSubscriber() {
+            @Override
+            public void onNext(AISMessage item) {
+                super.onNext(item);
+                subscription.request(1);
+            }
+        };
+        AISMessagePublisher.forFile(file, executor).subscribe(subscriber);
+        subscriber.subscription.request(1);
+
+        assertTrue(subscriber.completed.await(10, TimeUnit.SECONDS));
+        assertEquals(1000, subscriber.received.size());
+        assertEquals("day.nmea.gz", subscriber.received.get(0).getMetadata().getSource());
+        executor.shutdown();
+    }
+
+    private static InputStream repeat(int n) {
+        StringBuilder s = new StringBuilder();
+        for (int i = 0; i < n; i++) {
+            s.append(SENTENCES);
+        }
+        return new ByteArrayInputStream(s.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static class TestSubscriber implements Flow.Subscriber<AISMessage> {
+        final List<AISMessage> received = new ArrayList<>();
+        final CountDownLatch completed = new CountDownLatch(1);
+        volatile Flow.Subscription subscription;
+        volatile Throwable error;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(AISMessage item) {
+            received.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed.countDown();
+        }
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        long count;
+        boolean closed;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            count += Math.max(0, n);
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            super.close();
+        }
+    }
+
+}
@@ -0,0 +1,162 @@
+/*
+ * AISMessages
+ * - a java-based library for decoding of AIS messages from digital VHF radio traffic related
+ * to maritime navigation and safety in compliance with ITU 1371.
+ *
+ * (C) Copyright 2011- by S-Consult ApS, DK31327490, http://s-consult.dk, Denmark.
+ *
+ * Released under the Creative Commons Attribution-NonCommercial-ShareAlike 3.0 Unported License.
+ * For details of this license see the nearby LICENCE-full file, visit http://creativecommons.org/licenses/by-nc-sa/3.0/
+ * or send a letter to Creative Commons, 171 Second Street, Suite 300, San Francisco, California, 94105, USA.
+ *
+ * NOT FOR COMMERCIAL USE!
+ * Contact sales@s-consult.dk to obtain a commercially licensed version of this software.
+ *
+ */
+
+package dk.tbsalling.aismessages.pipeline;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AsyncConsumerTest {
+
+    @Test
+    public void deliversInOrder() {
+        List<Integer> received = new ArrayList<>();
+        AsyncConsumer<Integer> consumer = new AsyncConsumer<>(received::add, 16, AsyncConsumer.OverflowPolicy.BLOCK);
+        for (int i = 0; i < 10000; i++) {
+            consumer.accept(i);
+        }
+        consumer.close();
+
+        assertEquals(10000, received.size());
+        for (int i = 0; i < received.size(); i++) {
+            assertEquals(i, (int) received.get(i));
+        }
+        assertEquals(10000, consumer.getDelivered());
+        assertEquals(0, consumer.getDropped());
+    }
+
+    @Test
+    public void dropsNewest() throws Exception {
+        List<Integer> received = overflow(AsyncConsumer.OverflowPolicy.DROP_NEWEST, 4, 10, 1);
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4), received);
+    }
+
+    @Test
+    public void dropsOldest() throws Exception {
+        List<Integer> received = overflow(AsyncConsumer.OverflowPolicy.DROP_OLDEST, 4, 10, 1);
+        assertEquals(Arrays.asList(0, 6, 7, 8, 9), received);
+    }
+
+    @Test
+    public void samplesWhenCongested() throws Exception {
+        List<Integer> received = overflow(AsyncConsumer.OverflowPolicy.SAMPLE, 8, 20, 3);
+        // Element 0 is being consumed; 1-4 fill half the queue; then every third element is queued
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5, 8, 11, 14), received);
+    }
+
+    @Test
+    public void canRunOnSharedExecutor() {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        List<Integer> a = new ArrayList<>(), b = new ArrayList<>();
+        AsyncConsumer<Integer> consumerA = new AsyncConsumer<>(a::add, 8, AsyncConsumer.OverflowPolicy.BLOCK, 1, executor);
+        AsyncConsumer<Integer> consumerB = new AsyncConsumer<>(b::add, 8, AsyncConsumer.OverflowPolicy.BLOCK, 1, executor);
+        for (int i = 0; i < 1000; i++) {
+            consumerA.accept(i);
+            consumerB.accept(i);
+        }
+        consumerA.close();
+        consumerB.close();
+        executor.shutdown();
+
+        assertEquals(1000, a.size());
+        assertEquals(1000, b.size());
+        assertEquals(999, (int) b.get(999));
+    }
+
+    @Test
+    public void slowConsumerDoesNotBlockOthers() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        AsyncConsumer<Integer> slow = new AsyncConsumer<>(i -> await(release), 10, AsyncConsumer.OverflowPolicy.DROP_NEWEST);
+        List<Integer> fast = new ArrayList<>();
+        List<Consumer<Integer>> consumers = Arrays.asList(slow, fast::add);
+        for (int i = 0; i < 100; i++) {
+            for (Consumer<Integer> consumer : consumers) {
+                consumer.accept(i);
+            }
+        }
+
+        assertEquals(100, fast.size());
+        assertTrue(slow.getDropped() >= 89);
+        release.countDown();
+        slow.close();
+    }
+
+    @Test
+    public void dropsAfterClose() {
+        List<Integer> received = new ArrayList<>();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        AsyncConsumer<Integer> consumer = new AsyncConsumer<>(received::add, 8, AsyncConsumer.OverflowPolicy.BLOCK, 1, executor);
+        consumer.accept(0);
+        consumer.close();
+        consumer.accept(1);
+
+        // An executor which rejects the drain task must not make accept fail either
+        executor.shutdown();
+        AsyncConsumer<Integer> rejected = new AsyncConsumer<>(received::add, 8, AsyncConsumer.OverflowPolicy.BLOCK, 1, executor);
+        rejected.accept(2);
+
+        assertEquals(Arrays.asList(0), received);
+        assertEquals(1, consumer.getDelivered());
+        assertEquals(1, consumer.getDropped());
+        assertEquals(1, rejected.getDropped());
+    }
+
+    /**
+     * Block the consumer on the first element, feed the rest, then let it continue.
+     * @return The elements received.
+     */
+    private static List<Integer> overflow(AsyncConsumer.OverflowPolicy policy, int capacity, int n, int sampleInterval) throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<Integer> received = new ArrayList<>();
+        AsyncConsumer<Integer> consumer = new AsyncConsumer<>(i -> {
+            started.countDown();
+            await(release);
+            received.add(i);
+        }, capacity, policy, sampleInterval, null);
+
+        consumer.accept(0);
+        started.await();
+        for (int i = 1; i < n; i++) {
+            consumer.accept(i);
+        }
+        assertEquals(capacity, consumer.getQueueDepth());
+        release.countDown();
+        consumer.close();
+
+        assertEquals(n - received.size(), consumer.getDropped());
+        return received;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
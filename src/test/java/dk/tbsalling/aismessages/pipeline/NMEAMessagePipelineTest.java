@@ -0,0 +1,158 @@
+/*
+ * AISMessages
+ * - a java-based library for decoding of AIS messages from digital VHF radio traffic related
+ * to maritime navigation and safety in compliance with ITU 1371.
+ *
+ * (C) Copyright 2011- by S-Consult ApS, DK31327490, http://s-consult.dk, Denmark.
+ *
+ * Released under the Creative Commons Attribution-NonCommercial-ShareAlike 3.0 Unported License.
+ * For details of this license see the nearby LICENCE-full file, visit http://creativecommons.org/licenses/by-nc-sa/3.0/
+ * or send a letter to Creative Commons, 171 Second Street, Suite 300, San Francisco, California, 94105, USA.
+ *
+ * NOT FOR COMMERCIAL USE!
+ * Contact sales@s-consult.dk to obtain a commercially licensed version of this software.
+ *
+ */
+
+package dk.tbsalling.aismessages.pipeline;
+
+import dk.tbsalling.aismessages.ais.messages.AISMessage;
+import dk.tbsalling.aismessages.ais.messages.types.AISMessageType;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class NMEAMessagePipelineTest {
+
+    private static final String[] SENTENCES = {
+            "!AIVDM,1,1,,B,15MqdBP000G@qoLEi69PVGaN0D0=,0*3A",
+            "!AIVDM,2,1,3,B,55DA><02=6wpPuID000qTf059@DlU<00000000171lMDD4q20LmDp3hB,0*27",
+            "!AIVDM,2,2,3,B,p=Mh00000000000,2*4C",
+            "garbage"
+    };
+
+    @Test
+    public void canDecodeWithEachWaitStrategy() {
+        for (WaitStrategy waitStrategy : new WaitStrategy[] { WaitStrategy.BUSY_SPIN, WaitStrategy.YIELD, WaitStrategy.PARK }) {
+            // Spinning stages starve each other without a core each; incomplete messages would time out
+            if (waitStrategy == WaitStrategy.BUSY_SPIN && Runtime.getRuntime().availableProcessors() < 5) {
+                continue;
+            }
+            final int n = 2000;
+            List<AISMessage> messages = new ArrayList<>();
+            NMEAMessagePipeline pipeline = new NMEAMessagePipeline("TEST", 16, waitStrategy, messages::add);
+            pipeline.start();
+            for (int i = 0; i < n; i++) {
+                for (String sentence : SENTENCES) {
+                    pipeline.accept(sentence);
+                }
+            }
+            pipeline.close();
+
+            assertEquals(2 * n, messages.size());
+            for (int i = 0; i < messages.size(); i++) {
+                assertEquals(i % 2 == 0 ? AISMessageType.PositionReportClassAScheduled : AISMessageType.ShipAndVoyageRelatedData, messages.get(i).getMessageType());
+            }
+            assertEquals(4 * n, pipeline.getLines());
+            assertEquals(2 * n, pipeline.getMessages());
+            assertEquals(n, pipeline.getErrors());
+            assertEquals(0, pipeline.getBacklog());
+        }
+    }
+
+    @Test
+    public void canReadFromStream() throws Exception {
+        List<AISMessage> messages = new ArrayList<>();
+        NMEAMessagePipeline pipeline = new NMEAMessagePipeline("TEST", messages::add);
+        pipeline.start();
+        pipeline.read(new ByteArrayInputStream(String.join("\r\n", SENTENCES).getBytes(StandardCharsets.US_ASCII)));
+        pipeline.close();
+
+        assertEquals(2, messages.size());
+        assertEquals("TEST", messages.get(0).getMetadata().getSource());
+    }
+
+    @Test
+    public void slowReceiverDoesNotBlockReader() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<AISMessage> messages = new ArrayList<>();
+        NMEAMessagePipeline pipeline = new NMEAMessagePipeline("TEST", 64, WaitStrategy.PARK, m -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            messages.add(m);
+        });
+        pipeline.start();
+
+        // Far less than the capacity of the buffers, so the reader never waits for the receiver
+        final long start = System.nanoTime();
+        for (int i = 0; i < 50; i++) {
+            pipeline.accept(SENTENCES[0]);
+        }
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+
+        release.countDown();
+        pipeline.close();
+        assertEquals(50, messages.size());
+    }
+
+    @Test
+    public void badSentenceDoesNotStopPipeline() {
+        final List<AISMessage> messages = new ArrayList<>();
+        NMEAMessagePipeline pipeline = new NMEAMessagePipeline("TEST", 16, WaitStrategy.PARK, m -> {
+            // The first message fails in the receiver; the following ones must still be delivered
+            if (messages.add(m) && messages.size() == 1) {
+                throw new IllegalStateException("Receiver failed");
+            }
+        });
+        pipeline.start();
+        pipeline.accept("!AIVDM,2,,3,B,55DA><02=6wpPuID000qTf059@DlU<00000000171lMDD4q20LmDp3hB,0*16");
+        for (String sentence : SENTENCES) {
+            pipeline.accept(sentence);
+        }
+        pipeline.close();
+
+        assertEquals(2, messages.size());
+        assertEquals(AISMessageType.ShipAndVoyageRelatedData, messages.get(1).getMessageType());
+        assertEquals(2, pipeline.getErrors());
+    }
+
+    @Test(timeout = 60000)
+    public void closeEitherProcessesOrRejectsConcurrentSentences() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            final AtomicInteger received = new AtomicInteger();
+            final AtomicInteger accepted = new AtomicInteger();
+            final NMEAMessagePipeline pipeline = new NMEAMessagePipeline("TEST", 4, WaitStrategy.PARK, m -> received.incrementAndGet());
+            pipeline.start();
+            Thread feeder = new Thread(() -> {
+                try {
+                    while (true) {
+                        pipeline.accept(SENTENCES[0]);
+                        accepted.incrementAndGet();
+                    }
+                } catch (IllegalStateException e) {
+                    // Closed
+                }
+            });
+            feeder.start();
+            Thread.sleep(round % 5);
+            pipeline.close();
+            feeder.join();
+
+            assertEquals(accepted.get(), pipeline.getLines());
+            assertEquals(accepted.get(), received.get());
+        }
+    }
+
+}
@@ -0,0 +1,81 @@
+/*
+ * AISMessages
+ * - a java-based library for decoding of AIS messages from digital VHF radio traffic related
+ * to maritime navigation and safety in compliance with ITU 1371.
+ *
+ * (C) Copyright 2011- by S-Consult ApS, DK31327490, http://s-consult.dk, Denmark.
+ *
+ * Released under the Creative Commons Attribution-NonCommercial-ShareAlike 3.0 Unported License.
+ * For details of this license see the nearby LICENCE-full file, visit http://creativecommons.org/licenses/by-nc-sa/3.0/
+ * or send a letter to Creative Commons, 171 Second Street, Suite 300, San Francisco, California, 94105, USA.
+ *
+ * NOT FOR COMMERCIAL USE!
+ * Contact sales@s-consult.dk to obtain a commercially licensed version of this software.
+ *
+ */
+
+package dk.tbsalling.aismessages.pipeline;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SpscRingBufferTest {
+
+    @Test
+    public void roundsCapacityUpToPowerOfTwo() {
+        assertEquals(8, new SpscRingBuffer<String>(5).capacity());
+        assertEquals(8, new SpscRingBuffer<String>(8).capacity());
+        assertEquals(1, new SpscRingBuffer<String>(1).capacity());
+    }
+
+    @Test
+    public void isBoundedAndFirstInFirstOut() {
+        SpscRingBuffer<Integer> buffer = new SpscRingBuffer<>(4);
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 4; i++) {
+                assertTrue(buffer.offer(i));
+            }
+            assertFalse(buffer.offer(4));
+            assertEquals(4, buffer.size());
+            for (int i = 0; i < 4; i++) {
+                assertEquals(Integer.valueOf(i), buffer.poll());
+            }
+            assertNull(buffer.poll());
+            assertEquals(0, buffer.size());
+        }
+    }
+
+    @Test
+    public void canTransferBetweenThreads() throws Exception {
+        final int n = 1000000;
+        final SpscRingBuffer<Integer> buffer = new SpscRingBuffer<>(64);
+        final int[] errors = new int[1];
+        Thread consumer = new Thread(() -> {
+            int attempt = 0;
+            for (int expected = 0; expected < n; ) {
+                Integer i = buffer.poll();
+                if (i == null) {
+                    WaitStrategy.YIELD.idle(attempt++);
+                    continue;
+                }
+                attempt = 0;
+                if (i != expected++) {
+                    errors[0]++;
+                }
+            }
+        });
+        consumer.start();
+        for (int i = 0; i < n; i++) {
+            buffer.put(i, WaitStrategy.YIELD);
+        }
+        consumer.join();
+
+        assertEquals(0, errors[0]);
+        assertNull(buffer.poll());
+    }
+
+}
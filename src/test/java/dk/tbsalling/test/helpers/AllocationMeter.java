@@ -0,0 +1,97 @@
+/*
+ * AISMessages
+ * - a java-based library for decoding of AIS messages from digital VHF radio traffic related
+ * to maritime navigation and safety in compliance with ITU 1371.
+ *
+ * (C) Copyright 2011- by S-Consult ApS, DK31327490, http://s-consult.dk, Denmark.
+ *
+ * Released under the Creative Commons Attribution-NonCommercial-ShareAlike 3.0 Unported License.
+ * For details of this license see the nearby LICENCE-full file, visit http://creativecommons.org/licenses/by-nc-sa/3.0/
+ * or send a letter to Creative Commons, 171 Second Street, Suite 300, San Francisco, California, 94105, USA.
+ *
+ * NOT FOR COMMERCIAL USE!
+ * Contact sales@s-consult.dk to obtain a commercially licensed version of this software.
+ *
+ */
+
+package dk.tbsalling.test.helpers;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures the bytes allocated by the current thread per operation, using the per-thread allocation
+ * counter of HotSpot's ThreadMXBean.
+ *
+ * The operation is first run enough times for the JIT compiler to compile it, so that allocations which
+ * are eliminated in compiled code are not counted. It is then measured over several rounds, and the
+ * smallest round is reported, so that one-off allocations, e.g. by class loading, do not fail a budget.
+ */
+public final class AllocationMeter {
+
+    public static final int DEFAULT_WARMUPS = 20000;
+    public static final int DEFAULT_OPERATIONS = 10000;
+    public static final int DEFAULT_ROUNDS = 5;
+
+    private static final com.sun.management.ThreadMXBean THREADS = threads();
+
+    /** An operation to measure, which may throw. */
+    public interface Operation {
+        void run() throws Exception;
+    }
+
+    private AllocationMeter() {
+    }
+
+    /** @return true if the allocated bytes of a thread can be measured in this JVM. */
+    public static boolean isSupported() {
+        return THREADS != null;
+    }
+
+    /** @return The bytes allocated per operation, with the default number of warmups, operations and rounds. */
+    public static long bytesPerOperation(Operation operation) throws Exception {
+        return bytesPerOperation(DEFAULT_WARMUPS, DEFAULT_OPERATIONS, DEFAULT_ROUNDS, operation);
+    }
+
+    /**
+     * @param warmups The number of times to run the operation before measuring.
+     * @param operations The number of times to run the operation in each round.
+     * @param rounds The number of rounds to measure.
+     * @param operation The operation to measure.
+     * @return The bytes allocated per operation in the round which allocated the least; rounded down.
+     */
+    public static long bytesPerOperation(int warmups, int operations, int rounds, Operation operation) throws Exception {
+        if (!isSupported()) {
+            throw new UnsupportedOperationException("Thread allocation measurement is not supported by this JVM");
+        }
+        for (int i = 0; i < warmups; i++) {
+            operation.run();
+        }
+        final long threadId = Thread.currentThread().getId();
+        long least = Long.MAX_VALUE;
+        for (int round = 0; round < rounds; round++) {
+            final long before = THREADS.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < operations; i++) {
+                operation.run();
+            }
+            final long after = THREADS.getThreadAllocatedBytes(threadId);
+            least = Math.min(least, after - before);
+        }
+        return least / operations;
+    }
+
+    private static com.sun.management.ThreadMXBean threads() {
+        final java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            return null;
+        }
+        final com.sun.management.ThreadMXBean hotSpotThreads = (com.sun.management.ThreadMXBean) threads;
+        if (!hotSpotThreads.isThreadAllocatedMemorySupported()) {
+            return null;
+        }
+        if (!hotSpotThreads.isThreadAllocatedMemoryEnabled()) {
+            hotSpotThreads.setThreadAllocatedMemoryEnabled(true);
+        }
+        return hotSpotThreads;
+    }
+
+}